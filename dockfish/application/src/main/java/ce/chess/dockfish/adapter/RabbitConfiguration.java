@@ -17,6 +17,17 @@ public class RabbitConfiguration {
   public static final String CHANNEL_EVALUATION = "evaluation";
   public static final String CHANNEL_STATIC_EVALUATION_REQUEST = "staticevaluationrequest";
   public static final String CHANNEL_STATIC_EVALUATION = "staticevaluation";
+  public static final String CHANNEL_GAME_ANALYSIS_REQUEST = "gameanalysisrequest";
+  public static final String CHANNEL_PLY_EVALUATION = "plyevaluation";
+  public static final String CHANNEL_GAME_ANALYSIS = "gameanalysis";
+  public static final String CHANNEL_CORPUS_REQUEST = "corpusrequest";
+  public static final String CHANNEL_CORPUS_INDEX = "corpusindex";
+  public static final String CHANNEL_CORPUS_TASK = "corpustask";
+  public static final String CHANNEL_OPENING_TREE_REQUEST = "openingtreerequest";
+  public static final String CHANNEL_OPENING_TREE_ANALYSIS = "openingtreeanalysis";
+  public static final String CHANNEL_FAN_OUT_REQUEST = "fanoutrequest";
+  public static final String CHANNEL_FAN_OUT_TASK = "fanouttask";
+  public static final String CHANNEL_FAN_OUT_EVALUATION = "fanoutevaluation";
 
   private static final String RABBITMQ_HOST_PROPERTY = "rabbitmq_host";
   private static final String RABBITMQ_PORT_PROPERTY = "rabbitmq_port";
@@ -2,25 +2,49 @@ package ce.chess.dockfish.adapter.common.chess;
 
 import static java.util.function.Predicate.not;
 
+import ce.chess.dockfish.domain.model.fanout.RootMove;
+import ce.chess.dockfish.domain.model.gameanalysis.GameLine;
 import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
+import ce.chess.dockfish.domain.model.result.Variation;
 import ce.chess.dockfish.usecase.out.chess.CreateGamePosition;
+import ce.chess.dockfish.usecase.out.chess.HashPosition;
+import ce.chess.dockfish.usecase.out.chess.ListRootMoves;
+import ce.chess.dockfish.usecase.out.chess.ReadGameLine;
+import ce.chess.dockfish.usecase.out.chess.RenderLine;
 
 import com.google.common.base.Strings;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import lombok.extern.log4j.Log4j2;
 import raptor.chess.Game;
+import raptor.chess.GameConstants;
 import raptor.chess.GameFactory;
+import raptor.chess.IntMove;
+import raptor.chess.IntMoveList;
+import raptor.chess.Move;
+import raptor.chess.MoveList;
+import raptor.chess.Position;
 import raptor.chess.Result;
+import raptor.chess.pgn.Comment;
 import raptor.chess.pgn.ListMaintainingPgnParserListener;
 import raptor.chess.pgn.PgnHeader;
 import raptor.chess.pgn.PgnParser;
 import raptor.chess.pgn.PgnParserError;
+import raptor.chess.pgn.PgnUtils;
 import raptor.chess.pgn.SimplePgnParser;
+import raptor.chess.util.GameUtils;
 
 @ApplicationScoped
 @Log4j2
-public class GamePositionService implements CreateGamePosition {
+public class GamePositionService
+    implements CreateGamePosition, RenderLine, HashPosition, ReadGameLine, ListRootMoves {
+  private static final int MATE_SCORE = 9999;
+
+  private volatile ReplayStart lastReplayStart;
 
   @Override
   public GamePosition createFrom(String pgn) {
@@ -33,6 +57,170 @@ public class GamePositionService implements CreateGamePosition {
         .build();
   }
 
+  @Override
+  public String lineSan(GamePosition startingPosition, PackedMoves pv) {
+    Game raptorGame = GameFactory.createFromPosition(replayStart(startingPosition));
+    StringBuilder lineText = new StringBuilder(pv.size() * 8);
+    for (int i = 0; i < pv.size(); i++) {
+      if (i > 0) {
+        lineText.append(' ');
+      }
+      if (raptorGame.isWhitesMove()) {
+        lineText.append(raptorGame.getFullMoveCount()).append(". ");
+      } else if (i == 0) {
+        lineText.append(raptorGame.getFullMoveCount()).append(". ... ");
+      }
+      raptorGame.makeUciMove(pv.fromSquare(i), pv.toSquare(i), pv.promotedPiece(i), lineText);
+    }
+    return lineText.toString();
+  }
+
+  /**
+   * The lines of an analysis all start from the same position, so its PGN is only parsed again when the starting
+   * position changes. The position is immutable and shared by all threads rendering lines.
+   */
+  Position replayStart(GamePosition startingPosition) {
+    return replayStartFor(startingPosition.getPgn()).position();
+  }
+
+  private ReplayStart replayStartFor(String pgn) {
+    ReplayStart replayStart = lastReplayStart;
+    if (replayStart == null || !replayStart.pgn().equals(pgn)) {
+      replayStart = ReplayStart.of(pgn, raptorGameFor(pgn));
+      lastReplayStart = replayStart;
+    }
+    return replayStart;
+  }
+
+  @Override
+  public GamePosition createFrom(GamePosition startingPosition, PackedMoves pv, String comment) {
+    ReplayStart replayStart = replayStartFor(startingPosition.getPgn());
+    Game raptorGame = replayStart.newGame();
+    makeMoves(raptorGame, pv);
+    return linePosition(replayStart, raptorGame, comment);
+  }
+
+  /**
+   * Plays the moves of a variation in SAN on another starting position of the same position, so that the moves are
+   * numbered and the PGN continues from that start. The comment of the line is kept.
+   */
+  @Override
+  public Variation transpose(GamePosition startingPosition, Variation variation) {
+    ReplayStart replayStart = replayStartFor(startingPosition.getPgn());
+    Game raptorGame = replayStart.newGame();
+    StringBuilder lineText = new StringBuilder(variation.getMoves().length());
+    for (String word : variation.getMoves().split(" ")) {
+      if (word.isEmpty() || !Character.isLetter(word.charAt(0))) {
+        continue;
+      }
+      if (!lineText.isEmpty()) {
+        lineText.append(' ');
+      }
+      if (raptorGame.isWhitesMove()) {
+        lineText.append(raptorGame.getFullMoveCount()).append(". ");
+      } else if (lineText.isEmpty()) {
+        lineText.append(raptorGame.getFullMoveCount()).append(". ... ");
+      }
+      lineText.append(raptorGame.makeSanMove(word));
+    }
+    return Variation.builder()
+        .pvId(variation.getPvId())
+        .moves(lineText.toString())
+        .score(variation.getScore())
+        .depth(variation.getDepth())
+        .time(variation.getTime())
+        .gamePosition(linePosition(replayStart, raptorGame, lastComment(variation.getPgn())))
+        .build();
+  }
+
+  private static GamePosition linePosition(ReplayStart replayStart, Game raptorGame, String comment) {
+    MoveList raptorMoveList = raptorGame.getMoveList();
+    if (raptorMoveList.getSize() > 0 && comment != null) {
+      Comment gameComment = new Comment(comment);
+      raptorMoveList.get(0).addAnnotation(gameComment);
+      raptorMoveList.getLast().addAnnotation(gameComment);
+    }
+    return GamePosition.builder()
+        .pgn(replayStart.pgnWith(raptorMoveList))
+        .fen(raptorGame.toFen())
+        .lastMovePly(raptorGame.getHalfMoveCount())
+        .whitesMove(raptorGame.isWhitesMove())
+        .build();
+  }
+
+  private static String lastComment(String pgn) {
+    int start = pgn == null ? -1 : pgn.lastIndexOf('{');
+    int end = start < 0 ? -1 : pgn.indexOf('}', start);
+    return end < 0 ? null : pgn.substring(start + 1, end);
+  }
+
+  @Override
+  public long positionHash(GamePosition gamePosition) {
+    return raptorGameFor(gamePosition.getPgn()).getZobristHash();
+  }
+
+  @Override
+  public GameLine readGameLine(String pgn) {
+    Game raptorGame = raptorGameFor(pgn);
+    MoveList moveList = raptorGame.getMoveList();
+    GameLine.GameLineBuilder gameLine = GameLine.builder()
+        .startingFen(Strings.isNullOrEmpty(raptorGame.getHeader(PgnHeader.FEN))
+            ? GameConstants.STARTING_POSITION_FEN
+            : raptorGame.getHeader(PgnHeader.FEN))
+        .startingPly(raptorGame.getHalfMoveCount() - moveList.getSize());
+    for (int i = 0; i < moveList.getSize(); i++) {
+      Move move = moveList.get(i);
+      gameLine.uciMove(uciMove(move)).sanMove(move.getSan());
+    }
+    IntMoveList legalMoves = new IntMoveList();
+    raptorGame.generateLegalMoves(legalMoves);
+    return gameLine
+        .checkmate(legalMoves.getSize() == 0 && raptorGame.isInCheck(raptorGame.getColorToMove()))
+        .build();
+  }
+
+  @Override
+  public List<RootMove> listRootMoves(String pgn) {
+    ReplayStart replayStart = ReplayStart.of(pgn, raptorGameFor(pgn));
+    IntMoveList legalMoves = new IntMoveList();
+    replayStart.newGame().generateLegalMoves(legalMoves);
+    List<RootMove> rootMoves = new ArrayList<>(legalMoves.getSize());
+    for (int i = 0; i < legalMoves.getSize(); i++) {
+      rootMoves.add(rootMove(replayStart, legalMoves.get(i)));
+    }
+    return rootMoves;
+  }
+
+  private static RootMove rootMove(ReplayStart replayStart, int move) {
+    Game raptorGame = replayStart.newGame();
+    boolean whiteMoves = raptorGame.isWhitesMove();
+    StringBuilder line = new StringBuilder(16)
+        .append(raptorGame.getFullMoveCount())
+        .append(whiteMoves ? ". " : ". ... ");
+    raptorGame.makeUciMove(IntMove.from(move), IntMove.to(move), IntMove.piecePromotedTo(move), line);
+    IntMoveList replies = new IntMoveList();
+    raptorGame.generateLegalMoves(replies);
+    Integer gameOverScore = null;
+    if (replies.getSize() == 0) {
+      // scores are those of white, stalemate is a draw
+      gameOverScore = raptorGame.isInCheck(raptorGame.getColorToMove()) ? (whiteMoves ? MATE_SCORE : -MATE_SCORE) : 0;
+    }
+    return RootMove.builder()
+        .line(line.toString())
+        .pgn(replayStart.pgnWith(raptorGame.getMoveList()))
+        .gameOverScore(gameOverScore)
+        .build();
+  }
+
+  private static String uciMove(Move move) {
+    String uciMove = GameUtils.getSan(move.getFrom()) + GameUtils.getSan(move.getTo());
+    if (move.isPromotion()) {
+      uciMove += GameConstants.PIECE_TO_SAN.toLowerCase(Locale.ROOT)
+          .charAt(move.getPiecePromotedTo() & GameConstants.NOT_PROMOTED_MASK);
+    }
+    return uciMove;
+  }
+
   public GamePosition createFromFen(String fen) {
     Game raptorGame = raptorGameForFen(fen);
     raptorGame.setHeader(PgnHeader.FEN, fen);
@@ -78,13 +266,19 @@ public class GamePositionService implements CreateGamePosition {
     return result;
   }
 
+  private static void makeMoves(Game raptorGame, PackedMoves pv) {
+    for (int i = 0; i < pv.size(); i++) {
+      raptorGame.makeUciMove(pv.fromSquare(i), pv.toSquare(i), pv.promotedPiece(i));
+    }
+  }
+
   private static boolean errorsOccurred(ListMaintainingPgnParserListener listener) {
     return listener.getErrors().stream()
         .map(PgnParserError::getType)
         .anyMatch(not(PgnParserError.Type.UNEXPECTED_GAME_END::equals));
   }
 
-  private static String fixPgnString(String pgnString) {
+  static String fixPgnString(String pgnString) {
     if (Strings.isNullOrEmpty(pgnString)) {
       throw new IllegalArgumentException("Input PGN must not be empty");
     }
@@ -101,4 +295,84 @@ public class GamePositionService implements CreateGamePosition {
     return pgnOut;
   }
 
+  /**
+   * The parsed starting position of lines or root moves together with its PGN up to the last move, so a line is
+   * appended to the PGN without parsing it again. The text is continued exactly as {@link Game#toPgn()} would write
+   * the whole game.
+   */
+  private record ReplayStart(String pgn, Position position, String moveText, MoveTextWriter.State state,
+                             int unlistedMoves, String result) {
+    static ReplayStart of(String pgn, Game raptorGame) {
+      String startPgn = raptorGame.toPgn();
+      MoveTextWriter writer = new MoveTextWriter(startPgn.substring(0, startPgn.indexOf("\n\n") + 2),
+          MoveTextWriter.State.INITIAL);
+      MoveList moves = raptorGame.getMoveList();
+      for (int i = 0; i < moves.getSize(); i++) {
+        writer.append(moves.get(i));
+      }
+      // a game that starts from a FEN counts the moves before it, Game#toPgn writes no text for them
+      return new ReplayStart(pgn, raptorGame.toPosition(), writer.text(), writer.state(),
+          raptorGame.getHalfMoveCount() - moves.getSize(), raptorGame.getResult().getDescription());
+    }
+
+    Game newGame() {
+      Game raptorGame = GameFactory.createFromPosition(position);
+      raptorGame.addState(Game.UPDATING_SAN_STATE);
+      return raptorGame;
+    }
+
+    String pgnWith(MoveList line) {
+      MoveTextWriter writer = new MoveTextWriter(moveText, state);
+      for (int i = 0; i < line.getSize(); i++) {
+        writer.append(line.get(i));
+      }
+      for (int i = 0; i < unlistedMoves; i++) {
+        writer.append(null);
+      }
+      return writer.text() + result;
+    }
+  }
+
+  /**
+   * Writes the moves of a PGN like {@link Game#toPgn()}: the number of the first move and of each move of white,
+   * and a line break once a line has more than 75 characters of moves.
+   */
+  private static final class MoveTextWriter {
+    private static final int MAX_CHARS_PER_LINE = 75;
+
+    private final StringBuilder builder;
+    private boolean nextMoveRequiresNumber;
+    private int charsInCurrentLine;
+
+    MoveTextWriter(String text, State state) {
+      this.builder = new StringBuilder(text.length() + 128).append(text);
+      this.nextMoveRequiresNumber = state.nextMoveRequiresNumber();
+      this.charsInCurrentLine = state.charsInCurrentLine();
+    }
+
+    void append(Move move) {
+      int charsBefore = builder.length();
+      nextMoveRequiresNumber = PgnUtils.getMove(builder, move, nextMoveRequiresNumber);
+      charsInCurrentLine += builder.length() - charsBefore;
+      if (charsInCurrentLine > MAX_CHARS_PER_LINE) {
+        charsInCurrentLine = 0;
+        builder.append('\n');
+      } else {
+        builder.append(' ');
+      }
+    }
+
+    String text() {
+      return builder.toString();
+    }
+
+    State state() {
+      return new State(nextMoveRequiresNumber, charsInCurrentLine);
+    }
+
+    private record State(boolean nextMoveRequiresNumber, int charsInCurrentLine) {
+      static final State INITIAL = new State(true, 0);
+    }
+  }
+
 }
@@ -0,0 +1,172 @@
+package ce.chess.dockfish.adapter.common.chess;
+
+import static java.util.function.Predicate.not;
+
+import ce.chess.dockfish.domain.model.openingtree.OpeningTree;
+import ce.chess.dockfish.domain.model.openingtree.TreeMove;
+import ce.chess.dockfish.domain.model.openingtree.TreeNode;
+import ce.chess.dockfish.usecase.out.chess.ReadOpeningTree;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+import raptor.chess.Game;
+import raptor.chess.Move;
+import raptor.chess.pgn.LenientPgnParserListener;
+import raptor.chess.pgn.PgnParser;
+import raptor.chess.pgn.PgnParserError;
+import raptor.chess.pgn.SimplePgnParser;
+
+/**
+ * Reads all games of a PGN with their variations into one tree. Positions are identified by the same Zobrist hash as
+ * in {@link GamePositionService#positionHash}, so transpositions share one node.
+ */
+@ApplicationScoped
+@Log4j2
+public class OpeningTreeReader implements ReadOpeningTree {
+
+  @Override
+  public OpeningTree readOpeningTree(String pgn) {
+    PgnParser parser = new SimplePgnParser(GamePositionService.fixPgnString(pgn));
+    TreeBuildingListener listener = new TreeBuildingListener();
+    parser.addPgnParserListener(listener);
+
+    parser.parse();
+
+    List<PgnParserError> errors = listener.errors.stream()
+        .filter(not(error -> error.getType() == PgnParserError.Type.UNEXPECTED_GAME_END))
+        .toList();
+    if (!errors.isEmpty()) {
+      throw new IllegalArgumentException("Invalid pgn: " + errors);
+    }
+    OpeningTree openingTree = listener.toOpeningTree();
+    log.info("Read opening tree with {} positions and {} leaves",
+        openingTree.getNodes().size(), openingTree.getLeaves().size());
+    return openingTree;
+  }
+
+  /**
+   * A variation replaces the last move, so the game is rolled back one move when it starts and returns to the line it
+   * came from when it ends.
+   */
+  private static final class TreeBuildingListener extends LenientPgnParserListener {
+    private final List<PgnParserError> errors = new ArrayList<>();
+    private final Map<Long, NodeBuilder> nodes = new LinkedHashMap<>();
+    private final Deque<Subline> sublines = new ArrayDeque<>();
+
+    @Override
+    public void errorEncountered(PgnParserError error) {
+      errors.add(error);
+    }
+
+    @Override
+    public boolean gameParsed(Game game, int lineNumber) {
+      return false;
+    }
+
+    @Override
+    protected void createGameFromHeaders(PgnParser parser) {
+      super.createGameFromHeaders(parser);
+      if (!isIgnoringCurrentGame) {
+        if (!nodes.isEmpty() && !nodes.containsKey(currentGame.getZobristHash())) {
+          throw new IllegalArgumentException("All games of an opening tree must start from the same position");
+        }
+        nodeFor(currentGame, false);
+      }
+    }
+
+    @Override
+    protected Move makeGameMoveFromWord(String word) {
+      NodeBuilder nodeBefore = nodes.get(currentGame.getZobristHash());
+      Move move = super.makeGameMoveFromWord(word);
+      NodeBuilder nodeAfter = nodeFor(currentGame, move.getSan().endsWith("#"));
+      nodeBefore.moves.putIfAbsent(move.getSan(), nodeAfter.positionHash);
+      return move;
+    }
+
+    @Override
+    public void onSublineStart(PgnParser parser) {
+      if (isIgnoringCurrentGame || !isParsingGameMoves) {
+        return;
+      }
+      if (currentGame.getMoveList().getSize() == 0) {
+        errorEncountered(new PgnParserError(PgnParserError.Type.UNEXPECTED_SUBLINE_START,
+            PgnParserError.Action.IGNORING_CURRENT_GAME, parser.getLineNumber()));
+        isIgnoringCurrentGame = true;
+        return;
+      }
+      String replacedMove = currentGame.getMoveList().getLast().getSan();
+      currentGame.rollback();
+      sublines.push(new Subline(currentGame.getMoveList().getSize(), replacedMove));
+    }
+
+    @Override
+    public void onSublineEnd(PgnParser parser) {
+      if (isIgnoringCurrentGame || !isParsingGameMoves) {
+        return;
+      }
+      if (sublines.isEmpty()) {
+        errorEncountered(new PgnParserError(PgnParserError.Type.UNEXPECTED_SUBLINE_END,
+            PgnParserError.Action.IGNORING, parser.getLineNumber()));
+        return;
+      }
+      Subline subline = sublines.pop();
+      while (currentGame.getMoveList().getSize() > subline.movesBefore()) {
+        currentGame.rollback();
+      }
+      currentMoveInfo = currentGame.makeSanMove(subline.replacedMove());
+    }
+
+    @Override
+    protected void setStateToSearchingForNewGame() {
+      super.setStateToSearchingForNewGame();
+      sublines.clear();
+    }
+
+    private NodeBuilder nodeFor(Game game, boolean checkmate) {
+      return nodes.computeIfAbsent(game.getZobristHash(),
+          hash -> new NodeBuilder(hash, game.toFen(), game.isWhitesMove(), checkmate));
+    }
+
+    OpeningTree toOpeningTree() {
+      return new OpeningTree(nodes.values().stream()
+          .map(NodeBuilder::toTreeNode)
+          .toList());
+    }
+  }
+
+  private record Subline(int movesBefore, String replacedMove) {
+  }
+
+  private static final class NodeBuilder {
+    private final long positionHash;
+    private final String fen;
+    private final boolean whitesMove;
+    private final boolean checkmate;
+    private final Map<String, Long> moves = new LinkedHashMap<>();
+
+    NodeBuilder(long positionHash, String fen, boolean whitesMove, boolean checkmate) {
+      this.positionHash = positionHash;
+      this.fen = fen;
+      this.whitesMove = whitesMove;
+      this.checkmate = checkmate;
+    }
+
+    TreeNode toTreeNode() {
+      return TreeNode.builder()
+          .positionHash(positionHash)
+          .fen(fen)
+          .whitesMove(whitesMove)
+          .checkmate(checkmate)
+          .moves(moves.entrySet().stream()
+              .map(move -> new TreeMove(move.getKey(), move.getValue()))
+              .toList())
+          .build();
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package ce.chess.dockfish.adapter.common.chess;
+
+import ce.chess.dockfish.domain.model.corpus.CorpusPosition;
+import ce.chess.dockfish.domain.model.corpus.CorpusPositions;
+import ce.chess.dockfish.domain.model.corpus.PositionOccurrence;
+import ce.chess.dockfish.usecase.out.chess.ExtractPositions;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.log4j.Log4j2;
+import raptor.chess.Game;
+import raptor.chess.pgn.PgnParser;
+import raptor.chess.pgn.PgnParserError;
+import raptor.chess.pgn.SimplePgnParser;
+import raptor.chess.pgn.StreamingPgnParserListener;
+
+/**
+ * Parses a corpus one game at a time and replays each game in parallel while the next ones are parsed. Positions are identified by the same
+ * Zobrist hash as in {@link GamePositionService#positionHash}, so transpositions are merged.
+ */
+@ApplicationScoped
+@Log4j2
+public class PositionExtractor implements ExtractPositions {
+  private static final Comparator<PositionOccurrence> GAME_ORDER =
+      Comparator.comparingInt(PositionOccurrence::getGame).thenComparingInt(PositionOccurrence::getPly);
+
+  @Override
+  public CorpusPositions extractPositions(String pgn, int maxPly) {
+    CorpusReplay corpusReplay = new CorpusReplay(maxPly);
+    PgnParser parser = new SimplePgnParser(new StringReader(GamePositionService.fixPgnString(pgn)));
+    parser.addPgnParserListener(new StreamingPgnParserListener(corpusReplay::replay, corpusReplay::error));
+    parser.parse();
+    corpusReplay.awaitReplays();
+    Map<Long, PositionAccumulator> positions = corpusReplay.positions;
+    log.info("Extracted {} unique positions from {} games, skipped {} invalid games",
+        positions.size(), corpusReplay.gameCount, corpusReplay.skippedGames);
+    return new CorpusPositions(corpusReplay.gameCount, positions.values().stream()
+        .map(PositionAccumulator::toCorpusPosition)
+        .toList());
+  }
+
+  private static void extractGame(int gameNumber, Game game, int maxPly, Map<Long, PositionAccumulator> positions) {
+    int movesPlayed = game.getMoveList().getSize();
+    while (movesPlayed > maxPly) {
+      game.rollback();
+      movesPlayed--;
+    }
+    addPosition(gameNumber, movesPlayed, game, positions);
+    while (movesPlayed > 0) {
+      game.rollback();
+      movesPlayed--;
+      addPosition(gameNumber, movesPlayed, game, positions);
+    }
+  }
+
+  private static void addPosition(int gameNumber, int movesPlayed, Game game,
+                                  Map<Long, PositionAccumulator> positions) {
+    PositionOccurrence occurrence = new PositionOccurrence(gameNumber, movesPlayed);
+    positions.compute(game.getZobristHash(), (hash, accumulator) -> {
+      PositionAccumulator result = accumulator == null ? new PositionAccumulator(hash) : accumulator;
+      result.add(occurrence, game);
+      return result;
+    });
+  }
+
+  /**
+   * Numbers the games in the order of the corpus and replays each one in the common pool as soon as it is parsed, so
+   * only a few games are held at a time. A game that the parser ignores, e.g. for an illegal move, is counted and
+   * skipped.
+   */
+  private static final class CorpusReplay {
+    private static final int MAX_GAMES_IN_REPLAY = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final Map<Long, PositionAccumulator> positions = new ConcurrentHashMap<>();
+    private final Semaphore gamesInReplay = new Semaphore(MAX_GAMES_IN_REPLAY);
+    private final AtomicReference<RuntimeException> replayFailure = new AtomicReference<>();
+    private final int maxPly;
+    private int gameCount;
+    private int skippedGames;
+
+    CorpusReplay(int maxPly) {
+      this.maxPly = maxPly;
+    }
+
+    void replay(Game game) {
+      int gameNumber = ++gameCount;
+      gamesInReplay.acquireUninterruptibly();
+      CompletableFuture.runAsync(() -> extractGame(gameNumber, game, maxPly, positions))
+          .whenComplete((ignored, ex) -> {
+            if (ex != null) {
+              replayFailure.compareAndSet(null, new IllegalStateException("Failed to replay game " + gameNumber, ex));
+            }
+            gamesInReplay.release();
+          });
+    }
+
+    void error(PgnParserError error) {
+      if (error.getAction() == PgnParserError.Action.IGNORING_CURRENT_GAME
+          && error.getType() != PgnParserError.Type.UNEXPECTED_GAME_END) {
+        gameCount++;
+        skippedGames++;
+        log.warn("Skip game {}: {}", gameCount, error);
+      }
+    }
+
+    void awaitReplays() {
+      gamesInReplay.acquireUninterruptibly(MAX_GAMES_IN_REPLAY);
+      gamesInReplay.release(MAX_GAMES_IN_REPLAY);
+      RuntimeException failure = replayFailure.get();
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
+  /**
+   * Only changed inside {@link Map#compute}, which runs one change of a key at a time.
+   */
+  private static final class PositionAccumulator {
+    private final long positionHash;
+    private final List<PositionOccurrence> occurrences = new ArrayList<>();
+    private PositionOccurrence first;
+    private String fen;
+
+    PositionAccumulator(long positionHash) {
+      this.positionHash = positionHash;
+    }
+
+    void add(PositionOccurrence occurrence, Game game) {
+      occurrences.add(occurrence);
+      if (first == null || GAME_ORDER.compare(occurrence, first) < 0) {
+        // games are replayed in any order, the FEN of the earliest occurrence keeps the result stable
+        first = occurrence;
+        fen = game.toFen();
+      }
+    }
+
+    CorpusPosition toCorpusPosition() {
+      return CorpusPosition.builder()
+          .positionHash(positionHash)
+          .fen(fen)
+          .occurrences(occurrences.stream().sorted(GAME_ORDER).toList())
+          .build();
+    }
+  }
+}
@@ -24,6 +24,7 @@ public abstract class SubmitTaskCommandMapper {
   @Mapping(target = "engineOption", ignore = true)
   @Mapping(target = "hostname", ignore = true)
   @Mapping(target = "uciEngineName", ignore = true)
+  @Mapping(target = "priority", ignore = true)
   public abstract AnalysisRun toDomainObject(SubmitTaskCommand submitTaskCommand, LocalDateTime created);
 
   @Named("mapStartingPosition")
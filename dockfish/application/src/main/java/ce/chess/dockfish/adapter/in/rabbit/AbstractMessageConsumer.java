@@ -5,7 +5,10 @@ import ce.chess.dockfish.domain.model.RequeueException;
 import io.smallrye.reactive.messaging.rabbitmq.RabbitMQRejectMetadata;
 import io.vertx.core.json.JsonObject;
 import jakarta.inject.Inject;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import lombok.extern.log4j.Log4j2;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
@@ -16,6 +19,22 @@ public abstract class AbstractMessageConsumer {
   IncomingRabbitMessageConverter incomingRabbitMessageConverter;
 
   protected CompletionStage<Void> consumeMessage(Message<JsonObject> incomingMessage) {
+    return consumeMessage(incomingMessage, Runnable::run);
+  }
+
+  /**
+   * Handles the content on the executor. The message is acknowledged when the content is handled, the calling thread
+   * returns right away.
+   */
+  protected CompletionStage<Void> consumeMessage(Message<JsonObject> incomingMessage, Executor executor) {
+    return consumeMessage(incomingMessage, rabbitMessageWrapper -> executor);
+  }
+
+  /**
+   * Like {@link #consumeMessage(Message, Executor)}, but the executor is chosen for each message.
+   */
+  protected CompletionStage<Void> consumeMessage(Message<JsonObject> incomingMessage,
+                                                 Function<IncomingRabbitMessageWrapper, Executor> executorSelector) {
     IncomingRabbitMessageWrapper rabbitMessageWrapper;
     try {
       rabbitMessageWrapper = incomingRabbitMessageConverter.convert(incomingMessage);
@@ -29,10 +48,17 @@ public abstract class AbstractMessageConsumer {
         rabbitMessageWrapper.headers(),
         rabbitMessageWrapper.jsonObject());
 
-    try {
-      handleContent(rabbitMessageWrapper.jsonObject());
-      return incomingMessage.ack();
-    } catch (RequeueException exception) { // NOPMD
+    Executor executor = executorSelector.apply(rabbitMessageWrapper);
+    return CompletableFuture.runAsync(() -> handleMessage(rabbitMessageWrapper), executor)
+        .handle((result, thrown) -> thrown)
+        .thenCompose(thrown -> thrown == null
+            ? incomingMessage.ack()
+            : nack(incomingMessage, rabbitMessageWrapper, thrown.getCause()));
+  }
+
+  private static CompletionStage<Void> nack(Message<JsonObject> incomingMessage,
+                                            IncomingRabbitMessageWrapper rabbitMessageWrapper, Throwable exception) {
+    if (exception instanceof RequeueException) {
       if (rabbitMessageWrapper.isRedeliver()) {
         log.error("Consumer {}: Nacking redelivered message {}",
             rabbitMessageWrapper.getTopic(), rabbitMessageWrapper.correlationId(),
@@ -44,12 +70,15 @@ public abstract class AbstractMessageConsumer {
             exception);
         return incomingMessage.nack(exception, Metadata.of(new RabbitMQRejectMetadata(true)));
       }
-    } catch (RuntimeException exception) { // NOPMD
-      log.error("Consumer {}: Nacking message {}",
-          rabbitMessageWrapper.getTopic(), rabbitMessageWrapper.correlationId(),
-          exception);
-      return incomingMessage.nack(exception);
     }
+    log.error("Consumer {}: Nacking message {}",
+        rabbitMessageWrapper.getTopic(), rabbitMessageWrapper.correlationId(),
+        exception);
+    return incomingMessage.nack(exception);
+  }
+
+  protected void handleMessage(IncomingRabbitMessageWrapper rabbitMessageWrapper) {
+    handleContent(rabbitMessageWrapper.jsonObject());
   }
 
   protected abstract void handleContent(JsonObject jsonObject);
@@ -0,0 +1,77 @@
+package ce.chess.dockfish.adapter.in.rabbit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+/**
+ * Runs analyses off the messaging threads, one thread per engine slot. The tasks that were taken from the broker
+ * beyond the free slots wait in the {@link FairShareScheduler}; how many are taken is limited by the task credits of
+ * the {@link TaskSubmittedMessageConsumer}, not by the free slots. A task that preempts an analysis runs on a thread
+ * of its own, because the preempted analysis keeps its slot to resume afterwards.
+ */
+@ApplicationScoped
+@Log4j2
+class EngineSlotExecutor implements Executor {
+  static final String ENGINE_SLOTS_PROPERTY = "engine_slots";
+
+  @ConfigProperty(name = ENGINE_SLOTS_PROPERTY, defaultValue = "1")
+  int engineSlots;
+
+  private final AtomicInteger busySlots = new AtomicInteger();
+
+  private ExecutorService executorService;
+
+  private ExecutorService preemptingExecutorService;
+
+  @PostConstruct
+  void start() {
+    log.info("Running analyses on {} engine slots", engineSlots);
+    executorService = Executors.newFixedThreadPool(engineSlots, Thread.ofPlatform().name("engine-slot-", 1).factory());
+    preemptingExecutorService =
+        Executors.newCachedThreadPool(Thread.ofPlatform().name("engine-slot-preempting-", 1).factory());
+  }
+
+  @PreDestroy
+  void stop() {
+    executorService.shutdownNow();
+    preemptingExecutorService.shutdownNow();
+  }
+
+  @Override
+  public void execute(Runnable analysis) {
+    execute(analysis, executorService);
+  }
+
+  int getEngineSlots() {
+    return engineSlots;
+  }
+
+  Executor preempting() {
+    return analysis -> execute(analysis, preemptingExecutorService);
+  }
+
+  private void execute(Runnable analysis, ExecutorService slotExecutorService) {
+    slotExecutorService.execute(() -> {
+      busySlots.incrementAndGet();
+      try {
+        analysis.run();
+      } finally {
+        busySlots.decrementAndGet();
+      }
+    });
+  }
+
+  @Gauge(name = "engine_slots_busy", absolute = true, unit = MetricUnits.NONE)
+  public int getBusySlots() {
+    return busySlots.get();
+  }
+}
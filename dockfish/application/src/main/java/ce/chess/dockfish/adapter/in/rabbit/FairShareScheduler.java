@@ -0,0 +1,242 @@
+package ce.chess.dockfish.adapter.in.rabbit;
+
+import ce.chess.dockfish.usecase.in.ReceiveAnalysisRequest;
+
+import com.google.common.base.Splitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+
+/**
+ * Shares the engine slots between tenants by weighted fair queuing. The tasks that were taken from the broker wait
+ * here per tenant, and a free slot goes to the waiting tenant that has used the least engine time relative to its
+ * weight. The time an analysis waits for the engine, e.g. while it is preempted, counts as waiting time, not as
+ * engine time. A tenant that starts waiting is not credited for the time it was idle, so it cannot claim the engine
+ * for that long. The weights are configured as "tenant_weights", e.g. "analysts=3,corpus=1"; the default weight is 1
+ * and a weight must be at least 1. Idle tenants are forgotten together with their queue depth gauge once they are no
+ * longer ahead of the active tenants, their wait and engine time keep adding up.
+ */
+@ApplicationScoped
+@Log4j2
+class FairShareScheduler {
+  static final String TENANT_WEIGHTS_PROPERTY = "tenant_weights";
+  private static final int DEFAULT_WEIGHT = 1;
+  private static final String QUEUE_DEPTH_GAUGE = "tenant_queue_depth";
+  private static final String WAIT_SECONDS_GAUGE = "tenant_wait_seconds";
+  private static final String ENGINE_SECONDS_GAUGE = "tenant_engine_seconds";
+
+  private final Executor slotExecutor;
+  private final Map<String, Integer> weights;
+  private final Optional<MetricRegistry> metricRegistry;
+  private final LongSupplier nanoClock;
+  private final LongSupplier engineWaitNanos;
+  private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+  private final Map<String, TenantTimes> tenantTimes = new HashMap<>();
+  private int freeSlots;
+
+  @Inject
+  FairShareScheduler(EngineSlotExecutor engineSlotExecutor, ReceiveAnalysisRequest receiveAnalysisRequest,
+                     Config config, Instance<MetricRegistry> metricRegistry) {
+    this(engineSlotExecutor, engineSlotExecutor.getEngineSlots(),
+        config.getOptionalValue(TENANT_WEIGHTS_PROPERTY, String.class).map(FairShareScheduler::parseWeights)
+            .orElse(Map.of()),
+        metricRegistry.isResolvable() ? Optional.of(metricRegistry.get()) : Optional.empty(),
+        System::nanoTime, () -> receiveAnalysisRequest.getEngineWaitOfCurrentThread().toNanos());
+  }
+
+  FairShareScheduler(Executor slotExecutor, int slots, Map<String, Integer> weights,
+                     Optional<MetricRegistry> metricRegistry, LongSupplier nanoClock, LongSupplier engineWaitNanos) {
+    this.slotExecutor = slotExecutor;
+    this.freeSlots = slots;
+    this.weights = weights;
+    this.metricRegistry = metricRegistry;
+    this.nanoClock = nanoClock;
+    this.engineWaitNanos = engineWaitNanos;
+  }
+
+  static Map<String, Integer> parseWeights(String tenantWeights) {
+    Map<String, String> weightsByTenant = Splitter.on(',').omitEmptyStrings().trimResults()
+        .withKeyValueSeparator(Splitter.on('=').trimResults())
+        .split(tenantWeights);
+    Map<String, Integer> result = new LinkedHashMap<>();
+    weightsByTenant.forEach((tenant, weight) -> {
+      int parsedWeight = Integer.parseInt(weight);
+      if (parsedWeight < 1) {
+        throw new IllegalArgumentException("Weight of tenant " + tenant + " must be at least 1, but is " + weight);
+      }
+      result.put(tenant, parsedWeight);
+    });
+    return result;
+  }
+
+  Executor forTenant(String tenantName) {
+    return analysis -> submit(tenantName, analysis);
+  }
+
+  synchronized int getQueueDepth(String tenantName) {
+    return Optional.ofNullable(tenants.get(tenantName)).map(tenant -> tenant.waiting.size()).orElse(0);
+  }
+
+  synchronized long getWaitSeconds(String tenantName) {
+    return Optional.ofNullable(tenantTimes.get(tenantName)).map(times -> seconds(times.waitNanos)).orElse(0L);
+  }
+
+  synchronized long getEngineSeconds(String tenantName) {
+    return Optional.ofNullable(tenantTimes.get(tenantName)).map(times -> seconds(times.engineNanos)).orElse(0L);
+  }
+
+  private synchronized void submit(String tenantName, Runnable analysis) {
+    Tenant tenant = tenants.computeIfAbsent(tenantName, this::newTenant);
+    if (!tenant.isActive()) {
+      // an idle tenant starts level with the least served active tenant, not with the credit of its idle time
+      tenant.virtualNanos = Math.max(tenant.virtualNanos, minimumVirtualNanosOfActiveTenants());
+    }
+    tenant.waiting.add(new WaitingAnalysis(analysis, nanoClock.getAsLong()));
+    dispatch();
+  }
+
+  private void dispatch() {
+    while (freeSlots > 0) {
+      Optional<Tenant> next = tenants.values().stream()
+          .filter(tenant -> !tenant.waiting.isEmpty())
+          .min(Comparator.comparingLong((Tenant tenant) -> tenant.virtualNanos)
+              .thenComparingLong(tenant -> tenant.waiting.getFirst().enqueuedNanos()));
+      if (next.isEmpty()) {
+        return;
+      }
+      Tenant tenant = next.get();
+      WaitingAnalysis analysis = tenant.waiting.removeFirst();
+      long startNanos = nanoClock.getAsLong();
+      tenant.times.waitNanos += startNanos - analysis.enqueuedNanos();
+      tenant.running++;
+      freeSlots--;
+      log.info("Starting task of tenant [{}], {} more waiting", tenant.name, tenant.waiting.size());
+      slotExecutor.execute(() -> {
+        long engineWaitBefore = engineWaitNanos.getAsLong();
+        try {
+          analysis.runnable().run();
+        } finally {
+          finished(tenant, nanoClock.getAsLong() - startNanos, engineWaitNanos.getAsLong() - engineWaitBefore);
+        }
+      });
+    }
+  }
+
+  private synchronized void finished(Tenant tenant, long elapsedNanos, long waitedNanos) {
+    try {
+      long engineNanos = Math.max(0L, elapsedNanos - waitedNanos);
+      tenant.running--;
+      tenant.times.waitNanos += waitedNanos;
+      tenant.times.engineNanos += engineNanos;
+      tenant.virtualNanos += engineNanos / tenant.weight;
+    } finally {
+      freeSlots++;
+      dispatch();
+      removeIdleTenants();
+    }
+  }
+
+  /**
+   * Removes the idle tenants that would start level with the least served active tenant anyway, and all idle
+   * tenants once no tenant is active. A tenant that is still ahead is kept until the others have caught up.
+   */
+  private void removeIdleTenants() {
+    OptionalLong minimumOfActiveTenants = tenants.values().stream()
+        .filter(Tenant::isActive)
+        .mapToLong(tenant -> tenant.virtualNanos)
+        .min();
+    Iterator<Tenant> iterator = tenants.values().iterator();
+    while (iterator.hasNext()) {
+      Tenant tenant = iterator.next();
+      if (!tenant.isActive()
+          && (minimumOfActiveTenants.isEmpty() || tenant.virtualNanos <= minimumOfActiveTenants.getAsLong())) {
+        iterator.remove();
+        removeQueueDepthGauge(tenant.name);
+      }
+    }
+  }
+
+  private long minimumVirtualNanosOfActiveTenants() {
+    return tenants.values().stream()
+        .filter(Tenant::isActive)
+        .mapToLong(tenant -> tenant.virtualNanos)
+        .min()
+        .orElse(0L);
+  }
+
+  private Tenant newTenant(String tenantName) {
+    Tenant tenant = new Tenant(tenantName, weights.getOrDefault(tenantName, DEFAULT_WEIGHT),
+        tenantTimes.computeIfAbsent(tenantName, this::newTenantTimes));
+    metricRegistry.ifPresent(registry ->
+        registry.gauge(QUEUE_DEPTH_GAUGE, () -> getQueueDepth(tenantName), tenantTag(tenantName)));
+    return tenant;
+  }
+
+  private TenantTimes newTenantTimes(String tenantName) {
+    metricRegistry.ifPresent(registry -> {
+      Tag tag = tenantTag(tenantName);
+      registry.gauge(WAIT_SECONDS_GAUGE, () -> getWaitSeconds(tenantName), tag);
+      registry.gauge(ENGINE_SECONDS_GAUGE, () -> getEngineSeconds(tenantName), tag);
+    });
+    return new TenantTimes();
+  }
+
+  private void removeQueueDepthGauge(String tenantName) {
+    metricRegistry.ifPresent(registry -> registry.remove(new MetricID(QUEUE_DEPTH_GAUGE, tenantTag(tenantName))));
+  }
+
+  private static Tag tenantTag(String tenantName) {
+    return new Tag("tenant", tenantName);
+  }
+
+  private static long seconds(long nanos) {
+    return TimeUnit.NANOSECONDS.toSeconds(nanos);
+  }
+
+  private record WaitingAnalysis(Runnable runnable, long enqueuedNanos) {
+  }
+
+  private static final class Tenant {
+    private final String name;
+    private final int weight;
+    private final TenantTimes times;
+    private final Deque<WaitingAnalysis> waiting = new ArrayDeque<>();
+    private int running;
+    private long virtualNanos;
+
+    Tenant(String name, int weight, TenantTimes times) {
+      this.name = name;
+      this.weight = weight;
+      this.times = times;
+    }
+
+    boolean isActive() {
+      return running > 0 || !waiting.isEmpty();
+    }
+  }
+
+  /**
+   * The wait and engine time of a tenant, which is kept when the idle tenant is forgotten.
+   */
+  private static final class TenantTimes {
+    private long waitNanos;
+    private long engineNanos;
+  }
+}
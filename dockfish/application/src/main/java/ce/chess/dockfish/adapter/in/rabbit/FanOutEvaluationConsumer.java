@@ -0,0 +1,65 @@
+package ce.chess.dockfish.adapter.in.rabbit;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.adapter.common.dto.EvaluationMessageDto;
+import ce.chess.dockfish.adapter.common.dto.EvaluationMessageDto.EvaluationDto.VariationDto;
+import ce.chess.dockfish.domain.model.fanout.PartialEvaluation;
+import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.in.GatherFanOut;
+
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.concurrent.CompletionStage;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * Listens to the final evaluations of all dockfish instances and passes them on to the pending fan-outs, which pick
+ * those of their sub tasks.
+ */
+@ApplicationScoped
+@Log4j2
+public class FanOutEvaluationConsumer extends AbstractMessageConsumer {
+
+  @Inject
+  GatherFanOut service;
+
+  @Incoming(RabbitConfiguration.CHANNEL_FAN_OUT_EVALUATION)
+  @Blocking
+  public CompletionStage<Void> consume(Message<JsonObject> message) {
+    return super.consumeMessage(message);
+  }
+
+  @Override
+  protected void handleContent(JsonObject jsonObject) {
+    EvaluationMessageDto evaluationMessage = jsonObject.mapTo(EvaluationMessageDto.class);
+    if (evaluationMessage.getEvaluation() == null
+        || JobStatus.ACTIVE.name().equals(evaluationMessage.getStatus())) {
+      return;
+    }
+    PartialEvaluation.PartialEvaluationBuilder partialEvaluation = PartialEvaluation.builder()
+        .taskId(new TaskId(evaluationMessage.getEvaluation().getTaskId()))
+        .uciEngineName(evaluationMessage.getUciEngineName());
+    evaluationMessage.getEvaluation().getVariations().forEach(variation -> partialEvaluation.line(line(variation)));
+    service.receivePartialEvaluation(partialEvaluation.build());
+  }
+
+  private static PartialEvaluation.Line line(VariationDto variation) {
+    return PartialEvaluation.Line.builder()
+        .moves(variation.getMoves())
+        .pgn(variation.getPgn())
+        .centiPawns(new BigDecimal(variation.getScore()).movePointRight(2).intValue())
+        .depth(variation.getDepth())
+        .time(variation.getTime() == null
+            ? Duration.ZERO
+            : Duration.ofSeconds(LocalTime.parse(variation.getTime()).toSecondOfDay()))
+        .build();
+  }
+}
@@ -0,0 +1,35 @@
+package ce.chess.dockfish.adapter.in.rabbit;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysisRequest;
+import ce.chess.dockfish.usecase.in.ReceiveGameAnalysisRequest;
+
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.vertx.core.json.JsonObject;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.concurrent.CompletionStage;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+@ApplicationScoped
+@Log4j2
+public class GameAnalysisRequestConsumer extends AbstractMessageConsumer {
+
+  @Inject
+  ReceiveGameAnalysisRequest service;
+
+  @Incoming(RabbitConfiguration.CHANNEL_GAME_ANALYSIS_REQUEST)
+  @Blocking
+  public CompletionStage<Void> consume(Message<JsonObject> message) {
+    return super.consumeMessage(message);
+  }
+
+  @Override
+  protected void handleContent(JsonObject jsonObject) {
+    GameAnalysisRequest request = jsonObject.mapTo(GameAnalysisRequest.class);
+    request.validate();
+    service.analyseAndPublish(request);
+  }
+}
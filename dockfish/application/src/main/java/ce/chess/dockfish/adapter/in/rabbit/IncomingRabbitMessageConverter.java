@@ -18,6 +18,7 @@ public class IncomingRabbitMessageConverter {
         metadata.getCorrelationId().orElse(""),
         metadata.getHeaders(),
         incomingMessage.getPayload(),
-        metadata.isRedeliver());
+        metadata.isRedeliver(),
+        metadata.getPriority().orElse(0));
   }
 }
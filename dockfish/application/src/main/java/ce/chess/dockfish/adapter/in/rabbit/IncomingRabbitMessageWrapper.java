@@ -5,7 +5,15 @@ import io.vertx.core.json.JsonObject;
 public record IncomingRabbitMessageWrapper(String exchange, String routingKey, String correlationId,
                                            java.util.Map<String, Object> headers,
                                            JsonObject jsonObject,
-                                           boolean isRedeliver) {
+                                           boolean isRedeliver,
+                                           int priority) {
+
+  public IncomingRabbitMessageWrapper(String exchange, String routingKey, String correlationId,
+                                      java.util.Map<String, Object> headers,
+                                      JsonObject jsonObject,
+                                      boolean isRedeliver) {
+    this(exchange, routingKey, correlationId, headers, jsonObject, isRedeliver, 0);
+  }
 
   public String getTopic() {
     if (routingKey != null && !routingKey.isEmpty()) {
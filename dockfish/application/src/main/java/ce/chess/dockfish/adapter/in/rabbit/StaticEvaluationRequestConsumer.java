@@ -21,7 +21,7 @@ public class StaticEvaluationRequestConsumer extends AbstractMessageConsumer {
   ReceiveStaticEvaluationRequest service;
 
   @Incoming(RabbitConfiguration.CHANNEL_STATIC_EVALUATION_REQUEST)
-  @Blocking
+  @Blocking(ordered = false)
   public CompletionStage<Void> consume(Message<JsonObject> message) {
     return super.consumeMessage(message);
   }
@@ -3,55 +3,150 @@ package ce.chess.dockfish.adapter.in.rabbit;
 import ce.chess.dockfish.adapter.RabbitConfiguration;
 import ce.chess.dockfish.adapter.common.dto.SubmitTaskCommand;
 import ce.chess.dockfish.adapter.common.mapper.SubmitTaskCommandMapper;
+import ce.chess.dockfish.domain.model.RequeueException;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.Preemption;
 import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.in.PreemptAnalysis;
 import ce.chess.dockfish.usecase.in.ReceiveAnalysisRequest;
 
-import com.google.common.util.concurrent.Uninterruptibles;
-import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.rabbitmq.RabbitMQRejectMetadata;
 import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.log4j.Log4j2;
-import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
 
+/**
+ * Holds at most "task_prefetch" tasks (default "engine_slots") of both task channels together. Each channel may be
+ * sent that many by the broker, so a task that arrives when all credits are taken is returned to the queue after a
+ * delay, for another instance or for later. The analysis runs off the messaging thread, see
+ * {@link EngineSlotExecutor}, and the message is acknowledged when the analysis is finished. A task with a higher
+ * message priority than the running analysis preempts it, all others wait for a slot in the
+ * {@link FairShareScheduler} by their tenant: the "tenant" header, the reference or the name of the task.
+ */
 @ApplicationScoped
 @Log4j2
 public class TaskSubmittedMessageConsumer extends AbstractMessageConsumer {
+  static final String TENANT_HEADER = "tenant";
+  static final String TASK_PREFETCH_PROPERTY = "task_prefetch";
+  private static final String DEFAULT_TENANT = "default";
+  private static final int REQUEUE_DELAY_SECONDS = 1;
+
+  @ConfigProperty(name = TASK_PREFETCH_PROPERTY)
+  Optional<Integer> taskPrefetch;
+
+  @Inject
+  EngineSlotExecutor engineSlotExecutor;
 
   @Inject
-  Config config;
+  FairShareScheduler fairShareScheduler;
 
   @Inject
   SubmitTaskCommandMapper submitTaskCommandMapper;
   @Inject
   ReceiveAnalysisRequest service;
 
+  @Inject
+  PreemptAnalysis preemptAnalysis;
+
+  private final ThreadLocal<Preemption> preemptionOfThread = new ThreadLocal<>();
+
+  private Semaphore taskCredits;
+
+  @PostConstruct
+  void init() {
+    taskCredits = new Semaphore(taskPrefetch.orElse(engineSlotExecutor.getEngineSlots()));
+  }
+
+  /**
+   * Returns right away, so that the next task is taken while this one waits for its engine slot. Messaging would not
+   * deliver the next message before the returned stage completes.
+   */
   @Incoming(RabbitConfiguration.CHANNEL_TASK_SUBMITTED)
   @Incoming(RabbitConfiguration.CHANNEL_TASK_SUBMITTED_2)
-  @Blocking
   public CompletionStage<Void> consume(Message<JsonObject> message) {
-    return super.consumeMessage(message);
+    if (taskCredits.tryAcquire()) {
+      super.consumeMessage(message, this::executorFor)
+          .whenComplete((result, thrown) -> taskCredits.release());
+    } else {
+      log.info("All task credits are taken. Returning task to the queue in {}s", REQUEUE_DELAY_SECONDS);
+      requeueLater(message);
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * The delay keeps a single instance from receiving the returned task again right away.
+   */
+  private static void requeueLater(Message<JsonObject> message) {
+    Executor delayed = CompletableFuture.delayedExecutor(REQUEUE_DELAY_SECONDS, TimeUnit.SECONDS);
+    CompletableFuture.runAsync(() -> { }, delayed)
+        .thenCompose(ignored -> message.nack(new RequeueException("All task credits are taken"),
+            Metadata.of(new RabbitMQRejectMetadata(true))));
+  }
+
+  private Executor executorFor(IncomingRabbitMessageWrapper rabbitMessageWrapper) {
+    return preemptAnalysis.preemptFor(rabbitMessageWrapper.priority())
+        .map(this::preemptingExecutor)
+        .orElseGet(() -> fairShareScheduler.forTenant(tenantOf(rabbitMessageWrapper)));
+  }
+
+  /**
+   * Runs the task with the preemption it caused, so that only this task hands the engine over to the preempted one.
+   */
+  private Executor preemptingExecutor(Preemption preemption) {
+    return analysis -> engineSlotExecutor.preempting().execute(() -> {
+      preemptionOfThread.set(preemption);
+      try {
+        analysis.run();
+      } finally {
+        preemptionOfThread.remove();
+        preemption.handOver();
+      }
+    });
+  }
+
+  private static String tenantOf(IncomingRabbitMessageWrapper rabbitMessageWrapper) {
+    return Optional.ofNullable(rabbitMessageWrapper.headers().get(TENANT_HEADER))
+        .map(Object::toString)
+        .or(() -> Optional.ofNullable(rabbitMessageWrapper.jsonObject().getString("reference")))
+        .or(() -> Optional.ofNullable(rabbitMessageWrapper.jsonObject().getString("name")))
+        .orElse(DEFAULT_TENANT);
+  }
+
+  @Override
+  protected void handleMessage(IncomingRabbitMessageWrapper rabbitMessageWrapper) {
+    startAnalysis(rabbitMessageWrapper.jsonObject(), rabbitMessageWrapper.priority());
   }
 
   @Override
   protected void handleContent(JsonObject jsonObject) {
+    startAnalysis(jsonObject, 0);
+  }
+
+  private void startAnalysis(JsonObject jsonObject, int priority) {
     SubmitTaskCommand request = jsonObject.mapTo(SubmitTaskCommand.class);
     request.validate();
 
-    // be gentle to StaticEvaluationRequestsConsumer
-    Long initialDelay = config.getOptionalValue("task_consumer_delay_seconds", Long.class).orElse(3L);
-    Uninterruptibles.sleepUninterruptibly(initialDelay, TimeUnit.SECONDS);
-
-    AnalysisRun analysisRun =
-        submitTaskCommandMapper.toDomainObject(request, LocalDateTime.now(ZoneId.systemDefault()));
-    TaskId taskId = service.startSync(analysisRun)
+    AnalysisRun analysisRun = submitTaskCommandMapper.toDomainObject(request, LocalDateTime.now(ZoneId.systemDefault()))
+        .toBuilder()
+        .priority(priority)
+        .build();
+    Preemption preemption = preemptionOfThread.get();
+    TaskId taskId = (preemption == null ? service.startSync(analysisRun) : service.startSync(analysisRun, preemption))
         .orElseThrow(() -> new IllegalStateException("No Task Id. Engine not running"));
     log.info("Finished calculation of taskID {}", taskId);
   }
@@ -4,6 +4,7 @@ import ce.chess.dockfish.adapter.common.dto.EvaluationMessageDto;
 import ce.chess.dockfish.adapter.common.dto.SubmitTaskCommand;
 import ce.chess.dockfish.adapter.common.mapper.EvaluationMessageDtoMapper;
 import ce.chess.dockfish.adapter.common.mapper.SubmitTaskCommandMapper;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
 import ce.chess.dockfish.domain.model.result.JobStatus;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
 import ce.chess.dockfish.domain.model.task.TaskId;
@@ -123,14 +124,20 @@ public class AnalysisController {
   @Produces(MediaType.APPLICATION_JSON)
   @Operation(summary = "Post an analysis task",
       description = "Returns the task representation of the posted Task")
+  @APIResponse(responseCode = "200", description = "The final evaluation of an identical task analysed before",
+      content = @Content(schema = @Schema(implementation = EvaluationMessageDto.class)))
   @APIResponse(responseCode = "202", description = "The task representation",
       content = @Content(schema = @Schema(implementation = TaskRepresentation.class)))
   @APIResponse(responseCode = "400", description = "Invalid format")
   @APIResponse(responseCode = "409", description = "The server is already running an analysis")
   public Response submitTask(SubmitTaskCommand command) {
     command.validate();
-    Optional<TaskId> newTaskId = analysisService.startAsync(
-        submitTaskCommandMapper.toDomainObject(command, LocalDateTime.now(ZoneId.systemDefault())));
+    AnalysisRun task = submitTaskCommandMapper.toDomainObject(command, LocalDateTime.now(ZoneId.systemDefault()));
+    Optional<EvaluationMessage> finalEvaluation = queryAnalysis.getFinalEvaluation(task);
+    if (finalEvaluation.isPresent()) {
+      return Response.ok(evaluationMessageDtoMapper.toDto(finalEvaluation.get())).build();
+    }
+    Optional<TaskId> newTaskId = analysisService.startAsync(task);
     return newTaskId.map(this::taskSubmittedResponse)
         .orElseGet(() -> Response.status(Status.CONFLICT).entity("Already pondering. Post did not succeed.").build());
   }
@@ -0,0 +1,116 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import ce.chess.dockfish.domain.event.EngineInformationReceived;
+import ce.chess.dockfish.domain.model.result.EngineInformation;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.EngineOption;
+
+import java.util.Collection;
+
+/**
+ * Rough retained heap size of cached entries, assuming a 64-bit JVM with compressed oops and compact strings.
+ * Objects shared between entries (task id, starting position of a task) are not counted.
+ */
+final class CacheWeights {
+
+  private static final int OBJECT = 16;
+  private static final int REFERENCE = 4;
+  private static final int ARRAY = 16;
+  private static final int STRING = 40;
+  private static final int DATE_TIME = 72;
+  private static final int COLLECTION = 48;
+  private static final int ENTRY = 32;
+
+  private CacheWeights() {
+  }
+
+  static int of(EngineInformationReceived event) {
+    return OBJECT + 3 * Integer.BYTES + 5 * Long.BYTES + 7 * REFERENCE
+        + DATE_TIME
+        + OBJECT + ARRAY + event.getPv().size() * Short.BYTES
+        + ofStrings(event.getInfoStrings())
+        + ENTRY;
+  }
+
+  static int of(Evaluation evaluation) {
+    int variations = evaluation.getVariations().stream()
+        .mapToInt(CacheWeights::of)
+        .sum();
+    int uciState = evaluation.getUciState() == null
+        ? 0
+        : OBJECT + 3 * Long.BYTES + REFERENCE + ofStrings(evaluation.getUciState().getInfoStrings());
+    return OBJECT + 4 * REFERENCE + DATE_TIME + COLLECTION + variations + uciState
+        + ofString(evaluation.taskIdAndMaxDepth())
+        + ENTRY;
+  }
+
+  static int of(AnalysisRun task) {
+    int engineOptions = task.engineOptions().stream()
+        .mapToInt(CacheWeights::of)
+        .sum();
+    return OBJECT + 14 * REFERENCE + DATE_TIME
+        + ofString(task.name().orElse(null))
+        + ofString(task.reference())
+        + ofString(task.engineProgramName())
+        + ofString(task.uciEngineName().orElse(null))
+        + ofString(task.hostname())
+        + of(task.startingPosition())
+        + COLLECTION + engineOptions
+        + ENTRY;
+  }
+
+  static int of(EvaluationMessage message) {
+    int latestEvents = message.getLatestEvents().stream()
+        .mapToInt(CacheWeights::of)
+        .sum();
+    return OBJECT + 16 * REFERENCE + 3 * DATE_TIME
+        + ofString(message.getTaskName().orElse(null))
+        + ofString(message.getReference())
+        + ofString(message.getAnalysedPgn())
+        + ofString(message.getAnalysedFen())
+        + ofString(message.getUciEngineName())
+        + ofString(message.getHostname())
+        + (message.getEvaluation() == null ? 0 : of(message.getEvaluation()) - ENTRY)
+        + COLLECTION + latestEvents
+        + ofStrings(message.getHistory())
+        + OBJECT + REFERENCE + STRING + 64 // fingerprint
+        + ENTRY;
+  }
+
+  private static int of(EngineInformation engineInformation) {
+    return OBJECT + 3 * Integer.BYTES + 3 * REFERENCE + DATE_TIME
+        + ofString(engineInformation.getLineSan())
+        + ofString(engineInformation.getTime());
+  }
+
+  private static int of(Variation variation) {
+    return OBJECT + 2 * Integer.BYTES + 4 * REFERENCE
+        + ofString(variation.getMoves())
+        + 2 * OBJECT + Integer.BYTES + Long.BYTES
+        + of(variation.getGamePosition());
+  }
+
+  private static int of(GamePosition gamePosition) {
+    return gamePosition == null
+        ? 0
+        : OBJECT + Integer.BYTES + 3 * REFERENCE + ofString(gamePosition.getPgn()) + ofString(gamePosition.getFen());
+  }
+
+  private static int of(EngineOption engineOption) {
+    return OBJECT + 2 * REFERENCE + ofString(engineOption.getName()) + ofString(engineOption.getValue());
+  }
+
+  private static int ofStrings(Collection<String> strings) {
+    return strings.isEmpty()
+        ? 0
+        : COLLECTION + strings.stream().mapToInt(s -> ENTRY + ofString(s)).sum();
+  }
+
+  private static int ofString(String string) {
+    return string == null ? 0 : STRING + string.length();
+  }
+}
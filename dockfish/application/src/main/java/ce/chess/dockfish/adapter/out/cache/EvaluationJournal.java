@@ -0,0 +1,312 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import ce.chess.dockfish.domain.event.AnalysisFinished;
+import ce.chess.dockfish.domain.event.AnalysisPreempted;
+import ce.chess.dockfish.domain.event.DepthReached;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.TaskFingerprint;
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+/**
+ * Append-only journal of tasks, depth-level evaluations and final evaluations in memory-mapped segments below
+ * {@code journal_directory}. On startup the journal is replayed into the in-memory repositories and compacted
+ * to what they retain, and unreadable segments are set aside. Journaling is disabled when no directory is
+ * configured.
+ */
+@ApplicationScoped
+@Log4j2
+public class EvaluationJournal {
+
+  private static final String JOURNAL_DIR_PROPERTY = "journal_directory";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".journal";
+  static final String QUARANTINE_SUFFIX = ".unreadable";
+  static final int DEFAULT_SEGMENT_CAPACITY = 8 * 1024 * 1024;
+  static final int MAX_SEGMENTS = 8;
+
+  @Inject
+  Config config;
+
+  @Inject
+  InMemoryTaskRepository taskRepository;
+
+  @Inject
+  InMemoryEvaluationRepository evaluationRepository;
+
+  @Inject
+  InMemoryFinalEvaluationRepository finalEvaluationRepository;
+
+  int segmentCapacity = DEFAULT_SEGMENT_CAPACITY;
+
+  private final List<JournalSegment> segments = new ArrayList<>();
+  private final Set<TaskId> journaledTasks = new HashSet<>();
+  private Path directory;
+  private long nextSegmentNumber;
+  private int compactionThreshold = MAX_SEGMENTS;
+  private volatile long replayedRecords;
+  private volatile long replayedBytes;
+  private volatile long replayMillis;
+
+  void replayOnStartup(@Observes StartupEvent startupEvent) {
+    config.getOptionalValue(JOURNAL_DIR_PROPERTY, String.class)
+        .filter(dir -> !dir.isBlank())
+        .map(Paths::get)
+        .ifPresentOrElse(this::open, () -> log.info("Evaluation journal is disabled"));
+  }
+
+  synchronized void close(@Observes ShutdownEvent shutdownEvent) {
+    segments.forEach(JournalSegment::force);
+  }
+
+  void depthReached(@Observes DepthReached event) {
+    journalLatestEvaluation(event.getTaskId());
+  }
+
+  void analysisFinished(@Observes AnalysisFinished event) {
+    journalLatestEvaluation(event.getTaskId());
+  }
+
+  void analysisPreempted(@Observes AnalysisPreempted event) {
+    journalLatestEvaluation(event.getTaskId());
+  }
+
+  @Gauge(name = "journal_size", absolute = true, unit = MetricUnits.BYTES)
+  public synchronized long getJournalSize() {
+    return segments.stream().mapToLong(JournalSegment::size).sum();
+  }
+
+  @Gauge(name = "journal_segment_count", absolute = true, unit = MetricUnits.NONE)
+  public synchronized int getSegmentCount() {
+    return segments.size();
+  }
+
+  @Gauge(name = "journal_replay_records", absolute = true, unit = MetricUnits.NONE)
+  public long getReplayedRecords() {
+    return replayedRecords;
+  }
+
+  @Gauge(name = "journal_replay_size", absolute = true, unit = MetricUnits.BYTES)
+  public long getReplayedBytes() {
+    return replayedBytes;
+  }
+
+  @Gauge(name = "journal_replay_time", absolute = true, unit = MetricUnits.MILLISECONDS)
+  public long getReplayMillis() {
+    return replayMillis;
+  }
+
+  synchronized void open(Path journalDirectory) {
+    try {
+      Files.createDirectories(journalDirectory);
+      directory = journalDirectory;
+      for (Path path : listSegmentFiles()) {
+        nextSegmentNumber = Math.max(nextSegmentNumber, segmentNumber(path) + 1);
+        try {
+          segments.add(JournalSegment.open(path));
+        } catch (IOException ex) {
+          quarantine(path, ex);
+        }
+      }
+      replay();
+      if (!segments.isEmpty()) {
+        compact();
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to open evaluation journal in " + journalDirectory, ex);
+    }
+  }
+
+  synchronized boolean isOpen() {
+    return directory != null;
+  }
+
+  synchronized void append(AnalysisRun task) {
+    if (isOpen()) {
+      append(JournalCodec.TASK, JournalCodec.encode(task));
+      journaledTasks.add(task.taskId());
+    }
+  }
+
+  synchronized void append(Evaluation evaluation) {
+    if (isOpen()) {
+      append(JournalCodec.EVALUATION, JournalCodec.encode(evaluation));
+    }
+  }
+
+  synchronized void append(TaskFingerprint fingerprint, EvaluationMessage evaluationMessage) {
+    if (isOpen()) {
+      append(JournalCodec.FINAL_EVALUATION, JournalCodec.encode(fingerprint, evaluationMessage));
+    }
+  }
+
+  /**
+   * Rewrites the journal to what the repositories still retain: their tasks, the latest evaluation of each task and
+   * the final evaluations. What the byte-bounded repositories have evicted is dropped, so the journal stays bounded
+   * like them, and the records are encoded one at a time instead of decoding the old segments. The new segments are
+   * written and forced before they replace the old ones, which are deleted only then. A crash in between only leaves
+   * duplicates, which replay tolerates, and a failure keeps the old segments.
+   */
+  synchronized void compact() throws IOException {
+    List<JournalSegment> oldSegments = List.copyOf(segments);
+    long sizeBefore = getJournalSize();
+    List<JournalSegment> compactedSegments = new ArrayList<>();
+    Set<TaskId> compactedTasks = new HashSet<>();
+    try {
+      taskRepository.listTasks().forEach(task -> {
+        appendTo(compactedSegments, JournalCodec.TASK, JournalCodec.encode(task));
+        compactedTasks.add(task.taskId());
+      });
+      evaluationRepository.findLatestPerTask().forEach(evaluation ->
+          appendTo(compactedSegments, JournalCodec.EVALUATION, JournalCodec.encode(evaluation)));
+      finalEvaluationRepository.forEach((fingerprint, evaluationMessage) ->
+          appendTo(compactedSegments, JournalCodec.FINAL_EVALUATION,
+              JournalCodec.encode(fingerprint, evaluationMessage)));
+      compactedSegments.forEach(JournalSegment::force);
+    } catch (UncheckedIOException ex) {
+      for (JournalSegment segment : compactedSegments) {
+        segment.delete();
+      }
+      throw ex.getCause();
+    }
+    segments.clear();
+    segments.addAll(compactedSegments);
+    journaledTasks.clear();
+    journaledTasks.addAll(compactedTasks);
+    compactionThreshold = Math.max(MAX_SEGMENTS, 2 * segments.size());
+    for (JournalSegment segment : oldSegments) {
+      segment.delete();
+    }
+    log.info("Compacted evaluation journal from {} to {} bytes", sizeBefore, getJournalSize());
+  }
+
+  private void journalLatestEvaluation(TaskId taskId) {
+    if (!isOpen()) {
+      return;
+    }
+    if (!isJournaled(taskId)) {
+      taskRepository.findByTaskId(taskId).ifPresent(this::append);
+    }
+    evaluationRepository.findByTaskIdMaxCreated(taskId).ifPresent(this::append);
+  }
+
+  private synchronized boolean isJournaled(TaskId taskId) {
+    return journaledTasks.contains(taskId);
+  }
+
+  private void replay() {
+    long start = System.nanoTime();
+    long[] records = new long[1];
+    segments.forEach(segment -> segment.forEach((type, payload) -> {
+      if (type == JournalCodec.TASK) {
+        AnalysisRun task = JournalCodec.decodeTask(payload);
+        taskRepository.save(task);
+        journaledTasks.add(task.taskId());
+      } else if (type == JournalCodec.EVALUATION) {
+        evaluationRepository.save(JournalCodec.decodeEvaluation(payload));
+      } else if (type == JournalCodec.FINAL_EVALUATION) {
+        finalEvaluationRepository.restore(JournalCodec.decodeFingerprint(payload),
+            JournalCodec.decodeEvaluationMessage(payload));
+      }
+      records[0]++;
+    }));
+    replayMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    replayedRecords = records[0];
+    replayedBytes = getJournalSize();
+    log.info("Replayed {} records ({} bytes in {} segments) from evaluation journal in {} ms",
+        replayedRecords, replayedBytes, segments.size(), replayMillis);
+  }
+
+  private void append(byte type, byte[] payload) {
+    if (appendTo(segments, type, payload) && segments.size() > compactionThreshold) {
+      try {
+        compact();
+      } catch (IOException ex) {
+        log.error("Failed to compact evaluation journal", ex);
+      }
+    }
+  }
+
+  /**
+   * Appends the record to the last of the segments or to a new one.
+   *
+   * @return true if a new segment was created.
+   */
+  private boolean appendTo(List<JournalSegment> targetSegments, byte type, byte[] payload) {
+    if (!targetSegments.isEmpty() && targetSegments.getLast().tryAppend(type, payload)) {
+      return false;
+    }
+    JournalSegment segment = newSegment(targetSegments,
+        Math.max(segmentCapacity, JournalSegment.requiredCapacity(payload.length)));
+    segment.tryAppend(type, payload);
+    return true;
+  }
+
+  private JournalSegment newSegment(List<JournalSegment> targetSegments, int capacity) {
+    if (!targetSegments.isEmpty()) {
+      targetSegments.getLast().force();
+    }
+    Path path = directory.resolve(String.format(Locale.ROOT, "%s%012d%s",
+        SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+    try {
+      JournalSegment segment = JournalSegment.create(path, capacity);
+      targetSegments.add(segment);
+      return segment;
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Failed to create journal segment " + path, ex);
+    }
+  }
+
+  /**
+   * Renames an unreadable segment, so that it is kept for inspection but not read again on the next start.
+   */
+  private static void quarantine(Path path, IOException cause) {
+    Path quarantined = path.resolveSibling(path.getFileName() + QUARANTINE_SUFFIX);
+    log.warn("Skipping unreadable journal segment {}, moving it to {}", path, quarantined, cause);
+    try {
+      Files.move(path, quarantined, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException ex) {
+      log.error("Failed to move unreadable journal segment {}", path, ex);
+    }
+  }
+
+  private List<Path> listSegmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+          .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .sorted(Comparator.comparingLong(EvaluationJournal::segmentNumber))
+          .toList();
+    }
+  }
+
+  private static long segmentNumber(Path path) {
+    String fileName = path.getFileName().toString();
+    return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+  }
+}
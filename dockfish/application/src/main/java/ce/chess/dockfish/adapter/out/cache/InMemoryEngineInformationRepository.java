@@ -1,6 +1,7 @@
 package ce.chess.dockfish.adapter.out.cache;
 
 import ce.chess.dockfish.domain.event.EngineInformationReceived;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
 import ce.chess.dockfish.domain.model.task.TaskId;
 import ce.chess.dockfish.usecase.out.db.EngineInformationReceivedRepository;
 
@@ -19,8 +20,16 @@ import org.eclipse.microprofile.metrics.annotation.Gauge;
 @ApplicationScoped
 public class InMemoryEngineInformationRepository implements EngineInformationReceivedRepository {
 
-  private final Cache<EngineInformationReceived, String> events =
-      CacheBuilder.newBuilder().maximumSize(10_000).build();
+  private static final long MAX_WEIGHT_IN_BYTES = 8L * 1024 * 1024;
+
+  // single segment, so the weight limit evicts the least recently used events of the whole cache: those least
+  // recently saved, except that the deepest event per pv of a task is saved again when its evaluation is read
+  private final Cache<EngineInformationReceived, String> events = CacheBuilder.newBuilder()
+      .concurrencyLevel(1)
+      .maximumWeight(MAX_WEIGHT_IN_BYTES)
+      .weigher((EngineInformationReceived event, String value) -> CacheWeights.of(event))
+      .recordStats()
+      .build();
 
   @Gauge(name = "guava_cache_size", absolute = true, unit = MetricUnits.NONE,
       tags = "cache=InMemoryEngineInformationRepository")
@@ -28,6 +37,18 @@ public class InMemoryEngineInformationRepository implements EngineInformationRec
     return events.size();
   }
 
+  @Gauge(name = "guava_cache_eviction_count", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryEngineInformationRepository")
+  public long getEvictionCount() {
+    return events.stats().evictionCount();
+  }
+
+  @Gauge(name = "guava_cache_estimated_bytes", absolute = true, unit = MetricUnits.BYTES,
+      tags = "cache=InMemoryEngineInformationRepository")
+  public long getEstimatedBytes() {
+    return getEvents().stream().mapToLong(CacheWeights::of).sum();
+  }
+
   @Override
   public void save(EngineInformationReceived event) {
     refreshInCache(event);
@@ -58,15 +79,20 @@ public class InMemoryEngineInformationRepository implements EngineInformationRec
   }
 
   @Override
-  public Optional<EngineInformationReceived> findByTaskIdAndStartingWithLineSanMaxOccurredOn(TaskId taskId,
-                                                                                             String lineSan) {
+  public Optional<EngineInformationReceived> findByTaskIdAndStartingWithPvMaxOccurredOn(TaskId taskId,
+                                                                                        PackedMoves pv) {
     return getEvents().stream()
         .filter(EngineInformationReceived.matching(taskId))
         .filter(EngineInformationReceived::hasGame)
-        .filter(e -> e.getLineSan().startsWith(lineSan))
+        .filter(e -> e.getPv().startsWith(pv))
         .max(Comparator.comparing(EngineInformationReceived::getOccurredOn));
   }
 
+  @Override
+  public void deleteByTaskIdNot(TaskId taskId) {
+    getEvents().removeIf(event -> !event.getTaskId().equals(taskId));
+  }
+
   private EngineInformationReceived refreshInCache(EngineInformationReceived engineInformationReceived) {
     events.put(engineInformationReceived, "");
     return engineInformationReceived;
@@ -11,6 +11,7 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.eclipse.microprofile.metrics.MetricUnits;
 import org.eclipse.microprofile.metrics.annotation.Gauge;
@@ -18,7 +19,16 @@ import org.eclipse.microprofile.metrics.annotation.Gauge;
 @ApplicationScoped
 public class InMemoryEvaluationRepository implements EvaluationRepository {
 
-  private final Cache<String, Evaluation> evaluations = CacheBuilder.newBuilder().maximumSize(2000).build();
+  private static final long MAX_WEIGHT_IN_BYTES = 8L * 1024 * 1024;
+
+  // single segment, so the weight limit evicts the least recently used evaluations of the whole cache. The queries
+  // iterate over the map, which does not count as use, so these are the least recently saved evaluations.
+  private final Cache<String, Evaluation> evaluations = CacheBuilder.newBuilder()
+      .concurrencyLevel(1)
+      .maximumWeight(MAX_WEIGHT_IN_BYTES)
+      .weigher((String key, Evaluation evaluation) -> CacheWeights.of(evaluation))
+      .recordStats()
+      .build();
 
   @Gauge(name = "guava_cache_size", absolute = true, unit = MetricUnits.NONE,
       tags = "cache=InMemoryEvaluationRepository")
@@ -26,6 +36,18 @@ public class InMemoryEvaluationRepository implements EvaluationRepository {
     return evaluations.size();
   }
 
+  @Gauge(name = "guava_cache_eviction_count", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryEvaluationRepository")
+  public long getEvictionCount() {
+    return evaluations.stats().evictionCount();
+  }
+
+  @Gauge(name = "guava_cache_estimated_bytes", absolute = true, unit = MetricUnits.BYTES,
+      tags = "cache=InMemoryEvaluationRepository")
+  public long getEstimatedBytes() {
+    return getEvaluations().stream().mapToLong(CacheWeights::of).sum();
+  }
+
   @Override
   public void save(Evaluation evaluation) {
     evaluations.put(evaluation.taskIdAndMaxDepth(), evaluation);
@@ -55,6 +77,23 @@ public class InMemoryEvaluationRepository implements EvaluationRepository {
         .collect(Collectors.toList());
   }
 
+  @Override
+  public void deleteHistoryByTaskIdNot(TaskId taskId) {
+    Set<Evaluation> latestEvaluations = Set.copyOf(findLatestPerTask());
+    getEvaluations().removeIf(evaluation ->
+        !evaluation.getTaskId().equals(taskId) && !latestEvaluations.contains(evaluation));
+  }
+
+  List<Evaluation> findLatestPerTask() {
+    return getEvaluations().stream()
+        .collect(Collectors.groupingBy(Evaluation::getTaskId,
+            Collectors.maxBy(Comparator.comparing(Evaluation::getCreated))))
+        .values().stream()
+        .flatMap(Optional::stream)
+        .sorted(Comparator.comparing(Evaluation::getCreated))
+        .toList();
+  }
+
   private Collection<Evaluation> getEvaluations() {
     return evaluations.asMap().values();
   }
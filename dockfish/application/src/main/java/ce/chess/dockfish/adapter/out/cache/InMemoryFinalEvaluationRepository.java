@@ -0,0 +1,83 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.task.TaskFingerprint;
+import ce.chess.dockfish.usecase.out.db.FinalEvaluationRepository;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+@ApplicationScoped
+public class InMemoryFinalEvaluationRepository implements FinalEvaluationRepository {
+
+  private static final long MAX_WEIGHT_IN_BYTES = 4L * 1024 * 1024;
+
+  private final Cache<TaskFingerprint, EvaluationMessage> finalEvaluations = CacheBuilder.newBuilder()
+      .concurrencyLevel(1)
+      .maximumWeight(MAX_WEIGHT_IN_BYTES)
+      .weigher((TaskFingerprint fingerprint, EvaluationMessage message) -> CacheWeights.of(message))
+      .recordStats()
+      .build();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  @Inject
+  EvaluationJournal journal;
+
+  @Gauge(name = "guava_cache_size", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryFinalEvaluationRepository")
+  public long getCacheSize() {
+    return finalEvaluations.size();
+  }
+
+  @Gauge(name = "guava_cache_hit_rate", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryFinalEvaluationRepository")
+  public double getHitRate() {
+    return finalEvaluations.stats().hitRate();
+  }
+
+  @Gauge(name = "guava_cache_eviction_count", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryFinalEvaluationRepository")
+  public long getEvictionCount() {
+    return finalEvaluations.stats().evictionCount();
+  }
+
+  @Gauge(name = "guava_cache_estimated_bytes", absolute = true, unit = MetricUnits.BYTES,
+      tags = "cache=InMemoryFinalEvaluationRepository")
+  public long getEstimatedBytes() {
+    return finalEvaluations.asMap().values().stream().mapToLong(CacheWeights::of).sum();
+  }
+
+  @Gauge(name = "final_evaluation_hits", absolute = true, unit = MetricUnits.NONE)
+  public long getHits() {
+    return hits.get();
+  }
+
+  @Override
+  public void save(TaskFingerprint fingerprint, EvaluationMessage evaluationMessage) {
+    restore(fingerprint, evaluationMessage);
+    journal.append(fingerprint, evaluationMessage);
+  }
+
+  @Override
+  public Optional<EvaluationMessage> findByFingerprint(TaskFingerprint fingerprint) {
+    Optional<EvaluationMessage> result = Optional.ofNullable(finalEvaluations.getIfPresent(fingerprint));
+    result.ifPresent(message -> hits.incrementAndGet());
+    return result;
+  }
+
+  void restore(TaskFingerprint fingerprint, EvaluationMessage evaluationMessage) {
+    finalEvaluations.put(fingerprint, evaluationMessage);
+  }
+
+  void forEach(BiConsumer<TaskFingerprint, EvaluationMessage> consumer) {
+    finalEvaluations.asMap().forEach(consumer);
+  }
+}
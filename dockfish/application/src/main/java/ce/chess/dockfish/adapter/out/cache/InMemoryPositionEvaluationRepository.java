@@ -0,0 +1,73 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.task.PositionKey;
+import ce.chess.dockfish.usecase.out.db.PositionEvaluationRepository;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+@ApplicationScoped
+public class InMemoryPositionEvaluationRepository implements PositionEvaluationRepository {
+
+  private static final long MAX_WEIGHT_IN_BYTES = 8L * 1024 * 1024;
+
+  private final Cache<PositionKey, Evaluation> positionEvaluations = CacheBuilder.newBuilder()
+      .concurrencyLevel(1)
+      .maximumWeight(MAX_WEIGHT_IN_BYTES)
+      .weigher((PositionKey positionKey, Evaluation evaluation) -> CacheWeights.of(evaluation))
+      .recordStats()
+      .build();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  @Gauge(name = "guava_cache_size", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryPositionEvaluationRepository")
+  public long getCacheSize() {
+    return positionEvaluations.size();
+  }
+
+  @Gauge(name = "guava_cache_hit_rate", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryPositionEvaluationRepository")
+  public double getHitRate() {
+    return positionEvaluations.stats().hitRate();
+  }
+
+  @Gauge(name = "guava_cache_eviction_count", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryPositionEvaluationRepository")
+  public long getEvictionCount() {
+    return positionEvaluations.stats().evictionCount();
+  }
+
+  @Gauge(name = "guava_cache_estimated_bytes", absolute = true, unit = MetricUnits.BYTES,
+      tags = "cache=InMemoryPositionEvaluationRepository")
+  public long getEstimatedBytes() {
+    return positionEvaluations.asMap().values().stream().mapToLong(CacheWeights::of).sum();
+  }
+
+  @Gauge(name = "position_evaluation_hits", absolute = true, unit = MetricUnits.NONE)
+  public long getHits() {
+    return hits.get();
+  }
+
+  @Override
+  public void saveIfDeeper(PositionKey positionKey, Evaluation evaluation) {
+    positionEvaluations.asMap().merge(positionKey, evaluation,
+        (older, newer) -> newer.maxDepth() < older.maxDepth() ? older : newer);
+  }
+
+  @Override
+  public Optional<Evaluation> findByPositionKey(PositionKey positionKey) {
+    return Optional.ofNullable(positionEvaluations.getIfPresent(positionKey));
+  }
+
+  @Override
+  public void recordHit() {
+    hits.incrementAndGet();
+  }
+}
@@ -8,6 +8,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import jakarta.enterprise.context.ApplicationScoped;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import org.eclipse.microprofile.metrics.MetricUnits;
 import org.eclipse.microprofile.metrics.annotation.Gauge;
@@ -15,7 +16,17 @@ import org.eclipse.microprofile.metrics.annotation.Gauge;
 @ApplicationScoped
 public class InMemoryTaskRepository implements TaskRepository {
 
-  private final Cache<TaskId, AnalysisRun> tasks = CacheBuilder.newBuilder().maximumSize(100).build();
+  private static final long MAX_WEIGHT_IN_BYTES = 2L * 1024 * 1024;
+
+  // single segment, so the weight limit evicts the least recently used tasks of the whole cache: saving a task and
+  // finding it by its id count as use, so a task that is still queried outlives older ones. Only finding by id is
+  // counted in the hit rate, the other queries scan all tasks
+  private final Cache<TaskId, AnalysisRun> tasks = CacheBuilder.newBuilder()
+      .concurrencyLevel(1)
+      .maximumWeight(MAX_WEIGHT_IN_BYTES)
+      .weigher((TaskId taskId, AnalysisRun task) -> CacheWeights.of(task))
+      .recordStats()
+      .build();
 
   @Gauge(name = "guava_cache_size", absolute = true, unit = MetricUnits.NONE,
       tags = "cache=InMemoryTaskRepository")
@@ -23,6 +34,24 @@ public class InMemoryTaskRepository implements TaskRepository {
     return tasks.size();
   }
 
+  @Gauge(name = "guava_cache_hit_rate", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryTaskRepository")
+  public double getHitRate() {
+    return tasks.stats().hitRate();
+  }
+
+  @Gauge(name = "guava_cache_eviction_count", absolute = true, unit = MetricUnits.NONE,
+      tags = "cache=InMemoryTaskRepository")
+  public long getEvictionCount() {
+    return tasks.stats().evictionCount();
+  }
+
+  @Gauge(name = "guava_cache_estimated_bytes", absolute = true, unit = MetricUnits.BYTES,
+      tags = "cache=InMemoryTaskRepository")
+  public long getEstimatedBytes() {
+    return tasks.asMap().values().stream().mapToLong(CacheWeights::of).sum();
+  }
+
   @Override
   public void save(AnalysisRun task) {
     tasks.put(task.taskId(), task);
@@ -39,7 +68,9 @@ public class InMemoryTaskRepository implements TaskRepository {
     return tasks.asMap().keySet().stream()
         .filter(key -> key.matches(taskId))
         .findFirst()
-        .map(tasks::getIfPresent);
+        .map(tasks::getIfPresent)
+        // no task matches, the lookup of the id itself records the miss for the hit rate
+        .or(() -> Optional.ofNullable(tasks.getIfPresent(taskId)));
   }
 
   @Override
@@ -47,4 +78,10 @@ public class InMemoryTaskRepository implements TaskRepository {
     return tasks.asMap().values().stream().anyMatch(engineTask::isSameAs);
   }
 
+  List<AnalysisRun> listTasks() {
+    return tasks.asMap().values().stream()
+        .sorted(Comparator.comparing(AnalysisRun::created))
+        .toList();
+  }
+
 }
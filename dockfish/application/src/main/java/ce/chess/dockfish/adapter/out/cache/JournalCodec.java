@@ -0,0 +1,356 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import ce.chess.dockfish.domain.model.result.AnalysisTime;
+import ce.chess.dockfish.domain.model.result.EngineInformation;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.result.Score;
+import ce.chess.dockfish.domain.model.result.UciState;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.DynamicPv;
+import ce.chess.dockfish.domain.model.task.EngineOption;
+import ce.chess.dockfish.domain.model.task.TaskFingerprint;
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of journal records. Numbers are written as varints (zigzag for signed values), strings as
+ * UTF-8 prefixed with their length + 1, so that 0 denotes null.
+ */
+final class JournalCodec {
+
+  static final byte TASK = 1;
+  static final byte EVALUATION = 2;
+  static final byte FINAL_EVALUATION = 3;
+
+  private JournalCodec() {
+  }
+
+  static byte[] encode(AnalysisRun task) {
+    Output out = new Output(512);
+    out.string(task.taskId().getRawId());
+    out.string(task.name().orElse(null));
+    out.string(task.reference());
+    out.string(task.engineProgramName());
+    out.string(task.uciEngineName().orElse(null));
+    out.string(task.hostname());
+    out.gamePosition(task.startingPosition());
+    out.varInt(task.initialPv());
+    out.optionalInt(task.maxDepth().orElse(null));
+    out.optionalLong(task.maxDuration().map(Duration::toMillis).orElse(null));
+    out.varInt(task.engineOptions().size());
+    task.engineOptions().forEach(option -> {
+      out.string(option.getName());
+      out.string(option.getValue());
+    });
+    out.bool(task.useSyzygyPath());
+    out.bool(task.dynamicPv().isPresent());
+    task.dynamicPv().ifPresent(dynamicPv -> {
+      out.varInt(dynamicPv.getRequiredDepth());
+      out.signedInt(dynamicPv.getCutOffCentiPawns());
+      out.varInt(dynamicPv.getKeepMinPv());
+    });
+    out.dateTime(task.created());
+    out.string(task.requestFingerprint() == null ? null : task.requestFingerprint().getValue());
+    return out.toByteArray();
+  }
+
+  static byte[] encode(Evaluation evaluation) {
+    Output out = new Output(1024);
+    out.evaluation(evaluation);
+    return out.toByteArray();
+  }
+
+  static byte[] encode(TaskFingerprint fingerprint, EvaluationMessage message) {
+    Output out = new Output(4096);
+    out.string(fingerprint.getValue());
+    out.string(message.getTaskName().orElse(null));
+    out.string(message.getReference());
+    out.string(message.getAnalysedPgn());
+    out.string(message.getAnalysedFen());
+    out.optionalInt(message.getAnalysedPly());
+    out.string(message.getUciEngineName());
+    out.optionalInt(message.getTaskDepth());
+    out.optionalLong(message.getTaskDuration() == null ? null : message.getTaskDuration().toMillis());
+    out.string(message.getHostname());
+    out.optionalInt(message.getStatus() == null ? null : message.getStatus().ordinal());
+    out.bool(message.getEvaluation() != null);
+    if (message.getEvaluation() != null) {
+      out.evaluation(message.getEvaluation());
+    }
+    out.dateTime(message.getTaskStarted());
+    out.dateTime(message.getLastEvaluation());
+    out.dateTime(message.getLastAlive());
+    out.varInt(message.getLatestEvents().size());
+    message.getLatestEvents().forEach(event -> {
+      out.varInt(event.getMultiPv());
+      out.string(event.getLineSan());
+      out.signedInt(event.getScore());
+      out.string(event.getTime());
+      out.varInt(event.getDepth());
+      out.dateTime(event.getOccurredOn());
+    });
+    out.varInt(message.getHistory().size());
+    message.getHistory().forEach(out::string);
+    return out.toByteArray();
+  }
+
+  static AnalysisRun decodeTask(ByteBuffer buffer) {
+    Input in = new Input(buffer);
+    AnalysisRun.AnalysisRunBuilder builder = AnalysisRun.builder()
+        .taskId(new TaskId(in.string()))
+        .name(in.string())
+        .reference(in.string())
+        .engineProgramName(in.string())
+        .uciEngineName(in.string())
+        .hostname(in.string())
+        .startingPosition(in.gamePosition())
+        .initialPv(in.varInt())
+        .maxDepth(in.optionalInt());
+    Long maxDuration = in.optionalLong();
+    builder.maxDuration(maxDuration == null ? null : Duration.ofMillis(maxDuration));
+    int engineOptions = in.varInt();
+    for (int i = 0; i < engineOptions; i++) {
+      builder.engineOption(new EngineOption(in.string(), in.string()));
+    }
+    builder.useSyzygyPath(in.bool());
+    if (in.bool()) {
+      builder.dynamicPv(new DynamicPv(in.varInt(), in.signedInt(), in.varInt()));
+    }
+    builder.created(in.dateTime());
+    // records written before the request fingerprint was journaled end here
+    String requestFingerprint = in.buffer().hasRemaining() ? in.string() : null;
+    return builder
+        .requestFingerprint(requestFingerprint == null ? null : new TaskFingerprint(requestFingerprint))
+        .build();
+  }
+
+  static Evaluation decodeEvaluation(ByteBuffer buffer) {
+    return new Input(buffer).evaluation();
+  }
+
+  static TaskFingerprint decodeFingerprint(ByteBuffer buffer) {
+    return new TaskFingerprint(new Input(buffer).string());
+  }
+
+  /**
+   * Decodes a final evaluation record. The buffer must be positioned behind the fingerprint.
+   */
+  static EvaluationMessage decodeEvaluationMessage(ByteBuffer buffer) {
+    Input in = new Input(buffer);
+    EvaluationMessage.EvaluationMessageBuilder builder = EvaluationMessage.builder()
+        .taskName(in.string())
+        .reference(in.string())
+        .analysedPgn(in.string())
+        .analysedFen(in.string())
+        .analysedPly(in.optionalInt())
+        .uciEngineName(in.string())
+        .taskDepth(in.optionalInt());
+    Long taskDuration = in.optionalLong();
+    builder.taskDuration(taskDuration == null ? null : Duration.ofMillis(taskDuration))
+        .hostname(in.string());
+    Integer status = in.optionalInt();
+    builder.status(status == null ? null : JobStatus.values()[status]);
+    if (in.bool()) {
+      builder.evaluation(in.evaluation());
+    }
+    builder.taskStarted(in.dateTime())
+        .lastEvaluation(in.dateTime())
+        .lastAlive(in.dateTime());
+    int latestEvents = in.varInt();
+    for (int i = 0; i < latestEvents; i++) {
+      builder.latestEvent(new EngineInformation(in.varInt(), in.string(), in.signedInt(), in.string(), in.varInt(),
+          in.dateTime()));
+    }
+    int history = in.varInt();
+    for (int i = 0; i < history; i++) {
+      builder.historyEntry(in.string());
+    }
+    return builder.build();
+  }
+
+  private static final class Output extends ByteArrayOutputStream {
+
+    Output(int size) {
+      super(size);
+    }
+
+    void varLong(long value) {
+      long remaining = value;
+      while ((remaining & ~0x7FL) != 0) {
+        write((int) (remaining & 0x7F) | 0x80);
+        remaining >>>= 7;
+      }
+      write((int) remaining);
+    }
+
+    void varInt(int value) {
+      varLong(value & 0xFFFFFFFFL);
+    }
+
+    void signedInt(int value) {
+      varInt(value << 1 ^ value >> 31);
+    }
+
+    void bool(boolean value) {
+      write(value ? 1 : 0);
+    }
+
+    void optionalInt(Integer value) {
+      bool(value != null);
+      if (value != null) {
+        varInt(value);
+      }
+    }
+
+    void optionalLong(Long value) {
+      bool(value != null);
+      if (value != null) {
+        varLong(value);
+      }
+    }
+
+    void string(String value) {
+      if (value == null) {
+        varInt(0);
+      } else {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        varInt(bytes.length + 1);
+        writeBytes(bytes);
+      }
+    }
+
+    void dateTime(LocalDateTime value) {
+      bool(value != null);
+      if (value != null) {
+        varLong(value.toEpochSecond(ZoneOffset.UTC));
+        varInt(value.getNano());
+      }
+    }
+
+    void evaluation(Evaluation evaluation) {
+      string(evaluation.getTaskId().getRawId());
+      dateTime(evaluation.getCreated());
+      varInt(evaluation.getVariations().size());
+      evaluation.getVariations().forEach(variation -> {
+        varInt(variation.getPvId());
+        string(variation.getMoves());
+        signedInt(variation.getScore().getCentiPawns());
+        varInt(variation.getDepth());
+        varLong(variation.getTime().getValue().toMillis());
+        gamePosition(variation.getGamePosition());
+      });
+      UciState uciState = evaluation.getUciState();
+      bool(uciState != null);
+      if (uciState != null) {
+        varLong(uciState.getKiloNodes());
+        varLong(uciState.getKiloNodesPerSecond());
+        varLong(uciState.getTbHits());
+        varInt(uciState.getInfoStrings().size());
+        uciState.getInfoStrings().forEach(this::string);
+      }
+    }
+
+    void gamePosition(GamePosition value) {
+      bool(value != null);
+      if (value != null) {
+        string(value.getPgn());
+        varInt(value.getLastMovePly());
+        bool(value.isWhitesMove());
+        string(value.getFen());
+      }
+    }
+  }
+
+  private record Input(ByteBuffer buffer) {
+
+    long varLong() {
+      long result = 0;
+      int shift = 0;
+      byte current;
+      do {
+        current = buffer.get();
+        result |= (long) (current & 0x7F) << shift;
+        shift += 7;
+      } while ((current & 0x80) != 0);
+      return result;
+    }
+
+    int varInt() {
+      return (int) varLong();
+    }
+
+    int signedInt() {
+      int value = varInt();
+      return value >>> 1 ^ -(value & 1);
+    }
+
+    boolean bool() {
+      return buffer.get() != 0;
+    }
+
+    Integer optionalInt() {
+      return bool() ? varInt() : null;
+    }
+
+    Long optionalLong() {
+      return bool() ? varLong() : null;
+    }
+
+    String string() {
+      int length = varInt() - 1;
+      if (length < 0) {
+        return null;
+      }
+      byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    LocalDateTime dateTime() {
+      return bool() ? LocalDateTime.ofEpochSecond(varLong(), varInt(), ZoneOffset.UTC) : null;
+    }
+
+    GamePosition gamePosition() {
+      return bool() ? new GamePosition(string(), varInt(), bool(), string()) : null;
+    }
+
+    Evaluation evaluation() {
+      Evaluation.EvaluationBuilder builder = Evaluation.builder()
+          .taskId(new TaskId(string()))
+          .created(dateTime());
+      int variations = varInt();
+      for (int i = 0; i < variations; i++) {
+        builder.variation(Variation.builder()
+            .pvId(varInt())
+            .moves(string())
+            .score(Score.fromCentiPawns(signedInt()))
+            .depth(varInt())
+            .time(AnalysisTime.fromMilliSeconds(varLong()))
+            .gamePosition(gamePosition())
+            .build());
+      }
+      if (bool()) {
+        UciState.UciStateBuilder uciState = UciState.builder()
+            .kiloNodes(varLong())
+            .kiloNodesPerSecond(varLong())
+            .tbHits(varLong());
+        int infoStrings = varInt();
+        for (int i = 0; i < infoStrings; i++) {
+          uciState.infoString(string());
+        }
+        builder.uciState(uciState.build());
+      }
+      return builder.build();
+    }
+  }
+}
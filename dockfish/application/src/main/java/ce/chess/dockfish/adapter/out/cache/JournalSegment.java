@@ -0,0 +1,129 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * A memory-mapped journal file of fixed capacity. Records are appended as
+ * {@code [int length][byte type][payload][int crc32c]}; a zero length marks the end of the written part. A torn
+ * record at the end (e.g. after a crash) fails the checksum and is treated as the end as well.
+ */
+final class JournalSegment {
+
+  private static final int MAGIC = 0x44464A31; // "DFJ1"
+  private static final int HEADER_BYTES = Integer.BYTES;
+  private static final int RECORD_OVERHEAD = Integer.BYTES + Byte.BYTES + Integer.BYTES;
+
+  @FunctionalInterface
+  interface RecordConsumer {
+    void accept(byte type, ByteBuffer payload);
+  }
+
+  private final Path path;
+  private final MappedByteBuffer buffer;
+
+  private JournalSegment(Path path, MappedByteBuffer buffer) {
+    this.path = path;
+    this.buffer = buffer;
+  }
+
+  static JournalSegment create(Path path, int capacity) throws IOException {
+    JournalSegment segment = new JournalSegment(path, map(path, capacity, StandardOpenOption.CREATE_NEW));
+    segment.buffer.putInt(MAGIC);
+    return segment;
+  }
+
+  static JournalSegment open(Path path) throws IOException {
+    JournalSegment segment = new JournalSegment(path, map(path, (int) Files.size(path)));
+    if (segment.buffer.capacity() < HEADER_BYTES || segment.buffer.getInt() != MAGIC) {
+      throw new IOException("Not a journal segment: " + path);
+    }
+    segment.forEach((type, payload) -> {
+    });
+    return segment;
+  }
+
+  static int requiredCapacity(int payloadBytes) {
+    return HEADER_BYTES + RECORD_OVERHEAD + payloadBytes + Integer.BYTES;
+  }
+
+  private static MappedByteBuffer map(Path path, int capacity, StandardOpenOption... options) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, openOptions(options))) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+  }
+
+  private static Set<StandardOpenOption> openOptions(StandardOpenOption... options) {
+    Set<StandardOpenOption> result = EnumSet.of(StandardOpenOption.READ, StandardOpenOption.WRITE);
+    result.addAll(Arrays.asList(options));
+    return result;
+  }
+
+  Path path() {
+    return path;
+  }
+
+  int size() {
+    return buffer.position();
+  }
+
+  /**
+   * Appends the record unless the remaining capacity is too small. The terminating zero length stays in place
+   * because the mapped file is zero-filled.
+   */
+  boolean tryAppend(byte type, byte[] payload) {
+    if (buffer.remaining() < RECORD_OVERHEAD + payload.length + Integer.BYTES) {
+      return false;
+    }
+    CRC32C crc = new CRC32C();
+    crc.update(type);
+    crc.update(payload);
+    buffer.putInt(payload.length + 1)
+        .put(type)
+        .put(payload)
+        .putInt((int) crc.getValue());
+    return true;
+  }
+
+  /**
+   * Visits all intact records and leaves the write position behind the last one.
+   */
+  void forEach(RecordConsumer consumer) {
+    ByteBuffer reader = buffer.duplicate().position(HEADER_BYTES);
+    CRC32C crc = new CRC32C();
+    int end = HEADER_BYTES;
+    while (reader.remaining() >= RECORD_OVERHEAD) {
+      int length = reader.getInt();
+      if (length <= 0 || length + Integer.BYTES > reader.remaining()) {
+        break;
+      }
+      crc.reset();
+      crc.update(reader.slice(reader.position(), length));
+      if ((int) crc.getValue() != reader.getInt(reader.position() + length)) {
+        break;
+      }
+      byte type = reader.get();
+      consumer.accept(type, reader.slice(reader.position(), length - 1));
+      reader.position(reader.position() + length - 1 + Integer.BYTES);
+      end = reader.position();
+    }
+    buffer.position(Math.max(buffer.position(), end));
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  void delete() throws IOException {
+    Files.deleteIfExists(path);
+  }
+}
@@ -1,14 +1,21 @@
 package ce.chess.dockfish.adapter.out.engine;
 
 import ce.chess.dockfish.domain.event.AnalysisFinished;
+import ce.chess.dockfish.domain.event.AnalysisPreempted;
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysisRequest;
+import ce.chess.dockfish.domain.model.gameanalysis.GameLine;
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeRequest;
 import ce.chess.dockfish.domain.model.result.JobStatus;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.EngineOption;
 import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.out.engine.EvaluateGame;
+import ce.chess.dockfish.usecase.out.engine.EvaluatePositions;
 import ce.chess.dockfish.usecase.out.engine.LockEngine;
 import ce.chess.dockfish.usecase.out.engine.QueryEngine;
 import ce.chess.dockfish.usecase.out.engine.ReducePv;
 import ce.chess.dockfish.usecase.out.engine.RunEngine;
-import ce.chess.dockfish.usecase.out.engine.StartStaticEvaluation;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
@@ -17,23 +24,41 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import lombok.extern.log4j.Log4j2;
 import org.eclipse.microprofile.metrics.MetricUnits;
 import org.eclipse.microprofile.metrics.annotation.Gauge;
 import raptor.engine.uci.UCIBestMove;
 import raptor.engine.uci.UCIEngine;
+import raptor.engine.uci.UCIMove;
 import raptor.engine.uci.UCIOption;
 
 @ApplicationScoped
 @Log4j2
-public class EngineController implements ReducePv, StartStaticEvaluation, LockEngine, QueryEngine, RunEngine {
+public class EngineController
+    implements ReducePv, LockEngine, QueryEngine, RunEngine, EvaluateGame, EvaluatePositions {
 
-  private static final String STATIC_EVALUATION_ENGINE = "stockfish16";
+  /**
+   * Time an engine may need beyond the budget of a position before its search is stopped.
+   */
+  private static final Duration POSITION_GRACE_TIME = Duration.ofSeconds(30);
 
-  private final Semaphore singleProcessMutex = new Semaphore(1);
+  /**
+   * Fair, so the engine goes to whoever waits longest. A game analysis that arrives during an analysis runs before the
+   * next task that is only taken from the queue when the analysis is finished.
+   */
+  private final Semaphore singleProcessMutex = new Semaphore(1, true);
 
   @Inject
   EngineListener engineListener;
@@ -47,8 +72,19 @@ public class EngineController implements ReducePv, StartStaticEvaluation, LockEn
   @Inject
   Event<AnalysisFinished> analysisFinishedPublisher;
 
+  @Inject
+  Event<AnalysisPreempted> analysisPreemptedPublisher;
+
   private AnalysisRun analysisRun;
 
+  private final AtomicBoolean preempting = new AtomicBoolean();
+
+  private final AtomicBoolean interrupted = new AtomicBoolean();
+
+  private final AtomicLong preemptions = new AtomicLong();
+
+  private final AtomicLong preemptionSavedSeconds = new AtomicLong();
+
   @Gauge(name = "task_time_remaining", absolute = true, unit = MetricUnits.SECONDS)
   public Long getTaskTimeRemaining() {
     return Optional.ofNullable(analysisRun)
@@ -60,6 +96,20 @@ public class EngineController implements ReducePv, StartStaticEvaluation, LockEn
         .orElse(0L);
   }
 
+  @Gauge(name = "analysis_preemptions", absolute = true, unit = MetricUnits.NONE)
+  public long getPreemptions() {
+    return preemptions.get();
+  }
+
+  /**
+   * The time that tasks of higher priority did not have to wait, i.e. the sum of the remaining time of the analyses
+   * they preempted.
+   */
+  @Gauge(name = "analysis_preemption_saved_time", absolute = true, unit = MetricUnits.SECONDS)
+  public long getPreemptionSavedSeconds() {
+    return preemptionSavedSeconds.get();
+  }
+
   @Override
   public AnalysisRun startAnalysis(final AnalysisRun analysisRun) {
     throwIfNotLocked("startAnalysis should be called only after a Lock was acquired");
@@ -73,6 +123,8 @@ public class EngineController implements ReducePv, StartStaticEvaluation, LockEn
 
     this.analysisRun = analysisRun
         .withUciEngineName(uciEngine.getEngineName());
+    preempting.set(false);
+    interrupted.set(false);
 
     engineListener.assignTo(this.analysisRun);
 
@@ -86,8 +138,13 @@ public class EngineController implements ReducePv, StartStaticEvaluation, LockEn
   }
 
   void watchdogFinished() {
-    log.info("Watchdog: Engine finished");
-    analysisFinishedPublisher.fire(new AnalysisFinished(analysisRun.taskId(), Instant.now()));
+    if (preempting.getAndSet(false)) {
+      log.info("Watchdog: Engine preempted");
+      analysisPreemptedPublisher.fire(new AnalysisPreempted(analysisRun.taskId(), Instant.now()));
+    } else {
+      log.info("Watchdog: Engine finished");
+      analysisFinishedPublisher.fire(new AnalysisFinished(analysisRun.taskId(), Instant.now(), !interrupted.get()));
+    }
 
     stop();
     uciEngineHolder.disconnect();
@@ -96,18 +153,71 @@ public class EngineController implements ReducePv, StartStaticEvaluation, LockEn
   }
 
   @Override
-  public String retrieveStaticEvaluation(String fen) {
-    throwIfNotLocked("retrieveStaticEvaluation should be called only after a Lock was acquired");
-    log.info("START eval");
-
-    UCIEngine uciEngine = uciEngineHolder.connect(STATIC_EVALUATION_ENGINE);
+  public String evaluateBackwards(GameAnalysisRequest request, List<EngineOption> engineOptions, GameLine gameLine,
+                                  Consumer<PositionScore> consumer) {
+    throwIfNotLocked("evaluateBackwards should be called only after a Lock was acquired");
+    log.info("START game analysis of {} positions", gameLine.size() + 1);
+    UCIEngine uciEngine = uciEngineHolder.connect(request.getEngineId(), 1, engineOptions);
+    try {
+      uciEngine.newGame();
+      String goParameter = createGoParameter(request.getDepthPerPly(), request.getDurationPerPly());
+      UCIMove[] moves = gameLine.getUciMoves().stream().map(UCIMove::new).toArray(UCIMove[]::new);
+      for (int movesPlayed = gameLine.size(); movesPlayed >= 0; movesPlayed--) {
+        // the positions only differ in their move list, so the engine keeps its hash from the later positions
+        uciEngine.setPosition(gameLine.getStartingFen(), Arrays.copyOf(moves, movesPlayed));
+        PositionScoreListener listener =
+            new PositionScoreListener(movesPlayed, gameLine.isWhitesMoveAfter(movesPlayed));
+        uciEngine.go(goParameter, listener);
+        consumer.accept(awaitPositionScore(uciEngine, listener, request.getDurationPerPly()));
+      }
+      return uciEngine.getEngineName();
+    } finally {
+      uciEngineHolder.disconnect();
+    }
+  }
 
-    uciEngine.setPosition(fen);
+  @Override
+  public String evaluatePositions(OpeningTreeRequest request, List<EngineOption> engineOptions, List<String> fens,
+                                  BiConsumer<String, PositionScore> consumer) {
+    throwIfNotLocked("evaluatePositions should be called only after a Lock was acquired");
+    log.info("START evaluation of {} positions", fens.size());
+    UCIEngine uciEngine = uciEngineHolder.connect(request.getEngineId(), 1, engineOptions);
+    try {
+      // one game for all positions, they are related and share what the engine keeps in its hash
+      uciEngine.newGame();
+      String goParameter = createGoParameter(request.getDepthPerLeaf(), request.getDurationPerLeaf());
+      for (String fen : fens) {
+        uciEngine.setPosition(fen);
+        // the side to move is the only field of a FEN that can be " w "
+        PositionScoreListener listener = new PositionScoreListener(0, fen.contains(" w "));
+        uciEngine.go(goParameter, listener);
+        consumer.accept(fen, awaitPositionScore(uciEngine, listener, request.getDurationPerLeaf()));
+      }
+      return uciEngine.getEngineName();
+    } finally {
+      uciEngineHolder.disconnect();
+    }
+  }
 
-    String eval = uciEngine.eval();
-    log.info("Got static evaluation: {}", eval);
-    uciEngineHolder.disconnect();
-    return eval;
+  private static PositionScore awaitPositionScore(UCIEngine uciEngine, PositionScoreListener listener,
+                                                  Duration budget) {
+    Duration timeout = Optional.ofNullable(budget)
+        .map(POSITION_GRACE_TIME::plus)
+        .orElse(POSITION_GRACE_TIME.multipliedBy(20));
+    try {
+      try {
+        return listener.positionScore().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException ex) {
+        log.warn("Engine did not finish position within {}. Stop it.", timeout);
+        uciEngine.stop();
+        return listener.positionScore().get(POSITION_GRACE_TIME.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the engine", ex);
+    } catch (ExecutionException | TimeoutException ex) {
+      throw new IllegalStateException("Engine did not evaluate the position", ex);
+    }
   }
 
   @Override
@@ -129,14 +239,28 @@ public class EngineController implements ReducePv, StartStaticEvaluation, LockEn
   public void stop() {
     if (uciEngineIsRunning()) {
       log.info("stop");
+      interrupted.set(true);
       UCIBestMove bestMove = uciEngineHolder.getEngine().stop();
       log.info("Engine stopped. BestMove: {}", bestMove);
     }
   }
 
+  @Override
+  public boolean preempt() {
+    if (!uciEngineIsRunning()) {
+      return false;
+    }
+    preemptions.incrementAndGet();
+    preemptionSavedSeconds.addAndGet(getTaskTimeRemaining());
+    preempting.set(true);
+    stop();
+    return true;
+  }
+
   @Override
   public void kill() {
     log.info("kill");
+    interrupted.set(true);
     uciEngineHolder.getEngine().kill();
     log.info("Engine killed.");
   }
@@ -155,6 +279,13 @@ public class EngineController implements ReducePv, StartStaticEvaluation, LockEn
     return uciEngineHolder.getEngine().isProcessingGo();
   }
 
+  @Override
+  public Optional<TaskId> getRunningTaskId() {
+    return Optional.ofNullable(analysisRun)
+        .map(AnalysisRun::taskId)
+        .filter(taskId -> uciEngineIsRunning());
+  }
+
   private boolean uciEngineIsRunning(TaskId taskId) {
     return uciEngineIsRunning()
         && Objects.nonNull(analysisRun)
@@ -175,6 +306,13 @@ public class EngineController implements ReducePv, StartStaticEvaluation, LockEn
     return goCommand;
   }
 
+  private static String createGoParameter(Integer depth, Duration duration) {
+    if (depth != null) {
+      return "depth " + depth;
+    }
+    return "movetime " + duration.toMillis();
+  }
+
   @Override
   public void acquireLock() {
     log.info("START wait for lock");
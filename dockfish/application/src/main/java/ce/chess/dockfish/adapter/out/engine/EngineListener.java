@@ -1,9 +1,7 @@
 package ce.chess.dockfish.adapter.out.engine;
 
-import ce.chess.dockfish.adapter.common.chess.GamePositionService;
 import ce.chess.dockfish.domain.event.EngineInformationReceived;
-import ce.chess.dockfish.domain.model.result.AnalysisTime;
-import ce.chess.dockfish.domain.model.result.Score;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -18,11 +16,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import lombok.extern.log4j.Log4j2;
-import raptor.chess.Game;
 import raptor.chess.GameConstants;
-import raptor.chess.Move;
-import raptor.chess.MoveList;
-import raptor.chess.pgn.Comment;
 import raptor.chess.util.GameUtils;
 import raptor.engine.uci.UCIBestMove;
 import raptor.engine.uci.UCIInfo;
@@ -44,15 +38,18 @@ public class EngineListener implements UCIInfoListener {
 
   private final UciEngineInformation uciInformation = new UciEngineInformation();
   private AnalysisRun currentTask;
+  private String engineName;
 
-  @Inject
-  GamePositionService gamePositionService;
+  private final Event<EngineInformationReceived> engineInformationPublisher;
 
   @Inject
-  Event<EngineInformationReceived> engineInformationPublisher;
+  public EngineListener(Event<EngineInformationReceived> engineInformationPublisher) {
+    this.engineInformationPublisher = engineInformationPublisher;
+  }
 
   public void assignTo(AnalysisRun engineTask) {
     this.currentTask = Objects.requireNonNull(engineTask);
+    this.engineName = engineTask.uciEngineName().orElseGet(engineTask::engineProgramName);
     this.uciInformation.reset();
     log.info("Listening to task: [{}]", engineTask);
   }
@@ -121,25 +118,24 @@ public class EngineListener implements UCIInfoListener {
         .tbHits(uciInformation.tbHits)
         .score(uciInformation.lastScore)
         .infoStrings(uciInformation.infoStrings)
-        .pgn("")
-        .lineSan("")
-        .calculatedPlies(0)
         .build();
   }
 
   private EngineInformationReceived uciEventWithGame(BestLineFoundInfo bestLineInfo) {
-    Game game = gamePositionService.raptorGameFor(currentTask.startingPosition().getPgn());
-    if (!game.isWhitesMove()) {
+    if (!currentTask.startingPosition().isWhitesMove()) {
       uciInformation.lastScore *= -1;
     }
-    MoveList raptorMoveList = makeMovesAndReturnMoveList(game, bestLineInfo.getMoves());
-    return createBestLineInfoEvent(game, raptorMoveList);
+    return uciEventWithoutGame().toBuilder()
+        .startingPosition(currentTask.startingPosition())
+        .pv(encodeMoves(bestLineInfo.getMoves()))
+        .engineName(engineName)
+        .build();
   }
 
-  private MoveList makeMovesAndReturnMoveList(Game raptorGame, List<UCIMove> uciMoves) {
-    MoveList raptorMoveList = new MoveList();
-    for (UCIMove uciMove : uciMoves) {
-      String uciString = uciMove.getValue();
+  private static PackedMoves encodeMoves(List<UCIMove> uciMoves) {
+    short[] moves = new short[uciMoves.size()];
+    for (int i = 0; i < moves.length; i++) {
+      String uciString = uciMoves.get(i).getValue();
       int startSquare = GameUtils.getSquare(uciString.substring(0, 2));
       int endSquare = GameUtils.getSquare(uciString.substring(2, 4));
       int promotedPiece = 0;
@@ -148,71 +144,15 @@ public class EngineListener implements UCIInfoListener {
         promotedPiece = GameConstants.PIECE_TO_SAN
             .toLowerCase(Locale.getDefault()).indexOf(pieceChar);
       }
-
-      Move raptorMove;
-      if (promotedPiece == 0) {
-        raptorMove = raptorGame.makeMove(startSquare, endSquare);
-      } else {
-        raptorMove = raptorGame.makeMove(startSquare, endSquare, promotedPiece);
-      }
-      raptorMoveList.append(raptorMove);
+      moves[i] = PackedMoves.encode(startSquare, endSquare, promotedPiece);
     }
-    Comment comment = createGameComment();
-    raptorMoveList.get(0).addAnnotation(comment);
-    raptorMoveList.getLast().addAnnotation(comment);
-
-    return raptorMoveList;
-  }
-
-  private Comment createGameComment() {
-    return new Comment(String.format("pv%d: %s;d%d;%s %s",
-        uciInformation.lastMultiPv,
-        Score.fromCentiPawns(uciInformation.lastScore),
-        uciInformation.currentDepth,
-        AnalysisTime.fromMilliSeconds(uciInformation.currentTime).formattedAsTime(),
-        currentTask.uciEngineName().orElseGet(currentTask::engineProgramName)));
-  }
-
-  private EngineInformationReceived createBestLineInfoEvent(Game game, MoveList raptorMoveList) {
-    return uciEventWithoutGame().toBuilder()
-        .pgn(game.toPgn())
-        .lineSan(moveList2SanString(raptorMoveList))
-        .calculatedPlies(raptorMoveList.getSize())
-        .build();
+    return PackedMoves.of(moves);
   }
 
   private void fireEvent(EngineInformationReceived uciInfoReceived) {
     engineInformationPublisher.fire(uciInfoReceived);
   }
 
-  private static String moveList2SanString(MoveList raptorMoveList) {
-    StringBuilder lineText = new StringBuilder();
-    boolean isFirstMove = true;
-    for (Move raptorMove : raptorMoveList.asList()) {
-      lineText.append(move2String(isFirstMove, raptorMove));
-      isFirstMove = false;
-    }
-    return lineText.toString();
-
-  }
-
-  private static String move2String(boolean isFirstMove, Move raptorMove) {
-    StringBuilder lineText = new StringBuilder();
-    String moveNumber;
-    if (isFirstMove && !raptorMove.isWhitesMove()) {
-      moveNumber = raptorMove.getFullMoveCount() + ". ... ";
-    } else {
-      moveNumber = raptorMove.isWhitesMove() ? raptorMove.getFullMoveCount() + ". " : "";
-    }
-    String san = raptorMove.getSan();
-
-    if (!isFirstMove) {
-      lineText.append(' ');
-    }
-    lineText.append(moveNumber).append(san);
-    return lineText.toString();
-  }
-
   UciEngineInformation getUciInformation() {
     return uciInformation;
   }
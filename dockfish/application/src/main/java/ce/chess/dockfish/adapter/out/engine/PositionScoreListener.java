@@ -0,0 +1,58 @@
+package ce.chess.dockfish.adapter.out.engine;
+
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.log4j.Log4j2;
+import raptor.engine.uci.UCIBestMove;
+import raptor.engine.uci.UCIInfo;
+import raptor.engine.uci.UCIInfoListener;
+import raptor.engine.uci.UCIMove;
+import raptor.engine.uci.info.DepthInfo;
+import raptor.engine.uci.info.ScoreInfo;
+
+/**
+ * Listens to the search of one position of a game and completes with its score once the engine sent its best move.
+ */
+@Log4j2
+class PositionScoreListener implements UCIInfoListener {
+  private final int movesPlayed;
+  private final boolean whitesMove;
+  private final CompletableFuture<PositionScore> positionScore = new CompletableFuture<>();
+  private volatile int depth;
+  private volatile int score;
+
+  PositionScoreListener(int movesPlayed, boolean whitesMove) {
+    this.movesPlayed = movesPlayed;
+    this.whitesMove = whitesMove;
+  }
+
+  @Override
+  public void engineSentInfo(List<UCIInfo> infos) {
+    for (UCIInfo info : infos) {
+      if (info instanceof DepthInfo depthInfo) {
+        depth = depthInfo.getSearchDepthPlies();
+      } else if (info instanceof ScoreInfo scoreInfo && !scoreInfo.isLowerBoundScore()
+          && !scoreInfo.isUpperBoundScore()) {
+        score = scoreInfo.getValueInCentipawns() + 9999 * Integer.signum(scoreInfo.getMateInMoves());
+      }
+    }
+  }
+
+  @Override
+  public void engineSentBestMove(UCIBestMove uciBestMove) {
+    log.debug("Position after {} moves: bestmove {} score {} depth {}", movesPlayed, uciBestMove, score, depth);
+    positionScore.complete(PositionScore.builder()
+        .movesPlayed(movesPlayed)
+        .centiPawns(whitesMove ? score : -score)
+        .depth(depth)
+        .bestMove(Optional.ofNullable(uciBestMove.getBestMove()).map(UCIMove::getValue).orElse(null))
+        .build());
+  }
+
+  CompletableFuture<PositionScore> positionScore() {
+    return positionScore;
+  }
+}
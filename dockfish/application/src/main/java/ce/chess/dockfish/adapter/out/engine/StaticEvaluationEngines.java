@@ -0,0 +1,103 @@
+package ce.chess.dockfish.adapter.out.engine;
+
+import ce.chess.dockfish.usecase.out.engine.StartStaticEvaluation;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.metrics.annotation.Timed;
+import raptor.engine.uci.UCIEngine;
+import raptor.engine.uci.UCIOption;
+import raptor.engine.uci.options.UCISpinner;
+
+/**
+ * A small pool of stockfish16 processes of its own for static evaluations, so they never wait for the engine of the
+ * analyses. A process is started when it is first needed and is kept warm afterwards. Each process gets
+ * "static_evaluation_threads" threads, which caps the CPU of this lane at engines times threads.
+ */
+@ApplicationScoped
+@Log4j2
+public class StaticEvaluationEngines implements StartStaticEvaluation {
+  static final String STATIC_EVALUATION_ENGINE = "stockfish16";
+
+  private final EngineDirectoryConfiguration engineDirConfiguration;
+
+  private final int threadsPerEngine;
+
+  private final BlockingQueue<UCIEngine> idleEngines;
+
+  @Inject
+  public StaticEvaluationEngines(EngineDirectoryConfiguration engineDirConfiguration,
+                                 @ConfigProperty(name = "static_evaluation_engines", defaultValue = "1") int engines,
+                                 @ConfigProperty(name = "static_evaluation_threads", defaultValue = "1")
+                                 int threadsPerEngine) {
+    this(engineDirConfiguration, engines, threadsPerEngine, UCIEngine::new);
+  }
+
+  StaticEvaluationEngines(EngineDirectoryConfiguration engineDirConfiguration, int engines, int threadsPerEngine,
+                          Supplier<UCIEngine> engineFactory) {
+    this.engineDirConfiguration = engineDirConfiguration;
+    this.threadsPerEngine = threadsPerEngine;
+    this.idleEngines = new LinkedBlockingQueue<>();
+    IntStream.range(0, engines).forEach(i -> idleEngines.add(engineFactory.get()));
+  }
+
+  @Override
+  @Timed(name = "static_evaluation_duration", absolute = true, unit = MetricUnits.MILLISECONDS)
+  public String retrieveStaticEvaluation(String fen) {
+    UCIEngine uciEngine = takeEngine();
+    try {
+      connectIfNecessary(uciEngine);
+      uciEngine.setPosition(fen);
+      String eval = uciEngine.eval();
+      log.info("Got static evaluation: {}", eval);
+      return eval;
+    } finally {
+      idleEngines.add(uciEngine);
+    }
+  }
+
+  @Gauge(name = "static_evaluation_engines_idle", absolute = true, unit = MetricUnits.NONE)
+  public int getIdleEngines() {
+    return idleEngines.size();
+  }
+
+  @PreDestroy
+  void quitEngines() {
+    idleEngines.stream()
+        .filter(UCIEngine::isConnected)
+        .forEach(UCIEngine::quit);
+  }
+
+  private UCIEngine takeEngine() {
+    try {
+      return idleEngines.take();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for a static evaluation engine", ex);
+    }
+  }
+
+  private void connectIfNecessary(UCIEngine uciEngine) {
+    if (uciEngine.isConnected()) {
+      return;
+    }
+    uciEngine.setProcessPath(engineDirConfiguration.validatedProcessPathFor(STATIC_EVALUATION_ENGINE));
+    log.info("Connecting static evaluation engine {}", uciEngine.getProcessPath());
+    if (!uciEngine.connect()) {
+      throw new IllegalStateException("Failed to connect engine " + uciEngine.getProcessPath());
+    }
+    UCIOption threads = new UCISpinner();
+    threads.setName("Threads");
+    threads.setValue(Integer.toString(threadsPerEngine));
+    uciEngine.setOption(threads);
+  }
+}
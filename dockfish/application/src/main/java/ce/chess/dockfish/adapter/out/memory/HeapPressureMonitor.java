@@ -0,0 +1,107 @@
+package ce.chess.dockfish.adapter.out.memory;
+
+import ce.chess.dockfish.domain.event.MemoryPressureChanged;
+import ce.chess.dockfish.domain.model.MemoryPressure;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+/**
+ * Watches the heap usage after garbage collection. The collection usage threshold of each heap pool is set to the
+ * lowest pressure level, so the pools only have to be inspected in detail once it was exceeded.
+ */
+@ApplicationScoped
+@Log4j2
+public class HeapPressureMonitor {
+
+  static final double ELEVATED_RATIO = 0.70;
+  static final double HIGH_RATIO = 0.80;
+  static final double CRITICAL_RATIO = 0.90;
+  private static final int MONITORING_INTERVAL_SECONDS = 2;
+
+  private final List<MemoryPoolMXBean> heapPools;
+
+  private ScheduledExecutorService scheduledExecutorService;
+
+  private volatile MemoryPressure currentPressure = MemoryPressure.NORMAL;
+
+  @Inject
+  Event<MemoryPressureChanged> memoryPressurePublisher;
+
+  public HeapPressureMonitor() {
+    this(ManagementFactory.getMemoryPoolMXBeans());
+  }
+
+  HeapPressureMonitor(List<MemoryPoolMXBean> memoryPools) {
+    this.heapPools = memoryPools.stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP)
+        .filter(MemoryPoolMXBean::isCollectionUsageThresholdSupported)
+        .filter(pool -> pool.getUsage().getMax() > 0)
+        .toList();
+  }
+
+  void startMonitoring(@Observes StartupEvent startupEvent) {
+    heapPools.forEach(pool ->
+        pool.setCollectionUsageThreshold((long) (pool.getUsage().getMax() * ELEVATED_RATIO)));
+    log.info("Monitoring heap pools {}", () -> heapPools.stream().map(MemoryPoolMXBean::getName).toList());
+    scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+    scheduledExecutorService.scheduleWithFixedDelay(this::checkPressure,
+        MONITORING_INTERVAL_SECONDS, MONITORING_INTERVAL_SECONDS, TimeUnit.SECONDS);
+  }
+
+  void stopMonitoring(@Observes ShutdownEvent shutdownEvent) {
+    if (scheduledExecutorService != null) {
+      scheduledExecutorService.shutdownNow();
+    }
+  }
+
+  @Gauge(name = "memory_pressure_level", absolute = true, unit = MetricUnits.NONE)
+  public int getPressureLevel() {
+    return currentPressure.ordinal();
+  }
+
+  void checkPressure() {
+    MemoryPressure pressure = heapPools.stream()
+        .filter(MemoryPoolMXBean::isCollectionUsageThresholdExceeded)
+        .map(pool -> pressureFor(pool.getCollectionUsage()))
+        .max(Comparator.naturalOrder())
+        .orElse(MemoryPressure.NORMAL);
+    if (pressure != currentPressure) {
+      log.warn("Heap pressure changed from {} to {}", currentPressure, pressure);
+      currentPressure = pressure;
+      memoryPressurePublisher.fire(new MemoryPressureChanged(pressure));
+    }
+  }
+
+  static MemoryPressure pressureFor(MemoryUsage usage) {
+    if (usage == null || usage.getMax() <= 0) {
+      return MemoryPressure.NORMAL;
+    }
+    double ratio = (double) usage.getUsed() / usage.getMax();
+    if (ratio >= CRITICAL_RATIO) {
+      return MemoryPressure.CRITICAL;
+    } else if (ratio >= HIGH_RATIO) {
+      return MemoryPressure.HIGH;
+    } else if (ratio >= ELEVATED_RATIO) {
+      return MemoryPressure.ELEVATED;
+    } else {
+      return MemoryPressure.NORMAL;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.adapter.common.dto.SubmitTaskCommand;
+import ce.chess.dockfish.domain.model.corpus.CorpusIndex;
+import ce.chess.dockfish.domain.model.corpus.PositionTask;
+
+import io.smallrye.reactive.messaging.rabbitmq.OutgoingRabbitMQMetadata;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+/**
+ * Publishes the index of a corpus and submits its position tasks to the same exchange as all other tasks, where any
+ * dockfish instance may pick them up.
+ */
+@ApplicationScoped
+@Log4j2
+public class CorpusPublisher {
+
+  @Inject
+  @Channel(RabbitConfiguration.CHANNEL_CORPUS_INDEX)
+  Emitter<CorpusIndex> corpusIndexEmitter;
+
+  @Inject
+  @Channel(RabbitConfiguration.CHANNEL_CORPUS_TASK)
+  Emitter<SubmitTaskCommand> taskEmitter;
+
+  public void publishCorpusIndex(@Observes CorpusIndex corpusIndex) {
+    log.info(" [x] Publishing index of corpus [{}] with {} positions", corpusIndex.getReference(),
+        corpusIndex.getPositions().size());
+    corpusIndexEmitter.send(persistent(Message.of(corpusIndex)));
+  }
+
+  public void submitPositionTask(@Observes PositionTask positionTask) {
+    log.debug(" [x] Submitting task {}", positionTask.getTaskId());
+    taskEmitter.send(persistent(Message.of(SubmitTaskCommand.builder()
+        .id(positionTask.getTaskId().getRawId())
+        .name(positionTask.getReference())
+        .reference(positionTask.getReference())
+        .fen(positionTask.getFen())
+        .engineId(positionTask.getEngineId())
+        .initialPv(positionTask.getInitialPv())
+        .maxDepth(positionTask.getMaxDepth())
+        .maxDuration(positionTask.getMaxDuration())
+        .build())));
+  }
+
+  private static <T> Message<T> persistent(Message<T> message) {
+    return message
+        .withMetadata(Metadata.of(
+            OutgoingRabbitMQMetadata.builder()
+                .withDeliveryMode(2)
+                .build()
+        ))
+        .withAck(() -> CompletableFuture.completedFuture(null))
+        .withNack(reason -> {
+          log.warn(" [x] nacked with reason", reason);
+          return CompletableFuture.completedFuture(null);
+        });
+  }
+
+}
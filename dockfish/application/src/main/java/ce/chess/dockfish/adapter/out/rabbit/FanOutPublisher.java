@@ -0,0 +1,55 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.adapter.common.dto.SubmitTaskCommand;
+import ce.chess.dockfish.domain.model.fanout.SubTask;
+
+import io.smallrye.reactive.messaging.rabbitmq.OutgoingRabbitMQMetadata;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+/**
+ * Submits the sub tasks of a fan-out to the same exchange as all other tasks, where any dockfish instance may pick them
+ * up. The correlation key of the fan-out is sent as correlation id.
+ */
+@ApplicationScoped
+@Log4j2
+public class FanOutPublisher {
+
+  @Inject
+  @Channel(RabbitConfiguration.CHANNEL_FAN_OUT_TASK)
+  Emitter<SubmitTaskCommand> taskEmitter;
+
+  public void submitSubTask(@Observes SubTask subTask) {
+    log.debug(" [x] Submitting sub task {}", subTask.getTaskId());
+    taskEmitter.send(Message.of(SubmitTaskCommand.builder()
+            .id(subTask.getTaskId().getRawId())
+            .name(subTask.getReference())
+            .reference(subTask.getReference())
+            .pgn(subTask.getPgn())
+            .engineId(subTask.getEngineId())
+            .initialPv(1)
+            .maxDepth(subTask.getMaxDepth())
+            .maxDuration(subTask.getMaxDuration())
+            .build())
+        .withMetadata(Metadata.of(
+            OutgoingRabbitMQMetadata.builder()
+                .withDeliveryMode(2)
+                .withCorrelationId(subTask.getCorrelationKey().getRawId())
+                .build()
+        ))
+        .withAck(() -> CompletableFuture.completedFuture(null))
+        .withNack(reason -> {
+          log.warn(" [x] nacked with reason", reason);
+          return CompletableFuture.completedFuture(null);
+        }));
+  }
+
+}
@@ -1,23 +1,20 @@
 package ce.chess.dockfish.adapter.out.rabbit;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import ce.chess.dockfish.adapter.RabbitConfiguration;
 import ce.chess.dockfish.adapter.common.dto.EvaluationMessageDto;
 import ce.chess.dockfish.adapter.common.mapper.EvaluationMessageDtoMapper;
 import ce.chess.dockfish.adapter.out.rabbit.fallback.PublishFailed;
 import ce.chess.dockfish.domain.event.SubmitEvaluationMessage;
 
-import io.smallrye.reactive.messaging.rabbitmq.OutgoingRabbitMQMetadata;
-import io.vertx.core.json.JsonObject;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
-import java.util.concurrent.CompletableFuture;
 import lombok.extern.log4j.Log4j2;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
-import org.eclipse.microprofile.reactive.messaging.Message;
-import org.eclipse.microprofile.reactive.messaging.Metadata;
 
 @ApplicationScoped
 @Log4j2
@@ -28,42 +25,29 @@ public class FinalResultPublisher {
   @Inject
   EvaluationMessageDtoMapper evaluationMessageDtoMapper;
 
+  @Inject
+  JsonPublisher jsonPublisher;
+
   @Inject
   Event<PublishFailed> publishFailedEvent;
 
   @Inject
   @Channel(RabbitConfiguration.CHANNEL_EVALUATION)
-  Emitter<EvaluationMessageDto> emitter;
+  Emitter<byte[]> emitter;
 
   public void publishFinalEvaluation(@Observes SubmitEvaluationMessage event) {
     EvaluationMessageDto evaluationMessage = evaluationMessageDtoMapper.toDto(event.getEvaluationMessage());
-    log.info(" [x] Publishing '{}'", JsonObject.mapFrom(evaluationMessage));
+    byte[] json = jsonPublisher.serialize(evaluationMessage);
+    log.info(" [x] Publishing '{}'", () -> new String(json, UTF_8));
     try {
-      emitter.send(
-          Message.of(evaluationMessage)
-              .withMetadata(Metadata.of(
-                  OutgoingRabbitMQMetadata.builder()
-                      .withDeliveryMode(2)
-                      .build()
-              ))
-              .withAck(() -> {
-                log.info("[x] acked");
-                return CompletableFuture.completedFuture(null);
-              })
-              .withNack(reason -> {
-                log.warn(" [x] nacked with reason", reason);
-                publishFailedEvent.fire(
-                    new PublishFailed(
-                        EXCHANGE_NAME,
-                        JsonObject.mapFrom(evaluationMessage).toString()));
-                return CompletableFuture.completedFuture(null);
-              }));
+      jsonPublisher.send(emitter, RabbitConfiguration.CHANNEL_EVALUATION, json, () -> publishFailed(json));
     } catch (IllegalStateException ies) {
       log.warn(" sending message failed with", ies);
-      publishFailedEvent.fire(
-          new PublishFailed(
-              EXCHANGE_NAME,
-              JsonObject.mapFrom(evaluationMessage).toString()));
+      publishFailed(json);
     }
   }
+
+  private void publishFailed(byte[] json) {
+    publishFailedEvent.fire(new PublishFailed(EXCHANGE_NAME, new String(json, UTF_8)));
+  }
 }
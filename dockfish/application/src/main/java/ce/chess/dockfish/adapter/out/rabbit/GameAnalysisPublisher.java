@@ -0,0 +1,42 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysis;
+import ce.chess.dockfish.domain.model.gameanalysis.PlyEvaluation;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+
+@ApplicationScoped
+@Log4j2
+public class GameAnalysisPublisher {
+
+  @Inject
+  JsonPublisher jsonPublisher;
+
+  @Inject
+  @Channel(RabbitConfiguration.CHANNEL_PLY_EVALUATION)
+  Emitter<byte[]> plyEvaluationEmitter;
+
+  @Inject
+  @Channel(RabbitConfiguration.CHANNEL_GAME_ANALYSIS)
+  Emitter<byte[]> gameAnalysisEmitter;
+
+  public void publishPlyEvaluation(@Observes PlyEvaluation plyEvaluation) {
+    log.info(" [x] Publishing ply {} of [{}]", plyEvaluation.getPly(), plyEvaluation.getReference());
+    jsonPublisher.send(plyEvaluationEmitter, RabbitConfiguration.CHANNEL_PLY_EVALUATION,
+        jsonPublisher.serialize(plyEvaluation));
+  }
+
+  public void publishGameAnalysis(@Observes GameAnalysis gameAnalysis) {
+    log.info(" [x] Publishing analysis of [{}] with blunders in plies {}",
+        gameAnalysis.getRequest().getReference(), gameAnalysis.getBlunders());
+    jsonPublisher.send(gameAnalysisEmitter, RabbitConfiguration.CHANNEL_GAME_ANALYSIS,
+        jsonPublisher.serialize(gameAnalysis));
+  }
+
+}
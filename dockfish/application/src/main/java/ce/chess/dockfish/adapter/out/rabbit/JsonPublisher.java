@@ -0,0 +1,88 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.smallrye.reactive.messaging.rabbitmq.OutgoingRabbitMQMetadata;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+/**
+ * Publishes results as persistent JSON messages. A result is serialized once, the same bytes are logged, sent and
+ * handed to the fallback if the broker rejects them. The result channels publish with confirms, which the broker
+ * returns asynchronously for up to "max-inflight-messages" messages, so a burst of results does not wait for one
+ * confirm after the other. The rate of the messages and the latency of the confirms are metrics per channel.
+ */
+@ApplicationScoped
+@Log4j2
+class JsonPublisher {
+  static final String CONTENT_TYPE = "application/json";
+
+  private final ObjectWriter objectWriter;
+  private final Optional<MetricRegistry> metricRegistry;
+  private final LongSupplier nanoClock;
+
+  @Inject
+  JsonPublisher(ObjectMapper objectMapper, Instance<MetricRegistry> metricRegistry) {
+    this(objectMapper, metricRegistry.isResolvable() ? Optional.of(metricRegistry.get()) : Optional.empty(),
+        System::nanoTime);
+  }
+
+  JsonPublisher(ObjectMapper objectMapper, Optional<MetricRegistry> metricRegistry, LongSupplier nanoClock) {
+    this.objectWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    this.metricRegistry = metricRegistry;
+    this.nanoClock = nanoClock;
+  }
+
+  byte[] serialize(Object result) {
+    try {
+      return objectWriter.writeValueAsBytes(result);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalArgumentException("Cannot serialize " + result.getClass().getSimpleName(), ex);
+    }
+  }
+
+  void send(Emitter<byte[]> emitter, String channel, byte[] json) {
+    send(emitter, channel, json, () -> {
+    });
+  }
+
+  void send(Emitter<byte[]> emitter, String channel, byte[] json, Runnable onNack) {
+    long sentNanos = nanoClock.getAsLong();
+    emitter.send(Message.of(json)
+        .withMetadata(Metadata.of(
+            OutgoingRabbitMQMetadata.builder()
+                .withDeliveryMode(2)
+                .withContentType(CONTENT_TYPE)
+                .build()
+        ))
+        .withAck(() -> {
+          log.debug("[x] acked");
+          metricRegistry.ifPresent(registry -> registry.timer("result_confirm_latency", channelTag(channel))
+              .update(Duration.ofNanos(nanoClock.getAsLong() - sentNanos)));
+          return CompletableFuture.completedFuture(null);
+        })
+        .withNack(reason -> {
+          log.warn(" [x] nacked with reason", reason);
+          onNack.run();
+          return CompletableFuture.completedFuture(null);
+        }));
+    metricRegistry.ifPresent(registry -> registry.meter("result_messages", channelTag(channel)).mark());
+  }
+
+  private static Tag channelTag(String channel) {
+    return new Tag("channel", channel);
+  }
+}
@@ -0,0 +1,45 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeAnalysis;
+
+import io.smallrye.reactive.messaging.rabbitmq.OutgoingRabbitMQMetadata;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.reactive.messaging.Channel;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Metadata;
+
+@ApplicationScoped
+@Log4j2
+public class OpeningTreePublisher {
+
+  @Inject
+  @Channel(RabbitConfiguration.CHANNEL_OPENING_TREE_ANALYSIS)
+  Emitter<OpeningTreeAnalysis> openingTreeAnalysisEmitter;
+
+  public void publishOpeningTreeAnalysis(@Observes OpeningTreeAnalysis openingTreeAnalysis) {
+    log.info(" [x] Publishing opening tree [{}] with {} positions, best move {}",
+        openingTreeAnalysis.getRequest().getReference(), openingTreeAnalysis.getNodes().size(),
+        openingTreeAnalysis.getRoot().getBestMove());
+    openingTreeAnalysisEmitter.send(Message.of(openingTreeAnalysis)
+        .withMetadata(Metadata.of(
+            OutgoingRabbitMQMetadata.builder()
+                .withDeliveryMode(2)
+                .build()
+        ))
+        .withAck(() -> {
+          log.info("[x] acked");
+          return CompletableFuture.completedFuture(null);
+        })
+        .withNack(reason -> {
+          log.warn(" [x] nacked with reason", reason);
+          return CompletableFuture.completedFuture(null);
+        }));
+  }
+
+}
@@ -18,4 +18,9 @@ public class AnalysisFinished {
   @NonNull
   Instant occurredOn;
 
+  /**
+   * False if the analysis was stopped or killed before it reached its maxDepth or maxDuration.
+   */
+  boolean completed;
+
 }
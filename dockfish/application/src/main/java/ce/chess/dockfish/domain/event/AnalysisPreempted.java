@@ -0,0 +1,24 @@
+package ce.chess.dockfish.domain.event;
+
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * The analysis was stopped for a task of higher priority and will be resumed, so it is not finished yet.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class AnalysisPreempted {
+  @NonNull
+  TaskId taskId;
+
+  @NonNull
+  Instant occurredOn;
+
+}
@@ -2,6 +2,9 @@ package ce.chess.dockfish.domain.event;
 
 import ce.chess.dockfish.domain.model.result.AnalysisTime;
 import ce.chess.dockfish.domain.model.result.EngineInformation;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
+import ce.chess.dockfish.domain.model.result.Score;
 import ce.chess.dockfish.domain.model.task.TaskId;
 
 import java.time.LocalDateTime;
@@ -37,11 +40,15 @@ public class EngineInformationReceived {
 
   long tbHits;
 
-  String pgn;
+  /**
+   * Position the task started from. Shared by all events of a task, the line is rendered from it on demand.
+   */
+  GamePosition startingPosition;
 
-  String lineSan;
+  @Builder.Default
+  PackedMoves pv = PackedMoves.empty();
 
-  int calculatedPlies;
+  String engineName;
 
   LocalDateTime occurredOn;
 
@@ -56,18 +63,31 @@ public class EngineInformationReceived {
     return nodesPerSecond / 1000;
   }
 
+  public int getCalculatedPlies() {
+    return pv.size();
+  }
+
   public boolean hasGame() {
-    return pgn != null && !pgn.isEmpty();
+    return startingPosition != null && !pv.isEmpty();
+  }
+
+  public String pvComment() {
+    return String.format("pv%d: %s;d%d;%s %s",
+        multiPv,
+        Score.fromCentiPawns(score),
+        depth,
+        AnalysisTime.fromMilliSeconds(time).formattedAsTime(),
+        engineName);
   }
 
   public static Predicate<EngineInformationReceived> matching(TaskId taskId) {
     return i -> i.getTaskId().matches(taskId);
   }
 
-  public EngineInformation toModel() {
+  public EngineInformation toModel(String lineSan) {
     return EngineInformation.builder()
         .multiPv(this.getMultiPv())
-        .lineSan(this.getLineSan())
+        .lineSan(lineSan)
         .score(this.getScore())
         .time(AnalysisTime.fromMilliSeconds(this.getTime()).formattedAsTime())
         .depth(this.getDepth())
@@ -0,0 +1,16 @@
+package ce.chess.dockfish.domain.event;
+
+import ce.chess.dockfish.domain.model.MemoryPressure;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+@Value
+@Builder
+@AllArgsConstructor
+public class MemoryPressureChanged {
+  @NonNull
+  MemoryPressure pressure;
+}
@@ -0,0 +1,27 @@
+package ce.chess.dockfish.domain.model;
+
+/**
+ * Heap pressure levels in ascending order. Each level implies the countermeasures of the levels below.
+ */
+public enum MemoryPressure {
+  /**
+   * No countermeasures.
+   */
+  NORMAL,
+  /**
+   * Trim data of tasks that are not running anymore.
+   */
+  ELEVATED,
+  /**
+   * Throttle intermediate engine events.
+   */
+  HIGH,
+  /**
+   * Do not accept new tasks.
+   */
+  CRITICAL;
+
+  public boolean isAtLeast(MemoryPressure other) {
+    return compareTo(other) >= 0;
+  }
+}
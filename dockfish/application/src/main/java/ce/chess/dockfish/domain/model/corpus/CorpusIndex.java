@@ -0,0 +1,25 @@
+package ce.chess.dockfish.domain.model.corpus;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * The unique positions of a corpus that were scheduled for analysis, most frequent first. The evaluation of each
+ * task belongs to all games and plies listed for its position.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class CorpusIndex {
+  String reference;
+
+  int gameCount;
+
+  int positionCount;
+
+  @Singular
+  List<CorpusPosition> positions;
+}
@@ -0,0 +1,34 @@
+package ce.chess.dockfish.domain.model.corpus;
+
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * A position of a corpus with all games and plies in which it occurs. The FEN is taken from its first occurrence,
+ * other occurrences may differ in their move counters.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class CorpusPosition {
+  long positionHash;
+
+  String fen;
+
+  @Singular
+  List<PositionOccurrence> occurrences;
+
+  /**
+   * The task that analyses the position, once it is scheduled.
+   */
+  TaskId taskId;
+
+  public int getCount() {
+    return occurrences.size();
+  }
+}
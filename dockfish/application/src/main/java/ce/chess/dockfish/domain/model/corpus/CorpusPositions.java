@@ -0,0 +1,20 @@
+package ce.chess.dockfish.domain.model.corpus;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * The positions of a corpus, each listed once with all its occurrences.
+ */
+@Value
+@AllArgsConstructor
+public class CorpusPositions {
+  int gameCount;
+
+  List<CorpusPosition> uniquePositions;
+
+  public int getPositionCount() {
+    return uniquePositions.stream().mapToInt(CorpusPosition::getCount).sum();
+  }
+}
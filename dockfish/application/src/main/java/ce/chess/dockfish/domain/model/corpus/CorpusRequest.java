@@ -0,0 +1,50 @@
+package ce.chess.dockfish.domain.model.corpus;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+@AllArgsConstructor
+public class CorpusRequest {
+  String reference;
+
+  /**
+   * Any number of games in PGN.
+   */
+  String pgn;
+
+  /**
+   * Positions after more half moves than this are not extracted.
+   */
+  @Builder.Default
+  int maxPly = 16;
+
+  /**
+   * Positions that occur less often in the corpus are not analysed.
+   */
+  @Builder.Default
+  int minOccurrences = 1;
+
+  @Builder.Default
+  String engineId = "stockfish";
+
+  @Builder.Default
+  int initialPv = 1;
+
+  Integer maxDepth;
+
+  Duration maxDuration;
+
+  public void validate() {
+    Preconditions.checkArgument(pgn != null, "PGN must be given");
+    Preconditions.checkArgument(maxPly >= 0, "Max ply must not be negative");
+    Preconditions.checkArgument(maxDuration != null ^ maxDepth != null,
+        "Either Depth or Duration must be given");
+  }
+}
@@ -0,0 +1,16 @@
+package ce.chess.dockfish.domain.model.corpus;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * A position occurs in the game with this number, counted from 1 in the order of the corpus, after {@code ply} half
+ * moves.
+ */
+@Value
+@AllArgsConstructor
+public class PositionOccurrence {
+  int game;
+
+  int ply;
+}
@@ -0,0 +1,30 @@
+package ce.chess.dockfish.domain.model.corpus;
+
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * An analysis task for one position of a corpus, to be submitted to the task queue.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class PositionTask {
+  TaskId taskId;
+
+  String reference;
+
+  String fen;
+
+  String engineId;
+
+  int initialPv;
+
+  Integer maxDepth;
+
+  Duration maxDuration;
+}
@@ -0,0 +1,142 @@
+package ce.chess.dockfish.domain.model.fanout;
+
+import ce.chess.dockfish.domain.model.result.AnalysisTime;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.Score;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import lombok.Getter;
+
+/**
+ * Gathers the evaluations of the root moves of one fan-out. Each root move contributes its best line, prefixed by the
+ * move itself, and the merged evaluation keeps the best of these lines for the side to move. The scores are those of
+ * white, so they need no conversion between the analysed position and the positions after its moves.
+ */
+public class FanOut {
+  private static final Pattern BLACK_MOVE_NUMBER = Pattern.compile("^\\d+\\. \\.\\.\\. ");
+
+  @Getter
+  private final TaskId correlationKey;
+
+  @Getter
+  private final FanOutRequest request;
+
+  @Getter
+  private final GamePosition analysedPosition;
+
+  @Getter
+  private final LocalDateTime started;
+
+  private final Map<TaskId, RootMove> pendingRootMoves = new HashMap<>();
+
+  private final List<Variation> rootMoveLines = new ArrayList<>();
+
+  private String uciEngineName;
+
+  public FanOut(TaskId correlationKey, FanOutRequest request, GamePosition analysedPosition, LocalDateTime started) {
+    this.correlationKey = correlationKey;
+    this.request = request;
+    this.analysedPosition = analysedPosition;
+    this.started = started;
+  }
+
+  public synchronized void expect(TaskId subTaskId, RootMove rootMove) {
+    pendingRootMoves.put(subTaskId, rootMove);
+  }
+
+  public synchronized void resolve(RootMove rootMove) {
+    rootMoveLines.add(line(rootMove.getLine(), rootMove.getPgn(), rootMove.getGameOverScore().orElse(0), 0,
+        Duration.ZERO));
+  }
+
+  /**
+   * Takes the evaluation of one of the expected sub tasks.
+   *
+   * @return true if it was the last one.
+   */
+  public synchronized boolean receive(PartialEvaluation partialEvaluation) {
+    RootMove rootMove = pendingRootMoves.remove(partialEvaluation.getTaskId());
+    if (rootMove == null) {
+      return false;
+    }
+    if (uciEngineName == null) {
+      uciEngineName = partialEvaluation.getUciEngineName();
+    }
+    partialEvaluation.getLines().stream()
+        .findFirst()
+        .ifPresent(best -> rootMoveLines.add(line(prefixed(rootMove, best.getMoves()),
+            Objects.requireNonNullElse(best.getPgn(), rootMove.getPgn()),
+            best.getCentiPawns(), best.getDepth() + 1, best.getTime())));
+    return pendingRootMoves.isEmpty();
+  }
+
+  /**
+   * Gives up the sub tasks that have not been evaluated yet, their evaluations are ignored from now on.
+   *
+   * @return the ids of the given up sub tasks, empty if the fan-out was already complete.
+   */
+  public synchronized Set<TaskId> expire() {
+    Set<TaskId> expiredSubTasks = Set.copyOf(pendingRootMoves.keySet());
+    pendingRootMoves.clear();
+    return expiredSubTasks;
+  }
+
+  public synchronized boolean isComplete() {
+    return pendingRootMoves.isEmpty();
+  }
+
+  public synchronized int countPending() {
+    return pendingRootMoves.size();
+  }
+
+  public synchronized Optional<String> getUciEngineName() {
+    return Optional.ofNullable(uciEngineName);
+  }
+
+  public synchronized List<Variation> mergedVariations() {
+    Comparator<Variation> whiteFirst = Comparator.comparingInt(variation -> variation.getScore().getCentiPawns());
+    List<Variation> bestLines = rootMoveLines.stream()
+        .sorted(analysedPosition.isWhitesMove() ? whiteFirst.reversed() : whiteFirst)
+        .limit(request.getInitialPv())
+        .toList();
+    return IntStream.range(0, bestLines.size())
+        .mapToObj(index -> withPvId(bestLines.get(index), index + 1))
+        .toList();
+  }
+
+  static String prefixed(RootMove rootMove, String moves) {
+    if (moves == null || moves.isBlank()) {
+      return rootMove.getLine();
+    }
+    // a line after a move of white starts with the move number of black, e.g. "1. ... e5"
+    return rootMove.getLine() + " " + BLACK_MOVE_NUMBER.matcher(moves).replaceFirst("");
+  }
+
+  private static Variation line(String moves, String pgn, int centiPawns, int depth, Duration time) {
+    return Variation.builder()
+        .moves(moves)
+        .score(Score.fromCentiPawns(centiPawns))
+        .depth(depth)
+        .time(new AnalysisTime(time))
+        .gamePosition(GamePosition.builder().pgn(pgn).build())
+        .build();
+  }
+
+  private static Variation withPvId(Variation variation, int pvId) {
+    return new Variation(pvId, variation.getMoves(), variation.getScore(), variation.getDepth(), variation.getTime(),
+        variation.getGamePosition());
+  }
+}
@@ -0,0 +1,47 @@
+package ce.chess.dockfish.domain.model.fanout;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+@AllArgsConstructor
+public class FanOutRequest {
+  String reference;
+
+  /**
+   * The game up to the analysed position. A position without a game is given as PGN with a FEN header.
+   */
+  String pgn;
+
+  @Builder.Default
+  String engineId = "stockfish";
+
+  /**
+   * Number of the best root moves in the merged evaluation.
+   */
+  @Builder.Default
+  int initialPv = 3;
+
+  /**
+   * Budget of each root move.
+   */
+  Integer maxDepth;
+
+  /**
+   * Budget of each root move.
+   */
+  Duration maxDuration;
+
+  public void validate() {
+    Preconditions.checkArgument(pgn != null, "PGN must be given");
+    Preconditions.checkArgument(initialPv > 0, "Initial PV must be positive");
+    Preconditions.checkArgument(maxDuration != null ^ maxDepth != null,
+        "Either Depth or Duration must be given");
+  }
+}
@@ -0,0 +1,40 @@
+package ce.chess.dockfish.domain.model.fanout;
+
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * The final evaluation of a sub task as published by the node that analysed it, best line first.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class PartialEvaluation {
+  TaskId taskId;
+
+  String uciEngineName;
+
+  @Singular
+  List<Line> lines;
+
+  @Value
+  @Builder
+  @AllArgsConstructor
+  public static class Line {
+    String moves;
+
+    String pgn;
+
+    int centiPawns;
+
+    int depth;
+
+    Duration time;
+  }
+}
@@ -0,0 +1,27 @@
+package ce.chess.dockfish.domain.model.fanout;
+
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A legal move of the analysed position, e.g. "1. e4" or "1. ... e5", and the game after it.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class RootMove {
+  String line;
+
+  String pgn;
+
+  /**
+   * The score of a move that ends the game, i.e. mate or stalemate. Such a move needs no engine.
+   */
+  Integer gameOverScore;
+
+  public Optional<Integer> getGameOverScore() {
+    return Optional.ofNullable(gameOverScore);
+  }
+}
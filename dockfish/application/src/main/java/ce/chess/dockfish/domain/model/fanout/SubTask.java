@@ -0,0 +1,31 @@
+package ce.chess.dockfish.domain.model.fanout;
+
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The analysis of one root move of a fan-out, to be submitted to the task queue. Its task id starts with the
+ * correlation key, the task id of the whole fan-out.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class SubTask {
+  TaskId taskId;
+
+  TaskId correlationKey;
+
+  String reference;
+
+  String pgn;
+
+  String engineId;
+
+  Integer maxDepth;
+
+  Duration maxDuration;
+}
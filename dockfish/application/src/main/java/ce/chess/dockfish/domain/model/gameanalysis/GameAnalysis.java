@@ -0,0 +1,29 @@
+package ce.chess.dockfish.domain.model.gameanalysis;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Summary of an analysed game with the evaluations of all its moves in game order.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class GameAnalysis {
+  GameAnalysisRequest request;
+
+  String engineName;
+
+  @Singular
+  List<PlyEvaluation> plies;
+
+  public List<Integer> getBlunders() {
+    return plies.stream()
+        .filter(PlyEvaluation::isBlunder)
+        .map(PlyEvaluation::getPly)
+        .toList();
+  }
+}
@@ -0,0 +1,37 @@
+package ce.chess.dockfish.domain.model.gameanalysis;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+@Value
+@Builder
+@Jacksonized
+@AllArgsConstructor
+public class GameAnalysisRequest {
+  String reference;
+
+  String pgn;
+
+  @Builder.Default
+  String engineId = "stockfish";
+
+  Integer depthPerPly;
+
+  Duration durationPerPly;
+
+  /**
+   * Centipawns a move may lose before it is marked as a blunder.
+   */
+  @Builder.Default
+  int blunderThreshold = 300;
+
+  public void validate() {
+    Preconditions.checkArgument(pgn != null, "PGN must be given");
+    Preconditions.checkArgument(durationPerPly != null ^ depthPerPly != null,
+        "Either Depth or Duration per ply must be given");
+  }
+}
@@ -0,0 +1,41 @@
+package ce.chess.dockfish.domain.model.gameanalysis;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * The moves of a game from its starting position, both as UCI for the engine and as SAN for the reader.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class GameLine {
+  String startingFen;
+
+  /**
+   * Half moves played before the starting position, 0 for the standard starting position.
+   */
+  int startingPly;
+
+  @Singular
+  List<String> uciMoves;
+
+  @Singular
+  List<String> sanMoves;
+
+  /**
+   * The side to move in the final position is checkmated, so there is nothing left for the engine to search.
+   */
+  boolean checkmate;
+
+  public int size() {
+    return uciMoves.size();
+  }
+
+  public boolean isWhitesMoveAfter(int movesPlayed) {
+    return (startingPly + movesPlayed) % 2 == 0;
+  }
+}
@@ -0,0 +1,34 @@
+package ce.chess.dockfish.domain.model.gameanalysis;
+
+import ce.chess.dockfish.domain.model.result.Score;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * One move of an analysed game. Both scores are from white's point of view, the loss is from the point of view of
+ * the side that made the move.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class PlyEvaluation {
+  String reference;
+
+  int ply;
+
+  String move;
+
+  String bestMove;
+
+  Score scoreBefore;
+
+  Score scoreAfter;
+
+  int depth;
+
+  int centiPawnLoss;
+
+  boolean blunder;
+}
@@ -0,0 +1,22 @@
+package ce.chess.dockfish.domain.model.gameanalysis;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The engine's verdict on the position after the first {@code movesPlayed} moves of a {@link GameLine}. The score is
+ * from white's point of view. A position evaluated on its own has no moves played.
+ */
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class PositionScore {
+  int movesPlayed;
+
+  int centiPawns;
+
+  int depth;
+
+  String bestMove;
+}
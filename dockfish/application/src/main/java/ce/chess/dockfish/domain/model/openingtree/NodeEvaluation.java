@@ -0,0 +1,42 @@
+package ce.chess.dockfish.domain.model.openingtree;
+
+import ce.chess.dockfish.domain.model.result.Score;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * A node of an analysed opening tree. The score is from white's point of view. Leaves are scored by the engine, every
+ * other node gets the score of its best move in the tree.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class NodeEvaluation {
+  long positionHash;
+
+  String fen;
+
+  Score score;
+
+  /**
+   * The depth of the search of the leaf the score comes from.
+   */
+  int depth;
+
+  /**
+   * The best move of the tree in SAN, not given for leaves.
+   */
+  String bestMove;
+
+  /**
+   * The best move of the engine in UCI notation, only given for leaves.
+   */
+  String engineMove;
+
+  @Singular
+  List<TreeMove> moves;
+}
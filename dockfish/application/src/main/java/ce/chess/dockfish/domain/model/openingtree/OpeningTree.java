@@ -0,0 +1,24 @@
+package ce.chess.dockfish.domain.model.openingtree;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * All positions of an opening tree, each listed once, in the order they first occur in the PGN. The root comes first.
+ */
+@Value
+@AllArgsConstructor
+public class OpeningTree {
+  List<TreeNode> nodes;
+
+  public TreeNode getRoot() {
+    return nodes.getFirst();
+  }
+
+  public List<TreeNode> getLeaves() {
+    return nodes.stream()
+        .filter(TreeNode::isLeaf)
+        .toList();
+  }
+}
@@ -0,0 +1,28 @@
+package ce.chess.dockfish.domain.model.openingtree;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * An analysed opening tree. The nodes refer to each other by their position hash, the root comes first.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class OpeningTreeAnalysis {
+  OpeningTreeRequest request;
+
+  String engineName;
+
+  int evaluatedLeaves;
+
+  @Singular
+  List<NodeEvaluation> nodes;
+
+  public NodeEvaluation getRoot() {
+    return nodes.getFirst();
+  }
+}
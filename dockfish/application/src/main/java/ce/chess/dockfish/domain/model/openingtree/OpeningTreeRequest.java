@@ -0,0 +1,35 @@
+package ce.chess.dockfish.domain.model.openingtree;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * An opening tree given as PGN, its variations are the branches of the tree. Several games are merged into one tree
+ * when they start from the same position.
+ */
+@Value
+@Builder
+@Jacksonized
+@AllArgsConstructor
+public class OpeningTreeRequest {
+  String reference;
+
+  String pgn;
+
+  @Builder.Default
+  String engineId = "stockfish";
+
+  Integer depthPerLeaf;
+
+  Duration durationPerLeaf;
+
+  public void validate() {
+    Preconditions.checkArgument(pgn != null, "PGN must be given");
+    Preconditions.checkArgument(durationPerLeaf != null ^ depthPerLeaf != null,
+        "Either Depth or Duration per leaf must be given");
+  }
+}
@@ -0,0 +1,15 @@
+package ce.chess.dockfish.domain.model.openingtree;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * A move of the tree in SAN and the hash of the position it leads to.
+ */
+@Value
+@AllArgsConstructor
+public class TreeMove {
+  String san;
+
+  long positionHash;
+}
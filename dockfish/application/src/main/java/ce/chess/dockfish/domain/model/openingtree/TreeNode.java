@@ -0,0 +1,33 @@
+package ce.chess.dockfish.domain.model.openingtree;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * A position of an opening tree. Transpositions share one node, so a node may be reached by more than one move.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class TreeNode {
+  long positionHash;
+
+  String fen;
+
+  boolean whitesMove;
+
+  /**
+   * The side to move is mated, so the engine has nothing to search.
+   */
+  boolean checkmate;
+
+  @Singular
+  List<TreeMove> moves;
+
+  public boolean isLeaf() {
+    return moves.isEmpty();
+  }
+}
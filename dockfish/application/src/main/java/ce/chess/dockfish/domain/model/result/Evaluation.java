@@ -13,7 +13,7 @@ import lombok.experimental.NonFinal;
 
 @Value
 @NonFinal
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 public class Evaluation {
 
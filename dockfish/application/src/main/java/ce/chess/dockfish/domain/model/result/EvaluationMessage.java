@@ -12,7 +12,7 @@ import lombok.experimental.NonFinal;
 
 @Value
 @NonFinal
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 public class EvaluationMessage {
 
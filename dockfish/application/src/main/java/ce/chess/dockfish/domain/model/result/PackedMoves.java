@@ -0,0 +1,96 @@
+package ce.chess.dockfish.domain.model.result;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sequence of moves, each packed into a short: from square (6 bits), to square (6 bits) and promoted
+ * piece (3 bits). Squares use the raptor numbering (a1 = 0, h8 = 63), pieces the raptor piece constants.
+ */
+public final class PackedMoves {
+
+  private static final PackedMoves EMPTY = new PackedMoves(new short[0]);
+  private static final int SQUARE_MASK = 0x3F;
+  private static final int PIECE_MASK = 0x07;
+  private static final int TO_SHIFT = 6;
+  private static final int PROMOTION_SHIFT = 12;
+  private static final String PROMOTION_CHARS = " pbnrqk";
+
+  private final short[] moves;
+
+  private PackedMoves(short[] moves) {
+    this.moves = moves;
+  }
+
+  public static PackedMoves empty() {
+    return EMPTY;
+  }
+
+  public static PackedMoves of(short... moves) {
+    return moves.length == 0 ? EMPTY : new PackedMoves(moves.clone());
+  }
+
+  public static short encode(int fromSquare, int toSquare, int promotedPiece) {
+    return (short) ((fromSquare & SQUARE_MASK)
+        | (toSquare & SQUARE_MASK) << TO_SHIFT
+        | (promotedPiece & PIECE_MASK) << PROMOTION_SHIFT);
+  }
+
+  public int size() {
+    return moves.length;
+  }
+
+  public boolean isEmpty() {
+    return moves.length == 0;
+  }
+
+  public int fromSquare(int index) {
+    return moves[index] & SQUARE_MASK;
+  }
+
+  public int toSquare(int index) {
+    return moves[index] >> TO_SHIFT & SQUARE_MASK;
+  }
+
+  public int promotedPiece(int index) {
+    return moves[index] >> PROMOTION_SHIFT & PIECE_MASK;
+  }
+
+  public boolean startsWith(PackedMoves prefix) {
+    return prefix.moves.length <= moves.length
+        && Arrays.equals(moves, 0, prefix.moves.length, prefix.moves, 0, prefix.moves.length);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || other instanceof PackedMoves packedMoves && Arrays.equals(moves, packedMoves.moves);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(moves);
+  }
+
+  public String toUci() {
+    StringBuilder result = new StringBuilder(moves.length * 5);
+    for (int i = 0; i < moves.length; i++) {
+      if (i > 0) {
+        result.append(' ');
+      }
+      appendSquare(result, fromSquare(i));
+      appendSquare(result, toSquare(i));
+      if (promotedPiece(i) != 0) {
+        result.append(PROMOTION_CHARS.charAt(promotedPiece(i)));
+      }
+    }
+    return result.toString();
+  }
+
+  private static void appendSquare(StringBuilder builder, int square) {
+    builder.append((char) ('a' + square % 8)).append((char) ('1' + square / 8));
+  }
+
+  @Override
+  public String toString() {
+    return toUci();
+  }
+}
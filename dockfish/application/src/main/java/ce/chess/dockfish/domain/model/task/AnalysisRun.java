@@ -6,7 +6,6 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
@@ -57,6 +56,13 @@ public class AnalysisRun {
 
   LocalDateTime created;
 
+  int priority;
+
+  /**
+   * Fingerprint of the task as it was requested, kept when a preempted task resumes with less remaining time.
+   */
+  TaskFingerprint requestFingerprint;
+
   public Optional<String> name() {
     return Optional.ofNullable(name);
   }
@@ -81,18 +87,13 @@ public class AnalysisRun {
     return Optional.ofNullable(maxDuration).map(duration -> created().plus(duration));
   }
 
+  public TaskFingerprint fingerprint() {
+    return requestFingerprint == null ? TaskFingerprint.of(this) : requestFingerprint;
+  }
+
   public boolean isSameAs(AnalysisRun engineTask) {
-    // equals ignoring taskId, uciEngineName, created date
-    return Objects.equals(this.name(), engineTask.name())
-        && Objects.equals(this.engineProgramName(), engineTask.engineProgramName())
-        && Objects.equals(this.startingPosition().getNotation(), engineTask.startingPosition().getNotation())
-        && Objects.equals(this.startingPosition().getLastMovePly(), engineTask.startingPosition().getLastMovePly())
-        && Objects.equals(this.initialPv(), engineTask.initialPv())
-        && Objects.equals(this.maxDepth(), engineTask.maxDepth())
-        && Objects.equals(this.maxDuration(), engineTask.maxDuration())
-        && Objects.equals(this.engineOptions(), engineTask.engineOptions())
-        && this.useSyzygyPath() == engineTask.useSyzygyPath()
-        && Objects.equals(this.dynamicPv(), engineTask.dynamicPv());
+    // equals ignoring taskId, uciEngineName, created date, and the remaining time of a resumed task
+    return fingerprint().equals(engineTask.fingerprint());
   }
 
   public AnalysisRun addOrReplaceOption(EngineOption newOption) {
@@ -0,0 +1,20 @@
+package ce.chess.dockfish.domain.model.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Identifies a position independent of the moves that led to it: the Zobrist hash of the position including side
+ * to move, castling rights and en passant square, combined with the engine family that evaluates it.
+ */
+@Value
+@AllArgsConstructor
+public class PositionKey {
+  long positionHash;
+
+  String engineFamily;
+
+  public static PositionKey of(long positionHash, AnalysisRun task) {
+    return new PositionKey(positionHash, task.engineProgramName());
+  }
+}
@@ -0,0 +1,22 @@
+package ce.chess.dockfish.domain.model.task;
+
+import java.util.concurrent.CountDownLatch;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * The running analysis was stopped for a task of higher priority. The preempted analysis is resumed when this
+ * preemption is handed over, i.e. when the preempting task has got the engine or gave up, so it queues up for the
+ * engine behind the preempting task.
+ */
+@Value
+public class Preemption {
+  @NonNull
+  TaskId preemptedTaskId;
+
+  CountDownLatch handover = new CountDownLatch(1);
+
+  public void handOver() {
+    handover.countDown();
+  }
+}
@@ -0,0 +1,46 @@
+package ce.chess.dockfish.domain.model.task;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.StringJoiner;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * SHA-256 over everything that influences the analysis result, by which {@link AnalysisRun#isSameAs(AnalysisRun)}
+ * compares tasks. The options are sorted, so their order does not matter.
+ */
+@Value
+@AllArgsConstructor
+public class TaskFingerprint {
+  String value;
+
+  public static TaskFingerprint of(AnalysisRun task) {
+    StringJoiner canonical = new StringJoiner("\u0000");
+    canonical.add(String.valueOf(task.name().orElse(null)))
+        .add(task.engineProgramName())
+        .add(task.startingPosition().getNotation())
+        .add(String.valueOf(task.startingPosition().getLastMovePly()))
+        .add(String.valueOf(task.initialPv()))
+        .add(String.valueOf(task.maxDepth().orElse(null)))
+        .add(String.valueOf(task.maxDuration().orElse(null)))
+        .add(String.valueOf(task.useSyzygyPath()))
+        .add(String.valueOf(task.dynamicPv().orElse(null)));
+    task.engineOptions().stream()
+        .map(option -> option.getName() + '=' + option.getValue())
+        .sorted()
+        .forEach(canonical::add);
+    return new TaskFingerprint(sha256(canonical.toString()));
+  }
+
+  private static String sha256(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
@@ -7,6 +7,7 @@ import ce.chess.dockfish.domain.model.result.EvaluationMessage;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
 import ce.chess.dockfish.domain.model.task.TaskId;
 import ce.chess.dockfish.usecase.in.QueryEvaluation;
+import ce.chess.dockfish.usecase.out.chess.RenderLine;
 import ce.chess.dockfish.usecase.out.db.EngineInformationReceivedRepository;
 import ce.chess.dockfish.usecase.out.db.EvaluationRepository;
 import ce.chess.dockfish.usecase.out.db.TaskRepository;
@@ -34,6 +35,9 @@ public class EvaluationMessageService implements QueryEvaluation {
   @Inject
   QueryEngine queryEngine;
 
+  @Inject
+  RenderLine lineRenderer;
+
   @Inject
   Config config;
 
@@ -57,7 +61,7 @@ public class EvaluationMessageService implements QueryEvaluation {
 
           List<EngineInformation> latestEvents =
               engineInformationRepository.findByTaskIdGroupedByMultiPvMaxDepthAndMaxOccurredOn(taskId).stream()
-                  .map(EngineInformationReceived::toModel)
+                  .map(event -> event.toModel(lineRenderer.lineSan(event.getStartingPosition(), event.getPv())))
                   .toList();
 
           List<String> history = evaluationRepository.findByTaskId(taskId).stream()
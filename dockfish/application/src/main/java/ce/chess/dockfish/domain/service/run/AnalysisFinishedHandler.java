@@ -2,7 +2,11 @@ package ce.chess.dockfish.domain.service.run;
 
 import ce.chess.dockfish.domain.event.AnalysisFinished;
 import ce.chess.dockfish.domain.event.SubmitEvaluationMessage;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
 import ce.chess.dockfish.domain.service.query.EvaluationMessageService;
+import ce.chess.dockfish.usecase.out.db.FinalEvaluationRepository;
+import ce.chess.dockfish.usecase.out.db.TaskRepository;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
@@ -20,13 +24,33 @@ public class AnalysisFinishedHandler {
   @Inject
   Event<SubmitEvaluationMessage> submitEvaluationMessageEvent;
 
+  @Inject
+  TaskRepository taskRepository;
+
+  @Inject
+  FinalEvaluationRepository finalEvaluationRepository;
+
   public void publishFinalEvaluation(@Observes AnalysisFinished event) {
     evaluationMessageService.getLastEvaluationMessage(event.getTaskId())
         .ifPresentOrElse(
-            evaluation -> submitEvaluationMessageEvent.fire(new SubmitEvaluationMessage(evaluation)),
+            evaluation -> {
+              storeFinalEvaluation(event, evaluation);
+              submitEvaluationMessageEvent.fire(new SubmitEvaluationMessage(evaluation));
+            },
             () -> logNoEvaluationFound(event));
   }
 
+  private void storeFinalEvaluation(AnalysisFinished event, EvaluationMessage evaluation) {
+    if (!event.isCompleted()) {
+      // a run that was stopped early is no answer for the next task with the same budget
+      log.info("Analysis {} was stopped before its end, its evaluation is not stored", event::getTaskId);
+      return;
+    }
+    taskRepository.findByTaskId(event.getTaskId())
+        .map(AnalysisRun::fingerprint)
+        .ifPresent(fingerprint -> finalEvaluationRepository.save(fingerprint, evaluation));
+  }
+
   private void logNoEvaluationFound(AnalysisFinished event) {
     log.warn("No evaluation message found for taskId {}", event::getTaskId);
   }
@@ -0,0 +1,76 @@
+package ce.chess.dockfish.domain.service.run;
+
+import ce.chess.dockfish.domain.model.corpus.CorpusIndex;
+import ce.chess.dockfish.domain.model.corpus.CorpusPosition;
+import ce.chess.dockfish.domain.model.corpus.CorpusPositions;
+import ce.chess.dockfish.domain.model.corpus.CorpusRequest;
+import ce.chess.dockfish.domain.model.corpus.PositionOccurrence;
+import ce.chess.dockfish.domain.model.corpus.PositionTask;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.in.ReceiveCorpusRequest;
+import ce.chess.dockfish.usecase.out.chess.ExtractPositions;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Turns a corpus of games into one analysis task per unique position instead of one per occurrence. The tasks are
+ * submitted most frequent position first, so the positions that answer most games are analysed first. The
+ * {@link CorpusIndex} is published before the tasks and maps every task back to the games and plies of its position.
+ */
+@ApplicationScoped
+@Log4j2
+public class CorpusService implements ReceiveCorpusRequest {
+  private static final Comparator<CorpusPosition> MOST_FREQUENT_FIRST =
+      Comparator.comparingInt(CorpusPosition::getCount).reversed()
+          .thenComparing(position -> position.getOccurrences().getFirst(),
+              Comparator.comparingInt(PositionOccurrence::getGame).thenComparingInt(PositionOccurrence::getPly));
+
+  @Inject
+  ExtractPositions extractPositions;
+
+  @Inject
+  Event<CorpusIndex> corpusIndexPublisher;
+
+  @Inject
+  Event<PositionTask> positionTaskPublisher;
+
+  @Override
+  public void scheduleUniquePositions(CorpusRequest request) {
+    CorpusPositions corpusPositions = extractPositions.extractPositions(request.getPgn(), request.getMaxPly());
+    List<CorpusPosition> scheduledPositions = corpusPositions.getUniquePositions().stream()
+        .filter(position -> position.getCount() >= request.getMinOccurrences())
+        .sorted(MOST_FREQUENT_FIRST)
+        .map(position -> position.toBuilder().taskId(taskId(request, position)).build())
+        .toList();
+    log.info("Corpus [{}]: {} games, {} positions, {} unique, {} scheduled", request.getReference(),
+        corpusPositions.getGameCount(), corpusPositions.getPositionCount(),
+        corpusPositions.getUniquePositions().size(), scheduledPositions.size());
+
+    corpusIndexPublisher.fire(CorpusIndex.builder()
+        .reference(request.getReference())
+        .gameCount(corpusPositions.getGameCount())
+        .positionCount(corpusPositions.getPositionCount())
+        .positions(scheduledPositions)
+        .build());
+    scheduledPositions.forEach(position -> positionTaskPublisher.fire(PositionTask.builder()
+        .taskId(position.getTaskId())
+        .reference(request.getReference())
+        .fen(position.getFen())
+        .engineId(request.getEngineId())
+        .initialPv(request.getInitialPv())
+        .maxDepth(request.getMaxDepth())
+        .maxDuration(request.getMaxDuration())
+        .build()));
+  }
+
+  private static TaskId taskId(CorpusRequest request, CorpusPosition position) {
+    // fixed width, so that no task id is the prefix of another one of the same corpus
+    return new TaskId(request.getReference() + "-" + HexFormat.of().toHexDigits(position.getPositionHash()));
+  }
+}
@@ -7,7 +7,7 @@ import ce.chess.dockfish.domain.model.result.Evaluation;
 import ce.chess.dockfish.domain.model.result.Score;
 import ce.chess.dockfish.domain.model.result.UciState;
 import ce.chess.dockfish.domain.model.result.Variation;
-import ce.chess.dockfish.usecase.out.chess.CreateGamePosition;
+import ce.chess.dockfish.usecase.out.chess.RenderLine;
 import ce.chess.dockfish.usecase.out.db.EngineInformationReceivedRepository;
 import ce.chess.dockfish.usecase.out.db.EvaluationRepository;
 
@@ -18,34 +18,45 @@ import jakarta.inject.Inject;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.log4j.Log4j2;
 
 @ApplicationScoped
 @Log4j2
 public class EngineInformationReceivedHandler {
   private static final int VERBOSE_LOG_AFTER_MINUTES = 30;
+  private static final Duration THROTTLED_EVENT_INTERVAL = Duration.ofSeconds(1);
 
   private final EngineInformationReceivedRepository eventRepository;
   private final EvaluationRepository evaluationRepository;
   private final Event<DepthReached> newDepthEvent;
   private final ShortLineReplacer shortLineFixer;
-  private final CreateGamePosition gamePositionService;
+  private final RenderLine lineRenderer;
+  private final MemoryPressureHandler memoryPressure;
   private int lastSentDepth;
+  private final Map<Integer, EngineInformationReceived> lastReceivedByPv = new ConcurrentHashMap<>();
 
   @Inject
-  EngineInformationReceivedHandler(EngineInformationReceivedRepository eventRepository,
-                                   EvaluationRepository evaluationRepository,
-                                   Event<DepthReached> newDepthEvent, ShortLineReplacer shortLineFixer,
-                                   CreateGamePosition gamePositionService) {
+  public EngineInformationReceivedHandler(EngineInformationReceivedRepository eventRepository,
+                                          EvaluationRepository evaluationRepository,
+                                          Event<DepthReached> newDepthEvent, ShortLineReplacer shortLineFixer,
+                                          RenderLine lineRenderer, MemoryPressureHandler memoryPressure) {
     this.eventRepository = Objects.requireNonNull(eventRepository);
     this.evaluationRepository = Objects.requireNonNull(evaluationRepository);
     this.newDepthEvent = Objects.requireNonNull(newDepthEvent);
     this.shortLineFixer = Objects.requireNonNull(shortLineFixer);
-    this.gamePositionService = gamePositionService;
+    this.lineRenderer = Objects.requireNonNull(lineRenderer);
+    this.memoryPressure = Objects.requireNonNull(memoryPressure);
   }
 
   public void receive(@Observes EngineInformationReceived engineInformation) {
+    if (memoryPressure.isThrottlingEvents() && isIntermediate(engineInformation)) {
+      return;
+    }
+    lastReceivedByPv.put(engineInformation.getMultiPv(), engineInformation);
+
     EngineInformationReceived engineInformationNormalized = shortLineFixer.fillUpGameIfTooShort(engineInformation);
 
     eventRepository.save(engineInformationNormalized);
@@ -56,13 +67,22 @@ public class EngineInformationReceivedHandler {
         log.info("pv-{} {}[{},{}d]",
             engineInformationNormalized.getMultiPv(),
             Score.fromCentiPawns(engineInformationNormalized.getScore()),
-            String.format("%.45s", engineInformationNormalized.getLineSan()),
+            String.format("%.45s", lineRenderer.lineSan(engineInformationNormalized.getStartingPosition(),
+                engineInformationNormalized.getPv())),
             engineInformationNormalized.getDepth());
       }
       createAndPublishEvaluationFor(engineInformationNormalized);
     }
   }
 
+  private boolean isIntermediate(EngineInformationReceived event) {
+    EngineInformationReceived lastReceived = lastReceivedByPv.get(event.getMultiPv());
+    return lastReceived != null
+        && lastReceived.getTaskId().equals(event.getTaskId())
+        && event.getDepth() <= lastReceived.getDepth()
+        && event.getOccurredOn().isBefore(lastReceived.getOccurredOn().plus(THROTTLED_EVENT_INTERVAL));
+  }
+
   private void createAndPublishEvaluationFor(EngineInformationReceived event) {
     Collection<EngineInformationReceived> deepestEvents =
         eventRepository.findByTaskIdGroupedByMultiPvMaxDepthAndMaxOccurredOn(event.getTaskId());
@@ -101,11 +121,11 @@ public class EngineInformationReceivedHandler {
   private Variation createVariation(EngineInformationReceived event) {
     return Variation.builder()
         .pvId(event.getMultiPv())
-        .moves(event.getLineSan())
+        .moves(lineRenderer.lineSan(event.getStartingPosition(), event.getPv()))
         .score(Score.fromCentiPawns(event.getScore()))
         .depth(event.getDepth())
         .time(AnalysisTime.fromMilliSeconds(event.getTime()))
-        .gamePosition(gamePositionService.createFrom(event.getPgn()))
+        .gamePosition(lineRenderer.createFrom(event.getStartingPosition(), event.getPv(), event.pvComment()))
         .build();
   }
 }
@@ -0,0 +1,178 @@
+package ce.chess.dockfish.domain.service.run;
+
+import ce.chess.dockfish.domain.event.SubmitEvaluationMessage;
+import ce.chess.dockfish.domain.model.fanout.FanOut;
+import ce.chess.dockfish.domain.model.fanout.FanOutRequest;
+import ce.chess.dockfish.domain.model.fanout.PartialEvaluation;
+import ce.chess.dockfish.domain.model.fanout.RootMove;
+import ce.chess.dockfish.domain.model.fanout.SubTask;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.in.GatherFanOut;
+import ce.chess.dockfish.usecase.in.ReceiveFanOutRequest;
+import ce.chess.dockfish.usecase.out.chess.CreateGamePosition;
+import ce.chess.dockfish.usecase.out.chess.ListRootMoves;
+
+import com.google.common.base.Preconditions;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * Coordinates the analysis of one position by many dockfish instances. Each root move becomes a sub task on the task
+ * queue, so any instance may analyse it. The final evaluations of the sub tasks are gathered by their task id, which
+ * starts with the correlation key, and merged into one evaluation with the best root moves. The merged evaluation is
+ * published like the result of any task, with the correlation key as task id. A fan-out whose sub tasks are not all
+ * evaluated within "fan_out_timeout" is published with the root moves evaluated so far, e.g. if a sub task was
+ * rejected or lost. Pending fan-outs are only kept in memory: if the coordinator restarts, the evaluations of their
+ * sub tasks are not merged.
+ */
+@ApplicationScoped
+@Log4j2
+public class FanOutService implements ReceiveFanOutRequest, GatherFanOut {
+  static final String TIMEOUT_PROPERTY = "fan_out_timeout";
+  private static final Duration DEFAULT_TIMEOUT = Duration.ofHours(24);
+
+  @Inject
+  ListRootMoves listRootMoves;
+
+  @Inject
+  CreateGamePosition createGamePosition;
+
+  @Inject
+  Event<SubTask> subTaskPublisher;
+
+  @Inject
+  Event<SubmitEvaluationMessage> submitEvaluationMessageEvent;
+
+  @Inject
+  Config config;
+
+  ScheduledExecutorService deadlineScheduler = Executors.newSingleThreadScheduledExecutor(); // NOPMD
+
+  private final Map<TaskId, FanOut> fanOutsBySubTask = new ConcurrentHashMap<>();
+
+  @PreDestroy
+  void shutdown() {
+    deadlineScheduler.shutdownNow();
+  }
+
+  @Override
+  public TaskId fanOut(FanOutRequest request) {
+    GamePosition analysedPosition = createGamePosition.createFrom(request.getPgn());
+    List<RootMove> rootMoves = listRootMoves.listRootMoves(request.getPgn());
+    Preconditions.checkArgument(!rootMoves.isEmpty(), "The position has no legal moves");
+
+    TaskId correlationKey = TaskId.createNew();
+    FanOut fanOut = new FanOut(correlationKey, request, analysedPosition, LocalDateTime.now(ZoneId.systemDefault()));
+    List<SubTask> subTasks = new ArrayList<>();
+    for (RootMove rootMove : rootMoves) {
+      if (rootMove.getGameOverScore().isPresent()) {
+        fanOut.resolve(rootMove);
+      } else {
+        SubTask subTask = subTask(fanOut, subTasks.size() + 1, rootMove);
+        fanOut.expect(subTask.getTaskId(), rootMove);
+        fanOutsBySubTask.put(subTask.getTaskId(), fanOut);
+        subTasks.add(subTask);
+      }
+    }
+    log.info("Fan-out [{}] of [{}]: {} root moves, {} sub tasks", correlationKey.getRawId(), request.getReference(),
+        rootMoves.size(), subTasks.size());
+
+    if (fanOut.isComplete()) {
+      publish(fanOut);
+    } else {
+      Duration timeout = config.getOptionalValue(TIMEOUT_PROPERTY, Duration.class).orElse(DEFAULT_TIMEOUT);
+      deadlineScheduler.schedule(() -> expire(fanOut), timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    subTasks.forEach(subTaskPublisher::fire);
+    return correlationKey;
+  }
+
+  @Override
+  public void receivePartialEvaluation(PartialEvaluation partialEvaluation) {
+    FanOut fanOut = fanOutsBySubTask.remove(partialEvaluation.getTaskId());
+    if (fanOut == null) {
+      return;
+    }
+    log.info("Fan-out [{}]: received {}", fanOut.getCorrelationKey().getRawId(),
+        partialEvaluation.getTaskId().getRawId());
+    if (fanOut.receive(partialEvaluation)) {
+      publish(fanOut);
+    }
+  }
+
+  void expire(FanOut fanOut) {
+    Set<TaskId> expiredSubTasks = fanOut.expire();
+    if (expiredSubTasks.isEmpty()) {
+      return;
+    }
+    expiredSubTasks.forEach(fanOutsBySubTask::remove);
+    log.warn("Fan-out [{}] timed out, {} root moves are not evaluated", fanOut.getCorrelationKey().getRawId(),
+        expiredSubTasks.size());
+    publish(fanOut);
+  }
+
+  private static SubTask subTask(FanOut fanOut, int number, RootMove rootMove) {
+    FanOutRequest request = fanOut.getRequest();
+    return SubTask.builder()
+        // fixed width, so that no task id is the prefix of another one of the same fan-out
+        .taskId(new TaskId(fanOut.getCorrelationKey().getRawId() + "-%03d".formatted(number)))
+        .correlationKey(fanOut.getCorrelationKey())
+        .reference(request.getReference())
+        .pgn(rootMove.getPgn())
+        .engineId(request.getEngineId())
+        .maxDepth(request.getMaxDepth())
+        .maxDuration(request.getMaxDuration())
+        .build();
+  }
+
+  private void publish(FanOut fanOut) {
+    LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
+    List<Variation> variations = fanOut.mergedVariations();
+    Evaluation evaluation = Evaluation.builder()
+        .taskId(fanOut.getCorrelationKey())
+        .created(now)
+        .variations(variations)
+        .build();
+    FanOutRequest request = fanOut.getRequest();
+    EvaluationMessage.EvaluationMessageBuilder evaluationMessage = EvaluationMessage.builder()
+        .taskName(request.getReference())
+        .reference(request.getReference())
+        .analysedPgn(fanOut.getAnalysedPosition().getPgn())
+        .analysedFen(fanOut.getAnalysedPosition().getFen())
+        .analysedPly(fanOut.getAnalysedPosition().getLastMovePly())
+        .uciEngineName(fanOut.getUciEngineName().orElse(request.getEngineId()))
+        .taskDepth(request.getMaxDepth())
+        .taskDuration(request.getMaxDuration())
+        .hostname(config.getOptionalValue("hostname", String.class).orElse("hostname"))
+        .status(JobStatus.NOT_ACTIVE)
+        .evaluation(evaluation)
+        .taskStarted(fanOut.getStarted())
+        .lastEvaluation(now)
+        .lastAlive(now);
+    if (!variations.isEmpty()) {
+      evaluationMessage.historyEntry(evaluation.shortForm());
+    }
+    log.info("Fan-out [{}] finished", fanOut.getCorrelationKey().getRawId());
+    submitEvaluationMessageEvent.fire(new SubmitEvaluationMessage(evaluationMessage.build()));
+  }
+}
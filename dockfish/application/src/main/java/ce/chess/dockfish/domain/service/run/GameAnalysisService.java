@@ -0,0 +1,133 @@
+package ce.chess.dockfish.domain.service.run;
+
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysis;
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysisRequest;
+import ce.chess.dockfish.domain.model.gameanalysis.GameLine;
+import ce.chess.dockfish.domain.model.gameanalysis.PlyEvaluation;
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+import ce.chess.dockfish.domain.model.result.Score;
+import ce.chess.dockfish.domain.model.task.EngineOption;
+import ce.chess.dockfish.usecase.in.ReceiveGameAnalysisRequest;
+import ce.chess.dockfish.usecase.out.chess.ReadGameLine;
+import ce.chess.dockfish.usecase.out.engine.EvaluateGame;
+import ce.chess.dockfish.usecase.out.engine.LockEngine;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Analyses all moves of a game on one engine session. The engine walks the positions from the end of the game back
+ * to its start, so what it learned about later positions is still in its hash when it reaches the earlier ones. A
+ * {@link PlyEvaluation} is published as soon as the positions before and after the move are evaluated, that is last
+ * move first, and a {@link GameAnalysis} with all of them at the end.
+ */
+@ApplicationScoped
+@Log4j2
+public class GameAnalysisService implements ReceiveGameAnalysisRequest {
+  static final int MATE_SCORE = 9999;
+
+  /**
+   * Scores are capped here before the loss of a move is computed, so moves in decided positions are no blunders.
+   */
+  static final int DECIDED_SCORE = 1000;
+
+  @Inject
+  LockEngine lockEngine;
+
+  @Inject
+  ReadGameLine readGameLine;
+
+  @Inject
+  EvaluateGame evaluateGame;
+
+  @Inject
+  UciOptionsConfiguration uciOptionsConfiguration;
+
+  @Inject
+  Event<PlyEvaluation> plyEvaluationPublisher;
+
+  @Inject
+  Event<GameAnalysis> gameAnalysisPublisher;
+
+  @Override
+  public void analyseAndPublish(GameAnalysisRequest request) {
+    GameLine gameLine = readGameLine.readGameLine(request.getPgn());
+    log.info("Analysing {} plies of game [{}]", gameLine.size(), request.getReference());
+    lockEngine.acquireLock();
+    try {
+      PlyCollector plyCollector = new PlyCollector(request, gameLine);
+      String engineName = evaluateGame.evaluateBackwards(request, engineOptions(), gameLine, plyCollector);
+      gameAnalysisPublisher.fire(GameAnalysis.builder()
+          .request(request)
+          .engineName(engineName)
+          .plies(plyCollector.pliesInGameOrder())
+          .build());
+    } finally {
+      lockEngine.releaseLock();
+    }
+  }
+
+  private List<EngineOption> engineOptions() {
+    // without a tablebase flag in the request the engine searches the endgames itself
+    return uciOptionsConfiguration.getLocalEngineOptions().stream()
+        .filter(option -> !"SyzygyPath".equalsIgnoreCase(option.getName()))
+        .toList();
+  }
+
+  private final class PlyCollector implements Consumer<PositionScore> {
+    private final GameAnalysisRequest request;
+    private final GameLine gameLine;
+    private final List<PlyEvaluation> plies = new ArrayList<>();
+    private PositionScore positionAfter;
+
+    PlyCollector(GameAnalysisRequest request, GameLine gameLine) {
+      this.request = request;
+      this.gameLine = gameLine;
+    }
+
+    @Override
+    public void accept(PositionScore positionScore) {
+      PositionScore positionBefore = positionScore;
+      if (positionScore.getMovesPlayed() == gameLine.size() && gameLine.isCheckmate()) {
+        // the engine has no move to search, the side to move is mated
+        positionBefore = positionScore.toBuilder()
+            .centiPawns(gameLine.isWhitesMoveAfter(gameLine.size()) ? -MATE_SCORE : MATE_SCORE)
+            .build();
+      }
+      if (positionAfter != null) {
+        PlyEvaluation plyEvaluation = evaluateMove(positionBefore, positionAfter);
+        plies.add(plyEvaluation);
+        plyEvaluationPublisher.fire(plyEvaluation);
+      }
+      positionAfter = positionBefore;
+    }
+
+    private PlyEvaluation evaluateMove(PositionScore before, PositionScore after) {
+      int movesPlayed = before.getMovesPlayed();
+      int scoreBefore = Math.clamp(before.getCentiPawns(), -DECIDED_SCORE, DECIDED_SCORE);
+      int scoreAfter = Math.clamp(after.getCentiPawns(), -DECIDED_SCORE, DECIDED_SCORE);
+      int loss = gameLine.isWhitesMoveAfter(movesPlayed) ? scoreBefore - scoreAfter : scoreAfter - scoreBefore;
+      int centiPawnLoss = Math.max(0, loss);
+      return PlyEvaluation.builder()
+          .reference(request.getReference())
+          .ply(gameLine.getStartingPly() + movesPlayed + 1)
+          .move(gameLine.getSanMoves().get(movesPlayed))
+          .bestMove(before.getBestMove())
+          .scoreBefore(Score.fromCentiPawns(before.getCentiPawns()))
+          .scoreAfter(Score.fromCentiPawns(after.getCentiPawns()))
+          .depth(before.getDepth())
+          .centiPawnLoss(centiPawnLoss)
+          .blunder(centiPawnLoss >= request.getBlunderThreshold())
+          .build();
+    }
+
+    List<PlyEvaluation> pliesInGameOrder() {
+      return plies.reversed();
+    }
+  }
+}
@@ -1,29 +1,43 @@
 package ce.chess.dockfish.domain.service.run;
 
+import ce.chess.dockfish.domain.event.SubmitEvaluationMessage;
 import ce.chess.dockfish.domain.model.RequeueException;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
 import ce.chess.dockfish.domain.model.result.JobStatus;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
 import ce.chess.dockfish.domain.model.task.EngineOption;
+import ce.chess.dockfish.domain.model.task.Preemption;
 import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.in.PreemptAnalysis;
 import ce.chess.dockfish.usecase.in.QueryAnalysis;
 import ce.chess.dockfish.usecase.in.ReceiveAnalysisRequest;
 import ce.chess.dockfish.usecase.in.TerminateAnalysis;
+import ce.chess.dockfish.usecase.out.db.FinalEvaluationRepository;
 import ce.chess.dockfish.usecase.out.db.TaskRepository;
 import ce.chess.dockfish.usecase.out.engine.LockEngine;
 import ce.chess.dockfish.usecase.out.engine.QueryEngine;
 import ce.chess.dockfish.usecase.out.engine.RunEngine;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.log4j.Log4j2;
 import org.eclipse.microprofile.config.Config;
 
 @ApplicationScoped
 @Log4j2
-public class InfiniteAnalysisService implements ReceiveAnalysisRequest, TerminateAnalysis, QueryAnalysis {
+public class InfiniteAnalysisService
+    implements ReceiveAnalysisRequest, TerminateAnalysis, QueryAnalysis, PreemptAnalysis {
+  private static final int MAX_PAUSE_SECONDS = 300;
+  private static final int MAX_HANDOVER_SECONDS = 60;
+  private static final Duration MIN_REMAINING_DURATION = Duration.ofSeconds(1);
 
   @Inject
   LockEngine lockEngine;
@@ -40,19 +54,44 @@ public class InfiniteAnalysisService implements ReceiveAnalysisRequest, Terminat
   @Inject
   UciOptionsConfiguration uciOptionsConfiguration;
 
+  @Inject
+  MemoryPressureHandler memoryPressure;
+
+  @Inject
+  FinalEvaluationRepository finalEvaluationRepository;
+
+  @Inject
+  PositionEvaluationService positionEvaluationService;
+
+  @Inject
+  Event<SubmitEvaluationMessage> submitEvaluationMessageEvent;
+
   @Inject
   Config config;
 
+  private final AtomicReference<AnalysisRun> runningTask = new AtomicReference<>();
+  private final ThreadLocal<Duration> engineWait = ThreadLocal.withInitial(() -> Duration.ZERO);
+
+  /**
+   * Set from the preemption of the running analysis until the preempted analysis has noticed that it was stopped.
+   * Only the preempting task hands it over.
+   */
+  private final AtomicReference<Preemption> preemption = new AtomicReference<>();
+
   @Override
   public Optional<TaskId> startAsync(AnalysisRun task) {
     // Use this for rest calls.
     // It will return with a task id immediately and block further analysis requests until finished.
     log.info("Start asynchronous analysis");
+    if (memoryPressure.isPausingNewTasks()) {
+      log.warn("Task rejected. Heap pressure is critical");
+      return Optional.empty();
+    }
     if (!lockEngine.tryAcquireLock()) {
       log.info("Task rejected. Engine is still running");
       return Optional.empty();
     }
-    return startAnalysis(task);
+    return startAnalysis(task).map(AnalysisRun::taskId);
   }
 
   @Override
@@ -60,17 +99,138 @@ public class InfiniteAnalysisService implements ReceiveAnalysisRequest, Terminat
     // Use this for messaging.
     // It will block until calculation is finished.
     log.info("Start synchronous analysis");
+    return analyseSync(task, () -> { });
+  }
+
+  @Override
+  public Optional<TaskId> startSync(AnalysisRun task, Preemption taskPreemption) {
+    log.info("Start synchronous analysis preempting task {}", taskPreemption.getPreemptedTaskId());
+    try {
+      return analyseSync(task, taskPreemption::handOver);
+    } finally {
+      // the preempted analysis must not wait for the engine if the preempting task does not run itself
+      taskPreemption.handOver();
+    }
+  }
+
+  private Optional<TaskId> analyseSync(AnalysisRun request, Runnable onEngineAcquired) {
+    // the task id is fixed before a stored answer is looked up, so the answer can be published under it
+    AnalysisRun task = TaskId.isPresent(request.taskId())
+        ? request
+        : request.toBuilder().taskId(TaskId.createNew()).build();
+    Optional<EvaluationMessage> finalEvaluation = getFinalEvaluation(task);
+    if (finalEvaluation.isPresent()) {
+      log.info("Task has already been analysed. Republishing final evaluation as task {}.", task.taskId());
+      submitEvaluationMessageEvent.fire(new SubmitEvaluationMessage(finalEvaluation.get()));
+      return Optional.of(task.taskId());
+    }
     if (isTaskAlreadyAnalysed(task)) {
       log.info("Task rejected immediately. Has already been analysed.");
       return Optional.empty();
     }
+    long waitStart = System.nanoTime();
+    waitWhileNewTasksArePaused();
     lockEngine.acquireLock();
-    Optional<TaskId> taskId = startAnalysis(task);
-    taskId.ifPresent(t -> lockEngine.blockWhileActive());
-    return taskId;
+    engineAcquired(waitStart);
+    onEngineAcquired.run();
+    Optional<AnalysisRun> analysisRun = startAnalysis(task);
+    analysisRun.ifPresent(this::blockUntilFinished);
+    return analysisRun.map(AnalysisRun::taskId);
+  }
+
+  @Override
+  public Duration getEngineWaitOfCurrentThread() {
+    return engineWait.get();
+  }
+
+  @Override
+  public Optional<Preemption> preemptFor(int priority) {
+    AnalysisRun running = runningTask.get();
+    if (running == null || running.priority() >= priority) {
+      return Optional.empty();
+    }
+    Preemption runningPreemption = new Preemption(running.taskId());
+    if (!preemption.compareAndSet(null, runningPreemption)) {
+      return Optional.empty();
+    }
+    if (!runEngine.preempt()) {
+      preemption.compareAndSet(runningPreemption, null);
+      return Optional.empty();
+    }
+    log.info("Preempted task {} of priority {} for a task of priority {}",
+        running.taskId(), running.priority(), priority);
+    return Optional.of(runningPreemption);
   }
 
-  private Optional<TaskId> startAnalysis(AnalysisRun task) {
+  private void blockUntilFinished(AnalysisRun analysisRun) {
+    AnalysisRun current = analysisRun;
+    while (true) {
+      runningTask.set(current);
+      lockEngine.blockWhileActive();
+      runningTask.set(null);
+      Preemption stopped = preemption.getAndSet(null);
+      if (stopped == null) {
+        return;
+      }
+      long waitStart = System.nanoTime();
+      AnalysisRun remaining = remainingAnalysis(current);
+      awaitHandover(stopped);
+      log.info("Resuming preempted task {}", remaining.taskId());
+      lockEngine.acquireLock();
+      engineAcquired(waitStart);
+      current = resumeAnalysis(remaining);
+    }
+  }
+
+  private void engineAcquired(long waitStart) {
+    engineWait.set(engineWait.get().plusNanos(System.nanoTime() - waitStart));
+  }
+
+  private static void awaitHandover(Preemption stopped) {
+    if (!Uninterruptibles.awaitUninterruptibly(stopped.getHandover(), MAX_HANDOVER_SECONDS, TimeUnit.SECONDS)) {
+      log.warn("Preempting task did not start within {}s", MAX_HANDOVER_SECONDS);
+    }
+  }
+
+  private static AnalysisRun remainingAnalysis(AnalysisRun preempted) {
+    LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
+    return preempted.toBuilder()
+        .requestFingerprint(preempted.fingerprint())
+        .maxDuration(preempted.maxDuration()
+            .map(duration -> duration.minus(Duration.between(preempted.created(), now)))
+            .map(duration -> duration.compareTo(MIN_REMAINING_DURATION) < 0 ? MIN_REMAINING_DURATION : duration)
+            .orElse(null))
+        .build();
+  }
+
+  private AnalysisRun resumeAnalysis(AnalysisRun remaining) {
+    AnalysisRun resumed = remaining.toBuilder()
+        .created(LocalDateTime.now(ZoneId.systemDefault()))
+        .build();
+    try {
+      taskRepository.save(startEngine(resumed));
+      return resumed;
+    } catch (Exception ex) { // NOPMD
+      lockEngine.releaseLock();
+      throw ex;
+    }
+  }
+
+  private void waitWhileNewTasksArePaused() {
+    if (memoryPressure.isPausingNewTasks()) {
+      log.warn("Heap pressure is critical. Waiting up to {}s before accepting task", MAX_PAUSE_SECONDS);
+    }
+    int waitedSeconds = 0;
+    while (memoryPressure.isPausingNewTasks()) {
+      if (waitedSeconds >= MAX_PAUSE_SECONDS) {
+        throw new RequeueException("Heap pressure is critical. Task is not accepted");
+      }
+      Uninterruptibles.sleepUninterruptibly(1, TimeUnit.SECONDS);
+      waitedSeconds++;
+    }
+  }
+
+  private Optional<AnalysisRun> startAnalysis(AnalysisRun task) {
     try {
       TaskId taskId;
       if (TaskId.isPresent(task.taskId())) {
@@ -85,9 +245,10 @@ public class InfiniteAnalysisService implements ReceiveAnalysisRequest, Terminat
         lockEngine.releaseLock();
         return Optional.empty();
       }
-      analysisRun = startEngine(analysisRun);
-      taskRepository.save(analysisRun);
-      return Optional.of(taskId);
+      AnalysisRun startedRun = startEngine(analysisRun);
+      taskRepository.save(startedRun);
+      positionEvaluationService.seed(startedRun);
+      return Optional.of(analysisRun);
     } catch (Exception ex) { // NOPMD
       lockEngine.releaseLock();
       throw ex;
@@ -126,6 +287,31 @@ public class InfiniteAnalysisService implements ReceiveAnalysisRequest, Terminat
     return taskRepository.findByTaskId(taskId).orElseThrow(IllegalArgumentException::new);
   }
 
+  @Override
+  public Optional<EvaluationMessage> getFinalEvaluation(AnalysisRun task) {
+    // fingerprint the task as it would be run, i.e. including the local engine options
+    AnalysisRun analysisRun = enrichAnalysisRun(task, task.taskId());
+    return finalEvaluationRepository.findByFingerprint(analysisRun.fingerprint())
+        .or(() -> positionEvaluationService.findAnswer(analysisRun))
+        .map(answer -> answerTo(analysisRun, answer));
+  }
+
+  /**
+   * The stored evaluation was produced for another task with the same fingerprint. The answer is addressed to the
+   * requesting task, so a client that picks its own task ids finds it.
+   */
+  private static EvaluationMessage answerTo(AnalysisRun task, EvaluationMessage stored) {
+    return stored.toBuilder()
+        .taskName(task.name().orElse(null))
+        .reference(task.reference())
+        .taskStarted(task.created())
+        .evaluation(Optional.ofNullable(stored.getEvaluation())
+            .filter(evaluation -> TaskId.isPresent(task.taskId()))
+            .map(evaluation -> evaluation.toBuilder().taskId(task.taskId()).build())
+            .orElse(stored.getEvaluation()))
+        .build();
+  }
+
   private boolean isTaskAlreadyAnalysed(AnalysisRun task) {
     return taskRepository.hasDuplicate(task);
   }
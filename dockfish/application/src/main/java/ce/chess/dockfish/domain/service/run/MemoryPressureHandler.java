@@ -0,0 +1,57 @@
+package ce.chess.dockfish.domain.service.run;
+
+import ce.chess.dockfish.domain.event.MemoryPressureChanged;
+import ce.chess.dockfish.domain.model.MemoryPressure;
+import ce.chess.dockfish.usecase.out.db.EngineInformationReceivedRepository;
+import ce.chess.dockfish.usecase.out.db.EvaluationRepository;
+import ce.chess.dockfish.usecase.out.engine.QueryEngine;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.Objects;
+import lombok.extern.log4j.Log4j2;
+
+@ApplicationScoped
+@Log4j2
+public class MemoryPressureHandler {
+
+  private final QueryEngine queryEngine;
+  private final EngineInformationReceivedRepository eventRepository;
+  private final EvaluationRepository evaluationRepository;
+  private volatile MemoryPressure pressure = MemoryPressure.NORMAL;
+
+  @Inject
+  public MemoryPressureHandler(QueryEngine queryEngine, EngineInformationReceivedRepository eventRepository,
+                               EvaluationRepository evaluationRepository) {
+    this.queryEngine = Objects.requireNonNull(queryEngine);
+    this.eventRepository = Objects.requireNonNull(eventRepository);
+    this.evaluationRepository = Objects.requireNonNull(evaluationRepository);
+  }
+
+  public void pressureChanged(@Observes MemoryPressureChanged event) {
+    pressure = event.getPressure();
+    if (pressure.isAtLeast(MemoryPressure.ELEVATED)) {
+      trimNonCurrentTasks();
+    }
+  }
+
+  public boolean isThrottlingEvents() {
+    return pressure.isAtLeast(MemoryPressure.HIGH);
+  }
+
+  public boolean isPausingNewTasks() {
+    return pressure.isAtLeast(MemoryPressure.CRITICAL);
+  }
+
+  private void trimNonCurrentTasks() {
+    // the latest stored task need not be the running one, e.g. while a preempting task runs or with engine slots
+    queryEngine.getRunningTaskId()
+        .ifPresent(currentTaskId -> {
+          log.warn("Heap pressure {}. Trimming events and evaluation history of tasks other than {}",
+              pressure, currentTaskId);
+          eventRepository.deleteByTaskIdNot(currentTaskId);
+          evaluationRepository.deleteHistoryByTaskIdNot(currentTaskId);
+        });
+  }
+}
@@ -0,0 +1,152 @@
+package ce.chess.dockfish.domain.service.run;
+
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+import ce.chess.dockfish.domain.model.openingtree.NodeEvaluation;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTree;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeAnalysis;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeRequest;
+import ce.chess.dockfish.domain.model.openingtree.TreeMove;
+import ce.chess.dockfish.domain.model.openingtree.TreeNode;
+import ce.chess.dockfish.domain.model.result.Score;
+import ce.chess.dockfish.usecase.in.ReceiveOpeningTreeRequest;
+import ce.chess.dockfish.usecase.out.chess.ReadOpeningTree;
+import ce.chess.dockfish.usecase.out.engine.EvaluatePositions;
+import ce.chess.dockfish.usecase.out.engine.LockEngine;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Analyses an opening tree on one engine session. Only the leaves are searched, each position once however often it
+ * is reached, and their scores are backed up to the root by minimax: the side to move picks its best move of the tree.
+ */
+@ApplicationScoped
+@Log4j2
+public class OpeningTreeService implements ReceiveOpeningTreeRequest {
+
+  @Inject
+  LockEngine lockEngine;
+
+  @Inject
+  ReadOpeningTree readOpeningTree;
+
+  @Inject
+  EvaluatePositions evaluatePositions;
+
+  @Inject
+  UciOptionsConfiguration uciOptionsConfiguration;
+
+  @Inject
+  Event<OpeningTreeAnalysis> openingTreeAnalysisPublisher;
+
+  @Override
+  public void analyseAndPublish(OpeningTreeRequest request) {
+    OpeningTree openingTree = readOpeningTree.readOpeningTree(request.getPgn());
+    Map<Long, PositionScore> leafScores = new HashMap<>();
+    Map<String, Long> leavesToSearch = new LinkedHashMap<>();
+    for (TreeNode leaf : openingTree.getLeaves()) {
+      if (leaf.isCheckmate()) {
+        int mateScore = leaf.isWhitesMove() ? -GameAnalysisService.MATE_SCORE : GameAnalysisService.MATE_SCORE;
+        leafScores.put(leaf.getPositionHash(), PositionScore.builder().centiPawns(mateScore).build());
+      } else {
+        leavesToSearch.put(leaf.getFen(), leaf.getPositionHash());
+      }
+    }
+    log.info("Analysing {} leaves of {} positions of opening tree [{}]",
+        leavesToSearch.size(), openingTree.getNodes().size(), request.getReference());
+
+    String engineName;
+    lockEngine.acquireLock();
+    try {
+      engineName = evaluatePositions.evaluatePositions(request, uciOptionsConfiguration.getLocalEngineOptions(),
+          List.copyOf(leavesToSearch.keySet()),
+          (fen, positionScore) -> leafScores.put(leavesToSearch.get(fen), positionScore));
+    } finally {
+      lockEngine.releaseLock();
+    }
+
+    Minimax minimax = new Minimax(openingTree, leafScores);
+    minimax.evaluate(openingTree.getRoot());
+    openingTreeAnalysisPublisher.fire(OpeningTreeAnalysis.builder()
+        .request(request)
+        .engineName(engineName)
+        .evaluatedLeaves(leavesToSearch.size())
+        .nodes(openingTree.getNodes().stream().map(minimax::evaluate).toList())
+        .build());
+  }
+
+  private static final class Minimax {
+    private final Map<Long, TreeNode> nodes;
+    private final Map<Long, PositionScore> leafScores;
+    private final Map<Long, NodeEvaluation> evaluations = new HashMap<>();
+    private final Set<Long> nodesOnPath = new HashSet<>();
+
+    Minimax(OpeningTree openingTree, Map<Long, PositionScore> leafScores) {
+      this.nodes = openingTree.getNodes().stream()
+          .collect(Collectors.toMap(TreeNode::getPositionHash, Function.identity()));
+      this.leafScores = leafScores;
+    }
+
+    NodeEvaluation evaluate(TreeNode node) {
+      NodeEvaluation evaluation = evaluations.get(node.getPositionHash());
+      if (evaluation == null) {
+        evaluation = node.isLeaf() ? evaluateLeaf(node) : evaluateInnerNode(node);
+        evaluations.put(node.getPositionHash(), evaluation);
+      }
+      return evaluation;
+    }
+
+    private NodeEvaluation evaluateLeaf(TreeNode node) {
+      PositionScore positionScore = leafScores.get(node.getPositionHash());
+      return NodeEvaluation.builder()
+          .positionHash(node.getPositionHash())
+          .fen(node.getFen())
+          .score(Score.fromCentiPawns(positionScore.getCentiPawns()))
+          .depth(positionScore.getDepth())
+          .engineMove(positionScore.getBestMove())
+          .build();
+    }
+
+    private NodeEvaluation evaluateInnerNode(TreeNode node) {
+      nodesOnPath.add(node.getPositionHash());
+      TreeMove bestMove = null;
+      NodeEvaluation bestChild = null;
+      for (TreeMove move : node.getMoves()) {
+        if (nodesOnPath.contains(move.getPositionHash())) {
+          // the move repeats a position of the line that leads here
+          continue;
+        }
+        NodeEvaluation child = evaluate(nodes.get(move.getPositionHash()));
+        if (bestChild == null || isBetter(node, child, bestChild)) {
+          bestMove = move;
+          bestChild = child;
+        }
+      }
+      nodesOnPath.remove(node.getPositionHash());
+      return NodeEvaluation.builder()
+          .positionHash(node.getPositionHash())
+          .fen(node.getFen())
+          .score(bestChild == null ? Score.fromCentiPawns(0) : bestChild.getScore())
+          .depth(bestChild == null ? 0 : bestChild.getDepth())
+          .bestMove(bestMove == null ? null : bestMove.getSan())
+          .moves(node.getMoves())
+          .build();
+    }
+
+    private static boolean isBetter(TreeNode node, NodeEvaluation child, NodeEvaluation bestChild) {
+      int centiPawns = child.getScore().getCentiPawns();
+      int bestCentiPawns = bestChild.getScore().getCentiPawns();
+      return node.isWhitesMove() ? centiPawns > bestCentiPawns : centiPawns < bestCentiPawns;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package ce.chess.dockfish.domain.service.run;
+
+import ce.chess.dockfish.domain.event.DepthReached;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.PositionKey;
+import ce.chess.dockfish.usecase.out.chess.HashPosition;
+import ce.chess.dockfish.usecase.out.chess.RenderLine;
+import ce.chess.dockfish.usecase.out.db.EvaluationRepository;
+import ce.chess.dockfish.usecase.out.db.PositionEvaluationRepository;
+import ce.chess.dockfish.usecase.out.db.TaskRepository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.extern.log4j.Log4j2;
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * Shares evaluations between tasks that analyse the same position, no matter by which move order, notation or
+ * client it arrives. The deepest evaluation per position and engine family answers tasks that do not ask for more
+ * depth, and is reported for deeper tasks until the engine has produced its own evaluation. The evaluation is
+ * reported under the id of the asking task and its variations are played again from its starting position, so their
+ * move numbers and games are those of the asking task.
+ */
+@ApplicationScoped
+@Log4j2
+public class PositionEvaluationService {
+
+  private final HashPosition hashPosition;
+  private final RenderLine lineRenderer;
+  private final PositionEvaluationRepository positionEvaluationRepository;
+  private final TaskRepository taskRepository;
+  private final EvaluationRepository evaluationRepository;
+  private final Config config;
+
+  @Inject
+  PositionEvaluationService(HashPosition hashPosition, RenderLine lineRenderer,
+                            PositionEvaluationRepository positionEvaluationRepository,
+                            TaskRepository taskRepository, EvaluationRepository evaluationRepository,
+                            Config config) {
+    this.hashPosition = Objects.requireNonNull(hashPosition);
+    this.lineRenderer = Objects.requireNonNull(lineRenderer);
+    this.positionEvaluationRepository = Objects.requireNonNull(positionEvaluationRepository);
+    this.taskRepository = Objects.requireNonNull(taskRepository);
+    this.evaluationRepository = Objects.requireNonNull(evaluationRepository);
+    this.config = Objects.requireNonNull(config);
+  }
+
+  public void depthReached(@Observes DepthReached event) {
+    taskRepository.findByTaskId(event.getTaskId()).ifPresent(
+        task -> evaluationRepository.findByTaskIdMaxCreated(event.getTaskId()).ifPresent(
+            evaluation -> positionEvaluationRepository.saveIfDeeper(positionKey(task), evaluation)));
+  }
+
+  public Optional<EvaluationMessage> findAnswer(AnalysisRun task) {
+    return task.maxDepth().flatMap(maxDepth -> findEvaluation(task)
+        .filter(evaluation -> coveredDepth(evaluation, task.initialPv()) >= maxDepth)
+        .map(evaluation -> {
+          log.info("Position has been analysed to depth {} by task {}", evaluation.maxDepth(),
+              evaluation.getTaskId());
+          positionEvaluationRepository.recordHit();
+          return toEvaluationMessage(task, transposed(task, evaluation, evaluation.getCreated()));
+        }));
+  }
+
+  public void seed(AnalysisRun task) {
+    findEvaluation(task).ifPresent(evaluation -> {
+      log.info("Report evaluation of depth {} from task {} until the engine catches up", evaluation.maxDepth(),
+          evaluation.getTaskId());
+      evaluationRepository.save(transposed(task, evaluation, task.created()));
+    });
+  }
+
+  private Optional<Evaluation> findEvaluation(AnalysisRun task) {
+    return positionEvaluationRepository.findByPositionKey(positionKey(task))
+        .map(evaluation -> limitedTo(evaluation, task.initialPv()));
+  }
+
+  private PositionKey positionKey(AnalysisRun task) {
+    return PositionKey.of(hashPosition.positionHash(task.startingPosition()), task);
+  }
+
+  private static Evaluation limitedTo(Evaluation evaluation, int initialPv) {
+    List<Variation> variations = evaluation.getVariations().stream()
+        .filter(variation -> variation.getPvId() <= initialPv)
+        .toList();
+    return Evaluation.builder()
+        .taskId(evaluation.getTaskId())
+        .created(evaluation.getCreated())
+        .variations(variations)
+        .uciState(evaluation.getUciState())
+        .build();
+  }
+
+  private Evaluation transposed(AnalysisRun task, Evaluation evaluation, LocalDateTime created) {
+    return Evaluation.builder()
+        .taskId(task.taskId())
+        .created(created)
+        .variations(evaluation.getVariations().stream()
+            .map(variation -> lineRenderer.transpose(task.startingPosition(), variation))
+            .toList())
+        .uciState(evaluation.getUciState())
+        .build();
+  }
+
+  private static int coveredDepth(Evaluation evaluation, int initialPv) {
+    if (evaluation.getVariations().size() < initialPv) {
+      return 0;
+    }
+    return evaluation.getVariations().stream().mapToInt(Variation::getDepth).min().orElse(0);
+  }
+
+  private EvaluationMessage toEvaluationMessage(AnalysisRun task, Evaluation evaluation) {
+    return EvaluationMessage.builder()
+        .taskName(task.name().orElse(null))
+        .reference(task.reference())
+        .analysedPgn(task.startingPosition().getPgn())
+        .analysedFen(task.startingPosition().getFen())
+        .analysedPly(task.startingPosition().getLastMovePly())
+        .uciEngineName(task.uciEngineName().orElseGet(task::engineProgramName))
+        .taskDepth(task.maxDepth().orElse(null))
+        .taskDuration(task.maxDuration().orElse(null))
+        .hostname(config.getOptionalValue("hostname", String.class).orElse("hostname"))
+        .status(JobStatus.NOT_ACTIVE)
+        .evaluation(evaluation)
+        .taskStarted(task.created())
+        .lastEvaluation(evaluation.getCreated())
+        .lastAlive(evaluation.getCreated())
+        .historyEntry(evaluation.shortForm())
+        .build();
+  }
+}
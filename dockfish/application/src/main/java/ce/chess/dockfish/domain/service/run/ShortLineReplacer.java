@@ -15,14 +15,14 @@ public class ShortLineReplacer {
   private final EngineInformationReceivedRepository eventRepository;
 
   @Inject
-  ShortLineReplacer(EngineInformationReceivedRepository eventRepository) {
+  public ShortLineReplacer(EngineInformationReceivedRepository eventRepository) {
     this.eventRepository = Objects.requireNonNull(eventRepository);
   }
 
   public EngineInformationReceived fillUpGameIfTooShort(EngineInformationReceived engineEvent) {
     if (engineEvent.hasGame() && engineEvent.getCalculatedPlies() < 3) {
       return eventRepository
-          .findByTaskIdAndStartingWithLineSanMaxOccurredOn(engineEvent.getTaskId(), engineEvent.getLineSan())
+          .findByTaskIdAndStartingWithPvMaxOccurredOn(engineEvent.getTaskId(), engineEvent.getPv())
           .filter(storedEvent -> storedEvent.getCalculatedPlies() > engineEvent.getCalculatedPlies())
           .map(storedEvent -> copyWithGameFrom(engineEvent, storedEvent))
           .orElse(engineEvent);
@@ -33,11 +33,9 @@ public class ShortLineReplacer {
 
   private EngineInformationReceived copyWithGameFrom(EngineInformationReceived event,
                                                      EngineInformationReceived storedEvent) {
-    log.info("Replacing short line [{}] with [{}]", event::getLineSan, storedEvent::getLineSan);
+    log.info("Replacing short line [{}] with [{}]", event::getPv, storedEvent::getPv);
     return event.toBuilder()
-        .pgn(storedEvent.getPgn())
-        .lineSan(storedEvent.getLineSan())
-        .calculatedPlies(storedEvent.getCalculatedPlies())
+        .pv(storedEvent.getPv())
         .build();
   }
 }
@@ -0,0 +1,7 @@
+package ce.chess.dockfish.usecase.in;
+
+import ce.chess.dockfish.domain.model.fanout.PartialEvaluation;
+
+public interface GatherFanOut {
+  void receivePartialEvaluation(PartialEvaluation partialEvaluation);
+}
@@ -0,0 +1,16 @@
+package ce.chess.dockfish.usecase.in;
+
+import ce.chess.dockfish.domain.model.task.Preemption;
+
+import java.util.Optional;
+
+public interface PreemptAnalysis {
+  /**
+   * Stops the running analysis if its priority is lower than the given one. It is resumed with its remaining budget
+   * when the preempting task has got the engine, so the preemption must be passed to
+   * {@link ReceiveAnalysisRequest#startSync(ce.chess.dockfish.domain.model.task.AnalysisRun, Preemption)}.
+   *
+   * @return the preemption, empty if no analysis was preempted
+   */
+  Optional<Preemption> preemptFor(int priority);
+}
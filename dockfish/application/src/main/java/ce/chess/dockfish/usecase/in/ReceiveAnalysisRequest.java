@@ -1,12 +1,26 @@
 package ce.chess.dockfish.usecase.in;
 
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.Preemption;
 import ce.chess.dockfish.domain.model.task.TaskId;
 
+import java.time.Duration;
 import java.util.Optional;
 
 public interface ReceiveAnalysisRequest {
   Optional<TaskId> startAsync(AnalysisRun task);
 
   Optional<TaskId> startSync(AnalysisRun task);
+
+  /**
+   * Like {@link #startSync(AnalysisRun)} for the task that preempted another analysis. The preemption is handed over
+   * as soon as the task has got the engine, or when it does not run at all.
+   */
+  Optional<TaskId> startSync(AnalysisRun task, Preemption preemption);
+
+  /**
+   * The time the synchronous analyses of the calling thread have waited for the engine, e.g. while heap pressure
+   * paused new tasks or after they were preempted. The rest of their run was spent on the engine.
+   */
+  Duration getEngineWaitOfCurrentThread();
 }
@@ -0,0 +1,7 @@
+package ce.chess.dockfish.usecase.in;
+
+import ce.chess.dockfish.domain.model.corpus.CorpusRequest;
+
+public interface ReceiveCorpusRequest {
+  void scheduleUniquePositions(CorpusRequest request);
+}
@@ -0,0 +1,8 @@
+package ce.chess.dockfish.usecase.in;
+
+import ce.chess.dockfish.domain.model.fanout.FanOutRequest;
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+public interface ReceiveFanOutRequest {
+  TaskId fanOut(FanOutRequest request);
+}
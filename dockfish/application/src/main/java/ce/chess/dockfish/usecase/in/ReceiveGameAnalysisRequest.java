@@ -0,0 +1,7 @@
+package ce.chess.dockfish.usecase.in;
+
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysisRequest;
+
+public interface ReceiveGameAnalysisRequest {
+  void analyseAndPublish(GameAnalysisRequest request);
+}
@@ -0,0 +1,7 @@
+package ce.chess.dockfish.usecase.in;
+
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeRequest;
+
+public interface ReceiveOpeningTreeRequest {
+  void analyseAndPublish(OpeningTreeRequest request);
+}
@@ -0,0 +1,11 @@
+package ce.chess.dockfish.usecase.out.chess;
+
+import ce.chess.dockfish.domain.model.corpus.CorpusPositions;
+
+public interface ExtractPositions {
+  /**
+   * Collects the positions of all games of the corpus up to and including {@code maxPly} half moves, each position
+   * once with all its occurrences.
+   */
+  CorpusPositions extractPositions(String pgn, int maxPly);
+}
@@ -0,0 +1,7 @@
+package ce.chess.dockfish.usecase.out.chess;
+
+import ce.chess.dockfish.domain.model.result.GamePosition;
+
+public interface HashPosition {
+  long positionHash(GamePosition gamePosition);
+}
@@ -0,0 +1,12 @@
+package ce.chess.dockfish.usecase.out.chess;
+
+import ce.chess.dockfish.domain.model.fanout.RootMove;
+
+import java.util.List;
+
+public interface ListRootMoves {
+  /**
+   * Lists the legal moves of the position at the end of the game.
+   */
+  List<RootMove> listRootMoves(String pgn);
+}
@@ -0,0 +1,7 @@
+package ce.chess.dockfish.usecase.out.chess;
+
+import ce.chess.dockfish.domain.model.gameanalysis.GameLine;
+
+public interface ReadGameLine {
+  GameLine readGameLine(String pgn);
+}
@@ -0,0 +1,12 @@
+package ce.chess.dockfish.usecase.out.chess;
+
+import ce.chess.dockfish.domain.model.openingtree.OpeningTree;
+
+public interface ReadOpeningTree {
+  /**
+   * Reads the main lines and all variations of the PGN into one tree, transpositions are merged into one node.
+   *
+   * @throws IllegalArgumentException if the PGN is invalid or its games start from different positions.
+   */
+  OpeningTree readOpeningTree(String pgn);
+}
@@ -0,0 +1,13 @@
+package ce.chess.dockfish.usecase.out.chess;
+
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
+import ce.chess.dockfish.domain.model.result.Variation;
+
+public interface RenderLine {
+  String lineSan(GamePosition startingPosition, PackedMoves pv);
+
+  GamePosition createFrom(GamePosition startingPosition, PackedMoves pv, String comment);
+
+  Variation transpose(GamePosition startingPosition, Variation variation);
+}
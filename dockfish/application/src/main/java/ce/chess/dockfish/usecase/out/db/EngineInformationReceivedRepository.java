@@ -1,6 +1,7 @@
 package ce.chess.dockfish.usecase.out.db;
 
 import ce.chess.dockfish.domain.event.EngineInformationReceived;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
 import ce.chess.dockfish.domain.model.task.TaskId;
 
 import java.util.Collection;
@@ -14,5 +15,7 @@ public interface EngineInformationReceivedRepository {
 
   Optional<EngineInformationReceived> findByTaskIdMaxOccurredOn(TaskId taskId);
 
-  Optional<EngineInformationReceived> findByTaskIdAndStartingWithLineSanMaxOccurredOn(TaskId taskId, String lineSan);
+  Optional<EngineInformationReceived> findByTaskIdAndStartingWithPvMaxOccurredOn(TaskId taskId, PackedMoves pv);
+
+  void deleteByTaskIdNot(TaskId taskId);
 }
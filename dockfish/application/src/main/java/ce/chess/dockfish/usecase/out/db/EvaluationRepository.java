@@ -14,4 +14,6 @@ public interface EvaluationRepository {
   Optional<Evaluation> findByTaskIdMaxCreated(TaskId taskId);
 
   List<Evaluation> findByTaskId(TaskId taskId);
+
+  void deleteHistoryByTaskIdNot(TaskId taskId);
 }
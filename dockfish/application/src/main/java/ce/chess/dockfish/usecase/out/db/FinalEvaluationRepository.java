@@ -0,0 +1,13 @@
+package ce.chess.dockfish.usecase.out.db;
+
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.task.TaskFingerprint;
+
+import java.util.Optional;
+
+public interface FinalEvaluationRepository {
+
+  void save(TaskFingerprint fingerprint, EvaluationMessage evaluationMessage);
+
+  Optional<EvaluationMessage> findByFingerprint(TaskFingerprint fingerprint);
+}
@@ -0,0 +1,18 @@
+package ce.chess.dockfish.usecase.out.db;
+
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.task.PositionKey;
+
+import java.util.Optional;
+
+public interface PositionEvaluationRepository {
+
+  void saveIfDeeper(PositionKey positionKey, Evaluation evaluation);
+
+  Optional<Evaluation> findByPositionKey(PositionKey positionKey);
+
+  /**
+   * Counts a task that was answered by a cached evaluation.
+   */
+  void recordHit();
+}
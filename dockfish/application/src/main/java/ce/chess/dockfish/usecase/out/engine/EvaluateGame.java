@@ -0,0 +1,20 @@
+package ce.chess.dockfish.usecase.out.engine;
+
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysisRequest;
+import ce.chess.dockfish.domain.model.gameanalysis.GameLine;
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+import ce.chess.dockfish.domain.model.task.EngineOption;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface EvaluateGame {
+  /**
+   * Evaluates every position of the line within the budget of the request, from the last position back to the
+   * starting position, and hands each score to the consumer as soon as it is known.
+   *
+   * @return The name of the engine.
+   */
+  String evaluateBackwards(GameAnalysisRequest request, List<EngineOption> engineOptions, GameLine gameLine,
+                           Consumer<PositionScore> consumer);
+}
@@ -0,0 +1,19 @@
+package ce.chess.dockfish.usecase.out.engine;
+
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeRequest;
+import ce.chess.dockfish.domain.model.task.EngineOption;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public interface EvaluatePositions {
+  /**
+   * Evaluates the positions one after the other within the budget of the request and hands each score together with
+   * its FEN to the consumer as soon as it is known.
+   *
+   * @return The name of the engine.
+   */
+  String evaluatePositions(OpeningTreeRequest request, List<EngineOption> engineOptions, List<String> fens,
+                           BiConsumer<String, PositionScore> consumer);
+}
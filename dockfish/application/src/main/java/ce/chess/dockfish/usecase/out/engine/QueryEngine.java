@@ -3,8 +3,15 @@ package ce.chess.dockfish.usecase.out.engine;
 import ce.chess.dockfish.domain.model.result.JobStatus;
 import ce.chess.dockfish.domain.model.task.TaskId;
 
+import java.util.Optional;
+
 public interface QueryEngine {
   JobStatus getJobStatus(TaskId taskId);
 
   boolean uciEngineIsRunning();
+
+  /**
+   * The task that is analysed on the engine right now, empty while the engine is idle.
+   */
+  Optional<TaskId> getRunningTaskId();
 }
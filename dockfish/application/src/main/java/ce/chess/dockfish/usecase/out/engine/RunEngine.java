@@ -7,5 +7,12 @@ public interface RunEngine {
 
   void stop();
 
+  /**
+   * Stops the running analysis like {@link #stop()}, but reports it as preempted instead of finished.
+   *
+   * @return true if an analysis was running
+   */
+  boolean preempt();
+
   void kill();
 }
@@ -26,13 +26,18 @@ import static raptor.chess.util.GameUtils.getSquare;
 import static raptor.chess.util.GameUtils.getString;
 import static raptor.chess.util.GameUtils.kingMove;
 import static raptor.chess.util.GameUtils.knightMove;
+import static raptor.chess.util.GameUtils.lineThrough;
 import static raptor.chess.util.GameUtils.moveOne;
 import static raptor.chess.util.GameUtils.orthogonalMove;
 import static raptor.chess.util.GameUtils.pawnCapture;
 import static raptor.chess.util.GameUtils.pawnDoublePush;
 import static raptor.chess.util.GameUtils.pawnEpCapture;
 import static raptor.chess.util.GameUtils.pawnSinglePush;
+import static raptor.chess.util.GameUtils.squaresBetween;
 import static raptor.chess.util.ZobristUtils.zobrist;
+import static raptor.chess.util.ZobristUtils.zobristCastle;
+import static raptor.chess.util.ZobristUtils.zobristEp;
+import static raptor.chess.util.ZobristUtils.zobristToMove;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -43,9 +48,11 @@ import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import raptor.chess.pgn.PgnHeader;
 import raptor.chess.pgn.PgnUtils;
+import raptor.chess.util.FenUtils;
 import raptor.chess.util.GameUtils;
 import raptor.chess.util.SanUtils;
 import raptor.chess.util.SanUtils.SanValidations;
+import raptor.chess.util.ZobristUtils;
 
 /**
  * Implements Classic game rules and provides protected methods so it can easily
@@ -53,6 +60,8 @@ import raptor.chess.util.SanUtils.SanValidations;
  */
 public class ClassicGame implements Game {
 
+  private static final ThreadLocal<IntMoveList> SCRATCH_MOVE_LIST = ThreadLocal.withInitial(IntMoveList::new);
+
   protected int[] board = new int[64];
   protected int[] castling = new int[2];
   protected long[] colorBB = new long[2];
@@ -71,6 +80,8 @@ public class ClassicGame implements Game {
   protected int[][] pieceCounts = new int[2][7];
   protected int state;
   protected long zobristPositionHash;
+  // color to move, castling and the raw ep square, maintained by their setters
+  protected long zobristStateHash = zobrist(WHITE, EMPTY_SQUARE, CASTLE_NONE, CASTLE_NONE);
 
   public ClassicGame() {
     pgnHeaderMap.put(PgnHeader.Result, Result.ON_GOING.getDescription());
@@ -140,6 +151,11 @@ public class ClassicGame implements Game {
     return epSquare;
   }
 
+  @Override
+  public int getFiftyMoveCount() {
+    return fiftyMoveCount;
+  }
+
   @Override
   @SuppressWarnings("squid:S3358")
   public String getFenCastle() {
@@ -169,33 +185,60 @@ public class ClassicGame implements Game {
     return pgnHeaderMap.get(header);
   }
 
+  /**
+   * Checkers and pinned pieces are determined once for the position. In double check only king moves are generated.
+   * Other moves only need to land on the check mask and, if the piece is pinned, stay on the line through the king.
+   * King moves and en passant captures, which can expose the king themselves, are tested with {@link #isLegal(int)}.
+   */
   @Override
-  public PriorityMoveList getLegalMoves() {
-    PriorityMoveList result = getPseudoLegalMoves();
-
-    for (int i = 0; i < result.getHighPrioritySize(); i++) {
-      Move move = result.getHighPriority(i);
-      forceMove(move);
-      if (!isLegalPosition()) {
-        result.removeHighPriority(i);
-        i--; // NOPMD - remove current element and reduce the index accordingly
+  public void generateLegalMoves(IntMoveList moves) {
+    if (!areBothKingsOnBoard()) {
+      return;
+    }
+    int legalSize = moves.getSize();
+    int oppositeColor = getOppositeColor(colorToMove);
+    int kingSquare = bitscanForward(getPieceBB(colorToMove, KING));
+    long checkers = getAttackers(kingSquare, oppositeColor, occupiedBB);
+    if (Long.bitCount(checkers) > 1) {
+      generatePseudoKingMoves(moves);
+    } else {
+      generatePseudoLegalMoves(moves);
+    }
+    long checkMask = checkers == 0L ? -1L : checkers | squaresBetween(kingSquare, bitscanForward(checkers));
+    long pinned = getPinnedPieces(kingSquare, oppositeColor);
+    for (int i = legalSize; i < moves.getSize(); i++) {
+      int move = moves.get(i);
+      if (isLegal(move, kingSquare, checkMask, pinned)) {
+        moves.set(legalSize++, move);
       }
-
-      rollback();
     }
+    moves.truncate(legalSize);
+  }
 
-    for (int i = 0; i < result.getLowPrioritySize(); i++) {
-      Move move = result.getLowPriority(i);
-      forceMove(move);
-
-      if (!isLegalPosition()) {
-        result.removeLowPriority(i);
-        i--; // NOPMD - remove current element and reduce the index accordingly
-      }
+  @Override
+  public void generatePseudoLegalMoves(IntMoveList moves) {
+    generatePseudoQueenMoves(moves);
+    generatePseudoKnightMoves(moves);
+    generatePseudoBishopMoves(moves);
+    generatePseudoRookMoves(moves);
+    generatePseudoPawnMoves(moves);
+    generatePseudoKingMoves(moves);
+  }
 
-      rollback();
+  /**
+   * Only the legal moves are created as {@link Move}s. Their SAN is set as if they had been made, if the game is
+   * setting move SAN.
+   */
+  @Override
+  public PriorityMoveList getLegalMoves() {
+    IntMoveList legalMoves = scratchMoveList();
+    generateLegalMoves(legalMoves);
+    PriorityMoveList result = new PriorityMoveList();
+    for (int i = 0; i < legalMoves.getSize(); i++) {
+      Move move = IntMove.toMove(legalMoves.get(i));
+      setSan(move);
+      addMove(move, result);
     }
-
     return result;
   }
 
@@ -236,16 +279,27 @@ public class ClassicGame implements Game {
 
   @Override
   public PriorityMoveList getPseudoLegalMoves() {
+    IntMoveList pseudoLegalMoves = scratchMoveList();
+    generatePseudoLegalMoves(pseudoLegalMoves);
     PriorityMoveList result = new PriorityMoveList();
-    generatePseudoQueenMoves(result);
-    generatePseudoKnightMoves(result);
-    generatePseudoBishopMoves(result);
-    generatePseudoRookMoves(result);
-    generatePseudoPawnMoves(result);
-    generatePseudoKingMoves(result);
+    for (int i = 0; i < pseudoLegalMoves.getSize(); i++) {
+      addMove(IntMove.toMove(pseudoLegalMoves.get(i)), result);
+    }
     return result;
   }
 
+  @Override
+  public long getZobristHash() {
+    long hash = zobristPositionHash ^ zobristStateHash;
+    int hashedEpSquare = ZobristUtils.hashedEpSquare(this);
+    return hashedEpSquare == epSquare ? hash : hash ^ zobristEp(epSquare) ^ zobristEp(hashedEpSquare);
+  }
+
+  @Override
+  public long getZobristPositionHash() {
+    return zobristPositionHash;
+  }
+
   @Override
   public int getRepHash() {
     return (int) (zobristPositionHash & MOVE_REP_CACHE_SIZE_MINUS_1);
@@ -287,6 +341,53 @@ public class ClassicGame implements Game {
     return (this.state & state) != 0;
   }
 
+  /**
+   * Tests the king of the side to move against the position after the move, which is derived from the bitboards
+   * without making the move.
+   */
+  @Override
+  public boolean isLegal(int move) {
+    if (!areBothKingsOnBoard() || IntMove.capture(move) == KING) {
+      return false;
+    }
+    int oppositeColor = getOppositeColor(colorToMove);
+    long fromBB = getBitboard(IntMove.from(move));
+    long toBB = getBitboard(IntMove.to(move));
+    long capturedBB = toBB;
+    long occupied = occupiedBB & ~fromBB | toBB;
+    switch (IntMove.moveCharacteristic(move)) {
+      case Move.EN_PASSANT_CHARACTERISTIC -> {
+        capturedBB = moveOne(colorToMove == WHITE ? SOUTH : NORTH, toBB);
+        occupied &= ~capturedBB;
+      }
+      case Move.SHORT_CASTLING_CHARACTERISTIC -> occupied ^= colorToMove == WHITE ? H1 | F1 : H8 | F8;
+      case Move.LONG_CASTLING_CHARACTERISTIC -> occupied ^= colorToMove == WHITE ? A1 | D1 : A8 | D8;
+      default -> {
+        // the captured piece, if any, is on the destination square
+      }
+    }
+    long kingBB = IntMove.piece(move) == KING ? toBB : getPieceBB(colorToMove, KING);
+    int kingSquare = bitscanForward(kingBB);
+    long notCaptured = ~capturedBB;
+    long queens = getPieceBB(oppositeColor, QUEEN);
+    return pawnCapture(oppositeColor, getPieceBB(oppositeColor, PAWN) & notCaptured, kingBB) == 0L
+        && (knightMove(kingSquare) & getPieceBB(oppositeColor, KNIGHT) & notCaptured) == 0L
+        && (kingMove(kingSquare) & getPieceBB(oppositeColor, KING)) == 0L
+        && (orthogonalMove(kingSquare, ~occupied) & (getPieceBB(oppositeColor, ROOK) | queens) & notCaptured) == 0L
+        && (diagonalMove(kingSquare, ~occupied) & (getPieceBB(oppositeColor, BISHOP) | queens) & notCaptured) == 0L;
+  }
+
+  private boolean isLegal(int move, int kingSquare, long checkMask, long pinned) {
+    if (IntMove.piece(move) == KING || IntMove.moveCharacteristic(move) == Move.EN_PASSANT_CHARACTERISTIC) {
+      return isLegal(move);
+    }
+    long toBB = getBitboard(IntMove.to(move));
+    return IntMove.capture(move) != KING
+        && (toBB & checkMask) != 0L
+        && ((pinned & getBitboard(IntMove.from(move))) == 0L
+        || (lineThrough(kingSquare, IntMove.from(move)) & toBB) != 0L);
+  }
+
   @Override
   public boolean isLegalPosition() {
     return areBothKingsOnBoard()
@@ -310,53 +411,56 @@ public class ClassicGame implements Game {
 
   @Override
   public Move makeMove(int startSquare, int endSquare) {
-    Move move = null;
-
-    Move[] legals = getLegalMoves().asArray();
-
-    for (int i = 0; move == null && i < legals.length; i++) {
-      Move candidate = legals[i];
-      if (candidate.getFrom() == startSquare
-          && candidate.getTo() == endSquare) {
-        move = candidate;
+    IntMoveList legalMoves = scratchMoveList();
+    generateLegalMoves(legalMoves);
+
+    for (int i = 0; i < legalMoves.getSize(); i++) {
+      int candidate = legalMoves.get(i);
+      if (IntMove.from(candidate) == startSquare && IntMove.to(candidate) == endSquare) {
+        Move move = IntMove.toMove(candidate);
+        forceMove(move);
+        return move;
       }
     }
 
-    if (move == null) {
-      throw new IllegalArgumentException("Invalid move: "
-          + getSan(startSquare) + " " + getSan(endSquare) + " \n"
-          + this);
-    } else {
-      forceMove(move);
-    }
-
-    return move;
+    throw new IllegalArgumentException("Invalid move: "
+        + getSan(startSquare) + " " + getSan(endSquare) + " \n"
+        + this);
   }
 
   @Override
   public Move makeMove(int startSquare, int endSquare, int promotePiece) {
-    Move move = null;
+    return makeUciMove(startSquare, endSquare, promotePiece);
+  }
 
-    Move[] legals = getLegalMoves().asArray();
+  /**
+   * Builds the one move from the start to the end square and tests it with {@link #isLegal(int)}, without generating
+   * the other moves of the position.
+   */
+  @Override
+  public Move makeUciMove(int startSquare, int endSquare, int promotePiece) {
+    Move result = IntMove.toMove(getLegalUciMove(startSquare, endSquare, promotePiece));
+    forceMove(result);
+    return result;
+  }
 
-    for (int i = 0; move == null && i < legals.length; i++) {
-      Move candidate = legals[i];
-      if (candidate.getFrom() == startSquare
-          && candidate.getTo() == endSquare
-          && candidate.getPiecePromotedTo() == promotePiece) {
-        move = candidate;
-      }
-    }
+  @Override
+  public Move makeUciMove(int startSquare, int endSquare, int promotePiece, StringBuilder san) {
+    int move = getLegalUciMove(startSquare, endSquare, promotePiece);
+    appendSan(move, san);
+    Move result = IntMove.toMove(move);
+    forceMove(result);
+    return result;
+  }
 
-    if (move == null) {
+  private int getLegalUciMove(int startSquare, int endSquare, int promotePiece) {
+    int move = getPseudoLegalMove(startSquare, endSquare, promotePiece);
+    if (move == IntMove.NO_MOVE || !isLegal(move)) {
       throw new IllegalArgumentException("Invalid move: "
-          + getSan(startSquare) + "-" + getSan(endSquare) + "="
-          //+ PIECE_TO_SAN.charAt(promotePiece) + "\n"
+          + getSan(startSquare) + getSan(endSquare)
+          + (promotePiece == EMPTY ? "" : "=" + PIECE_TO_SAN.charAt(promotePiece)) + "\n"
           + this);
-    } else {
-      forceMove(move);
     }
-
     return move;
   }
 
@@ -607,6 +711,7 @@ public class ClassicGame implements Game {
 
   @Override
   public void setCastling(int color, int castling) {
+    zobristStateHash ^= zobristCastle(color, this.castling[color]) ^ zobristCastle(color, castling);
     this.castling[color] = castling;
   }
 
@@ -617,6 +722,7 @@ public class ClassicGame implements Game {
 
   @Override
   public void setColorToMove(int color) {
+    zobristStateHash ^= zobristToMove(colorToMove) ^ zobristToMove(color);
     colorToMove = color;
   }
 
@@ -627,6 +733,7 @@ public class ClassicGame implements Game {
 
   @Override
   public void setEpSquare(int epSquare) {
+    zobristStateHash ^= zobristEp(this.epSquare) ^ zobristEp(epSquare);
     this.epSquare = epSquare;
   }
 
@@ -677,44 +784,17 @@ public class ClassicGame implements Game {
 
   @Override
   public String toFen() {
-    return toFenPosition()
-        + (colorToMove == WHITE ? " w" : " b")
-        + " " + getFenCastle()
-        + " " + getSan(epSquare)
-        + " " + fiftyMoveCount
-        + " " + getFullMoveCount();
+    return FenUtils.toFen(this);
   }
 
   @Override
-  @SuppressWarnings("squid:S3776")
-  public String toFenPosition() {
-    StringBuilder result = new StringBuilder(77);
-    for (int j = 7; j > -1; j--) {
-      int consecutiveEmpty = 0;
-      for (int i = 0; i < 8; i++) {
-        int square = getSquare(j, i);
-        int piece = getPiece(square);
+  public Position toPosition() {
+    return new Position(this);
+  }
 
-        if (piece == EMPTY) {
-          consecutiveEmpty++;
-        } else {
-          long squareBB = getBitboard(square);
-          int color = (getPieceBB(WHITE, piece) & squareBB) != 0L ? WHITE
-              : BLACK;
-          if (consecutiveEmpty > 0) {
-            result.append(consecutiveEmpty);
-            consecutiveEmpty = 0;
-          }
-          result.append(COLOR_PIECE_TO_CHAR[color].charAt(piece));
-        }
-      }
-      if (j != 0) {
-        result.append(consecutiveEmpty != 0 ? consecutiveEmpty : "").append('/');
-      } else {
-        result.append(consecutiveEmpty != 0 ? consecutiveEmpty : "");
-      }
-    }
-    return result.toString();
+  @Override
+  public String toFenPosition() {
+    return FenUtils.toFenPosition(this);
   }
 
   @Override
@@ -840,6 +920,122 @@ public class ClassicGame implements Game {
     return result.toString();
   }
 
+  /**
+   * Returns the pieces of the color that attack the square with the given occupancy.
+   */
+  protected long getAttackers(int square, int color, long occupied) {
+    long queens = getPieceBB(color, QUEEN);
+    return pawnCapture(getOppositeColor(color), getBitboard(square), getPieceBB(color, PAWN))
+        | knightMove(square) & getPieceBB(color, KNIGHT)
+        | kingMove(square) & getPieceBB(color, KING)
+        | orthogonalMove(square, ~occupied) & (getPieceBB(color, ROOK) | queens)
+        | diagonalMove(square, ~occupied) & (getPieceBB(color, BISHOP) | queens);
+  }
+
+  /**
+   * Returns the pieces of the side to move that are the only piece between their king and a slider of the opposite
+   * color.
+   */
+  protected long getPinnedPieces(int kingSquare, int oppositeColor) {
+    long notOpponentBB = ~getColorBB(oppositeColor);
+    long queens = getPieceBB(oppositeColor, QUEEN);
+    long snipers = orthogonalMove(kingSquare, notOpponentBB) & (getPieceBB(oppositeColor, ROOK) | queens)
+        | diagonalMove(kingSquare, notOpponentBB) & (getPieceBB(oppositeColor, BISHOP) | queens);
+    long pinned = 0L;
+    while (snipers != 0L) {
+      long blockers = squaresBetween(kingSquare, bitscanForward(snipers)) & occupiedBB;
+      if (Long.bitCount(blockers) == 1) {
+        pinned |= blockers & getColorBB(colorToMove);
+      }
+      snipers = bitscanClear(snipers);
+    }
+    return pinned;
+  }
+
+  /**
+   * Returns the pseudo legal move of the piece on the start square to the end square, or {@link IntMove#NO_MOVE}.
+   * The promote piece has to be given exactly for promotions and must be EMPTY otherwise.
+   */
+  @SuppressWarnings("squid:S3776")
+  protected int getPseudoLegalMove(int startSquare, int endSquare, int promotePiece) {
+    long fromBB = getBitboard(startSquare);
+    long toBB = getBitboard(endSquare);
+    if ((fromBB & getColorBB(colorToMove)) == 0L || (toBB & getColorBB(colorToMove)) != 0L) {
+      return IntMove.NO_MOVE;
+    }
+    int piece = getPieceWithPromoteMask(startSquare);
+    int capture = getPieceWithPromoteMask(endSquare);
+    if ((piece & NOT_PROMOTED_MASK) == PAWN) {
+      return getPseudoLegalPawnMove(startSquare, endSquare, promotePiece);
+    }
+    if (promotePiece != EMPTY) {
+      return IntMove.NO_MOVE;
+    }
+    long toSquares = switch (piece & NOT_PROMOTED_MASK) {
+      case KNIGHT -> knightMove(startSquare);
+      case BISHOP -> diagonalMove(startSquare, emptyBB);
+      case ROOK -> orthogonalMove(startSquare, emptyBB);
+      case QUEEN -> orthogonalMove(startSquare, emptyBB) | diagonalMove(startSquare, emptyBB);
+      case KING -> kingMove(startSquare);
+      default -> 0L;
+    };
+    if ((toSquares & toBB) != 0L) {
+      return IntMove.encode(startSquare, endSquare, piece, colorToMove, capture);
+    }
+    if (piece == KING) {
+      IntMoveList castlingMoves = scratchMoveList();
+      generatePseudoKingCastlingMoves(fromBB, castlingMoves);
+      for (int i = 0; i < castlingMoves.getSize(); i++) {
+        if (IntMove.to(castlingMoves.get(i)) == endSquare) {
+          return castlingMoves.get(i);
+        }
+      }
+    }
+    return IntMove.NO_MOVE;
+  }
+
+  private int getPseudoLegalPawnMove(int startSquare, int endSquare, int promotePiece) {
+    long fromBB = getBitboard(startSquare);
+    long toBB = getBitboard(endSquare);
+    int oppositeColor = getOppositeColor(colorToMove);
+    if (epSquare == endSquare
+        && pawnEpCapture(colorToMove, fromBB, getPieceBB(oppositeColor, PAWN), toBB) != 0L) {
+      return promotePiece == EMPTY
+          ? IntMove.encode(startSquare, endSquare, PAWN, colorToMove, PAWN, EMPTY, Move.EN_PASSANT_CHARACTERISTIC)
+          : IntMove.NO_MOVE;
+    }
+    if (pawnDoublePush(colorToMove, fromBB, emptyBB) == toBB) {
+      return promotePiece == EMPTY
+          ? IntMove.encode(startSquare, endSquare, PAWN, colorToMove, EMPTY, EMPTY,
+          Move.DOUBLE_PAWN_PUSH_CHARACTERISTIC)
+          : IntMove.NO_MOVE;
+    }
+    if (((pawnCapture(colorToMove, fromBB, getColorBB(oppositeColor))
+        | pawnSinglePush(colorToMove, fromBB, emptyBB)) & toBB) == 0L) {
+      return IntMove.NO_MOVE;
+    }
+    int capture = getPieceWithPromoteMask(endSquare);
+    if ((toBB & RANK8_OR_RANK1) == 0L) {
+      return promotePiece == EMPTY
+          ? IntMove.encode(startSquare, endSquare, PAWN, colorToMove, capture)
+          : IntMove.NO_MOVE;
+    }
+    return promotePiece == KNIGHT || promotePiece == BISHOP || promotePiece == ROOK || promotePiece == QUEEN
+        ? IntMove.encode(startSquare, endSquare, PAWN, colorToMove, capture, promotePiece,
+        Move.PROMOTION_CHARACTERISTIC)
+        : IntMove.NO_MOVE;
+  }
+
+  /**
+   * Returns the cleared move list of the current thread, reused by the methods that only need the generated moves
+   * until they return.
+   */
+  protected static IntMoveList scratchMoveList() {
+    IntMoveList moveList = SCRATCH_MOVE_LIST.get();
+    moveList.clear();
+    return moveList;
+  }
+
   /**
    * Currently places captures and promotions ahead of non captures.
    */
@@ -879,7 +1075,7 @@ public class ClassicGame implements Game {
    *
    * @param moves A move list.
    */
-  protected void generatePseudoBishopMoves(PriorityMoveList moves) {
+  protected void generatePseudoBishopMoves(IntMoveList moves) {
     long fromBB = getPieceBB(colorToMove, BISHOP);
 
     while (fromBB != 0) {
@@ -893,9 +1089,7 @@ public class ClassicGame implements Game {
 
         int contents = getPieceWithPromoteMask(toSquare);
 
-        addMove(new Move(fromSquare, toSquare,
-            getPieceWithPromoteMask(fromSquare), colorToMove,
-            contents), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, getPieceWithPromoteMask(fromSquare), colorToMove, contents));
         toBB = bitscanClear(toBB);
       }
       fromBB = bitscanClear(fromBB);
@@ -909,7 +1103,7 @@ public class ClassicGame implements Game {
    * @param moves A move list.
    */
   protected void generatePseudoKingCastlingMoves(long fromBB,
-                                                 PriorityMoveList moves) {
+                                                 IntMoveList moves) {
     // The king destination square isnt checked, its checked when legal
     // getMoves() are checked.
 
@@ -919,10 +1113,8 @@ public class ClassicGame implements Game {
         && GameUtils.isWhitePiece(this, SQUARE_H1)
         && getPiece(SQUARE_H1) == ROOK && getPiece(SQUARE_F1) == EMPTY
         && !isInCheck(WHITE, E1) && !isInCheck(WHITE, F1)) {
-      moves
-          .appendLowPriority(new Move(SQUARE_E1, SQUARE_G1, KING,
-              colorToMove, EMPTY,
-              Move.SHORT_CASTLING_CHARACTERISTIC));
+      moves.add(IntMove.encode(SQUARE_E1, SQUARE_G1, KING, colorToMove, EMPTY, EMPTY,
+          Move.SHORT_CASTLING_CHARACTERISTIC));
     }
 
     if (colorToMove == WHITE
@@ -931,10 +1123,8 @@ public class ClassicGame implements Game {
         && getPiece(SQUARE_A1) == ROOK && getPiece(SQUARE_D1) == EMPTY
         && getPiece(SQUARE_C1) == EMPTY && getPiece(SQUARE_B1) == EMPTY
         && !isInCheck(WHITE, E1) && !isInCheck(WHITE, D1)) {
-      moves
-          .appendLowPriority(new Move(SQUARE_E1, SQUARE_C1, KING,
-              colorToMove, EMPTY,
-              Move.LONG_CASTLING_CHARACTERISTIC));
+      moves.add(IntMove.encode(SQUARE_E1, SQUARE_C1, KING, colorToMove, EMPTY, EMPTY,
+          Move.LONG_CASTLING_CHARACTERISTIC));
     }
 
     if (colorToMove == BLACK
@@ -943,10 +1133,8 @@ public class ClassicGame implements Game {
         && getPiece(SQUARE_H8) == ROOK && getPiece(SQUARE_G8) == EMPTY
         && getPiece(SQUARE_F8) == EMPTY && !isInCheck(BLACK, E8)
         && !isInCheck(BLACK, F8)) {
-      moves
-          .appendLowPriority(new Move(SQUARE_E8, SQUARE_G8, KING,
-              colorToMove, EMPTY,
-              Move.SHORT_CASTLING_CHARACTERISTIC));
+      moves.add(IntMove.encode(SQUARE_E8, SQUARE_G8, KING, colorToMove, EMPTY, EMPTY,
+          Move.SHORT_CASTLING_CHARACTERISTIC));
 
     }
 
@@ -957,10 +1145,8 @@ public class ClassicGame implements Game {
         && getPiece(SQUARE_D8) == EMPTY && getPiece(SQUARE_C8) == EMPTY
         && getPiece(SQUARE_B8) == EMPTY && !isInCheck(BLACK, E8)
         && !isInCheck(BLACK, D8)) {
-      moves
-          .appendLowPriority(new Move(SQUARE_E8, SQUARE_C8, KING,
-              colorToMove, EMPTY,
-              Move.LONG_CASTLING_CHARACTERISTIC));
+      moves.add(IntMove.encode(SQUARE_E8, SQUARE_C8, KING, colorToMove, EMPTY, EMPTY,
+          Move.LONG_CASTLING_CHARACTERISTIC));
     }
   }
 
@@ -970,7 +1156,7 @@ public class ClassicGame implements Game {
    *
    * @param moves A move list.
    */
-  protected void generatePseudoKingMoves(PriorityMoveList moves) {
+  protected void generatePseudoKingMoves(IntMoveList moves) {
     long fromBB = getPieceBB(colorToMove, KING);
     int fromSquare = bitscanForward(fromBB);
     long toBB = kingMove(fromSquare) & getNotColorToMoveBB();
@@ -982,8 +1168,7 @@ public class ClassicGame implements Game {
 
       int contents = getPieceWithPromoteMask(toSquare);
 
-      addMove(new Move(fromSquare, toSquare, KING, colorToMove,
-          contents), moves);
+      moves.add(IntMove.encode(fromSquare, toSquare, KING, colorToMove, contents));
       toBB = bitscanClear(toBB);
     }
   }
@@ -994,7 +1179,7 @@ public class ClassicGame implements Game {
    *
    * @param moves A move list.
    */
-  protected void generatePseudoKnightMoves(PriorityMoveList moves) {
+  protected void generatePseudoKnightMoves(IntMoveList moves) {
 
     long fromBB = getPieceBB(colorToMove, KNIGHT);
 
@@ -1007,9 +1192,7 @@ public class ClassicGame implements Game {
         int toSquare = bitscanForward(toBB);
         int contents = getPieceWithPromoteMask(toSquare);
 
-        addMove(new Move(fromSquare, toSquare,
-            getPieceWithPromoteMask(fromSquare), colorToMove,
-            contents), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, getPieceWithPromoteMask(fromSquare), colorToMove, contents));
 
         toBB = bitscanClear(toBB);
       }
@@ -1025,7 +1208,7 @@ public class ClassicGame implements Game {
    * @param moves A move list.
    */
   protected void generatePseudoPawnCaptures(int fromSquare, long fromBB,
-                                            int oppositeColor, PriorityMoveList moves) {
+                                            int oppositeColor, IntMoveList moves) {
 
     long toBB = pawnCapture(colorToMove, fromBB,
         getColorBB(oppositeColor));
@@ -1033,21 +1216,16 @@ public class ClassicGame implements Game {
     while (toBB != 0L) {
       int toSquare = bitscanForward(toBB);
       if ((toBB & RANK8_OR_RANK1) != 0L) {
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            getPieceWithPromoteMask(toSquare), KNIGHT,
-            EMPTY_SQUARE, Move.PROMOTION_CHARACTERISTIC), moves);
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            getPieceWithPromoteMask(toSquare), BISHOP,
-            EMPTY_SQUARE, Move.PROMOTION_CHARACTERISTIC), moves);
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            getPieceWithPromoteMask(toSquare), QUEEN, EMPTY_SQUARE,
-            Move.PROMOTION_CHARACTERISTIC), moves);
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            getPieceWithPromoteMask(toSquare), ROOK, EMPTY_SQUARE,
-            Move.PROMOTION_CHARACTERISTIC), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove,
+            getPieceWithPromoteMask(toSquare), KNIGHT, Move.PROMOTION_CHARACTERISTIC));
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove,
+            getPieceWithPromoteMask(toSquare), BISHOP, Move.PROMOTION_CHARACTERISTIC));
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove,
+            getPieceWithPromoteMask(toSquare), QUEEN, Move.PROMOTION_CHARACTERISTIC));
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove,
+            getPieceWithPromoteMask(toSquare), ROOK, Move.PROMOTION_CHARACTERISTIC));
       } else {
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            getPieceWithPromoteMask(toSquare)), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove, getPieceWithPromoteMask(toSquare)));
       }
       toBB = bitscanClear(toBB);
     }
@@ -1060,15 +1238,14 @@ public class ClassicGame implements Game {
    * @param moves A move list.
    */
   protected void generatePseudoPawnDoublePush(int fromSquare, long fromBB,
-                                              int epModifier, PriorityMoveList moves) {
+                                              IntMoveList moves) {
 
     long toBB = pawnDoublePush(colorToMove, fromBB, emptyBB);
 
     while (toBB != 0) {
       int toSquare = bitscanForward(toBB);
-      addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-          EMPTY, EMPTY, toSquare + epModifier,
-          Move.DOUBLE_PAWN_PUSH_CHARACTERISTIC), moves);
+      moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove,
+          EMPTY, EMPTY, Move.DOUBLE_PAWN_PUSH_CHARACTERISTIC));
       toBB = bitscanClear(toBB);
     }
 
@@ -1081,7 +1258,7 @@ public class ClassicGame implements Game {
    * @param moves A move list.
    */
   protected void generatePseudoPawnEPCaptures(int fromSquare, long fromBB,
-                                              int oppositeColor, PriorityMoveList moves) {
+                                              int oppositeColor, IntMoveList moves) {
     if (epSquare != EMPTY) {
 
       long toBB = pawnEpCapture(colorToMove, fromBB, getPieceBB(
@@ -1090,9 +1267,7 @@ public class ClassicGame implements Game {
       if (toBB != 0) {
         int toSquare = bitscanForward(toBB);
 
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            PAWN, EMPTY, EMPTY_SQUARE,
-            Move.EN_PASSANT_CHARACTERISTIC), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove, PAWN, EMPTY, Move.EN_PASSANT_CHARACTERISTIC));
       }
     }
   }
@@ -1103,18 +1278,9 @@ public class ClassicGame implements Game {
    *
    * @param moves A move list.
    */
-  protected void generatePseudoPawnMoves(PriorityMoveList moves) {
+  protected void generatePseudoPawnMoves(IntMoveList moves) {
     long pawnsBB = getPieceBB(colorToMove, PAWN);
-    int oppositeColor;
-    int epModifier;
-
-    if (colorToMove == WHITE) {
-      oppositeColor = BLACK;
-      epModifier = -8;
-    } else {
-      oppositeColor = WHITE;
-      epModifier = 8;
-    }
+    int oppositeColor = getOppositeColor(colorToMove);
 
     while (pawnsBB != 0) {
       int fromSquare = bitscanForward(pawnsBB);
@@ -1126,7 +1292,7 @@ public class ClassicGame implements Game {
       generatePseudoPawnSinglePush(fromSquare, fromBB,
           moves);
       generatePseudoPawnDoublePush(fromSquare, fromBB,
-          epModifier, moves);
+          moves);
 
       pawnsBB = bitscanClear(pawnsBB);
     }
@@ -1139,7 +1305,7 @@ public class ClassicGame implements Game {
    * @param moves A move list.
    */
   protected void generatePseudoPawnSinglePush(int fromSquare, long fromBB,
-                                              PriorityMoveList moves) {
+                                              IntMoveList moves) {
 
     long toBB = pawnSinglePush(colorToMove, fromBB, emptyBB);
 
@@ -1147,21 +1313,14 @@ public class ClassicGame implements Game {
       int toSquare = bitscanForward(toBB);
 
       if ((toBB & RANK8_OR_RANK1) != 0L) {
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            EMPTY, KNIGHT, EMPTY_SQUARE,
-            Move.PROMOTION_CHARACTERISTIC), moves);
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            EMPTY, BISHOP, EMPTY_SQUARE,
-            Move.PROMOTION_CHARACTERISTIC), moves);
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            EMPTY, QUEEN, EMPTY_SQUARE,
-            Move.PROMOTION_CHARACTERISTIC), moves);
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            EMPTY, ROOK, EMPTY_SQUARE,
-            Move.PROMOTION_CHARACTERISTIC), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove,
+            EMPTY, KNIGHT, Move.PROMOTION_CHARACTERISTIC));
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove,
+            EMPTY, BISHOP, Move.PROMOTION_CHARACTERISTIC));
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove, EMPTY, QUEEN, Move.PROMOTION_CHARACTERISTIC));
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove, EMPTY, ROOK, Move.PROMOTION_CHARACTERISTIC));
       } else {
-        addMove(new Move(fromSquare, toSquare, PAWN, colorToMove,
-            EMPTY), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, PAWN, colorToMove, EMPTY));
       }
 
       toBB = bitscanClear(toBB);
@@ -1174,7 +1333,7 @@ public class ClassicGame implements Game {
    *
    * @param moves A move list.
    */
-  protected void generatePseudoQueenMoves(PriorityMoveList moves) {
+  protected void generatePseudoQueenMoves(IntMoveList moves) {
     long fromBB = getPieceBB(colorToMove, QUEEN);
 
     while (fromBB != 0) {
@@ -1189,9 +1348,7 @@ public class ClassicGame implements Game {
         int toSquare = bitscanForward(toBB);
 
         int contents = getPieceWithPromoteMask(toSquare);
-        addMove(new Move(fromSquare, toSquare,
-            getPieceWithPromoteMask(fromSquare), colorToMove,
-            contents), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, getPieceWithPromoteMask(fromSquare), colorToMove, contents));
         toBB = bitscanClear(toBB);
       }
 
@@ -1205,7 +1362,7 @@ public class ClassicGame implements Game {
    *
    * @param moves A move list.
    */
-  protected void generatePseudoRookMoves(PriorityMoveList moves) {
+  protected void generatePseudoRookMoves(IntMoveList moves) {
     long fromBB = getPieceBB(colorToMove, ROOK);
 
     while (fromBB != 0) {
@@ -1219,9 +1376,7 @@ public class ClassicGame implements Game {
         int toSquare = bitscanForward(toBB);
 
         int contents = getPieceWithPromoteMask(toSquare);
-        addMove(new Move(fromSquare, toSquare,
-            getPieceWithPromoteMask(fromSquare), colorToMove,
-            contents), moves);
+        moves.add(IntMove.encode(fromSquare, toSquare, getPieceWithPromoteMask(fromSquare), colorToMove, contents));
         toBB = bitscanClear(toBB);
       }
 
@@ -1484,122 +1639,62 @@ public class ClassicGame implements Game {
   /**
    * Should be called before the move is made to update the san field.
    */
-  @SuppressWarnings("squid:S3776")
   protected void setSan(Move move) {
     if (isSettingMoveSan() && move.getSan() == null) {
-      // TO DO: possible add + or ++ for check/checkmate
-      String shortAlgebraic;
-
-      if (move.isCastleShort()) {
-        shortAlgebraic = "O-O";
-      } else if (move.isCastleLong()) {
-        shortAlgebraic = "O-O-O";
-      } else if (move.getPiece() == PAWN
-          && (move.getMoveCharacteristic() & Move.EN_PASSANT_CHARACTERISTIC) != 0) // e.p.
-      // is
-      // optional but
-      // the x is
-      // required.
-      // (pawn eps
-      // are never
-      // unambiguous)
-      {
-        shortAlgebraic = SanUtils.squareToFileSan(move.getFrom()) + "x"
-            + SanUtils.squareToSan(move.getTo());
-      } else if (move.getPiece() == PAWN && move.isCapture()) // Possible
-      // formats ed
-      // ed5 edQ
-      // (pawn captures
-      // can be
-      // ambiguous)
-      {
-        int oppositeColorToMove = getOppositeColor(colorToMove);
-        long fromBB = getPieceBB(colorToMove, PAWN);
-        while (fromBB != 0) {
-          int fromSquare = bitscanForward(fromBB);
-
-          long allPawnCapturesBB = pawnCapture(colorToMove,
-              getBitboard(fromSquare),
-              getColorBB(oppositeColorToMove));
-
-          while (allPawnCapturesBB != 0) {
-            allPawnCapturesBB = bitscanClear(allPawnCapturesBB);
-          }
-          fromBB = bitscanClear(fromBB);
-        }
-
-        shortAlgebraic = SanUtils.squareToFileSan(move.getFrom())
-            + "x"
-            + SanUtils.squareToSan(move.getTo())
-            + (move.isPromotion() ? "="
-            + PIECE_TO_SAN.charAt(move.getPiecePromotedTo()) : "");
-      } else if (move.getPiece() == PAWN) // e4 (pawn moves are never ambiguous)
-      {
-        shortAlgebraic = SanUtils.squareToSan(move.getTo())
-            + (move.isPromotion() ? "="
-            + PIECE_TO_SAN
-            .charAt(move.getPiecePromotedTo()) : "");
-      } else {
-        long fromBB = getPieceBB(colorToMove, move.getPiece());
-        long toBB = getBitboard(move.getTo());
-
-        int sameFilesFound = 0;
-        int sameRanksFound = 0;
-        int matchesFound = 0;
-
-        if (move.getPiece() != KING) {
-          while (fromBB != 0) {
-            int fromSquare = bitscanForward(fromBB);
-            long resultBB = switch (move.getPiece()) {
-              case KNIGHT -> knightMove(fromSquare) & toBB;
-              case BISHOP -> diagonalMove(fromSquare, emptyBB)
-                  & getNotColorToMoveBB() & toBB;
-              case ROOK -> orthogonalMove(fromSquare, emptyBB)
-                  & getNotColorToMoveBB() & toBB;
-              case QUEEN -> orthogonalMove(fromSquare, emptyBB)
-                  & getNotColorToMoveBB()
-                  & toBB
-                  | diagonalMove(fromSquare, emptyBB)
-                  & getNotColorToMoveBB() & toBB;
-              default -> throw new IllegalStateException("Unexpected value: " + move.getPiece());
-            };
-
-            if (resultBB != 0) {
-              int toSquare = bitscanForward(resultBB);
-
-              if (toSquare == move.getTo()) {
-                matchesFound++;
-                if (getFile(fromSquare) == getFile(move.getFrom())) {
-                  sameFilesFound++;
-                }
-                if (getRank(fromSquare) == getRank(move.getFrom())) {
-                  sameRanksFound++;
-                }
-              }
-            }
-            fromBB = bitscanClear(fromBB);
-          }
-        }
+      StringBuilder san = new StringBuilder(8);
+      appendSan(IntMove.encode(move.getFrom(), move.getTo(), move.getPieceWithPromoteMask(), move.getColor(),
+          move.getCaptureWithPromoteMask(), move.getPiecePromotedTo(), move.getMoveCharacteristic()), san);
+      move.setSan(san.toString());
+    }
+  }
 
-        shortAlgebraic = String.valueOf(PIECE_TO_SAN.charAt(move.getPiece()));
-        boolean hasHandledAmbiguity = false;
-        if (sameRanksFound > 1) {
-          shortAlgebraic += SanUtils.squareToFileSan(move.getFrom());
-          hasHandledAmbiguity = true;
-        }
-        if (sameFilesFound > 1) {
-          shortAlgebraic += SanUtils.squareToRankSan(move.getFrom());
-          hasHandledAmbiguity = true;
+  /**
+   * Appends the SAN of a move of the side to move in the current position. There is no check or mate suffix. Other
+   * pieces of the same type that could move to the destination square are found from the attack maps of the
+   * destination square, the moves are not generated.
+   */
+  @SuppressWarnings("squid:S3776")
+  protected void appendSan(int move, StringBuilder san) {
+    int from = IntMove.from(move);
+    int to = IntMove.to(move);
+    int piece = IntMove.piece(move);
+    int moveCharacteristic = IntMove.moveCharacteristic(move);
+    if ((moveCharacteristic & Move.SHORT_CASTLING_CHARACTERISTIC) != 0) {
+      san.append("O-O");
+    } else if ((moveCharacteristic & Move.LONG_CASTLING_CHARACTERISTIC) != 0) {
+      san.append("O-O-O");
+    } else if (piece == PAWN) {
+      // pawn moves are only ambiguous for captures, which always give the file
+      if (IntMove.isCapture(move)) {
+        san.append(SanUtils.squareToFileSan(from)).append('x');
+      }
+      san.append(SanUtils.squareToFileSan(to)).append(SanUtils.squareToRankSan(to));
+      if (IntMove.isPromotion(move)) {
+        san.append('=').append(PIECE_TO_SAN.charAt(IntMove.piecePromotedTo(move)));
+      }
+    } else {
+      san.append(PIECE_TO_SAN.charAt(piece));
+      if (piece != KING) {
+        long candidates = getPieceBB(colorToMove, piece) & switch (piece) {
+          case KNIGHT -> knightMove(to);
+          case BISHOP -> diagonalMove(to, emptyBB);
+          case ROOK -> orthogonalMove(to, emptyBB);
+          case QUEEN -> orthogonalMove(to, emptyBB) | diagonalMove(to, emptyBB);
+          default -> throw new IllegalStateException("Unexpected value: " + piece);
+        };
+        boolean ambiguousOnRank = Long.bitCount(candidates & RANK1 << 8 * getRank(from)) > 1;
+        boolean ambiguousOnFile = Long.bitCount(candidates & AFILE << getFile(from)) > 1;
+        if (ambiguousOnRank || Long.bitCount(candidates) > 1 && !ambiguousOnFile) {
+          san.append(SanUtils.squareToFileSan(from));
         }
-        if (matchesFound > 1 && !hasHandledAmbiguity) {
-          shortAlgebraic += SanUtils.squareToFileSan(move.getFrom());
+        if (ambiguousOnFile) {
+          san.append(SanUtils.squareToRankSan(from));
         }
-
-        shortAlgebraic += (move.isCapture() ? "x" : "")
-            + SanUtils.squareToSan(move.getTo());
       }
-
-      move.setSan(shortAlgebraic);
+      if (IntMove.isCapture(move)) {
+        san.append('x');
+      }
+      san.append(SanUtils.squareToFileSan(to)).append(SanUtils.squareToRankSan(to));
     }
   }
 
@@ -64,6 +64,16 @@ public interface Game extends GameConstants {
    */
   void forceMove(Move move);
 
+  /**
+   * Adds all legal moves in the current position to the list as {@link IntMove}s.
+   */
+  void generateLegalMoves(IntMoveList moves);
+
+  /**
+   * Adds all pseudo legal moves in the current position to the list as {@link IntMove}s.
+   */
+  void generatePseudoLegalMoves(IntMoveList moves);
+
   /**
    * Returns the castling constant for the specified color.
    *
@@ -91,6 +101,11 @@ public interface Game extends GameConstants {
    */
   int getEpSquare();
 
+  /**
+   * Returns the number of half moves since the last capture or pawn move.
+   */
+  int getFiftyMoveCount();
+
   /**
    * Returns the castle part of the fen string.
    */
@@ -166,6 +181,20 @@ public interface Game extends GameConstants {
    */
   PriorityMoveList getPseudoLegalMoves();
 
+  /**
+   * Returns the Zobrist hash of the complete position: pieces, color to move,
+   * castling rights and the en passant square if a pawn can capture on it.
+   * The hash is maintained incrementally and is identical on every JVM for
+   * {@link raptor.chess.util.ZobristUtils#ZOBRIST_VERSION}.
+   */
+  long getZobristHash();
+
+  /**
+   * Returns the games Zobrist position hash. The position hash is the Zobrist
+   * WITHOUT state info such as color to move, castling, ep info.
+   */
+  long getZobristPositionHash();
+
   /**
    * Returns a hash that can be used to reference moveRepHash. The hash is
    * created using the zobrist position hash.
@@ -208,6 +237,11 @@ public interface Game extends GameConstants {
    */
   boolean isInState(int state);
 
+  /**
+   * Returns true if the pseudo legal {@link IntMove} does not leave the own king in check. The move is not made.
+   */
+  boolean isLegal(int move);
+
   /**
    * This is one of the methods that needs to be overridden in subclasses.
    *
@@ -253,6 +287,29 @@ public interface Game extends GameConstants {
    */
   Move makeMove(int startSquare, int endSquare, int promotePiece);
 
+  /**
+   * Makes a move given in UCI coordinates. Only this move is validated, the other legal moves are not generated.
+   *
+   * @param startSquare  The start square.
+   * @param endSquare    The end square.
+   * @param promotePiece The non colored piece constant representing the promoted
+   *                     piece, EMPTY if the move is no promotion.
+   * @return The move made.
+   * @throws IllegalArgumentException if the move is not legal.
+   */
+  Move makeUciMove(int startSquare, int endSquare, int promotePiece);
+
+  /**
+   * Makes a move given in UCI coordinates like {@link #makeUciMove(int, int, int)} and appends its SAN to the
+   * builder. The SAN is the same as {@link Move#getSan()} in {@link #UPDATING_SAN_STATE}, but the move does not
+   * need to carry it, so lines can be rendered into one builder.
+   *
+   * @param san The builder the SAN is appended to.
+   * @return The move made.
+   * @throws IllegalArgumentException if the move is not legal.
+   */
+  Move makeUciMove(int startSquare, int endSquare, int promotePiece, StringBuilder san);
+
   /**
    * Makes a move given SAN, short algebraic notation.
    *
@@ -373,7 +430,7 @@ public interface Game extends GameConstants {
   void setPieceCount(int color, int piece, int count);
 
   /**
-   * Returns the games Zobrist position hash. The position hash is the Zobrist
+   * Sets the games Zobrist position hash. The position hash is the Zobrist
    * WITHOUT state info such as color to move, castling, ep info.
    */
   void setZobristPositionHash(long hash);
@@ -389,6 +446,11 @@ public interface Game extends GameConstants {
    */
   String toFen();
 
+  /**
+   * Returns an immutable snapshot of the current position without move history and headers.
+   */
+  Position toPosition();
+
   /**
    * Returns only the position part of the fen.
    *
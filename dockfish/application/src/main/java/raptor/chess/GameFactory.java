@@ -13,10 +13,9 @@
  */
 package raptor.chess;
 
-import java.util.Locale;
+import raptor.chess.util.FenUtils;
 import raptor.chess.util.GameUtils;
 import raptor.chess.util.ZobristUtils;
-import raptor.util.RaptorStringTokenizer;
 
 /**
  * Contains methods to create Games from fen and starting positions.
@@ -35,135 +34,9 @@ public final class GameFactory implements GameConstants {
    * @param fen The FEN (Forsyth Edwards Notation)
    * @return The game.
    */
-  @SuppressWarnings({"PMD.AvoidInstantiatingObjectsInLoops", "squid:S3776"})
   public static Game createFromFen(String fen) {
     Game result = new ClassicGame();
-
-    RaptorStringTokenizer tok = new RaptorStringTokenizer(fen, " ",
-        false);
-    String boardStr = "";
-    String toMoveStr = null;
-    String castlingInfoStr = null;
-    String epSquareStr = null;
-    String fiftyMoveRuleCountStr = null;
-    String fullMoveCountStr = null;
-    if (tok.hasMoreTokens()) {
-      boardStr = tok.nextToken();
-    }
-    if (tok.hasMoreTokens()) {
-      toMoveStr = tok.nextToken();
-    }
-    if (tok.hasMoreTokens()) {
-      castlingInfoStr = tok.nextToken();
-    }
-    if (tok.hasMoreTokens()) {
-      epSquareStr = tok.nextToken();
-    }
-    if (tok.hasMoreTokens()) {
-      fiftyMoveRuleCountStr = tok.nextToken();
-    }
-    if (tok.hasMoreTokens()) {
-      fullMoveCountStr = tok.nextToken();
-    }
-
-    int boardIndex = 56;
-    for (int i = 0; i < boardStr.length(); i++) {
-      char piece = fen.charAt(i);
-      if (piece == '/') {
-        boardIndex -= 16;
-      } else if (Character.isDigit(piece)) {
-        boardIndex += Integer.parseInt(String.valueOf(piece));
-      } else {
-        int pieceColor = Character.isUpperCase(piece) ? WHITE
-            : BLACK;
-        int pieceInt = PIECE_TO_SAN
-            .indexOf(String.valueOf(piece)
-                .toUpperCase(Locale.getDefault())
-                .charAt(0));
-        long pieceSquare = GameUtils.getBitboard(boardIndex);
-
-        result.setPieceCount(pieceColor, pieceInt, result
-            .getPieceCount(pieceColor, pieceInt) + 1);
-        result.setPiece(boardIndex, pieceInt);
-        result.setColorBB(pieceColor, result.getColorBB(pieceColor)
-            | pieceSquare);
-        result.setOccupiedBB(result.getOccupiedBB() | pieceSquare);
-        result.setPieceBB(pieceColor, pieceInt, result.getPieceBB(
-            pieceColor, pieceInt)
-            | pieceSquare);
-        boardIndex++;
-      }
-    }
-
-    if (toMoveStr == null) {
-      result.setColorToMove(WHITE);
-    } else {
-      if ("w".equals(toMoveStr)) {
-        result.setColorToMove(WHITE);
-      } else {
-        result.setColorToMove(BLACK);
-      }
-    }
-
-    if (castlingInfoStr == null) {
-      result.setCastling(WHITE, CASTLE_NONE);
-      result.setCastling(BLACK, CASTLE_NONE);
-    } else {
-      boolean whiteCastleKSide = castlingInfoStr.indexOf('K') != -1;
-      boolean whiteCastleQSide = castlingInfoStr.indexOf('Q') != -1;
-      boolean blackCastleKSide = castlingInfoStr.indexOf('k') != -1;
-      boolean blackCastleQSide = castlingInfoStr.indexOf('q') != -1;
-
-      if (whiteCastleKSide && whiteCastleQSide) {
-        result.setCastling(WHITE, CASTLE_BOTH);
-      } else {
-        if (whiteCastleKSide) {
-          result.setCastling(WHITE, CASTLE_SHORT);
-        } else {
-          if (whiteCastleQSide) {
-            result.setCastling(WHITE, CASTLE_LONG);
-          } else {
-            result.setCastling(WHITE, CASTLE_NONE);
-          }
-        }
-      }
-      if (blackCastleKSide && blackCastleQSide) {
-        result.setCastling(BLACK, CASTLE_BOTH);
-      } else {
-        if (blackCastleKSide) {
-          result.setCastling(BLACK, CASTLE_SHORT);
-        } else {
-          if (blackCastleQSide) {
-            result.setCastling(BLACK, CASTLE_LONG);
-          } else {
-            result.setCastling(BLACK, CASTLE_NONE);
-          }
-        }
-      }
-    }
-
-    if (null == epSquareStr || "-".equals(epSquareStr)) {
-      result.setEpSquare(EMPTY_SQUARE);
-      result.setInitialEpSquare(EMPTY_SQUARE);
-    } else {
-      result.setEpSquare(GameUtils.getSquare(epSquareStr));
-      result.setInitialEpSquare(result.getEpSquare());
-    }
-
-    if (null != fiftyMoveRuleCountStr
-        && !"-".equals(fiftyMoveRuleCountStr)) {
-      result.setFiftyMoveCount(Integer
-          .parseInt(fiftyMoveRuleCountStr));
-    }
-
-    if (null != fullMoveCountStr && !"-".equals(fullMoveCountStr)) {
-      int fullMoveCount = Integer.parseInt(fullMoveCountStr);
-      result
-          .setHalfMoveCount(result.getColorToMove() == BLACK ? fullMoveCount * 2 - 1
-              : fullMoveCount * 2 - 2);
-    }
-
-    result.setEmptyBB(~result.getOccupiedBB());
+    FenUtils.setPosition(result, fen);
 
     if (!result.isLegalPosition()) {
       throw new IllegalArgumentException(
@@ -177,6 +50,40 @@ public final class GameFactory implements GameConstants {
     return result;
   }
 
+  /**
+   * Creates a game without move history that starts from the position.
+   *
+   * @param position A position taken from another game.
+   * @return The game.
+   */
+  public static Game createFromPosition(Position position) {
+    Game result = new ClassicGame();
+    for (int color = WHITE; color <= BLACK; color++) {
+      for (int piece = PAWN; piece <= KING; piece++) {
+        long pieceBB = position.getPieceBB(color, piece);
+        result.setPieceBB(color, piece, pieceBB);
+        result.setPieceCount(color, piece, Long.bitCount(pieceBB));
+        while (pieceBB != 0L) {
+          int square = GameUtils.bitscanForward(pieceBB);
+          result.setPiece(square, position.getPieceWithPromoteMask(square));
+          pieceBB = GameUtils.bitscanClear(pieceBB);
+        }
+      }
+      result.setColorBB(color, position.getColorBB(color));
+      result.setCastling(color, position.getCastling(color));
+    }
+    result.setOccupiedBB(position.getOccupiedBB());
+    result.setEmptyBB(~position.getOccupiedBB());
+    result.setColorToMove(position.getColorToMove());
+    result.setEpSquare(position.getEpSquare());
+    result.setInitialEpSquare(position.getEpSquare());
+    result.setFiftyMoveCount(position.getFiftyMoveCount());
+    result.setHalfMoveCount(position.getHalfMoveCount());
+    result.setZobristPositionHash(position.getZobristPositionHash());
+    result.incrementRepCount();
+    return result;
+  }
+
   public static Game createStartingPosition() {
     return createFromFen(STARTING_POSITION_FEN);
   }
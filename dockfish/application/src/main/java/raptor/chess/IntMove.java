@@ -0,0 +1,115 @@
+package raptor.chess;
+
+/**
+ * A move packed into an int, used where moves are generated and tested in bulk without creating {@link Move}s.
+ *
+ * <pre>
+ * bits  0-5  from square
+ * bits  6-11 to square
+ * bits 12-15 piece with promote mask
+ * bits 16-19 captured piece with promote mask
+ * bits 20-22 piece promoted to
+ * bits 23-27 move characteristic ({@link Move#SHORT_CASTLING_CHARACTERISTIC} ...)
+ * bit  28    color
+ * </pre>
+ */
+public final class IntMove implements GameConstants {
+
+  /**
+   * Stands for no move where a method returns a single move.
+   */
+  public static final int NO_MOVE = -1;
+
+  private static final int SQUARE_MASK = 0x3F;
+  private static final int PIECE_MASK = 0xF;
+  private static final int PROMOTION_MASK = 0x7;
+  private static final int CHARACTERISTIC_MASK = 0x1F;
+
+  private static final int TO_SHIFT = 6;
+  private static final int PIECE_SHIFT = 12;
+  private static final int CAPTURE_SHIFT = 16;
+  private static final int PROMOTION_SHIFT = 20;
+  private static final int CHARACTERISTIC_SHIFT = 23;
+  private static final int COLOR_SHIFT = 28;
+
+  private IntMove() {
+  }
+
+  public static int encode(int from, int to, int piece, int color, int capture) {
+    return encode(from, to, piece, color, capture, EMPTY, 0);
+  }
+
+  public static int encode(int from, int to, int piece, int color, int capture, int piecePromotedTo,
+                           int moveCharacteristic) {
+    return from
+        | to << TO_SHIFT
+        | piece << PIECE_SHIFT
+        | capture << CAPTURE_SHIFT
+        | piecePromotedTo << PROMOTION_SHIFT
+        | moveCharacteristic << CHARACTERISTIC_SHIFT
+        | color << COLOR_SHIFT;
+  }
+
+  public static int from(int move) {
+    return move & SQUARE_MASK;
+  }
+
+  public static int to(int move) {
+    return move >>> TO_SHIFT & SQUARE_MASK;
+  }
+
+  /**
+   * Returns the moving piece without the promote mask.
+   */
+  public static int piece(int move) {
+    return pieceWithPromoteMask(move) & NOT_PROMOTED_MASK;
+  }
+
+  public static int pieceWithPromoteMask(int move) {
+    return move >>> PIECE_SHIFT & PIECE_MASK;
+  }
+
+  /**
+   * Returns the captured piece without the promote mask.
+   */
+  public static int capture(int move) {
+    return captureWithPromoteMask(move) & NOT_PROMOTED_MASK;
+  }
+
+  public static int captureWithPromoteMask(int move) {
+    return move >>> CAPTURE_SHIFT & PIECE_MASK;
+  }
+
+  public static int piecePromotedTo(int move) {
+    return move >>> PROMOTION_SHIFT & PROMOTION_MASK;
+  }
+
+  public static int moveCharacteristic(int move) {
+    return move >>> CHARACTERISTIC_SHIFT & CHARACTERISTIC_MASK;
+  }
+
+  public static int color(int move) {
+    return move >>> COLOR_SHIFT & 1;
+  }
+
+  public static boolean isCapture(int move) {
+    return capture(move) != EMPTY;
+  }
+
+  public static boolean isPromotion(int move) {
+    return piecePromotedTo(move) != EMPTY;
+  }
+
+  /**
+   * Creates the {@link Move} for a move that is going to be played.
+   */
+  public static Move toMove(int move) {
+    int characteristic = moveCharacteristic(move);
+    int epSquare = EMPTY_SQUARE;
+    if (characteristic == Move.DOUBLE_PAWN_PUSH_CHARACTERISTIC) {
+      epSquare = color(move) == WHITE ? to(move) - 8 : to(move) + 8;
+    }
+    return new Move(from(move), to(move), pieceWithPromoteMask(move), color(move), captureWithPromoteMask(move),
+        piecePromotedTo(move), epSquare, characteristic);
+  }
+}
@@ -0,0 +1,60 @@
+package raptor.chess;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of {@link IntMove}s. Lists are meant to be cleared and reused, e.g. one per search depth.
+ */
+public final class IntMoveList {
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private int[] moves;
+  private int size;
+
+  public IntMoveList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public IntMoveList(int capacity) {
+    this.moves = new int[capacity];
+  }
+
+  public void add(int move) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, Math.max(DEFAULT_CAPACITY, 2 * size));
+    }
+    moves[size++] = move;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public int get(int index) {
+    return moves[index];
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public void set(int index, int move) {
+    moves[index] = move;
+  }
+
+  /**
+   * Drops the moves from the given index on.
+   */
+  public void truncate(int newSize) {
+    size = newSize;
+  }
+
+  public int[] toArray() {
+    return Arrays.copyOf(moves, size);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
@@ -18,18 +18,26 @@ import java.util.Arrays;
 import java.util.List;
 
 public final class MoveList implements GameConstants {
-  private final Move[] moves;
+  private static final int INITIAL_CAPACITY = 32;
+
+  private Move[] moves;
   private int size;
 
   public MoveList() {
-    this(MAX_HALF_MOVES_IN_GAME);
+    this(INITIAL_CAPACITY);
   }
 
-  public MoveList(int maxSize) {
-    this.moves = new Move[maxSize];
+  /**
+   * Creates a list with the given initial capacity. It grows up to {@link #MAX_HALF_MOVES_IN_GAME} moves.
+   */
+  public MoveList(int initialCapacity) {
+    this.moves = new Move[initialCapacity];
   }
 
   public void append(Move move) {
+    if (size == moves.length) {
+      moves = Arrays.copyOf(moves, Math.min(MAX_HALF_MOVES_IN_GAME, Math.max(INITIAL_CAPACITY, 2 * size)));
+    }
     moves[size++] = move;
   }
 
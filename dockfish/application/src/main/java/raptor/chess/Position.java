@@ -0,0 +1,150 @@
+package raptor.chess;
+
+import static raptor.chess.util.GameUtils.bitscanClear;
+import static raptor.chess.util.GameUtils.bitscanForward;
+import static raptor.chess.util.GameUtils.getBitboard;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the position of a {@link Game}: piece bitboards, side to move, castling rights, en passant
+ * square, move counters and hash. It carries no move history, headers or repetition table, so it is small, can be
+ * shared between threads and is turned back into a game with {@link GameFactory#createFromPosition(Position)}.
+ */
+public final class Position implements GameConstants {
+  private static final int PIECE_TYPES = 6;
+
+  // index color * PIECE_TYPES + piece - 1
+  private final long[] pieceBB = new long[2 * PIECE_TYPES];
+  private final long promotedBB;
+  private final int colorToMove;
+  private final int whiteCastling;
+  private final int blackCastling;
+  private final int epSquare;
+  private final int fiftyMoveCount;
+  private final int halfMoveCount;
+  private final long zobristPositionHash;
+  private final long zobristHash;
+
+  Position(Game game) {
+    long promoted = 0L;
+    for (int color = WHITE; color <= BLACK; color++) {
+      for (int piece = PAWN; piece <= KING; piece++) {
+        pieceBB[index(color, piece)] = game.getPieceBB(color, piece);
+      }
+    }
+    long occupied = game.getOccupiedBB();
+    while (occupied != 0L) {
+      int square = bitscanForward(occupied);
+      if ((game.getPieceWithPromoteMask(square) & PROMOTED_MASK) != 0) {
+        promoted |= getBitboard(square);
+      }
+      occupied = bitscanClear(occupied);
+    }
+    promotedBB = promoted;
+    colorToMove = game.getColorToMove();
+    whiteCastling = game.getCastling(WHITE);
+    blackCastling = game.getCastling(BLACK);
+    epSquare = game.getEpSquare();
+    fiftyMoveCount = game.getFiftyMoveCount();
+    halfMoveCount = game.getHalfMoveCount();
+    zobristPositionHash = game.getZobristPositionHash();
+    zobristHash = game.getZobristHash();
+  }
+
+  public long getPieceBB(int color, int piece) {
+    return pieceBB[index(color, piece)];
+  }
+
+  public long getColorBB(int color) {
+    long result = 0L;
+    for (int piece = PAWN; piece <= KING; piece++) {
+      result |= pieceBB[index(color, piece)];
+    }
+    return result;
+  }
+
+  public long getOccupiedBB() {
+    return getColorBB(WHITE) | getColorBB(BLACK);
+  }
+
+  /**
+   * Returns the uncolored piece on the square including the promote mask, EMPTY if there is none.
+   */
+  public int getPieceWithPromoteMask(int square) {
+    long squareBB = getBitboard(square);
+    for (int i = 0; i < pieceBB.length; i++) {
+      if ((pieceBB[i] & squareBB) != 0L) {
+        return i % PIECE_TYPES + 1 | ((promotedBB & squareBB) == 0L ? 0 : PROMOTED_MASK);
+      }
+    }
+    return EMPTY;
+  }
+
+  public int getColorToMove() {
+    return colorToMove;
+  }
+
+  public boolean isWhitesMove() {
+    return colorToMove == WHITE;
+  }
+
+  public int getCastling(int color) {
+    return color == WHITE ? whiteCastling : blackCastling;
+  }
+
+  public int getEpSquare() {
+    return epSquare;
+  }
+
+  public int getFiftyMoveCount() {
+    return fiftyMoveCount;
+  }
+
+  public int getHalfMoveCount() {
+    return halfMoveCount;
+  }
+
+  public int getFullMoveCount() {
+    return halfMoveCount / 2 + 1;
+  }
+
+  /**
+   * Returns the same hash as {@link Game#getZobristHash()} of the game the position was taken from.
+   */
+  public long getZobristHash() {
+    return zobristHash;
+  }
+
+  long getZobristPositionHash() {
+    return zobristPositionHash;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other || other instanceof Position position
+        && zobristHash == position.zobristHash
+        && Arrays.equals(pieceBB, position.pieceBB)
+        && promotedBB == position.promotedBB
+        && colorToMove == position.colorToMove
+        && whiteCastling == position.whiteCastling
+        && blackCastling == position.blackCastling
+        && epSquare == position.epSquare
+        && fiftyMoveCount == position.fiftyMoveCount
+        && halfMoveCount == position.halfMoveCount;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(zobristHash);
+  }
+
+  @Override
+  public String toString() {
+    return "Position[hash=" + Long.toHexString(zobristHash) + ", halfMoveCount=" + halfMoveCount + "]";
+  }
+
+  private static int index(int color, int piece) {
+    return color * PIECE_TYPES + piece - 1;
+  }
+}
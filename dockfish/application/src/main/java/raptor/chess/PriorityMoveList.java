@@ -13,21 +13,35 @@
  */
 package raptor.chess;
 
+import java.util.Arrays;
+
 public final class PriorityMoveList implements GameConstants {
-  private final Move[] highPriorityMoves = new Move[MAX_LEGAL_MOVES];
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Move[] highPriorityMoves = new Move[INITIAL_CAPACITY];
   int highPrioritySize;
 
-  private final Move[] lowPriorityMoves = new Move[MAX_LEGAL_MOVES];
+  private Move[] lowPriorityMoves = new Move[INITIAL_CAPACITY];
   int lowPrioritySize;
 
   public void appendHighPriority(Move move) {
+    if (highPrioritySize == highPriorityMoves.length) {
+      highPriorityMoves = Arrays.copyOf(highPriorityMoves, grownCapacity(highPrioritySize));
+    }
     highPriorityMoves[highPrioritySize++] = move;
   }
 
   public void appendLowPriority(Move move) {
+    if (lowPrioritySize == lowPriorityMoves.length) {
+      lowPriorityMoves = Arrays.copyOf(lowPriorityMoves, grownCapacity(lowPrioritySize));
+    }
     lowPriorityMoves[lowPrioritySize++] = move;
   }
 
+  private static int grownCapacity(int size) {
+    return Math.min(MAX_LEGAL_MOVES, 2 * size);
+  }
+
   public Move[] asArray() {
     Move[] result = new Move[lowPrioritySize + highPrioritySize];
 
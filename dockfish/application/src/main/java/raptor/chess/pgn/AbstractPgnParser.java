@@ -70,6 +70,18 @@ public abstract class AbstractPgnParser implements PgnParser {
     }
   }
 
+  protected void fireSublineStart() {
+    for (PgnParserListener listener : listeners) {
+      listener.onSublineStart(this);
+    }
+  }
+
+  protected void fireSublineEnd() {
+    for (PgnParserListener listener : listeners) {
+      listener.onSublineEnd(this);
+    }
+  }
+
   protected void fireUnknown(String unknown) {
     for (PgnParserListener listener : listeners) {
       listener.onUnknown(this, unknown);
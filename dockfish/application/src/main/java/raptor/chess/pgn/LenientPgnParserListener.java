@@ -49,6 +49,11 @@ public abstract class LenientPgnParserListener implements PgnParserListener {
 
   protected int lastStartLineNumber;
 
+  /**
+   * Number of open sublines, their moves are not part of the game.
+   */
+  protected int sublineDepth;
+
   protected LenientPgnParserListener() {
   }
 
@@ -76,7 +81,7 @@ public abstract class LenientPgnParserListener implements PgnParserListener {
 
   @Override
   public void onAnnotation(PgnParser parser, String annotation) {
-    if (!isIgnoringCurrentGame && isParsingGameMoves && isParsingMove) {
+    if (!isIgnoringCurrentGame && isParsingGameMoves && isParsingMove && sublineDepth == 0) {
       MoveAnnotation[] annotations = pgnAnnotationToMoveAnnotations(annotation);
       for (MoveAnnotation moveAnnotation : annotations) {
         currentMoveInfo.addAnnotation(moveAnnotation);
@@ -140,7 +145,7 @@ public abstract class LenientPgnParserListener implements PgnParserListener {
 
   @Override
   public void onMoveWord(PgnParser parser, String word) {
-    if (!isIgnoringCurrentGame) {
+    if (!isIgnoringCurrentGame && sublineDepth == 0) {
       if (isParsingGameMoves) {
         // First complete last move if we are in the middle of one.
         try {
@@ -160,6 +165,16 @@ public abstract class LenientPgnParserListener implements PgnParserListener {
   }
 
 
+  @Override
+  public void onSublineStart(PgnParser parser) {
+    sublineDepth++;
+  }
+
+  @Override
+  public void onSublineEnd(PgnParser parser) {
+    sublineDepth = Math.max(0, sublineDepth - 1);
+  }
+
   @Override
   public void onUnknown(PgnParser parser, String unknown) {
     if (!isIgnoringCurrentGame) {
@@ -212,6 +227,7 @@ public abstract class LenientPgnParserListener implements PgnParserListener {
     isParsingGameMoves = false;
     isParsingMove = false;
     isIgnoringCurrentGame = false;
+    sublineDepth = 0;
     currentHeaders.clear();
     isSearchingForGameStart = true;
   }
@@ -81,6 +81,10 @@ public class PgnParserError implements Serializable {
     this.args = Arrays.asList(args);
   }
 
+  public Action getAction() {
+    return action;
+  }
+
   public Type getType() {
     return type;
   }
@@ -29,4 +29,13 @@ public interface PgnParserListener {
   void onMoveWord(PgnParser parser, String word);
 
   void onUnknown(PgnParser parser, String unknown);
+
+  /**
+   * A variation replacing the last move starts. Sublines may be nested, each one ends with {@link #onSublineEnd}.
+   */
+  default void onSublineStart(PgnParser parser) {
+  }
+
+  default void onSublineEnd(PgnParser parser) {
+  }
 }
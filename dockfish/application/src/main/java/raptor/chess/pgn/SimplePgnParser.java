@@ -13,6 +13,11 @@
  */
 package raptor.chess.pgn;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import raptor.chess.Result;
@@ -21,6 +26,10 @@ import raptor.util.RaptorStringTokenizer;
 
 /**
  * The SimplePgnParser.
+ *
+ * <p>The PGN is read line by line from a {@link Reader} and every game is passed to the listeners as soon as its
+ * result is read, so a listener that does not keep the games parses files of any size in bounded memory. The reader
+ * is not closed by the parser.
  */
 public class SimplePgnParser extends AbstractPgnParser {
 
@@ -43,15 +52,23 @@ public class SimplePgnParser extends AbstractPgnParser {
 
   protected int lineNumber;
 
-  protected RaptorStringTokenizer lineTokenizer;
+  protected BufferedReader lineReader;
 
 
   public SimplePgnParser(String pgn) {
+    this(new StringReader(requireNotEmpty(pgn)));
+  }
+
+  public SimplePgnParser(Reader reader) {
     super();
+    lineReader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+  }
+
+  private static String requireNotEmpty(String pgn) {
     if (pgn == null || pgn.isEmpty()) {
       throw new IllegalArgumentException("pgn cant be null or empty.");
     }
-    lineTokenizer = new RaptorStringTokenizer(pgn, "\n\r", true);
+    return pgn;
   }
 
   @Override
@@ -124,8 +141,10 @@ public class SimplePgnParser extends AbstractPgnParser {
           readNextLine();
           break;
         } else if (")".equals(nextWord)) {
+          fireSublineEnd();
           nextWord = wordTok.nextToken();
         } else if (nextWord.startsWith(")")) {
+          fireSublineEnd();
           nextWord = nextWord.substring(1);
         } else if (nextWord.startsWith("(")) {
           // Determine if its a comment or a sub-line.
@@ -135,6 +154,7 @@ public class SimplePgnParser extends AbstractPgnParser {
             if (nextWord.length() > 1) {
               if (nextWord.charAt(1) == '{' || Character.isDigit(nextWord.charAt(1))) {
                 // Definitely a subline.
+                fireSublineStart();
                 nextWord = nextWord.substring(1);
               } else {
                 // Definitely a comment.
@@ -148,6 +168,7 @@ public class SimplePgnParser extends AbstractPgnParser {
               String nextNextWord = wordTok.peek();
               if (nextNextWord.charAt(0) == '{' || Character.isDigit(nextNextWord.charAt(0))) {
                 // Definitely a subline.
+                fireSublineStart();
                 nextWord = wordTok.nextToken();
               } else {
                 wordTok.changeDelimiters(")");
@@ -157,10 +178,19 @@ public class SimplePgnParser extends AbstractPgnParser {
                 nextWord = wordTok.nextToken();
               }
             }
+          } else if (nextWord.length() > 1 && Character.isDigit(nextWord.charAt(1))) {
+            // A subline of a single move, it ends with the move word.
+            fireSublineStart();
+            nextWord = nextWord.substring(1);
           } else {
             // Definitely a comment.
-            if (nextWord.length() > 2) {
-              fireAnnotation(nextWord.substring(1));
+            if (closingParenIndex > 1) {
+              fireAnnotation(nextWord.substring(1, closingParenIndex));
+            }
+            if (nextWord.length() > closingParenIndex + 1) {
+              nextWord = nextWord.substring(closingParenIndex + 1);
+            } else {
+              nextWord = wordTok.nextToken();
             }
           }
 
@@ -245,10 +275,19 @@ public class SimplePgnParser extends AbstractPgnParser {
               isSearchingForHeaders = true;
               currentLine = nextWord + " " + wordTok.getWhatsLeft();
               break;
-            } else if (nextWord.endsWith(")")) {
-              nextWord = nextWord.substring(0, nextWord.length() - 1);
-              fireMoveWord(nextWord);
-              nextWord = wordTok.nextToken();
+            } else if (nextWord.indexOf(')') != -1) {
+              // The move word ends one or more sublines.
+              int closingParenIndex = nextWord.indexOf(')');
+              fireMoveWord(nextWord.substring(0, closingParenIndex));
+              while (closingParenIndex < nextWord.length() && nextWord.charAt(closingParenIndex) == ')') {
+                fireSublineEnd();
+                closingParenIndex++;
+              }
+              if (nextWord.length() > closingParenIndex) {
+                nextWord = nextWord.substring(closingParenIndex);
+              } else {
+                nextWord = wordTok.nextToken();
+              }
             } else {
               fireMoveWord(nextWord);
               nextWord = wordTok.nextToken();
@@ -284,8 +323,19 @@ public class SimplePgnParser extends AbstractPgnParser {
     return List.of();
   }
 
+  /**
+   * Reads the next line that is not empty, null at the end of the PGN.
+   *
+   * @throws UncheckedIOException if the reader fails.
+   */
   protected void readNextLine() {
-    currentLine = lineTokenizer.nextToken();
+    try {
+      do {
+        currentLine = lineReader.readLine();
+      } while (currentLine != null && currentLine.isEmpty());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
     lineNumber++;
   }
 
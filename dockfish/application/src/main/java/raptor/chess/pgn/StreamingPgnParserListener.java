@@ -0,0 +1,39 @@
+package raptor.chess.pgn;
+
+import java.util.function.Consumer;
+import raptor.chess.Game;
+
+/**
+ * Hands every parsed game and every error to a consumer as soon as it is parsed and keeps none of them, unlike
+ * {@link ListMaintainingPgnParserListener}. Together with {@link SimplePgnParser#SimplePgnParser(java.io.Reader)}
+ * large multi-game files are parsed one game at a time.
+ */
+public class StreamingPgnParserListener extends LenientPgnParserListener {
+  private final Consumer<Game> gameConsumer;
+
+  private final Consumer<PgnParserError> errorConsumer;
+
+  private int gameCount;
+
+  public StreamingPgnParserListener(Consumer<Game> gameConsumer, Consumer<PgnParserError> errorConsumer) {
+    super();
+    this.gameConsumer = gameConsumer;
+    this.errorConsumer = errorConsumer;
+  }
+
+  @Override
+  public void errorEncountered(PgnParserError error) {
+    errorConsumer.accept(error);
+  }
+
+  @Override
+  public boolean gameParsed(Game game, int lineNumber) {
+    gameCount++;
+    gameConsumer.accept(game);
+    return false;
+  }
+
+  public int getGameCount() {
+    return gameCount;
+  }
+}
@@ -0,0 +1,254 @@
+package raptor.chess.util;
+
+import raptor.chess.Game;
+import raptor.chess.GameConstants;
+
+/**
+ * Reads and writes FEN in a single pass over the characters, without splitting the FEN into tokens or building
+ * intermediate strings.
+ *
+ * <pre>
+ * rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1
+ * </pre>
+ *
+ * <p>Fields missing at the end of a FEN keep their defaults: white to move, no castling, no en passant square and
+ * both counters 0.
+ */
+public final class FenUtils implements GameConstants {
+
+  private static final int MAX_FEN_LENGTH = 128;
+  private static final char[][] PIECE_CHARS = {
+      COLOR_PIECE_TO_CHAR[WHITE].toCharArray(), COLOR_PIECE_TO_CHAR[BLACK].toCharArray()
+  };
+  private static final int[] PIECE_BY_CHAR = new int[128];
+  private static final int[] COLOR_BY_CHAR = new int[128];
+
+  static {
+    for (int color = WHITE; color <= BLACK; color++) {
+      for (int piece = PAWN; piece <= KING; piece++) {
+        PIECE_BY_CHAR[PIECE_CHARS[color][piece]] = piece;
+        COLOR_BY_CHAR[PIECE_CHARS[color][piece]] = color;
+      }
+    }
+  }
+
+  private FenUtils() {
+  }
+
+  /**
+   * Sets up the pieces, side to move, castling rights, en passant square and counters of an empty game from the FEN.
+   *
+   * @throws IllegalArgumentException if the FEN is malformed.
+   */
+  @SuppressWarnings("squid:S3776")
+  public static void setPosition(Game game, String fen) {
+    int length = fen.length();
+    int index = skipSpaces(fen, 0);
+
+    int rank = 7;
+    int file = 0;
+    long occupied = 0L;
+    for (; index < length && fen.charAt(index) != ' '; index++) {
+      char fenChar = fen.charAt(index);
+      if (fenChar == '/') {
+        if (file != 8 || rank == 0) {
+          throw invalid(fen);
+        }
+        rank--;
+        file = 0;
+      } else if (fenChar >= '1' && fenChar <= '8') {
+        file += fenChar - '0';
+        if (file > 8) {
+          throw invalid(fen);
+        }
+      } else {
+        int piece = fenChar < PIECE_BY_CHAR.length ? PIECE_BY_CHAR[fenChar] : EMPTY;
+        if (piece == EMPTY || file > 7) {
+          throw invalid(fen);
+        }
+        int square = rank * 8 + file;
+        int color = COLOR_BY_CHAR[fenChar];
+        long squareBB = GameUtils.getBitboard(square);
+        game.setPiece(square, piece);
+        game.setPieceBB(color, piece, game.getPieceBB(color, piece) | squareBB);
+        game.setColorBB(color, game.getColorBB(color) | squareBB);
+        game.setPieceCount(color, piece, game.getPieceCount(color, piece) + 1);
+        occupied |= squareBB;
+        file++;
+      }
+    }
+    // every rank has exactly 8 squares and there are exactly 8 ranks
+    if (rank != 0 || file != 8) {
+      throw invalid(fen);
+    }
+    game.setOccupiedBB(occupied);
+    game.setEmptyBB(~occupied);
+
+    index = skipSpaces(fen, index);
+    int colorToMove = WHITE;
+    if (index < length) {
+      colorToMove = fen.charAt(index++) == 'b' ? BLACK : WHITE;
+    }
+    game.setColorToMove(colorToMove);
+
+    index = skipSpaces(fen, index);
+    int whiteCastling = CASTLE_NONE;
+    int blackCastling = CASTLE_NONE;
+    for (; index < length && fen.charAt(index) != ' '; index++) {
+      switch (fen.charAt(index)) {
+        case 'K' -> whiteCastling |= CASTLE_SHORT;
+        case 'Q' -> whiteCastling |= CASTLE_LONG;
+        case 'k' -> blackCastling |= CASTLE_SHORT;
+        case 'q' -> blackCastling |= CASTLE_LONG;
+        default -> {
+          // '-' or castling files of other variants
+        }
+      }
+    }
+    game.setCastling(WHITE, whiteCastling);
+    game.setCastling(BLACK, blackCastling);
+
+    index = skipSpaces(fen, index);
+    int epSquare = EMPTY_SQUARE;
+    if (index + 1 < length && fen.charAt(index) != '-') {
+      int epFile = fen.charAt(index) - 'a';
+      int epRank = fen.charAt(index + 1) - '1';
+      if (epFile < 0 || epFile > 7 || epRank < 0 || epRank > 7) {
+        throw invalid(fen);
+      }
+      epSquare = epRank * 8 + epFile;
+    }
+    game.setEpSquare(epSquare);
+    game.setInitialEpSquare(epSquare);
+    while (index < length && fen.charAt(index) != ' ') {
+      index++;
+    }
+
+    index = skipSpaces(fen, index);
+    int fiftyMoveCount = 0;
+    for (; index < length && fen.charAt(index) != ' '; index++) {
+      fiftyMoveCount = appendDigit(fen, index, fiftyMoveCount);
+    }
+    game.setFiftyMoveCount(fiftyMoveCount);
+
+    index = skipSpaces(fen, index);
+    int fullMoveCount = 0;
+    for (; index < length && fen.charAt(index) != ' '; index++) {
+      fullMoveCount = appendDigit(fen, index, fullMoveCount);
+    }
+    if (fullMoveCount > 0) {
+      game.setHalfMoveCount(colorToMove == BLACK ? fullMoveCount * 2 - 1 : fullMoveCount * 2 - 2);
+    }
+  }
+
+  public static String toFen(Game game) {
+    char[] fen = new char[MAX_FEN_LENGTH];
+    int length = writePosition(game, fen);
+    fen[length++] = ' ';
+    fen[length++] = game.isWhitesMove() ? 'w' : 'b';
+    fen[length++] = ' ';
+    int castlingStart = length;
+    length = writeCastling(game.getCastling(WHITE), PIECE_CHARS[WHITE], fen, length);
+    length = writeCastling(game.getCastling(BLACK), PIECE_CHARS[BLACK], fen, length);
+    if (length == castlingStart) {
+      fen[length++] = '-';
+    }
+    fen[length++] = ' ';
+    int epSquare = game.getEpSquare();
+    if (epSquare == EMPTY_SQUARE) {
+      fen[length++] = '-';
+    } else {
+      fen[length++] = (char) ('a' + (epSquare & 7));
+      fen[length++] = (char) ('1' + (epSquare >>> 3));
+    }
+    fen[length++] = ' ';
+    length = writeNumber(game.getFiftyMoveCount(), fen, length);
+    fen[length++] = ' ';
+    length = writeNumber(game.getFullMoveCount(), fen, length);
+    return new String(fen, 0, length);
+  }
+
+  public static String toFenPosition(Game game) {
+    char[] fen = new char[MAX_FEN_LENGTH];
+    return new String(fen, 0, writePosition(game, fen));
+  }
+
+  private static int writePosition(Game game, char[] fen) {
+    long whiteBB = game.getColorBB(WHITE);
+    int length = 0;
+    for (int rank = 7; rank >= 0; rank--) {
+      int consecutiveEmpty = 0;
+      for (int square = rank * 8; square < rank * 8 + 8; square++) {
+        int piece = game.getPiece(square);
+        if (piece == EMPTY) {
+          consecutiveEmpty++;
+        } else {
+          if (consecutiveEmpty > 0) {
+            fen[length++] = (char) ('0' + consecutiveEmpty);
+            consecutiveEmpty = 0;
+          }
+          fen[length++] = PIECE_CHARS[(whiteBB & GameUtils.getBitboard(square)) != 0L ? WHITE : BLACK][piece];
+        }
+      }
+      if (consecutiveEmpty > 0) {
+        fen[length++] = (char) ('0' + consecutiveEmpty);
+      }
+      if (rank > 0) {
+        fen[length++] = '/';
+      }
+    }
+    return length;
+  }
+
+  private static int writeCastling(int castling, char[] pieceChars, char[] fen, int start) {
+    int length = start;
+    if ((castling & CASTLE_SHORT) != 0) {
+      fen[length++] = pieceChars[KING];
+    }
+    if ((castling & CASTLE_LONG) != 0) {
+      fen[length++] = pieceChars[QUEEN];
+    }
+    return length;
+  }
+
+  private static int writeNumber(int number, char[] fen, int start) {
+    int end = start + digits(number);
+    int remaining = number;
+    for (int i = end - 1; i >= start; i--) {
+      fen[i] = (char) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    return end;
+  }
+
+  private static int digits(int number) {
+    int digits = 1;
+    for (int remaining = number / 10; remaining > 0; remaining /= 10) {
+      digits++;
+    }
+    return digits;
+  }
+
+  private static int appendDigit(String fen, int index, int number) {
+    char digit = fen.charAt(index);
+    if (digit == '-') {
+      return number;
+    }
+    if (digit < '0' || digit > '9') {
+      throw invalid(fen);
+    }
+    return number * 10 + digit - '0';
+  }
+
+  private static int skipSpaces(String fen, int start) {
+    int index = start;
+    while (index < fen.length() && fen.charAt(index) == ' ') {
+      index++;
+    }
+    return index;
+  }
+
+  private static IllegalArgumentException invalid(String fen) {
+    return new IllegalArgumentException("Invalid FEN: " + fen);
+  }
+}
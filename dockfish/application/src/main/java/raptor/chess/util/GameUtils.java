@@ -63,12 +63,12 @@ public final class GameUtils implements GameConstants {
   }
 
 
+  /**
+   * Returns the squares a bishop on the square attacks, looked up in the magic bitboard tables of
+   * {@link SlidingAttacks}.
+   */
   public static long diagonalMove(int square, long emptySquares) {
-    long seed = getBitboard(square);
-    return shiftUpRight(fillUpRightOccluded(seed, emptySquares))
-        | shiftUpLeft(fillUpLeftOccluded(seed, emptySquares))
-        | shiftDownLeft(fillDownLeftOccluded(seed, emptySquares))
-        | shiftDownRight(fillDownRightfccluded(seed, emptySquares));
+    return SlidingAttacks.bishopAttacks(square, ~emptySquares);
   }
 
   public static long fillDownLeftOccluded(long g, long p) {
@@ -245,6 +245,13 @@ public final class GameUtils implements GameConstants {
     return KNIGHT_ATTACKS[square];
   }
 
+  /**
+   * Returns the whole rank, file or diagonal through both squares, or 0 if they are not on one.
+   */
+  public static long lineThrough(int square1, int square2) {
+    return SlidingAttacks.line(square1, square2);
+  }
+
   public static long moveOne(int direction, long bitboard) {
     switch (direction) {
       case NORTH:
@@ -269,12 +276,12 @@ public final class GameUtils implements GameConstants {
     }
   }
 
+  /**
+   * Returns the squares a rook on the square attacks, looked up in the magic bitboard tables of
+   * {@link SlidingAttacks}.
+   */
   public static long orthogonalMove(int square, long emptySquares) {
-    long seed = getBitboard(square);
-    return shiftRight(fillRightOccluded(seed, emptySquares))
-        | shiftLeft(fillLeftOccluded(seed, emptySquares))
-        | shiftUp(fillUpOccluded(seed, emptySquares))
-        | shiftDown(fillDownOccluded(seed, emptySquares));
+    return SlidingAttacks.rookAttacks(square, ~emptySquares);
   }
 
   public static long pawnCapture(int colorToMove, long toMovePawns,
@@ -341,6 +348,13 @@ public final class GameUtils implements GameConstants {
     return b << 9 & 0xfefefefefefefefeL;
   }
 
+  /**
+   * Returns the squares strictly between both squares on a rank, file or diagonal, or 0 if they are not on one.
+   */
+  public static long squaresBetween(int square1, int square2) {
+    return SlidingAttacks.between(square1, square2);
+  }
+
   @SuppressWarnings("squid:S3776")
   private static void initKingAttacks() {
     for (int i = 0; i < 8; i++) {
@@ -415,5 +429,4 @@ public final class GameUtils implements GameConstants {
       }
     }
   }
-
 }
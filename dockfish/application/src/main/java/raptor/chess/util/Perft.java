@@ -0,0 +1,160 @@
+package raptor.chess.util;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+import raptor.chess.Game;
+import raptor.chess.GameFactory;
+import raptor.chess.IntMove;
+import raptor.chess.IntMoveList;
+import raptor.chess.Move;
+
+/**
+ * Counts the leaf nodes of the legal move tree up to a fixed depth (perft). Comparing the counts of the
+ * {@link PerftPosition}s with their published values validates move generation, the legality test,
+ * {@link Game#forceMove(Move)} and {@link Game#rollback()}; the time it takes measures their speed.
+ */
+public final class Perft {
+
+  /**
+   * Positions with known node counts, see https://www.chessprogramming.org/Perft_Results.
+   */
+  public enum PerftPosition {
+    STARTING("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        20L, 400L, 8_902L, 197_281L, 4_865_609L, 119_060_324L),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        48L, 2_039L, 97_862L, 4_085_603L, 193_690_690L),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        14L, 191L, 2_812L, 43_238L, 674_624L, 11_030_083L),
+    PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        6L, 264L, 9_467L, 422_333L, 15_833_292L),
+    TALKCHESS("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        44L, 1_486L, 62_379L, 2_103_487L, 89_941_194L),
+    MIDDLE_GAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        46L, 2_079L, 89_890L, 3_894_594L, 164_075_551L);
+
+    private final String fen;
+    private final long[] nodes;
+
+    PerftPosition(String fen, long... nodes) {
+      this.fen = fen;
+      this.nodes = nodes;
+    }
+
+    public String fen() {
+      return fen;
+    }
+
+    public int maxDepth() {
+      return nodes.length;
+    }
+
+    public long nodes(int depth) {
+      return nodes[depth - 1];
+    }
+
+    /**
+     * Returns the deepest depth whose node count does not exceed the given limit, but at least 1.
+     */
+    public int maxDepthFor(long nodeLimit) {
+      int depth = 1;
+      while (depth < nodes.length && nodes[depth] <= nodeLimit) {
+        depth++;
+      }
+      return depth;
+    }
+  }
+
+  private Perft() {
+  }
+
+  /**
+   * Generates {@link IntMove}s into one list per depth. Leaf moves are only counted; a {@link Move} is created
+   * for every move that is made.
+   */
+  public static long perft(Game game, int depth) {
+    if (depth == 0) {
+      return 1L;
+    }
+    IntMoveList[] movesByDepth = new IntMoveList[depth];
+    for (int i = 0; i < depth; i++) {
+      movesByDepth[i] = new IntMoveList();
+    }
+    return perft(game, depth, movesByDepth);
+  }
+
+  private static long perft(Game game, int depth, IntMoveList[] movesByDepth) {
+    IntMoveList moves = movesByDepth[depth - 1];
+    moves.clear();
+    game.generateLegalMoves(moves);
+    if (depth == 1) {
+      return moves.getSize();
+    }
+    long result = 0L;
+    for (int i = 0; i < moves.getSize(); i++) {
+      game.forceMove(IntMove.toMove(moves.get(i)));
+      result += perft(game, depth - 1, movesByDepth);
+      game.rollback();
+    }
+    return result;
+  }
+
+  public static long parallelPerft(Game game, int depth) {
+    return parallelPerft(game, depth, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Splits the tree at the root: every legal root move is counted on its own copy of the game created from the
+   * FEN.
+   */
+  public static long parallelPerft(Game game, int depth, ForkJoinPool pool) {
+    if (depth <= 1) {
+      return perft(game, depth);
+    }
+    String fen = game.toFen();
+    IntMoveList rootMoves = new IntMoveList();
+    game.generateLegalMoves(rootMoves);
+    return pool.invoke(new RootSplit(IntStream.range(0, rootMoves.getSize())
+        .mapToObj(index -> new RootMove(fen, rootMoves.get(index), depth - 1))
+        .toList()));
+  }
+
+  private static final class RootSplit extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<RootMove> rootMoves;
+
+    RootSplit(List<RootMove> rootMoves) {
+      this.rootMoves = rootMoves;
+    }
+
+    @Override
+    protected Long compute() {
+      return invokeAll(rootMoves).stream()
+          .mapToLong(RootMove::join)
+          .sum();
+    }
+  }
+
+  private static final class RootMove extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final String fen;
+    private final int move;
+    private final int depth;
+
+    RootMove(String fen, int move, int depth) {
+      this.fen = fen;
+      this.move = move;
+      this.depth = depth;
+    }
+
+    @Override
+    protected Long compute() {
+      Game game = GameFactory.createFromFen(fen);
+      game.forceMove(IntMove.toMove(move));
+      return perft(game, depth);
+    }
+  }
+}
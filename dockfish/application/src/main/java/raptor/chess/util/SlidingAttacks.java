@@ -0,0 +1,170 @@
+package raptor.chess.util;
+
+import raptor.chess.GameConstants;
+
+/**
+ * Rook and bishop attacks looked up in tables indexed by magic multiplication (fancy magic bitboards). The tables
+ * are filled from the occluded fills the first time a sliding attack is requested. The magics were found by a
+ * search over sparse random numbers; filling fails if one of them maps two occupancies with different attacks to
+ * the same entry. The squares between and the lines through two aligned squares are tabulated as well, for pin and
+ * check detection.
+ */
+final class SlidingAttacks implements GameConstants {
+
+  private static final long EDGE_RANKS = RANK1 | RANK8;
+  private static final long EDGE_FILES = AFILE | HFILE;
+
+  private static final long[] ROOK_MASK = new long[64];
+  private static final long[] ROOK_MAGIC = {
+      0x1080024008908020L, 0x0040002000100040L, 0x2080081004802000L, 0x0100080500100220L,
+      0x0A00209002000804L, 0x2500280400130002L, 0x2080020020804100L, 0x0200040144338102L,
+      0x8109800240088020L, 0x080A004022008100L, 0x0000808020001000L, 0x1001001000200900L,
+      0x00020012004448A0L, 0x2000800400800200L, 0x0204808001000200L, 0x0102001600944104L,
+      0x0840008000402080L, 0x0010004040002000L, 0x0000808020001004L, 0x40080900100100A0L,
+      0x3038008008040080L, 0x3100080110400420L, 0x1080A10100020004L, 0x8300060004038069L,
+      0x3000400080208002L, 0x8100200080804000L, 0x4010200100190040L, 0x0100080080100085L,
+      0x4820500500080100L, 0x042A000200040810L, 0x1089020080800100L, 0x0008808200004401L,
+      0x0480014004C02000L, 0x0408842202004100L, 0x00A0100880802000L, 0x00A2001042000820L,
+      0x2010080080800400L, 0x0004800201800400L, 0x200806080C001013L, 0x088028490200008CL,
+      0x0000802040108000L, 0x1E00500020004000L, 0x0020100020008080L, 0x2006001008420020L,
+      0x0080110008010004L, 0x0004020004008080L, 0x0022901221040018L, 0x0C00008044020001L,
+      0x0822008704462200L, 0x8008200440008680L, 0x5880801000200080L, 0x000042000A201200L,
+      0x0208800800040080L, 0x4210041020400801L, 0x0000811008024400L, 0x0010010400804200L,
+      0x8280402880001101L, 0x200210C102022382L, 0x210010210A420082L, 0x0A10002100081105L,
+      0x0003000800321005L, 0x0101000C00023829L, 0x00400100A8101214L, 0x0040008400210042L
+  };
+  private static final int[] ROOK_SHIFT = new int[64];
+  private static final int[] ROOK_OFFSET = new int[64];
+  private static final long[] ROOK_ATTACKS = new long[102_400];
+
+  private static final long[] BISHOP_MASK = new long[64];
+  private static final long[] BISHOP_MAGIC = {
+      0x0090100140508200L, 0x0120140106082002L, 0x0048420042090920L, 0x0902208200040402L,
+      0x0224042020204800L, 0x08A20804C4000200L, 0x000C908848402102L, 0x0280108208200400L,
+      0x060184B0D0510104L, 0x00890284010A0604L, 0x2408421401002500L, 0x0041082A04200000L,
+      0x0048020210418020L, 0xD000020211041000L, 0x0140040201442240L, 0x4000608058084404L,
+      0x140A002002100202L, 0x0010400421020404L, 0x00084010044200A2L, 0x0000890802004001L,
+      0x4000822C00A04202L, 0x0010209100A01008L, 0x8A0C450402021102L, 0x45818490240C0200L,
+      0x43110450C0080220L, 0x4021200008220454L, 0x0010480240508100L, 0x4110040400401020L,
+      0x884900100B004000L, 0x0850808028081400L, 0x0020821020880414L, 0x4084005001010082L,
+      0x051014624A040820L, 0x1002012050040800L, 0x0004041200490200L, 0xC000C008200A0200L,
+      0x0A10020021080408L, 0x0040888200850100L, 0x3050150441011441L, 0x0A00C08080090408L,
+      0x00008270102440C0L, 0x0900822120029000L, 0x5005002110140100L, 0x4000804202200800L,
+      0x0002080100498402L, 0x0001200085020080L, 0x4004010812010120L, 0x4802280900200100L,
+      0x0054010802102002L, 0x80C244088C110020L, 0x3400031080902000L, 0x0200000484110040L,
+      0x10004004050400A0L, 0x1004405002408204L, 0x1020612210810800L, 0x21600C0410524011L,
+      0x0002020212161205L, 0x0101108401080240L, 0x0201020C84008802L, 0x1C208000002A0800L,
+      0x040201101002020AL, 0x0088850910240820L, 0x2000100508082048L, 0x0410118103040300L
+  };
+  private static final int[] BISHOP_SHIFT = new int[64];
+  private static final int[] BISHOP_OFFSET = new int[64];
+  private static final long[] BISHOP_ATTACKS = new long[5_248];
+
+  private static final long[] BETWEEN = new long[64 * 64];
+  private static final long[] LINE = new long[64 * 64];
+
+  static {
+    initTables(true, ROOK_MASK, ROOK_MAGIC, ROOK_SHIFT, ROOK_OFFSET, ROOK_ATTACKS);
+    initTables(false, BISHOP_MASK, BISHOP_MAGIC, BISHOP_SHIFT, BISHOP_OFFSET, BISHOP_ATTACKS);
+    initLines();
+  }
+
+  private SlidingAttacks() {
+  }
+
+  static long rookAttacks(int square, long occupied) {
+    return ROOK_ATTACKS[ROOK_OFFSET[square]
+        + (int) ((occupied & ROOK_MASK[square]) * ROOK_MAGIC[square] >>> ROOK_SHIFT[square])];
+  }
+
+  static long bishopAttacks(int square, long occupied) {
+    return BISHOP_ATTACKS[BISHOP_OFFSET[square]
+        + (int) ((occupied & BISHOP_MASK[square]) * BISHOP_MAGIC[square] >>> BISHOP_SHIFT[square])];
+  }
+
+  /**
+   * Returns the squares strictly between two squares on a rank, file or diagonal, 0 if they are not aligned.
+   */
+  static long between(int square1, int square2) {
+    return BETWEEN[square1 << 6 | square2];
+  }
+
+  /**
+   * Returns the whole rank, file or diagonal through two squares, 0 if they are not aligned.
+   */
+  static long line(int square1, int square2) {
+    return LINE[square1 << 6 | square2];
+  }
+
+  static long rookAttacksByFill(int square, long emptySquares) {
+    long seed = GameUtils.getBitboard(square);
+    return GameUtils.shiftRight(GameUtils.fillRightOccluded(seed, emptySquares))
+        | GameUtils.shiftLeft(GameUtils.fillLeftOccluded(seed, emptySquares))
+        | GameUtils.shiftUp(GameUtils.fillUpOccluded(seed, emptySquares))
+        | GameUtils.shiftDown(GameUtils.fillDownOccluded(seed, emptySquares));
+  }
+
+  static long bishopAttacksByFill(int square, long emptySquares) {
+    long seed = GameUtils.getBitboard(square);
+    return GameUtils.shiftUpRight(GameUtils.fillUpRightOccluded(seed, emptySquares))
+        | GameUtils.shiftUpLeft(GameUtils.fillUpLeftOccluded(seed, emptySquares))
+        | GameUtils.shiftDownLeft(GameUtils.fillDownLeftOccluded(seed, emptySquares))
+        | GameUtils.shiftDownRight(GameUtils.fillDownRightfccluded(seed, emptySquares));
+  }
+
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  private static void initTables(boolean rook, long[] masks, long[] magics, int[] shifts, int[] offsets,
+                                 long[] attacks) {
+    int offset = 0;
+    for (int square = 0; square < 64; square++) {
+      long edges = EDGE_RANKS & ~rankOf(square) | EDGE_FILES & ~fileOf(square);
+      long mask = attacksByFill(rook, square, -1L) & ~edges;
+      int bits = Long.bitCount(mask);
+      boolean[] filled = new boolean[1 << bits];
+
+      masks[square] = mask;
+      shifts[square] = 64 - bits;
+      offsets[square] = offset;
+      long occupied = 0L;
+      do {
+        int index = (int) (occupied * magics[square] >>> shifts[square]);
+        long reference = attacksByFill(rook, square, ~occupied);
+        if (filled[index] && attacks[offset + index] != reference) {
+          throw new IllegalStateException("Magic collision on square " + square);
+        }
+        filled[index] = true;
+        attacks[offset + index] = reference;
+        occupied = occupied - mask & mask;
+      } while (occupied != 0L);
+      offset += filled.length;
+    }
+  }
+
+  private static void initLines() {
+    for (int square1 = 0; square1 < 64; square1++) {
+      long bb1 = GameUtils.getBitboard(square1);
+      for (int square2 = 0; square2 < 64; square2++) {
+        long bb2 = GameUtils.getBitboard(square2);
+        for (boolean rook : new boolean[] {true, false}) {
+          if (square1 != square2 && (attacksByFill(rook, square1, -1L) & bb2) != 0L) {
+            BETWEEN[square1 << 6 | square2] = attacksByFill(rook, square1, ~bb2) & attacksByFill(rook, square2, ~bb1);
+            LINE[square1 << 6 | square2] = attacksByFill(rook, square1, -1L) & attacksByFill(rook, square2, -1L)
+                | bb1 | bb2;
+          }
+        }
+      }
+    }
+  }
+
+  private static long attacksByFill(boolean rook, int square, long emptySquares) {
+    return rook ? rookAttacksByFill(square, emptySquares) : bishopAttacksByFill(square, emptySquares);
+  }
+
+  private static long rankOf(int square) {
+    return RANK1 << 8 * (square >>> 3);
+  }
+
+  private static long fileOf(int square) {
+    return AFILE << (square & 7);
+  }
+}
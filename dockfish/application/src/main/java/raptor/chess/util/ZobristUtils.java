@@ -15,19 +15,27 @@ package raptor.chess.util;
 
 import static raptor.chess.util.GameUtils.bitscanClear;
 import static raptor.chess.util.GameUtils.bitscanForward;
+import static raptor.chess.util.GameUtils.getBitboard;
+import static raptor.chess.util.GameUtils.pawnCapture;
 
-import java.security.SecureRandom;
 import raptor.chess.Game;
 import raptor.chess.GameConstants;
 
+/**
+ * Zobrist keys. The tables are generated from a fixed seed, so hashes are identical on every JVM and can be shared
+ * and persisted. Any change of the seed, the generator or the order in which the tables are filled changes all
+ * hashes and must increment {@link #ZOBRIST_VERSION}.
+ */
 public final class ZobristUtils implements GameConstants {
+  public static final int ZOBRIST_VERSION = 1;
+
+  private static final long SEED = 0x6A09E667F3BCC908L;
+
   private static final long[][] ZOBRIST_CASTLE = new long[2][4];
   private static final long[] ZOBRIST_EP = new long[65];
   private static final long[][][] ZOBRIST_POSITION = new long[2][7][64];
   private static final long[] ZOBRIST_TO_MOVE = new long[2];
 
-  private static final SecureRandom random = new SecureRandom();
-
   static {
     initZobrist();
   }
@@ -46,6 +54,42 @@ public final class ZobristUtils implements GameConstants {
         ^ ZOBRIST_CASTLE[BLACK][blackCastling];
   }
 
+  /**
+   * Returns the hash of the complete position: pieces, color to move, castling rights and the en passant square,
+   * if a pawn can capture on it.
+   */
+  public static long zobristHash(Game game) {
+    return zobristHashPositionOnly(game)
+        ^ zobrist(game.getColorToMove(), hashedEpSquare(game), game.getCastling(WHITE), game.getCastling(BLACK));
+  }
+
+  /**
+   * Returns the en passant square as far as it distinguishes positions. It is set after every double push, but only
+   * counts when a pawn of the color to move can capture on it.
+   */
+  public static int hashedEpSquare(Game game) {
+    int epSquare = game.getEpSquare();
+    if (epSquare == EMPTY_SQUARE) {
+      return EMPTY_SQUARE;
+    }
+    int colorToMove = game.getColorToMove();
+    return pawnCapture(colorToMove, game.getPieceBB(colorToMove, PAWN), getBitboard(epSquare)) == 0L
+        ? EMPTY_SQUARE
+        : epSquare;
+  }
+
+  public static long zobristToMove(int color) {
+    return ZOBRIST_TO_MOVE[color];
+  }
+
+  public static long zobristEp(int epSquare) {
+    return ZOBRIST_EP[epSquare];
+  }
+
+  public static long zobristCastle(int color, int castling) {
+    return ZOBRIST_CASTLE[color][castling];
+  }
+
   public static long zobristHashPositionOnly(Game game) {
     return zobristPiece(WHITE, PAWN, game)
         ^ zobristPiece(WHITE, BISHOP, game)
@@ -62,6 +106,7 @@ public final class ZobristUtils implements GameConstants {
   }
 
   private static void initZobrist() {
+    SplitMix64 random = new SplitMix64(SEED);
     for (int i = 0; i < ZOBRIST_POSITION.length; i++) {
       for (int j = 0; j < ZOBRIST_POSITION[i].length; j++) {
         for (int k = 0; k < ZOBRIST_POSITION[i][j].length; k++) {
@@ -86,7 +131,7 @@ public final class ZobristUtils implements GameConstants {
   }
 
   private static long zobristPiece(int color, int piece, Game game) {
-    int result = 0;
+    long result = 0L;
     long current = game.getPieceBB(color, piece);
     while (current != 0L) {
       result ^= zobrist(color, piece, bitscanForward(current));
@@ -94,4 +139,23 @@ public final class ZobristUtils implements GameConstants {
     }
     return result;
   }
+
+  /**
+   * SplitMix64 (Steele, Lea, Flood), fixed here instead of relying on a JDK generator whose output may change.
+   */
+  private static final class SplitMix64 {
+    private long state;
+
+    SplitMix64(long seed) {
+      state = seed;
+    }
+
+    long nextLong() {
+      state += 0x9E3779B97F4A7C15L;
+      long z = state;
+      z = (z ^ z >>> 30) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ z >>> 27) * 0x94D049BB133111EBL;
+      return z ^ z >>> 31;
+    }
+  }
 }
@@ -74,7 +74,7 @@ public class UCIEngine {
   private String engineName;
   @Getter
   private String engineAuthor;
-  private Runnable goRunnable;
+  private volatile Runnable goRunnable;
   private UCIBestMove lastBestMove;
   private String[] parameters;
   private String goOptions;
@@ -257,8 +257,11 @@ public class UCIEngine {
             log.info("ignoring bestmove because listener is suspended");
           } else {
             lastBestMove = parseBestMove(line);
+            log.info("Go finished: last line {}", line);
+            // the listener may already send the next go, which must not be reset afterwards
+            goRunnable = null;
             listener.engineSentBestMove(lastBestMove);
-            break;
+            return;
           }
         }
         while (isSuspended()) {
@@ -397,6 +400,18 @@ public class UCIEngine {
     }
   }
 
+  /**
+   * Tells the engine that the following positions are from another game than the previous ones and blocks until it
+   * is ready again.
+   */
+  public void newGame() {
+    throwIfNotConnected();
+    log.debug("Entering newGame()");
+
+    send("ucinewgame");
+    isReady();
+  }
+
   /**
    * Quits the program as soon as possible
    */
@@ -491,9 +506,9 @@ public class UCIEngine {
     } else {
       StringBuilder movesString = new StringBuilder();
       for (UCIMove move : moves) {
-        movesString.append(movesString.toString().isEmpty() ? "" : " ").append(move.getValue());
+        movesString.append(movesString.isEmpty() ? "" : " ").append(move.getValue());
       }
-      send("position fen " + fen + " " + movesString);
+      send("position fen " + fen + " moves " + movesString);
     }
   }
 
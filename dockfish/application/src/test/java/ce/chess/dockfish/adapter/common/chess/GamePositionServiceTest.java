@@ -1,13 +1,23 @@
 package ce.chess.dockfish.adapter.common.chess;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import ce.chess.dockfish.domain.model.fanout.RootMove;
+import ce.chess.dockfish.domain.model.gameanalysis.GameLine;
 import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
+import ce.chess.dockfish.domain.model.result.Variation;
 
+import java.util.List;
+import java.util.Optional;
 import nl.altindag.log.LogCaptor;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -20,6 +30,7 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import raptor.chess.Game;
+import raptor.chess.GameConstants;
 import raptor.chess.pgn.LenientPgnParserListener;
 import raptor.chess.pgn.PgnHeader;
 
@@ -229,6 +240,194 @@ class GamePositionServiceTest {
 
   }
 
+  @Nested
+  class RenderLine {
+    private final GamePosition startingPosition =
+        new GamePositionService().createFromFen("8/P7/8/8/8/8/8/k6K w - - 0 1");
+    private final PackedMoves pv = PackedMoves.of(PackedMoves.encode(48, 56, 5), PackedMoves.encode(0, 9, 0));
+
+    @Test
+    void rendersLineSanWithPromotion() {
+      assertThat(cut.lineSan(startingPosition, pv), is(equalTo("1. a8=Q Kb2")));
+    }
+
+    @Test
+    void rendersGamePositionWithComment() {
+      GamePosition gamePosition = cut.createFrom(startingPosition, pv, "pv1");
+
+      assertThat(gamePosition.getNotation(), is(equalTo("1. a8=Q {pv1} Kb2 {pv1} *")));
+      assertThat(gamePosition.getFen(), is(equalTo("Q7/8/8/8/8/8/1k6/7K w - - 1 2")));
+      assertThat(gamePosition.getLastMovePly(), is(2));
+    }
+
+    @Test
+    void rendersLinesWhenStartingPositionChanges() {
+      GamePosition afterE4 = cut.createFrom("1. e4");
+      PackedMoves pvAfterE4 = PackedMoves.of(PackedMoves.encode(52, 36, 0), PackedMoves.encode(6, 21, 0));
+
+      assertThat(cut.lineSan(afterE4, pvAfterE4), is(equalTo("1. ... e5 2. Nf3")));
+      assertThat(cut.lineSan(startingPosition, pv), is(equalTo("1. a8=Q Kb2")));
+      assertThat(cut.lineSan(afterE4, pvAfterE4), is(equalTo("1. ... e5 2. Nf3")));
+    }
+
+    @Test
+    void rendersStartingPositionForEmptyLine() {
+      assertThat(cut.lineSan(startingPosition, PackedMoves.empty()), is(equalTo("")));
+      assertThat(cut.createFrom(startingPosition, PackedMoves.empty(), "pv1").getFen(),
+          is(equalTo(startingPosition.getFen())));
+    }
+
+    @Test
+    void transposesVariationToOtherStartingPosition() {
+      Variation variation = Variation.builder()
+          .pvId(2)
+          .moves("1. ... Nc6 2. Bb5 Nf6")
+          .depth(30)
+          .gamePosition(GamePosition.builder().pgn("1. Nf3 e5 2. e4 Nc6 {pv2: 0.30} Bb5 Nf6 {pv2: 0.30} *").build())
+          .build();
+
+      Variation transposed = cut.transpose(cut.createFrom("1. e4 e5 2. Nf3"), variation);
+
+      assertThat(transposed.getMoves(), is(equalTo("2. ... Nc6 3. Bb5 Nf6")));
+      assertThat(transposed.getGamePosition().getNotation(),
+          is(equalTo("1. e4 e5 2. Nf3 Nc6 {pv2: 0.30} 3. Bb5 Nf6 {pv2: 0.30} *")));
+      assertThat(transposed.getGamePosition().getLastMovePly(), is(6));
+      assertThat(transposed.getPvId(), is(2));
+      assertThat(transposed.getDepth(), is(30));
+    }
+
+    @Test
+    void transposesVariationWithPromotionAndCheck() {
+      Variation variation = Variation.builder()
+          .moves("40. a8=Q+ Kb2")
+          .gamePosition(GamePosition.builder().pgn("40. a8=Q+ Kb2 *").build())
+          .build();
+
+      assertThat(cut.transpose(startingPosition, variation).getMoves(), is(equalTo("1. a8=Q+ Kb2")));
+    }
+  }
+
+  @Nested
+  class ReadGameLine {
+    @Test
+    void readsMovesAsUciAndSan() {
+      GameLine gameLine = cut.readGameLine("1. e4 d5 2. exd5 Qxd5 3. Nc3 Qa5 4. d4 Nf6 5. Nf3 Bf5 6. Bc4 e6 7. O-O");
+
+      assertThat(gameLine.getStartingFen(), is(GameConstants.STARTING_POSITION_FEN));
+      assertThat(gameLine.getStartingPly(), is(0));
+      assertThat(gameLine.getUciMoves(), contains("e2e4", "d7d5", "e4d5", "d8d5", "b1c3", "d5a5", "d2d4", "g8f6",
+          "g1f3", "c8f5", "f1c4", "e7e6", "e1g1"));
+      assertThat(gameLine.getSanMoves().subList(2, 4), contains("exd5", "Qxd5"));
+      assertThat(gameLine.getSanMoves().getLast(), is("O-O"));
+      assertThat(gameLine.isCheckmate(), is(false));
+    }
+
+    @Test
+    void readsStartingPositionFromFenHeader() {
+      GameLine gameLine = cut.readGameLine("""
+          [Event "?"]
+          [FEN "4k3/1P6/8/8/8/8/8/4K3 b - - 0 40"]
+          [SetUp "1"]
+
+          40... Kd7 41. b8=N+ *
+          """);
+
+      assertThat(gameLine.getStartingFen(), is("4k3/1P6/8/8/8/8/8/4K3 b - - 0 40"));
+      assertThat(gameLine.getStartingPly(), is(79));
+      assertThat(gameLine.getUciMoves(), contains("e8d7", "b7b8n"));
+      assertThat(gameLine.getSanMoves(), contains("Kd7", "b8=N+"));
+      assertThat(gameLine.isWhitesMoveAfter(0), is(false));
+    }
+
+    @Test
+    void detectsCheckmate() {
+      assertThat(cut.readGameLine("1. f3 e5 2. g4 Qh4#").isCheckmate(), is(true));
+      assertThat(cut.readGameLine("1. f3 e5 2. g4 Qh4+").isCheckmate(), is(true));
+      assertThat(cut.readGameLine("1. f3 e5 2. g4 Qf6").isCheckmate(), is(false));
+    }
+  }
+
+  @Nested
+  class ListRootMoves {
+    @Test
+    void listsEveryLegalMoveWithTheGameAfterIt() {
+      List<RootMove> rootMoves = cut.listRootMoves("1. e4");
+
+      assertThat(rootMoves, hasSize(20));
+      assertThat(rootMoves.stream().map(RootMove::getLine).toList(), hasItem("1. ... e5"));
+      RootMove rootMove = rootMoves.stream()
+          .filter(move -> move.getLine().equals("1. ... c5"))
+          .findFirst()
+          .orElseThrow();
+      assertThat(cut.createFrom(rootMove.getPgn()).getLastMovePly(), is(2));
+      assertThat(rootMove.getGameOverScore(), is(Optional.empty()));
+    }
+
+    @Test
+    void scoresMovesThatEndTheGame() {
+      List<RootMove> mates = cut.listRootMoves("1. f3 e5 2. g4").stream()
+          .filter(move -> move.getGameOverScore().isPresent())
+          .toList();
+      List<RootMove> stalemates = cut.listRootMoves("""
+          [Event "?"]
+          [FEN "7k/8/8/5Q2/8/8/8/K7 w - - 0 1"]
+          [SetUp "1"]
+
+          *
+          """).stream()
+          .filter(move -> move.getGameOverScore().isPresent())
+          .toList();
+
+      assertThat(mates, hasSize(1));
+      assertThat(mates.get(0).getLine(), is("2. ... Qh4"));
+      assertThat(mates.get(0).getGameOverScore(), is(Optional.of(-9999)));
+      assertThat(stalemates.stream().map(RootMove::getLine).toList(), hasItem("1. Qg6"));
+      assertThat(stalemates.get(0).getGameOverScore(), is(Optional.of(0)));
+    }
+  }
+
+  @Nested
+  class PositionHash {
+    @Test
+    void isEqualForTranspositions() {
+      assertThat(cut.positionHash(cut.createFrom("1. Nf3 Nf6 2. c4 g6")),
+          is(equalTo(cut.positionHash(cut.createFrom("1. c4 g6 2. Nf3 Nf6")))));
+    }
+
+    @Test
+    void isEqualForPgnAndFen() {
+      assertThat(cut.positionHash(cut.createFrom("1. e4 e5 2. Nf3")),
+          is(equalTo(cut.positionHash(
+              cut.createFromFen("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2")))));
+    }
+
+    @Test
+    void distinguishesSideToMove() {
+      assertThat(cut.positionHash(cut.createFromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1")),
+          is(not(equalTo(cut.positionHash(cut.createFromFen("4k3/8/8/8/8/8/8/4K3 b - - 0 1"))))));
+    }
+
+    @Test
+    void distinguishesCastlingRights() {
+      assertThat(cut.positionHash(cut.createFrom("1. Nf3 Nf6 2. Rg1 Rg8 3. Rh1 Rh8 4. Ng1 Ng8")),
+          is(not(equalTo(cut.positionHash(cut.createFrom("*"))))));
+    }
+
+    @Test
+    void distinguishesCapturableEpSquare() {
+      assertThat(cut.positionHash(cut.createFrom("1. e4 Nf6 2. e5 d5")),
+          is(not(equalTo(cut.positionHash(
+              cut.createFromFen("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3"))))));
+    }
+
+    @Test
+    void ignoresEpSquareWithoutCapturingPawn() {
+      assertThat(cut.positionHash(cut.createFrom("1. e4")),
+          is(equalTo(cut.positionHash(
+              cut.createFromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1")))));
+    }
+  }
+
   private static String stripped(String notation) {
     return notation.replace("*", "").replaceAll("\\s", "");
   }
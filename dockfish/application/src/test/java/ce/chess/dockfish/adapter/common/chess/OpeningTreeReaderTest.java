@@ -0,0 +1,89 @@
+package ce.chess.dockfish.adapter.common.chess;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ce.chess.dockfish.domain.model.openingtree.OpeningTree;
+import ce.chess.dockfish.domain.model.openingtree.TreeMove;
+import ce.chess.dockfish.domain.model.openingtree.TreeNode;
+
+import org.junit.jupiter.api.Test;
+
+class OpeningTreeReaderTest {
+  private static final String REPERTOIRE = """
+      [Event "Queen's pawn"]
+
+      1. d4 Nf6 (1... d5 2. c4) 2. c4 (2. Nf3 d5 (2... g6)) e6 *
+
+      [Event "English"]
+
+      1. c4 e6 2. d4 Nf6 *
+      """;
+
+  private final GamePositionService gamePositionService = new GamePositionService();
+
+  private final OpeningTreeReader cut = new OpeningTreeReader();
+
+  @Test
+  void readsVariationsAndMergesTranspositions() {
+    OpeningTree openingTree = cut.readOpeningTree(REPERTOIRE);
+
+    assertThat(openingTree.getNodes(), hasSize(13));
+    assertThat(openingTree.getRoot().getMoves().stream().map(TreeMove::getSan).toList(), contains("d4", "c4"));
+    assertThat(nodeAfter(openingTree, "1. d4 Nf6").getMoves().stream().map(TreeMove::getSan).toList(),
+        contains("c4", "Nf3"));
+    assertThat(openingTree.getLeaves().stream().map(TreeNode::getPositionHash).toList(), contains(
+        hashAfter("1. d4 d5 2. c4"), hashAfter("1. d4 Nf6 2. Nf3 d5"), hashAfter("1. d4 Nf6 2. Nf3 g6"),
+        hashAfter("1. d4 Nf6 2. c4 e6")));
+    assertThat(openingTree.getNodes().stream()
+        .filter(node -> node.getMoves().stream()
+            .anyMatch(move -> move.getPositionHash() == hashAfter("1. d4 Nf6 2. c4 e6")))
+        .count(), is(2L));
+  }
+
+  @Test
+  void marksCheckmatedLeaves() {
+    OpeningTree openingTree = cut.readOpeningTree("1. f3 e5 2. g4 (2. Nc3) Qh4# *");
+
+    assertThat(nodeAfter(openingTree, "1. f3 e5 2. g4 Qh4#").isCheckmate(), is(true));
+    assertThat(nodeAfter(openingTree, "1. f3 e5 2. g4 Qh4#").isWhitesMove(), is(true));
+    assertThat(nodeAfter(openingTree, "1. f3 e5 2. Nc3").isCheckmate(), is(false));
+  }
+
+  @Test
+  void rejectsIllegalMoveInVariation() {
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> cut.readOpeningTree("1. e4 e5 (1... Ke7) 2. Nf3 *"));
+
+    assertThat(exception.getMessage(), containsString("Invalid pgn"));
+  }
+
+  @Test
+  void rejectsGamesFromDifferentPositions() {
+    String pgn = REPERTOIRE + """
+
+        [Event "From FEN"]
+        [FEN "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"]
+
+        1... e5 *
+        """;
+
+    assertThrows(IllegalArgumentException.class, () -> cut.readOpeningTree(pgn));
+  }
+
+  private TreeNode nodeAfter(OpeningTree openingTree, String pgn) {
+    long positionHash = hashAfter(pgn);
+    return openingTree.getNodes().stream()
+        .filter(node -> node.getPositionHash() == positionHash)
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private long hashAfter(String pgn) {
+    return gamePositionService.raptorGameFor(pgn).getZobristHash();
+  }
+}
@@ -0,0 +1,113 @@
+package ce.chess.dockfish.adapter.common.chess;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import ce.chess.dockfish.domain.model.corpus.CorpusPosition;
+import ce.chess.dockfish.domain.model.corpus.CorpusPositions;
+import ce.chess.dockfish.domain.model.corpus.PositionOccurrence;
+
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import raptor.chess.GameConstants;
+
+class PositionExtractorTest {
+  private static final String CORPUS = """
+      [Event "first"]
+      [Result "*"]
+
+      1. e4 e5 2. Nf3 Nc6 *
+
+      [Event "second"]
+      [Result "1-0"]
+
+      1. Nf3 Nc6 2. e4 e5 3. Bb5 1-0
+      [Event "broken"]
+
+      1. e4 e5 2. Ke3 *
+
+      [Event "third"]
+
+      1. d4 *
+      """;
+
+  private GamePositionService gamePositionService;
+
+  private PositionExtractor cut;
+
+  @BeforeEach
+  void setUp() {
+    gamePositionService = new GamePositionService();
+    cut = new PositionExtractor();
+  }
+
+  @Test
+  void numbersGamesInCorpusOrderAndCountsSkippedGames() {
+    CorpusPositions corpusPositions = cut.extractPositions(CORPUS, 0);
+
+    assertThat(corpusPositions.getGameCount(), is(4));
+    assertThat(corpusPositions.getUniquePositions(), hasSize(1));
+    assertThat(corpusPositions.getUniquePositions().getFirst().getOccurrences(), contains(
+        new PositionOccurrence(1, 0), new PositionOccurrence(2, 0), new PositionOccurrence(4, 0)));
+  }
+
+  @Test
+  void mergesTranspositionsAndSkipsInvalidGames() {
+    CorpusPositions corpusPositions = cut.extractPositions(CORPUS, 4);
+
+    assertThat(corpusPositions.getGameCount(), is(4));
+    // first game 5 positions, second game 5 positions up to ply 4, third game 2 positions
+    assertThat(corpusPositions.getPositionCount(), is(12));
+    CorpusPosition afterFourPlies = positionOf(corpusPositions, "1. e4 e5 2. Nf3 Nc6");
+    assertThat(afterFourPlies.getOccurrences(),
+        contains(new PositionOccurrence(1, 4), new PositionOccurrence(2, 4)));
+    assertThat(afterFourPlies.getFen(),
+        is("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3"));
+    CorpusPosition start = positionOf(corpusPositions, "*");
+    assertThat(start.getFen(), is(GameConstants.STARTING_POSITION_FEN));
+    assertThat(start.getOccurrences(), contains(
+        new PositionOccurrence(1, 0), new PositionOccurrence(2, 0), new PositionOccurrence(4, 0)));
+  }
+
+  @Test
+  void keepsAllPositionsOfShortGames() {
+    CorpusPositions corpusPositions = cut.extractPositions("1. e4 e5", 10);
+
+    assertThat(corpusPositions.getUniquePositions().stream()
+            .map(CorpusPosition::getOccurrences)
+            .flatMap(List::stream)
+            .sorted(Comparator.comparingInt(PositionOccurrence::getPly))
+            .map(PositionOccurrence::getPly)
+            .toList(),
+        contains(0, 1, 2));
+  }
+
+  @Test
+  void extractsSameResultOnEveryRun() {
+    String corpus = (CORPUS + "\n").repeat(50);
+
+    CorpusPositions first = cut.extractPositions(corpus, 6);
+    CorpusPositions second = cut.extractPositions(corpus, 6);
+
+    assertThat(sorted(first), is(sorted(second)));
+    assertThat(positionOf(first, "*").getCount(), is(150));
+  }
+
+  private CorpusPosition positionOf(CorpusPositions corpusPositions, String pgn) {
+    long positionHash = gamePositionService.positionHash(gamePositionService.createFrom(pgn));
+    return corpusPositions.getUniquePositions().stream()
+        .filter(position -> position.getPositionHash() == positionHash)
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static List<CorpusPosition> sorted(CorpusPositions corpusPositions) {
+    return corpusPositions.getUniquePositions().stream()
+        .sorted(Comparator.comparingLong(CorpusPosition::getPositionHash))
+        .toList();
+  }
+}
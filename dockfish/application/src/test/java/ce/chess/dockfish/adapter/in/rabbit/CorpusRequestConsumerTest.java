@@ -0,0 +1,85 @@
+package ce.chess.dockfish.adapter.in.rabbit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.domain.model.corpus.CorpusRequest;
+import ce.chess.dockfish.usecase.in.ReceiveCorpusRequest;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySource;
+import io.vertx.core.json.JsonObject;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.Map;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.InOrder;
+
+@QuarkusTest
+@QuarkusTestResource(InMemoryTestConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CorpusRequestConsumerTest {
+  private static final CorpusRequest request = CorpusRequest.builder()
+      .reference("reference")
+      .pgn("1. e4 e5")
+      .maxDuration(Duration.ofSeconds(3))
+      .build();
+
+  @Inject
+  @Connector(InMemoryConnector.CONNECTOR)
+  InMemoryConnector connector;
+
+  @InjectMock
+  IncomingRabbitMessageConverter incomingRabbitMessageConverter = mock(IncomingRabbitMessageConverter.class);
+
+  @InjectMock
+  ReceiveCorpusRequest service;
+
+  Message<JsonObject> messageMock = spy(Message.class);
+
+  private void givenPayload(JsonObject jsonPayload) {
+    doReturn(
+        new IncomingRabbitMessageWrapper("exchange", "routingKey", "correlationId", Map.of(), jsonPayload, false))
+        .when(incomingRabbitMessageConverter).convert(any());
+    doReturn(jsonPayload).when(messageMock).getPayload();
+  }
+
+  @Test
+  void whenSendingMessagedThenServiceWillBeCalledAndMessageAcked() {
+    givenPayload(JsonObject.mapFrom(request));
+
+    InMemorySource<Message<JsonObject>> requestSource =
+        connector.source(RabbitConfiguration.CHANNEL_CORPUS_REQUEST);
+    requestSource.send(messageMock);
+
+    InOrder inOrder = inOrder(service, messageMock);
+    inOrder.verify(service, timeout(1000)).scheduleUniquePositions(request);
+    inOrder.verify(messageMock, timeout(100)).ack();
+  }
+
+  @Test
+  void whenRequestHasNoBudgetThenNack() {
+    givenPayload(JsonObject.mapFrom(CorpusRequest.builder().pgn("1. e4 e5").build()));
+
+    InMemorySource<Message<JsonObject>> requestSource =
+        connector.source(RabbitConfiguration.CHANNEL_CORPUS_REQUEST);
+    requestSource.send(messageMock);
+
+    verify(messageMock, timeout(1000)).nack(any(IllegalArgumentException.class));
+    verifyNoInteractions(service);
+  }
+
+}
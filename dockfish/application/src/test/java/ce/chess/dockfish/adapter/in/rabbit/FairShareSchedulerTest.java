@@ -0,0 +1,228 @@
+package ce.chess.dockfish.adapter.in.rabbit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FairShareSchedulerTest {
+  private static final long TASK_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLong engineWait = new AtomicLong();
+  private final Deque<Runnable> runningSlots = new ArrayDeque<>();
+  private final List<String> started = new ArrayList<>();
+
+  private FairShareScheduler scheduler(Map<String, Integer> weights) {
+    return new FairShareScheduler(runningSlots::add, 1, weights, Optional.empty(), clock::get, engineWait::get);
+  }
+
+  private void submit(FairShareScheduler cut, String tenant, String task) {
+    cut.forTenant(tenant).execute(() -> started.add(task));
+  }
+
+  private void submitPreempted(FairShareScheduler cut, String task, long waitedNanos) {
+    cut.forTenant("preempted").execute(() -> {
+      started.add(task);
+      engineWait.addAndGet(waitedNanos);
+    });
+  }
+
+  private void runNextTask() {
+    Runnable task = runningSlots.removeFirst();
+    clock.addAndGet(TASK_NANOS);
+    task.run();
+  }
+
+  private void runAllTasks() {
+    while (!runningSlots.isEmpty()) {
+      runNextTask();
+    }
+  }
+
+  @Test
+  void servesTenantsAlternatelyInsteadOfInQueueOrder() {
+    FairShareScheduler cut = scheduler(Map.of());
+    submit(cut, "bulk", "bulk1");
+    submit(cut, "bulk", "bulk2");
+    submit(cut, "bulk", "bulk3");
+    submit(cut, "client", "client1");
+    submit(cut, "client", "client2");
+
+    runAllTasks();
+
+    assertThat(started, contains("bulk1", "client1", "bulk2", "client2", "bulk3"));
+  }
+
+  @Test
+  void sharesEngineTimeByWeight() {
+    FairShareScheduler cut = scheduler(Map.of("heavy", 2));
+    submit(cut, "light", "light1");
+    submit(cut, "light", "light2");
+    submit(cut, "heavy", "heavy1");
+    submit(cut, "heavy", "heavy2");
+    submit(cut, "heavy", "heavy3");
+    submit(cut, "heavy", "heavy4");
+
+    runAllTasks();
+
+    assertThat(started, contains("light1", "heavy1", "heavy2", "light2", "heavy3", "heavy4"));
+  }
+
+  @Test
+  void idleTenantGetsNoCreditForItsIdleTime() {
+    FairShareScheduler cut = scheduler(Map.of());
+    submit(cut, "bulk", "bulk1");
+    submit(cut, "bulk", "bulk2");
+    submit(cut, "bulk", "bulk3");
+    runNextTask();
+    submit(cut, "late", "late1");
+    submit(cut, "late", "late2");
+
+    runAllTasks();
+
+    assertThat(started, contains("bulk1", "bulk2", "late1", "bulk3", "late2"));
+  }
+
+  @Test
+  void exposesQueueDepthWaitAndEngineTimePerTenant() {
+    FairShareScheduler cut = scheduler(Map.of());
+    submit(cut, "a", "a1");
+    submit(cut, "b", "b1");
+    submit(cut, "b", "b2");
+
+    assertThat(cut.getQueueDepth("b"), is(2));
+    runNextTask();
+
+    assertThat(cut.getQueueDepth("b"), is(1));
+    assertThat(cut.getWaitSeconds("b"), is(600L));
+    assertThat(cut.getEngineSeconds("a"), is(600L));
+    assertThat(cut.getEngineSeconds("b"), is(0L));
+    assertThat(cut.getQueueDepth("unknown"), is(0));
+  }
+
+  @Test
+  void chargesTimeWaitingForEngineAsWaitTime() {
+    FairShareScheduler cut = scheduler(Map.of());
+    engineWait.set(TimeUnit.MINUTES.toNanos(1));
+    cut.forTenant("a").execute(() -> engineWait.addAndGet(TimeUnit.MINUTES.toNanos(4)));
+    submit(cut, "b", "b1");
+
+    runNextTask();
+
+    assertThat(cut.getEngineSeconds("a"), is(360L));
+    assertThat(cut.getWaitSeconds("a"), is(240L));
+  }
+
+  @Test
+  void servesPreemptedTenantByItsEngineTime() {
+    FairShareScheduler cut = scheduler(Map.of());
+    long preemptedNanos = TASK_NANOS * 4 / 5;
+    submitPreempted(cut, "preempted1", preemptedNanos);
+    submitPreempted(cut, "preempted2", preemptedNanos);
+    submitPreempted(cut, "preempted3", preemptedNanos);
+    submit(cut, "other", "other1");
+    submit(cut, "other", "other2");
+
+    runAllTasks();
+
+    assertThat(started, contains("preempted1", "other1", "preempted2", "preempted3", "other2"));
+  }
+
+  @Test
+  void forgetsIdleTenantsAndTheirQueueDepthGauges() {
+    MetricRegistry metricRegistry = mock(MetricRegistry.class);
+    FairShareScheduler cut = new FairShareScheduler(runningSlots::add, 1, Map.of(), Optional.of(metricRegistry),
+        clock::get, engineWait::get);
+    submit(cut, "a", "a1");
+    submit(cut, "b", "b1");
+
+    runNextTask();
+
+    verify(metricRegistry, never()).remove(any(MetricID.class));
+
+    runNextTask();
+
+    for (String tenant : List.of("a", "b")) {
+      Tag tag = new Tag("tenant", tenant);
+      verify(metricRegistry).remove(new MetricID("tenant_queue_depth", tag));
+      verify(metricRegistry, never()).remove(new MetricID("tenant_wait_seconds", tag));
+      verify(metricRegistry, never()).remove(new MetricID("tenant_engine_seconds", tag));
+    }
+  }
+
+  @Test
+  void keepsAddingUpTimesOfForgottenTenants() {
+    FairShareScheduler cut = scheduler(Map.of());
+    submit(cut, "a", "a1");
+    runAllTasks();
+
+    assertThat(cut.getQueueDepth("a"), is(0));
+    assertThat(cut.getEngineSeconds("a"), is(600L));
+
+    submit(cut, "a", "a2");
+    runAllTasks();
+
+    assertThat(cut.getEngineSeconds("a"), is(1200L));
+  }
+
+  @Test
+  void releasesSlotWhenAccountingFails() {
+    FairShareScheduler cut = scheduler(Map.of("a", 0));
+    submit(cut, "a", "a1");
+    submit(cut, "a", "a2");
+
+    assertThrows(ArithmeticException.class, this::runNextTask);
+
+    assertThat(started, contains("a1"));
+    assertThat(runningSlots.size(), is(1));
+  }
+
+  @Test
+  void keepsIdleTenantThatIsAheadOfActiveTenants() {
+    FairShareScheduler cut = scheduler(Map.of());
+    submit(cut, "a", "a1");
+    submit(cut, "b", "b1");
+    submit(cut, "b", "b2");
+    runNextTask();
+    submit(cut, "a", "a2");
+
+    runAllTasks();
+
+    assertThat(started, contains("a1", "b1", "b2", "a2"));
+  }
+
+  @Test
+  void parsesWeights() {
+    assertThat(FairShareScheduler.parseWeights(" analysts = 3, corpus=1,"), is(Map.of("analysts", 3, "corpus", 1)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"corpus=0", "corpus=-2"})
+  void rejectsWeightsBelowOne(String tenantWeights) {
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> FairShareScheduler.parseWeights(tenantWeights));
+
+    assertThat(exception.getMessage(), containsString("corpus"));
+  }
+}
@@ -0,0 +1,136 @@
+package ce.chess.dockfish.adapter.in.rabbit;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.adapter.common.dto.EvaluationMessageDto;
+import ce.chess.dockfish.adapter.common.dto.EvaluationMessageDto.EvaluationDto;
+import ce.chess.dockfish.adapter.common.dto.EvaluationMessageDto.EvaluationDto.VariationDto;
+import ce.chess.dockfish.adapter.common.dto.SubmitTaskCommand;
+import ce.chess.dockfish.domain.model.fanout.FanOutRequest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import io.smallrye.reactive.messaging.memory.InMemorySource;
+import io.smallrye.reactive.messaging.rabbitmq.OutgoingRabbitMQMetadata;
+import io.vertx.core.json.JsonObject;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The coordinator as it talks to the sibling nodes: the sub tasks it submits and the evaluations of the siblings are
+ * exchanged with the in-memory connector instead of the broker.
+ */
+@QuarkusTest
+@QuarkusTestResource(InMemoryTestConfig.class)
+class FanOutRoundTripTest {
+  private static final String KINGS_ONLY = """
+      [Event "?"]
+      [FEN "7k/8/8/8/8/8/8/K7 b - - 0 1"]
+      [SetUp "1"]
+
+      *
+      """;
+
+  @Inject
+  @Connector(InMemoryConnector.CONNECTOR)
+  InMemoryConnector connector;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @InjectMock
+  IncomingRabbitMessageConverter incomingRabbitMessageConverter = mock(IncomingRabbitMessageConverter.class);
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(invocation -> new IncomingRabbitMessageWrapper("exchange", "routingKey", "correlationId", Map.of(),
+        invocation.<Message<JsonObject>>getArgument(0).getPayload(), false))
+        .when(incomingRabbitMessageConverter).convert(any());
+  }
+
+  @AfterEach
+  void clearSinks() {
+    // the sinks are shared with the publisher tests
+    connector.sink(RabbitConfiguration.CHANNEL_FAN_OUT_TASK).clear();
+    connector.sink(RabbitConfiguration.CHANNEL_EVALUATION).clear();
+  }
+
+  @Test
+  void submitsSubTasksAndMergesTheEvaluationsOfTheSiblings() throws IOException {
+    InMemorySink<SubmitTaskCommand> taskSink = connector.sink(RabbitConfiguration.CHANNEL_FAN_OUT_TASK);
+    InMemorySink<byte[]> evaluationSink = connector.sink(RabbitConfiguration.CHANNEL_EVALUATION);
+    InMemorySource<Message<JsonObject>> requestSource = connector.source(RabbitConfiguration.CHANNEL_FAN_OUT_REQUEST);
+
+    requestSource.send(Message.of(JsonObject.mapFrom(FanOutRequest.builder()
+        .reference("kings")
+        .pgn(KINGS_ONLY)
+        .initialPv(2)
+        .maxDuration(Duration.ofMinutes(1))
+        .build())));
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> taskSink.received().size() == 3);
+    List<SubmitTaskCommand> subTasks = taskSink.received().stream().map(Message::getPayload).toList();
+    String correlationKey = taskSink.received().get(0).getMetadata(OutgoingRabbitMQMetadata.class)
+        .orElseThrow()
+        .getCorrelationId();
+    assertThat(subTasks.stream().map(SubmitTaskCommand::getId).toList(), everyItem(startsWith(correlationKey + "-")));
+    assertThat(evaluationSink.received(), hasSize(0));
+
+    InMemorySource<Message<JsonObject>> evaluationSource =
+        connector.source(RabbitConfiguration.CHANNEL_FAN_OUT_EVALUATION);
+    evaluationSource.send(Message.of(JsonObject.mapFrom(evaluationOf("other", "+0.00"))));
+    evaluationSource.send(Message.of(JsonObject.mapFrom(evaluationOf(subTasks.get(0).getId(), "+0.20"))));
+    evaluationSource.send(Message.of(JsonObject.mapFrom(evaluationOf(subTasks.get(1).getId(), "+0.00"))));
+    evaluationSource.send(Message.of(JsonObject.mapFrom(evaluationOf(subTasks.get(2).getId(), "-0.10"))));
+
+    await().atMost(5, TimeUnit.SECONDS).until(() -> evaluationSink.received().size() == 1);
+    EvaluationMessageDto merged =
+        objectMapper.readValue(evaluationSink.received().get(0).getPayload(), EvaluationMessageDto.class);
+    assertThat(merged.getReference(), is("kings"));
+    assertThat(merged.getEvaluation().getTaskId(), is(correlationKey));
+    List<VariationDto> variations = merged.getEvaluation().getVariations();
+    assertThat(variations.stream().map(VariationDto::getScore).toList(), contains("-0.10", "+0.00"));
+    assertThat(variations.stream().map(VariationDto::getMoves).toList(), everyItem(startsWith("1. ... K")));
+    assertThat(variations.get(0).getDepth(), is(21));
+  }
+
+  private static EvaluationMessageDto evaluationOf(String taskId, String score) {
+    return EvaluationMessageDto.builder()
+        .uciEngineName("Stockfish")
+        .status("NOT_ACTIVE")
+        .evaluation(EvaluationDto.builder()
+            .taskId(taskId)
+            .variation(VariationDto.builder()
+                .pvId(1)
+                .moves("2. Kb2")
+                .score(score)
+                .depth(20)
+                .time("00:01:00")
+                .build())
+            .build())
+        .build();
+  }
+}
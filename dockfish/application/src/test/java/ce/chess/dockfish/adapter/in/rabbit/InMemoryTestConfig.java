@@ -18,7 +18,20 @@ public class InMemoryTestConfig implements QuarkusTestResourceLifecycleManager {
         InMemoryConnector.switchIncomingChannelsToInMemory(RabbitConfiguration.CHANNEL_TASK_SUBMITTED));
     env.putAll(
         InMemoryConnector.switchIncomingChannelsToInMemory(RabbitConfiguration.CHANNEL_TASK_SUBMITTED_2));
-    env.put("task_consumer_delay_seconds", "0");
+    env.putAll(
+        InMemoryConnector.switchIncomingChannelsToInMemory(RabbitConfiguration.CHANNEL_GAME_ANALYSIS_REQUEST));
+    env.putAll(
+        InMemoryConnector.switchIncomingChannelsToInMemory(RabbitConfiguration.CHANNEL_CORPUS_REQUEST));
+    env.putAll(
+        InMemoryConnector.switchIncomingChannelsToInMemory(RabbitConfiguration.CHANNEL_OPENING_TREE_REQUEST));
+    env.putAll(
+        InMemoryConnector.switchIncomingChannelsToInMemory(RabbitConfiguration.CHANNEL_FAN_OUT_REQUEST));
+    env.putAll(
+        InMemoryConnector.switchIncomingChannelsToInMemory(RabbitConfiguration.CHANNEL_FAN_OUT_EVALUATION));
+    env.putAll(
+        InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_FAN_OUT_TASK));
+    env.putAll(
+        InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_EVALUATION));
     return env;
   }
 
@@ -41,11 +41,12 @@ class IncomingRabbitMessageConverterTest {
     doReturn(Map.of()).when(metadata).getHeaders();
     doReturn(Optional.of("correlationId")).when(metadata).getCorrelationId();
     doReturn(true).when(metadata).isRedeliver();
+    doReturn(Optional.of(2)).when(metadata).getPriority();
 
     IncomingRabbitMessageWrapper result = cut.convert(message);
 
     IncomingRabbitMessageWrapper expected = new IncomingRabbitMessageWrapper(
-        "exchange", "routingKey", "correlationId", Map.of(), JsonObject.of("attribute", "value"), true);
+        "exchange", "routingKey", "correlationId", Map.of(), JsonObject.of("attribute", "value"), true, 2);
     assertThat(result, is(equalTo(expected)));
   }
 }
@@ -1,19 +1,30 @@
 package ce.chess.dockfish.adapter.in.rabbit;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import ce.chess.dockfish.adapter.RabbitConfiguration;
 import ce.chess.dockfish.adapter.common.dto.SubmitTaskCommand;
 import ce.chess.dockfish.domain.model.RequeueException;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.Preemption;
 import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.in.PreemptAnalysis;
 import ce.chess.dockfish.usecase.in.ReceiveAnalysisRequest;
 
 import io.quarkus.test.InjectMock;
@@ -25,6 +36,8 @@ import io.vertx.core.json.JsonObject;
 import jakarta.inject.Inject;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Metadata;
 import org.eclipse.microprofile.reactive.messaging.spi.Connector;
@@ -55,6 +68,9 @@ class TaskSubmittedMessageConsumerTest {
   @InjectMock
   ReceiveAnalysisRequest service;
 
+  @InjectMock
+  PreemptAnalysis preemptAnalysis;
+
   Message<JsonObject> messageMock = spy(Message.class);
 
   @BeforeEach
@@ -80,6 +96,89 @@ class TaskSubmittedMessageConsumerTest {
     inOrder.verify(messageMock, timeout(100)).ack();
   }
 
+  @Test
+  void whenAnalysisRunsOnEngineSlotThenMessageIsAckedAfterItFinished() {
+    CountDownLatch analysisFinished = new CountDownLatch(1);
+    AtomicReference<String> analysisThread = new AtomicReference<>();
+    doAnswer(invocation -> {
+      analysisThread.set(Thread.currentThread().getName());
+      analysisFinished.await();
+      return Optional.of(new TaskId("task"));
+    }).when(service).startSync(any(AnalysisRun.class));
+
+    InMemorySource<Message<JsonObject>> requestSource =
+        connector.source(RabbitConfiguration.CHANNEL_TASK_SUBMITTED);
+    requestSource.send(messageMock);
+
+    verify(service, timeout(1000)).startSync(any(AnalysisRun.class));
+    verify(messageMock, after(200).never()).ack();
+    analysisFinished.countDown();
+    verify(messageMock, timeout(1000)).ack();
+    assertThat(analysisThread.get(), startsWith("engine-slot-"));
+  }
+
+  @Test
+  void whenAllTaskCreditsAreTakenThenTaskIsReturnedToTheQueue() {
+    CountDownLatch analysisFinished = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      analysisFinished.await();
+      return Optional.of(new TaskId("task"));
+    }).when(service).startSync(any(AnalysisRun.class));
+    Message<JsonObject> secondMessage = spy(Message.class);
+    doReturn(JsonObject.mapFrom(request)).when(secondMessage).getPayload();
+
+    connector.<Message<JsonObject>>source(RabbitConfiguration.CHANNEL_TASK_SUBMITTED).send(messageMock);
+    verify(service, timeout(1000)).startSync(any(AnalysisRun.class));
+    connector.<Message<JsonObject>>source(RabbitConfiguration.CHANNEL_TASK_SUBMITTED_2).send(secondMessage);
+
+    verify(secondMessage, timeout(3000)).nack(any(RequeueException.class), any(Metadata.class));
+    analysisFinished.countDown();
+    verify(messageMock, timeout(1000)).ack();
+    verify(service, times(1)).startSync(any(AnalysisRun.class));
+  }
+
+  @Test
+  void whenTaskPreemptsRunningAnalysisThenItRunsBesideTheEngineSlots() {
+    JsonObject jsonPayload = JsonObject.mapFrom(request);
+    doReturn(new IncomingRabbitMessageWrapper(
+        "exchange", "routingKey", "correlationId", Map.of(), jsonPayload, false, 2))
+        .when(incomingRabbitMessageConverter).convert(any());
+    Preemption preemption = new Preemption(new TaskId("preempted"));
+    doReturn(Optional.of(preemption)).when(preemptAnalysis).preemptFor(2);
+    AtomicReference<String> analysisThread = new AtomicReference<>();
+    doAnswer(invocation -> {
+      analysisThread.set(Thread.currentThread().getName());
+      return Optional.of(new TaskId("task"));
+    }).when(service).startSync(any(AnalysisRun.class), eq(preemption));
+
+    InMemorySource<Message<JsonObject>> requestSource =
+        connector.source(RabbitConfiguration.CHANNEL_TASK_SUBMITTED);
+    requestSource.send(messageMock);
+
+    verify(service, timeout(1000)).startSync(argThat(analysisRun -> analysisRun.priority() == 2), eq(preemption));
+    verify(messageMock, timeout(1000)).ack();
+    verify(service, never()).startSync(any(AnalysisRun.class));
+    assertThat(analysisThread.get(), startsWith("engine-slot-preempting-"));
+  }
+
+  @Test
+  void whenPreemptingTaskFailsBeforeItStartsThenPreemptionIsHandedOver() {
+    JsonObject invalidPayload = new JsonObject().put("invalid", true);
+    doReturn(new IncomingRabbitMessageWrapper(
+        "exchange", "routingKey", "correlationId", Map.of(), invalidPayload, false, 2))
+        .when(incomingRabbitMessageConverter).convert(any());
+    Preemption preemption = new Preemption(new TaskId("preempted"));
+    doReturn(Optional.of(preemption)).when(preemptAnalysis).preemptFor(2);
+
+    InMemorySource<Message<JsonObject>> requestSource =
+        connector.source(RabbitConfiguration.CHANNEL_TASK_SUBMITTED);
+    requestSource.send(messageMock);
+
+    verify(messageMock, timeout(1000)).nack(any(Throwable.class));
+    assertThat(preemption.getHandover().getCount(), is(0L));
+    verify(service, never()).startSync(any(AnalysisRun.class), any(Preemption.class));
+  }
+
   @Test
   void whenServiceFailsThenNack() {
     doThrow(exceptionForTest).when(service).startSync(any(AnalysisRun.class));
@@ -8,6 +8,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -189,6 +190,24 @@ class AnalysisControllerTest {
 
   }
 
+  @Test
+  void postTask_returnsFinalEvaluationOfIdenticalTask() throws IOException {
+    when(analysisService.getFinalEvaluation(any())).thenReturn(Optional.of(evaluationMessage));
+    String payload = resourceToString(AnalysisControllerTest.class.getSimpleName() + ".json");
+
+    given()
+        .contentType(ContentType.JSON)
+        .accept(ContentType.JSON)
+        .body(payload.getBytes(StandardCharsets.UTF_8))
+        .when()
+        .post(POST_URI)
+        .then()
+        .statusCode(HttpStatus.SC_OK)
+        .body("taskName", is("taskName"));
+
+    verify(analysisService, never()).startAsync(any());
+  }
+
   @Test
   void getResult_returnsResult() {
     when(messageService.getLastEvaluationMessage(taskId)).thenReturn(Optional.of(evaluationMessage));
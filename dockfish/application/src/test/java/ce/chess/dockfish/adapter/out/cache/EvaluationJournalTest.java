@@ -0,0 +1,289 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ce.chess.dockfish.adapter.common.chess.GamePositionService;
+import ce.chess.dockfish.domain.event.DepthReached;
+import ce.chess.dockfish.domain.model.result.AnalysisTime;
+import ce.chess.dockfish.domain.model.result.EngineInformation;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.result.Score;
+import ce.chess.dockfish.domain.model.result.UciState;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.DynamicPv;
+import ce.chess.dockfish.domain.model.task.EngineOption;
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EvaluationJournalTest {
+  private static final TaskId TASK_ID = new TaskId("task1");
+  private static final LocalDateTime NOW = LocalDateTime.now(ZoneId.systemDefault());
+  private static final GamePosition GAME_POSITION = new GamePositionService().createFrom("1. e4 e5");
+
+  private static final AnalysisRun TASK = AnalysisRun.builder()
+      .taskId(TASK_ID)
+      .name("name")
+      .engineProgramName("stockfish")
+      .uciEngineName("Stockfish 16")
+      .hostname("testhost")
+      .startingPosition(GAME_POSITION)
+      .initialPv(3)
+      .maxDuration(Duration.ofMinutes(10))
+      .engineOption(new EngineOption("Hash", "1024"))
+      .dynamicPv(new DynamicPv(20, -50, 1))
+      .created(NOW)
+      .build();
+
+  @TempDir
+  Path directory;
+
+  private EvaluationJournal cut;
+
+  @BeforeEach
+  void setUp() {
+    cut = openJournal();
+  }
+
+  @Test
+  void replaysTasksAndEvaluations() {
+    Evaluation evaluation = evaluation(TASK_ID, 20, NOW);
+
+    cut.append(TASK);
+    cut.append(evaluation);
+    EvaluationJournal reopened = openJournal();
+
+    assertThat(reopened.taskRepository.findByTaskId(TASK_ID), is(Optional.of(TASK)));
+    assertThat(reopened.evaluationRepository.findByTaskId(TASK_ID), contains(evaluation));
+    assertThat(reopened.getReplayedRecords(), is(2L));
+  }
+
+  @Test
+  void replaysFingerprintOfResumedTask() {
+    AnalysisRun resumed = TASK.toBuilder()
+        .requestFingerprint(TASK.fingerprint())
+        .maxDuration(Duration.ofMinutes(1))
+        .build();
+
+    cut.append(resumed);
+
+    AnalysisRun replayed = openJournal().taskRepository.findByTaskId(TASK_ID).orElseThrow();
+    assertThat(replayed, is(resumed));
+    assertThat(replayed.fingerprint(), is(TASK.fingerprint()));
+  }
+
+  @Test
+  void replaysFinalEvaluations() throws IOException {
+    EvaluationMessage message = EvaluationMessage.builder()
+        .taskName("name")
+        .analysedPgn(GAME_POSITION.getPgn())
+        .analysedPly(2)
+        .taskDuration(Duration.ofMinutes(10))
+        .status(JobStatus.NOT_ACTIVE)
+        .evaluation(evaluation(TASK_ID, 20, NOW))
+        .taskStarted(NOW)
+        .lastEvaluation(NOW)
+        .latestEvent(new EngineInformation(1, "2. Nf3 Nc6", -20, "00:01:00", 20, NOW))
+        .historyEntry("d=20: 2. Nf3 -0.20 00:01:00")
+        .build();
+
+    cut.finalEvaluationRepository.save(TASK.fingerprint(), message);
+    cut.compact();
+    EvaluationJournal reopened = openJournal();
+
+    assertThat(reopened.finalEvaluationRepository.findByFingerprint(TASK.fingerprint()), is(Optional.of(message)));
+  }
+
+  @Test
+  void compactsToLatestEvaluationPerTask() throws IOException {
+    TaskId otherTaskId = new TaskId("task2");
+    Evaluation latest = evaluation(TASK_ID, 22, NOW.plusSeconds(2));
+    Evaluation latestOfOtherTask = evaluation(otherTaskId, 30, NOW);
+    Stream.of(evaluation(TASK_ID, 20, NOW), latest, evaluation(TASK_ID, 21, NOW.plusSeconds(1)),
+        latestOfOtherTask).forEach(this::journal);
+
+    cut.compact();
+    EvaluationJournal reopened = openJournal();
+
+    assertThat(reopened.evaluationRepository.findByTaskId(TASK_ID), contains(latest));
+    assertThat(reopened.evaluationRepository.findByTaskId(otherTaskId), contains(latestOfOtherTask));
+  }
+
+  @Test
+  void rollsOverAndCompactsSegments() {
+    cut.segmentCapacity = 4096;
+    List<Evaluation> evaluations = IntStream.range(0, 200)
+        .mapToObj(i -> evaluation(TASK_ID, i, NOW.plusSeconds(i)))
+        .toList();
+
+    evaluations.forEach(this::journal);
+    EvaluationJournal reopened = openJournal();
+
+    assertThat(cut.getSegmentCount(), is(lessThanOrEqualTo(EvaluationJournal.MAX_SEGMENTS + 1)));
+    assertThat(reopened.evaluationRepository.findByTaskIdMaxCreated(TASK_ID), is(Optional.of(evaluations.getLast())));
+  }
+
+  @Test
+  void compactsToWhatRepositoriesRetain() throws IOException {
+    TaskId evictedTaskId = new TaskId("evicted");
+    journal(TASK);
+    journal(evaluation(TASK_ID, 20, NOW));
+    cut.append(TASK.toBuilder().taskId(evictedTaskId).build());
+    cut.append(evaluation(evictedTaskId, 20, NOW));
+
+    cut.compact();
+    EvaluationJournal reopened = openJournal();
+
+    assertThat(reopened.taskRepository.findByTaskId(TASK_ID), is(Optional.of(TASK)));
+    assertThat(reopened.taskRepository.findByTaskId(evictedTaskId), is(Optional.empty()));
+    assertThat(reopened.evaluationRepository.listTaskIds(), contains(TASK_ID));
+    assertThat(reopened.getReplayedRecords(), is(2L));
+  }
+
+  @Test
+  void quarantinesUnreadableSegment() throws IOException {
+    Path unreadable = directory.resolve("segment-000000000099.journal");
+    Files.write(unreadable, new byte[] {1, 2, 3});
+
+    EvaluationJournal reopened = openJournal();
+
+    assertThat(reopened.getSegmentCount(), is(0));
+    assertThat(Files.exists(unreadable), is(false));
+    assertThat(Files.exists(directory.resolve("segment-000000000099.journal" + EvaluationJournal.QUARANTINE_SUFFIX)),
+        is(true));
+  }
+
+  @Test
+  void keepsSegmentsWhenCompactionFails() throws IOException {
+    journal(TASK);
+    journal(evaluation(TASK_ID, 20, NOW));
+    long journalSize = cut.getJournalSize();
+    // a file in place of the directory, so that no compacted segment can be created
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+    Files.createFile(directory);
+
+    assertThrows(IOException.class, cut::compact);
+
+    assertThat(cut.getSegmentCount(), is(1));
+    assertThat(cut.getJournalSize(), is(journalSize));
+  }
+
+  @Test
+  void ignoresTornRecordAtEnd() throws IOException {
+    Evaluation first = evaluation(TASK_ID, 20, NOW);
+    cut.append(first);
+    long sizeOfFirst = cut.getJournalSize();
+    cut.append(evaluation(TASK_ID, 21, NOW.plusSeconds(1)));
+
+    try (Stream<Path> files = Files.list(directory);
+         RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+      file.seek(sizeOfFirst + 10);
+      file.write(0xFF);
+    }
+    EvaluationJournal reopened = openJournal();
+
+    assertThat(reopened.evaluationRepository.findByTaskId(TASK_ID), contains(first));
+  }
+
+  @Nested
+  class OnDepthReached {
+    @Test
+    void journalsTaskAndLatestEvaluation() {
+      Evaluation evaluation = evaluation(TASK_ID, 20, NOW);
+      cut.taskRepository.save(TASK);
+      cut.evaluationRepository.save(evaluation);
+
+      cut.depthReached(new DepthReached(TASK_ID, 20));
+      EvaluationJournal reopened = openJournal();
+
+      assertThat(reopened.taskRepository.findByTaskId(TASK_ID), is(Optional.of(TASK)));
+      assertThat(reopened.evaluationRepository.findByTaskId(TASK_ID), contains(evaluation));
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+      EvaluationJournal disabled = newJournal();
+      disabled.taskRepository.save(TASK);
+
+      disabled.depthReached(new DepthReached(TASK_ID, 20));
+
+      assertThat(disabled.isOpen(), is(false));
+      assertThat(openJournal().taskRepository.findLatest(), is(Optional.empty()));
+      assertThat(openJournal().evaluationRepository.listTaskIds(), is(empty()));
+    }
+  }
+
+  private void journal(AnalysisRun task) {
+    cut.taskRepository.save(task);
+    cut.append(task);
+  }
+
+  private void journal(Evaluation evaluation) {
+    cut.evaluationRepository.save(evaluation);
+    cut.append(evaluation);
+  }
+
+  private EvaluationJournal openJournal() {
+    EvaluationJournal journal = newJournal();
+    journal.open(directory);
+    return journal;
+  }
+
+  private static EvaluationJournal newJournal() {
+    EvaluationJournal journal = new EvaluationJournal();
+    journal.taskRepository = new InMemoryTaskRepository();
+    journal.evaluationRepository = new InMemoryEvaluationRepository();
+    journal.finalEvaluationRepository = new InMemoryFinalEvaluationRepository();
+    journal.finalEvaluationRepository.journal = journal;
+    return journal;
+  }
+
+  private static Evaluation evaluation(TaskId taskId, int depth, LocalDateTime created) {
+    return Evaluation.builder()
+        .taskId(taskId)
+        .created(created)
+        .variation(Variation.builder()
+            .pvId(1)
+            .moves("2. Nf3 Nc6")
+            .score(Score.fromCentiPawns(-depth))
+            .depth(depth)
+            .time(AnalysisTime.fromMilliSeconds(1000L * depth))
+            .gamePosition(GAME_POSITION)
+            .build())
+        .uciState(UciState.builder()
+            .kiloNodes(1000)
+            .kiloNodesPerSecond(100)
+            .tbHits(0)
+            .infoString("NNUE evaluation enabled")
+            .build())
+        .build();
+  }
+}
@@ -6,6 +6,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.BDDMockito.given;
 
 import ce.chess.dockfish.domain.event.EngineInformationReceived;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
 import ce.chess.dockfish.domain.model.task.TaskId;
 
 import java.time.LocalDateTime;
@@ -28,6 +29,12 @@ import org.mockito.quality.Strictness;
 class InMemoryEngineInformationRepositoryTest {
   private static final TaskId taskId = new TaskId("TASK");
   private static final LocalDateTime NOW = LocalDateTime.now(ZoneId.systemDefault());
+  private static final short E4 = PackedMoves.encode(12, 28, 0);
+  private static final short E5 = PackedMoves.encode(52, 36, 0);
+  private static final short NF3 = PackedMoves.encode(6, 21, 0);
+  private static final short NC6 = PackedMoves.encode(57, 42, 0);
+  private static final short BB5 = PackedMoves.encode(5, 33, 0);
+  private static final short A6 = PackedMoves.encode(48, 40, 0);
 
   @Mock
   private EngineInformationReceived event1;
@@ -58,9 +65,9 @@ class InMemoryEngineInformationRepositoryTest {
     given(event1.hasGame()).willReturn(true);
     given(event2.hasGame()).willReturn(true);
     given(event3.hasGame()).willReturn(true);
-    given(event1.getLineSan()).willReturn("e4 e5 Nf3 Nc6");
-    given(event2.getLineSan()).willReturn("e4 e5 Nf3 Nc6 Bb5");
-    given(event3.getLineSan()).willReturn("e4 e5 Nf3 Nc6 Bb5 a6");
+    given(event1.getPv()).willReturn(PackedMoves.of(E4, E5, NF3, NC6));
+    given(event2.getPv()).willReturn(PackedMoves.of(E4, E5, NF3, NC6, BB5));
+    given(event3.getPv()).willReturn(PackedMoves.of(E4, E5, NF3, NC6, BB5, A6));
 
     Stream.of(event1, event2, event3).forEach(cut::save);
     assertThat(cut.getCacheSize(), is(3L));
@@ -118,17 +125,44 @@ class InMemoryEngineInformationRepositoryTest {
   }
 
   @Nested
-  class FindLatestStartingWithSan {
+  class FindLatestStartingWithPv {
     @Test
-    void findsLatestWithSameSan() {
+    void findsLatestWithSamePrefix() {
       given(event1.getOccurredOn()).willReturn(NOW.plusSeconds(10));
       given(event2.getOccurredOn()).willReturn(NOW.plusSeconds(20));
       given(event3.getOccurredOn()).willReturn(NOW.plusSeconds(30));
 
-      Optional<EngineInformationReceived> latest = cut.findByTaskIdAndStartingWithLineSanMaxOccurredOn(taskId, "e4 e5");
+      Optional<EngineInformationReceived> latest = cut.findByTaskIdAndStartingWithPvMaxOccurredOn(taskId,
+          PackedMoves.of(E4, E5));
 
       assertThat(latest, is(Optional.of(event3)));
     }
+
+    @Test
+    void ignoresShorterLines() {
+      given(event1.getOccurredOn()).willReturn(NOW.plusSeconds(30));
+      given(event2.getOccurredOn()).willReturn(NOW.plusSeconds(20));
+      given(event3.getOccurredOn()).willReturn(NOW.plusSeconds(10));
+
+      Optional<EngineInformationReceived> latest = cut.findByTaskIdAndStartingWithPvMaxOccurredOn(taskId,
+          PackedMoves.of(E4, E5, NF3, NC6, BB5));
+
+      assertThat(latest, is(Optional.of(event2)));
+    }
   }
 
+
+  @Nested
+  class DeleteByTaskIdNot {
+    @Test
+    void keepsEventsOfGivenTask() {
+      TaskId otherTaskId = new TaskId("OTHER");
+      given(event3.getTaskId()).willReturn(otherTaskId);
+
+      cut.deleteByTaskIdNot(taskId);
+
+      assertThat(cut.getCacheSize(), is(2L));
+      assertThat(cut.findByTaskIdMaxOccurredOn(otherTaskId), is(Optional.empty()));
+    }
+  }
 }
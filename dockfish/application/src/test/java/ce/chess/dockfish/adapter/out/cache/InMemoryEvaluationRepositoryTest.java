@@ -108,4 +108,22 @@ class InMemoryEvaluationRepositoryTest {
       assertThat(result, containsInAnyOrder(taskId, someOtherTaskId));
     }
   }
+
+  @Nested
+  class DeleteHistoryByTaskIdNot {
+    @Test
+    void keepsLatestEvaluationOfOtherTasks() {
+      cut.deleteHistoryByTaskIdNot(someOtherTaskId);
+
+      assertThat(cut.findByTaskId(taskId), contains(evaluation2));
+      assertThat(cut.findByTaskId(someOtherTaskId), contains(evaluation3));
+    }
+
+    @Test
+    void keepsAllEvaluationsOfGivenTask() {
+      cut.deleteHistoryByTaskIdNot(taskId);
+
+      assertThat(cut.getCacheSize(), is(3L));
+    }
+  }
 }
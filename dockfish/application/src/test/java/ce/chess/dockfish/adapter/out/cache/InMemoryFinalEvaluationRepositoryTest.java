@@ -0,0 +1,47 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.task.TaskFingerprint;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryFinalEvaluationRepositoryTest {
+  private static final TaskFingerprint FINGERPRINT = new TaskFingerprint("fingerprint");
+  private static final EvaluationMessage MESSAGE = EvaluationMessage.builder()
+      .taskName("name")
+      .build();
+
+  @Mock
+  private EvaluationJournal journal;
+
+  @InjectMocks
+  private InMemoryFinalEvaluationRepository cut;
+
+  @Test
+  void savesAndJournalsByFingerprint() {
+    cut.save(FINGERPRINT, MESSAGE);
+
+    assertThat(cut.findByFingerprint(FINGERPRINT), is(Optional.of(MESSAGE)));
+    verify(journal).append(FINGERPRINT, MESSAGE);
+  }
+
+  @Test
+  void countsHits() {
+    cut.save(FINGERPRINT, MESSAGE);
+
+    cut.findByFingerprint(FINGERPRINT);
+    cut.findByFingerprint(new TaskFingerprint("other"));
+
+    assertThat(cut.getHits(), is(1L));
+  }
+}
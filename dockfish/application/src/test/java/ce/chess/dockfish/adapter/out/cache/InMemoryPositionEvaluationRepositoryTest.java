@@ -0,0 +1,64 @@
+package ce.chess.dockfish.adapter.out.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import ce.chess.dockfish.domain.model.result.AnalysisTime;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.Score;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.PositionKey;
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class InMemoryPositionEvaluationRepositoryTest {
+  private static final PositionKey POSITION_KEY = new PositionKey(42L, "stockfish");
+
+  private final InMemoryPositionEvaluationRepository cut = new InMemoryPositionEvaluationRepository();
+
+  @Test
+  void keepsDeepestEvaluation() {
+    Evaluation deep = evaluation(30);
+
+    cut.saveIfDeeper(POSITION_KEY, evaluation(20));
+    cut.saveIfDeeper(POSITION_KEY, deep);
+    cut.saveIfDeeper(POSITION_KEY, evaluation(25));
+
+    assertThat(cut.findByPositionKey(POSITION_KEY), is(Optional.of(deep)));
+  }
+
+  @Test
+  void separatesEngineFamilies() {
+    cut.saveIfDeeper(POSITION_KEY, evaluation(20));
+
+    assertThat(cut.findByPositionKey(new PositionKey(42L, "lc0")), is(Optional.empty()));
+  }
+
+  @Test
+  void countsOnlyRecordedHits() {
+    cut.saveIfDeeper(POSITION_KEY, evaluation(20));
+
+    cut.findByPositionKey(POSITION_KEY);
+    cut.recordHit();
+
+    assertThat(cut.getHits(), is(1L));
+  }
+
+  private static Evaluation evaluation(int depth) {
+    return Evaluation.builder()
+        .taskId(new TaskId("task" + depth))
+        .created(LocalDateTime.now(ZoneId.systemDefault()))
+        .variation(Variation.builder()
+            .pvId(1)
+            .moves("1. e4 e5")
+            .score(Score.fromCentiPawns(20))
+            .depth(depth)
+            .time(AnalysisTime.fromMilliSeconds(1000L))
+            .build())
+        .build();
+  }
+}
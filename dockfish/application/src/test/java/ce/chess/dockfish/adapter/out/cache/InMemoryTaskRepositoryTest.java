@@ -1,6 +1,7 @@
 package ce.chess.dockfish.adapter.out.cache;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 
 import ce.chess.dockfish.adapter.common.chess.GamePositionService;
@@ -90,6 +91,62 @@ class InMemoryTaskRepositoryTest {
     }
   }
 
+  @Nested
+  class ByteBudget {
+    private AnalysisRun createLargeAnalysisRun(String taskId) {
+      GamePosition largePosition = GamePosition.builder().pgn("x".repeat(1_000_000)).build();
+      return createAnalysisRun(new TaskId(taskId), NOW, null).toBuilder()
+          .startingPosition(largePosition)
+          .build();
+    }
+
+    @Test
+    void estimatesBytesOfAllTasks() {
+      assertThat(cut.getEstimatedBytes(), is(greaterThan(3L * GAME_POSITION.getPgn().length())));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedTasksFirst() {
+      Stream.of("LARGE1", "LARGE2", "LARGE3")
+          .map(this::createLargeAnalysisRun)
+          .forEach(cut::save);
+
+      assertThat(cut.getCacheSize(), is(2L));
+      assertThat(cut.getEvictionCount(), is(4L));
+      assertThat(cut.findByTaskId(taskId1), is(Optional.empty()));
+      assertThat(cut.findByTaskId(new TaskId("LARGE3")).isPresent(), is(true));
+    }
+
+    @Test
+    void keepsTaskThatIsQueried() {
+      Stream.of("LARGE1", "LARGE2")
+          .map(this::createLargeAnalysisRun)
+          .forEach(cut::save);
+      cut.findByTaskId(new TaskId("LARGE1"));
+
+      cut.save(createLargeAnalysisRun("LARGE3"));
+
+      assertThat(cut.findByTaskId(new TaskId("LARGE1")).isPresent(), is(true));
+      assertThat(cut.findByTaskId(new TaskId("LARGE2")), is(Optional.empty()));
+    }
+
+    @Test
+    void recordsHitRate() {
+      cut.findByTaskId(taskId1);
+
+      assertThat(cut.getHitRate(), is(1.0));
+    }
+
+    @Test
+    void recordsMissOfUnknownTask() {
+      cut.findByTaskId(taskId1);
+      cut.findByTaskId(new TaskId("unknown"));
+      cut.findLatest();
+
+      assertThat(cut.getHitRate(), is(0.5));
+    }
+  }
+
   @Nested
   class HasDuplicates {
     @Test
@@ -3,23 +3,34 @@ package ce.chess.dockfish.adapter.out.engine;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.awaitility.Awaitility.await;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import ce.chess.dockfish.adapter.common.chess.GamePositionService;
 import ce.chess.dockfish.domain.event.AnalysisFinished;
+import ce.chess.dockfish.domain.event.AnalysisPreempted;
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysisRequest;
+import ce.chess.dockfish.domain.model.gameanalysis.GameLine;
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeRequest;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
 import ce.chess.dockfish.domain.model.task.TaskId;
 
@@ -27,7 +38,11 @@ import jakarta.enterprise.event.Event;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executors;
 import org.awaitility.Awaitility;
@@ -46,8 +61,13 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import raptor.engine.uci.UCIBestMove;
 import raptor.engine.uci.UCIEngine;
+import raptor.engine.uci.UCIInfoListener;
+import raptor.engine.uci.UCIMove;
 import raptor.engine.uci.UCIOption;
+import raptor.engine.uci.info.DepthInfo;
+import raptor.engine.uci.info.ScoreInfo;
 import raptor.engine.uci.options.UCISpinner;
 
 @ExtendWith({MockitoExtension.class})
@@ -72,6 +92,9 @@ class EngineControllerTest {
   @Mock
   private Event<AnalysisFinished> analysisFinishedPublisher;
 
+  @Mock
+  private Event<AnalysisPreempted> analysisPreemptedPublisher;
+
   @Mock
   private AnalysisRun analysisRun;
 
@@ -141,6 +164,17 @@ class EngineControllerTest {
         assertThat(taskAssignedToEngineListener.getValue().startingPosition().getFen(), is(equalTo(EXPECTED_FEN)));
       }
 
+      @Test
+      void doesReportRunningTask() {
+        analysisRun = createAnalysisRun(2, null);
+        given(uciEngineHolder.getEngine()).willReturn(uciEngine);
+        cut.startAnalysis(analysisRun);
+        given(uciEngine.isProcessingGo()).willReturn(true, false);
+
+        assertThat(cut.getRunningTaskId(), is(Optional.of(new TaskId("taskId"))));
+        assertThat(cut.getRunningTaskId(), is(Optional.empty()));
+      }
+
       @Test
       void doesKeepLockAfterSuccess() {
         analysisRun = createAnalysisRun(2, null);
@@ -203,28 +237,172 @@ class EngineControllerTest {
   }
 
   @Nested
-  class StaticEvaluation {
+  class EvaluateBackwards {
+    private final GameLine gameLine = GameLine.builder()
+        .startingFen(EXPECTED_FEN)
+        .startingPly(2)
+        .uciMove("c2c4").sanMove("c4")
+        .uciMove("d5c4").sanMove("dxc4")
+        .build();
+
+    private final GameAnalysisRequest request = GameAnalysisRequest.builder()
+        .pgn("pgn")
+        .engineId("engineId")
+        .depthPerPly(12)
+        .build();
+
+    private final List<PositionScore> positionScores = new ArrayList<>();
+
+    private final List<String> engineCommands = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+      given(uciEngineHolder.connect(anyString(), anyInt(), any())).willReturn(uciEngine);
+      given(uciEngine.getEngineName()).willReturn(EXPECTED_ENGINE_NAME);
+      doAnswer(invocation -> {
+        UCIMove[] moves = (UCIMove[]) invocation.getRawArguments()[1];
+        engineCommands.add("position " + Arrays.stream(moves).map(UCIMove::getValue).toList());
+        return null;
+      }).when(uciEngine).setPosition(anyString(), any(UCIMove[].class));
+      doAnswer(invocation -> {
+        engineCommands.add("go " + invocation.getArgument(0));
+        UCIInfoListener listener = invocation.getArgument(1);
+        DepthInfo depthInfo = new DepthInfo();
+        depthInfo.setSearchDepthPlies(12);
+        ScoreInfo scoreInfo = new ScoreInfo();
+        scoreInfo.setValueInCentipawns(50);
+        listener.engineSentInfo(List.of(depthInfo, scoreInfo));
+        UCIBestMove bestMove = new UCIBestMove();
+        bestMove.setBestMove(new UCIMove("g1f3"));
+        listener.engineSentBestMove(bestMove);
+        return null;
+      }).when(uciEngine).go(anyString(), any());
+    }
+
     @Test
-    void returnsEvaluationFromEngine() {
-      given(uciEngineHolder.connect(anyString())).willReturn(uciEngine);
-      given(uciEngine.eval()).willReturn("anyEvaluation");
+    void evaluatesPositionsFromLastToFirstOnOneEngineSession() {
+      cut.acquireLock();
 
+      String engineName = cut.evaluateBackwards(request, List.of(), gameLine, positionScores::add);
+
+      assertThat(engineName, is(EXPECTED_ENGINE_NAME));
+      assertThat(engineCommands, contains(
+          "position [c2c4, d5c4]", "go depth 12",
+          "position [c2c4]", "go depth 12",
+          "position []", "go depth 12"));
+      InOrder inOrder = Mockito.inOrder(uciEngineHolder, uciEngine);
+      inOrder.verify(uciEngineHolder).connect("engineId", 1, List.of());
+      inOrder.verify(uciEngine).newGame();
+      inOrder.verify(uciEngine, times(3)).setPosition(eq(EXPECTED_FEN), any(UCIMove[].class));
+      inOrder.verify(uciEngineHolder).disconnect();
+    }
+
+    @Test
+    void convertsScoresToWhitesPointOfView() {
       cut.acquireLock();
-      String staticEvaluation = cut.retrieveStaticEvaluation("anyFen");
 
-      assertThat(staticEvaluation, is(equalTo("anyEvaluation")));
-      verify(uciEngine).eval();
+      cut.evaluateBackwards(request, List.of(), gameLine, positionScores::add);
+
+      assertThat(positionScores, contains(
+          new PositionScore(2, 50, 12, "g1f3"),
+          new PositionScore(1, -50, 12, "g1f3"),
+          new PositionScore(0, 50, 12, "g1f3")));
+    }
+
+    @Test
+    void searchesForTheDurationPerPly() {
+      cut.acquireLock();
+
+      GameAnalysisRequest durationRequest = GameAnalysisRequest.builder()
+          .pgn("pgn")
+          .durationPerPly(Duration.ofSeconds(2))
+          .build();
+
+      cut.evaluateBackwards(durationRequest, List.of(), gameLine, positionScores::add);
+
+      assertThat(engineCommands, hasItem("go movetime 2000"));
+      verify(uciEngineHolder).connect("stockfish", 1, List.of());
+    }
+
+    @Test
+    void disconnectsWhenEngineFails() {
+      doThrow(new IllegalStateException("for test")).when(uciEngine).go(anyString(), any());
+      cut.acquireLock();
+
+      assertThrows(IllegalStateException.class,
+          () -> cut.evaluateBackwards(request, List.of(), gameLine, positionScores::add));
+
       verify(uciEngineHolder).disconnect();
     }
 
     @Test
-    void staticEvaluationThrowsIfNotLocked() {
-      IllegalStateException illegalStateException =
-          assertThrows(IllegalStateException.class, () -> cut.retrieveStaticEvaluation("anyFen"));
+    void throwsIfNotLocked() {
+      IllegalStateException illegalStateException = assertThrows(IllegalStateException.class,
+          () -> cut.evaluateBackwards(request, List.of(), gameLine, positionScores::add));
       assertThat(illegalStateException.getMessage(),
-          containsString("retrieveStaticEvaluation should be called only after a Lock was acquired"));
+          containsString("evaluateBackwards should be called only after a Lock was acquired"));
+    }
+  }
+
+  @Nested
+  class EvaluatePositions {
+    private static final String BLACK_TO_MOVE = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+
+    private final OpeningTreeRequest request = OpeningTreeRequest.builder()
+        .pgn("pgn")
+        .engineId("engineId")
+        .durationPerLeaf(Duration.ofSeconds(3))
+        .build();
+
+    private final Map<String, PositionScore> positionScores = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+      given(uciEngineHolder.connect(anyString(), anyInt(), any())).willReturn(uciEngine);
+      doAnswer(invocation -> {
+        UCIInfoListener listener = invocation.getArgument(1);
+        DepthInfo depthInfo = new DepthInfo();
+        depthInfo.setSearchDepthPlies(20);
+        ScoreInfo scoreInfo = new ScoreInfo();
+        scoreInfo.setValueInCentipawns(30);
+        listener.engineSentInfo(List.of(depthInfo, scoreInfo));
+        UCIBestMove bestMove = new UCIBestMove();
+        bestMove.setBestMove(new UCIMove("e7e5"));
+        listener.engineSentBestMove(bestMove);
+        return null;
+      }).when(uciEngine).go(anyString(), any());
     }
 
+    @Test
+    void evaluatesEachPositionOnOneEngineSession() {
+      given(uciEngine.getEngineName()).willReturn(EXPECTED_ENGINE_NAME);
+      cut.acquireLock();
+
+      String engineName = cut.evaluatePositions(request, List.of(), List.of(EXPECTED_FEN, BLACK_TO_MOVE),
+          positionScores::put);
+
+      assertThat(engineName, is(EXPECTED_ENGINE_NAME));
+      assertThat(positionScores.get(EXPECTED_FEN), is(new PositionScore(0, 30, 20, "e7e5")));
+      assertThat(positionScores.get(BLACK_TO_MOVE), is(new PositionScore(0, -30, 20, "e7e5")));
+      InOrder inOrder = Mockito.inOrder(uciEngineHolder, uciEngine);
+      inOrder.verify(uciEngineHolder).connect("engineId", 1, List.of());
+      inOrder.verify(uciEngine).newGame();
+      inOrder.verify(uciEngine).setPosition(EXPECTED_FEN);
+      inOrder.verify(uciEngine).go(eq("movetime 3000"), any());
+      inOrder.verify(uciEngine).setPosition(BLACK_TO_MOVE);
+      inOrder.verify(uciEngineHolder).disconnect();
+    }
+
+    @Test
+    void disconnectsWhenEngineFails() {
+      doThrow(new IllegalStateException("for test")).when(uciEngine).go(anyString(), any());
+      cut.acquireLock();
+
+      assertThrows(IllegalStateException.class,
+          () -> cut.evaluatePositions(request, List.of(), List.of(EXPECTED_FEN), positionScores::put));
+
+      verify(uciEngineHolder).disconnect();
+    }
   }
 
   @Nested
@@ -239,11 +417,54 @@ class EngineControllerTest {
 
       cut.watchdogFinished();
 
-      verify(analysisFinishedPublisher).fire(any());
+      verify(analysisFinishedPublisher).fire(argThat(AnalysisFinished::isCompleted));
       verify(uciEngine).stop();
       verify(uciEngineHolder).disconnect();
       assertThat(cut.tryAcquireLock(), is(true));
     }
+
+    @Test
+    void firesUncompletedEventWhenStopped() {
+      TaskId taskId = new TaskId("42");
+      given(analysisRun.taskId()).willReturn(taskId);
+      given(uciEngineHolder.getEngine()).willReturn(uciEngine);
+      given(uciEngine.isProcessingGo()).willReturn(true);
+      cut.acquireLock();
+
+      cut.stop();
+      cut.watchdogFinished();
+
+      verify(analysisFinishedPublisher).fire(argThat(event -> !event.isCompleted()));
+      assertThat(cut.tryAcquireLock(), is(true));
+    }
+
+    @Test
+    void firesPreemptedEventWhenPreempted() {
+      TaskId taskId = new TaskId("42");
+      given(analysisRun.taskId()).willReturn(taskId);
+      given(uciEngineHolder.getEngine()).willReturn(uciEngine);
+      given(uciEngine.isProcessingGo()).willReturn(true);
+      cut.acquireLock();
+
+      assertThat(cut.preempt(), is(true));
+      cut.watchdogFinished();
+
+      verify(analysisPreemptedPublisher).fire(argThat(event -> event.getTaskId().equals(taskId)));
+      verify(analysisFinishedPublisher, never()).fire(any());
+      assertThat(cut.getPreemptions(), is(1L));
+      assertThat(cut.tryAcquireLock(), is(true));
+    }
+
+    @Test
+    void doesNotPreemptWhenEngineIsIdle() {
+      given(uciEngineHolder.getEngine()).willReturn(uciEngine);
+      given(uciEngine.isProcessingGo()).willReturn(false);
+
+      assertThat(cut.preempt(), is(false));
+
+      verify(uciEngine, never()).stop();
+      assertThat(cut.getPreemptions(), is(0L));
+    }
   }
 
   @Nested
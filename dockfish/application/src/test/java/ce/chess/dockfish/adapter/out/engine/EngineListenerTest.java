@@ -23,7 +23,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
@@ -58,8 +57,7 @@ class EngineListenerTest {
     TIME_INFO_2H.setTimeMillis((int) Duration.of(2, HOURS).toMillis());
   }
 
-  @Mock(answer = Answers.CALLS_REAL_METHODS)
-  private GamePositionService gamePositionService;
+  private final GamePositionService gamePositionService = new GamePositionService();
 
   @Mock
   private Event<EngineInformationReceived> engineInformationPublisher;
@@ -94,7 +92,7 @@ class EngineListenerTest {
 
     @BeforeEach
     void setup() {
-      when(task.startingPosition()).thenReturn(new GamePositionService().createFrom("1. e4 *"));
+      when(task.startingPosition()).thenReturn(gamePositionService.createFrom("1. e4 *"));
       when(task.taskId()).thenReturn(new TaskId("taskId"));
       when(task.uciEngineName()).thenReturn(Optional.of(ENGINE_PROGRAM_NAME));
       cut.assignTo(task);
@@ -114,8 +112,11 @@ class EngineListenerTest {
 
       EngineInformationReceived result = eventCaptor.getValue();
       assertThat(result.hasGame(), is(true));
-      assertThat(result.getLineSan(), is(equalTo("1. ... e5 2. d4 d5")));
-      assertThat(result.getPgn(),
+      assertThat(result.getPv().toUci(), is(equalTo("e7e5 d2d4 d7d5")));
+      assertThat(gamePositionService.lineSan(result.getStartingPosition(), result.getPv()),
+          is(equalTo("1. ... e5 2. d4 d5")));
+      assertThat(gamePositionService.createFrom(result.getStartingPosition(), result.getPv(), result.pvComment())
+              .getPgn(),
           equalTo("""
               [Event "?"]
               [Site "?"]
@@ -134,7 +135,7 @@ class EngineListenerTest {
     class GivenGameFromFen {
       @BeforeEach
       void setup() {
-        GamePosition gamePosition = new GamePositionService().createFromFen(
+        GamePosition gamePosition = gamePositionService.createFromFen(
             "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1");
         when(task.startingPosition()).thenReturn(gamePosition);
       }
@@ -147,8 +148,10 @@ class EngineListenerTest {
 
         EngineInformationReceived result = eventCaptor.getValue();
         assertThat(result.hasGame(), is(true));
-        assertThat(result.getLineSan(), is(equalTo("1. ... e5 2. d4 d5")));
-        assertThat(result.getPgn(),
+        assertThat(gamePositionService.lineSan(result.getStartingPosition(), result.getPv()),
+            is(equalTo("1. ... e5 2. d4 d5")));
+        assertThat(gamePositionService.createFrom(result.getStartingPosition(), result.getPv(), result.pvComment())
+                .getPgn(),
             equalTo("""
                 [Event "?"]
                 [Site "?"]
@@ -201,7 +204,7 @@ class EngineListenerTest {
         game.addState(Game.UPDATING_SAN_STATE);
         game.makeSanMove("e4");
         game.makeSanMove("e5");
-        when(task.startingPosition()).thenReturn(new GamePositionService().createFrom(game.toPgn()));
+        when(task.startingPosition()).thenReturn(gamePositionService.createFrom(game.toPgn()));
         bestLine = new BestLineFoundInfo();
         bestLine.setMoves(new UCIMove("d2d4"), new UCIMove("d7d5"));
 
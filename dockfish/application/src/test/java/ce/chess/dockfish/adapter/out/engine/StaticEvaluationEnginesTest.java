@@ -0,0 +1,121 @@
+package ce.chess.dockfish.adapter.out.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import raptor.engine.uci.UCIEngine;
+import raptor.engine.uci.UCIOption;
+
+@ExtendWith(MockitoExtension.class)
+class StaticEvaluationEnginesTest {
+
+  @Captor
+  private ArgumentCaptor<UCIOption> optionCaptor;
+
+  @Mock
+  private EngineDirectoryConfiguration engineDirectoryConfiguration;
+
+  @Mock
+  private UCIEngine uciEngine;
+
+  private StaticEvaluationEngines cut;
+
+  @BeforeEach
+  void setUp() {
+    cut = new StaticEvaluationEngines(engineDirectoryConfiguration, 1, 2, () -> uciEngine);
+  }
+
+  @Test
+  void connectsEngineWithItsThreadsOnFirstEvaluation() {
+    given(engineDirectoryConfiguration.validatedProcessPathFor("stockfish16")).willReturn("engineDir/stockfish16");
+    given(uciEngine.isConnected()).willReturn(false);
+    given(uciEngine.connect()).willReturn(true);
+    given(uciEngine.eval()).willReturn("anyEvaluation");
+
+    String evaluation = cut.retrieveStaticEvaluation("anyFen");
+
+    assertThat(evaluation, is("anyEvaluation"));
+    InOrder inOrder = Mockito.inOrder(uciEngine);
+    inOrder.verify(uciEngine).setProcessPath("engineDir/stockfish16");
+    inOrder.verify(uciEngine).connect();
+    inOrder.verify(uciEngine).setOption(optionCaptor.capture());
+    inOrder.verify(uciEngine).setPosition("anyFen");
+    inOrder.verify(uciEngine).eval();
+    assertThat(optionCaptor.getValue().getName(), is("Threads"));
+    assertThat(optionCaptor.getValue().getValue(), is("2"));
+    assertThat(cut.getIdleEngines(), is(1));
+  }
+
+  @Test
+  void keepsEngineWarmBetweenEvaluations() {
+    given(uciEngine.isConnected()).willReturn(true);
+    given(uciEngine.eval()).willReturn("anyEvaluation");
+
+    cut.retrieveStaticEvaluation("anyFen");
+
+    verify(uciEngine, never()).connect();
+    verify(uciEngine, never()).quit();
+  }
+
+  @Test
+  void returnsEngineToPoolWhenConnectFails() {
+    given(engineDirectoryConfiguration.validatedProcessPathFor("stockfish16")).willReturn("engineDir/stockfish16");
+    given(uciEngine.isConnected()).willReturn(false);
+    given(uciEngine.connect()).willReturn(false);
+
+    assertThrows(IllegalStateException.class, () -> cut.retrieveStaticEvaluation("anyFen"));
+
+    assertThat(cut.getIdleEngines(), is(1));
+  }
+
+  @Test
+  void waitsForIdleEngine() throws Exception {
+    CountDownLatch evaluating = new CountDownLatch(1);
+    CountDownLatch finishEvaluation = new CountDownLatch(1);
+    given(uciEngine.isConnected()).willReturn(true);
+    given(uciEngine.eval()).willAnswer(invocation -> {
+      evaluating.countDown();
+      assertThat(finishEvaluation.await(5, TimeUnit.SECONDS), is(true));
+      return "anyEvaluation";
+    });
+
+    CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cut.retrieveStaticEvaluation("fen1"));
+    assertThat(evaluating.await(5, TimeUnit.SECONDS), is(true));
+    CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cut.retrieveStaticEvaluation("fen2"));
+
+    verify(uciEngine, after(200).never()).setPosition("fen2");
+    assertThat(second.isDone(), is(false));
+
+    finishEvaluation.countDown();
+    assertThat(first.get(5, TimeUnit.SECONDS), is("anyEvaluation"));
+    assertThat(second.get(5, TimeUnit.SECONDS), is("anyEvaluation"));
+  }
+
+  @Test
+  void quitsConnectedEnginesOnShutdown() {
+    given(uciEngine.isConnected()).willReturn(true);
+
+    cut.quitEngines();
+
+    verify(uciEngine).quit();
+    verify(uciEngine, never()).setOption(any());
+  }
+}
@@ -0,0 +1,112 @@
+package ce.chess.dockfish.adapter.out.memory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import ce.chess.dockfish.domain.event.MemoryPressureChanged;
+import ce.chess.dockfish.domain.model.MemoryPressure;
+
+import jakarta.enterprise.event.Event;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HeapPressureMonitorTest {
+  private static final long MAX = 1000L;
+
+  @Mock
+  private MemoryPoolMXBean heapPool;
+
+  @Mock
+  private MemoryPoolMXBean nonHeapPool;
+
+  @Mock
+  private Event<MemoryPressureChanged> memoryPressurePublisher;
+
+  private HeapPressureMonitor cut;
+
+  @BeforeEach
+  void setUp() {
+    given(heapPool.getType()).willReturn(MemoryType.HEAP);
+    given(heapPool.isCollectionUsageThresholdSupported()).willReturn(true);
+    given(heapPool.getUsage()).willReturn(usage(100));
+    given(nonHeapPool.getType()).willReturn(MemoryType.NON_HEAP);
+
+    cut = new HeapPressureMonitor(List.of(heapPool, nonHeapPool));
+    cut.memoryPressurePublisher = memoryPressurePublisher;
+  }
+
+  @Test
+  void pressureForUsage() {
+    assertThat(HeapPressureMonitor.pressureFor(usage(690)), is(MemoryPressure.NORMAL));
+    assertThat(HeapPressureMonitor.pressureFor(usage(700)), is(MemoryPressure.ELEVATED));
+    assertThat(HeapPressureMonitor.pressureFor(usage(850)), is(MemoryPressure.HIGH));
+    assertThat(HeapPressureMonitor.pressureFor(usage(900)), is(MemoryPressure.CRITICAL));
+    assertThat(HeapPressureMonitor.pressureFor(null), is(MemoryPressure.NORMAL));
+  }
+
+  @Nested
+  class CheckPressure {
+    @Test
+    void whenThresholdIsNotExceededThenDoNothing() {
+      given(heapPool.isCollectionUsageThresholdExceeded()).willReturn(false);
+
+      cut.checkPressure();
+
+      verify(memoryPressurePublisher, never()).fire(any());
+      assertThat(cut.getPressureLevel(), is(0));
+    }
+
+    @Test
+    void whenThresholdIsExceededThenFireEvent() {
+      given(heapPool.isCollectionUsageThresholdExceeded()).willReturn(true);
+      given(heapPool.getCollectionUsage()).willReturn(usage(850));
+
+      cut.checkPressure();
+
+      verify(memoryPressurePublisher).fire(new MemoryPressureChanged(MemoryPressure.HIGH));
+      assertThat(cut.getPressureLevel(), is(MemoryPressure.HIGH.ordinal()));
+    }
+
+    @Test
+    void whenPressureIsUnchangedThenFireOnce() {
+      given(heapPool.isCollectionUsageThresholdExceeded()).willReturn(true);
+      given(heapPool.getCollectionUsage()).willReturn(usage(950));
+
+      cut.checkPressure();
+      cut.checkPressure();
+
+      verify(memoryPressurePublisher).fire(new MemoryPressureChanged(MemoryPressure.CRITICAL));
+    }
+
+    @Test
+    void whenPressureIsRelievedThenFireNormal() {
+      given(heapPool.isCollectionUsageThresholdExceeded()).willReturn(true, false);
+      given(heapPool.getCollectionUsage()).willReturn(usage(950));
+
+      cut.checkPressure();
+      cut.checkPressure();
+
+      verify(memoryPressurePublisher).fire(new MemoryPressureChanged(MemoryPressure.NORMAL));
+    }
+  }
+
+  private static MemoryUsage usage(long used) {
+    return new MemoryUsage(0, used, MAX, MAX);
+  }
+}
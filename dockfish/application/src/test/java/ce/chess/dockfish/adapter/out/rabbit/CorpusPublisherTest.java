@@ -0,0 +1,89 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.adapter.common.dto.SubmitTaskCommand;
+import ce.chess.dockfish.domain.model.corpus.CorpusIndex;
+import ce.chess.dockfish.domain.model.corpus.CorpusPosition;
+import ce.chess.dockfish.domain.model.corpus.PositionOccurrence;
+import ce.chess.dockfish.domain.model.corpus.PositionTask;
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@QuarkusTestResource(InMemoryTestConfig.class)
+class CorpusPublisherTest {
+  private static final String FEN = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1";
+
+  @Inject
+  @Connector(InMemoryConnector.CONNECTOR)
+  InMemoryConnector connector;
+
+  @Inject
+  Event<CorpusIndex> corpusIndexPublisher;
+
+  @Inject
+  Event<PositionTask> positionTaskPublisher;
+
+  @Test
+  void doesSendCorpusIndex() {
+    InMemorySink<CorpusIndex> sink = connector.sink(RabbitConfiguration.CHANNEL_CORPUS_INDEX);
+    CorpusIndex corpusIndex = CorpusIndex.builder()
+        .reference("corpus")
+        .gameCount(2)
+        .positionCount(2)
+        .position(CorpusPosition.builder()
+            .positionHash(42L)
+            .fen(FEN)
+            .occurrence(new PositionOccurrence(1, 1))
+            .occurrence(new PositionOccurrence(2, 1))
+            .taskId(new TaskId("corpus-000000000000002a"))
+            .build())
+        .build();
+
+    corpusIndexPublisher.fire(corpusIndex);
+
+    assertThat(sink.received(), hasSize(1));
+    assertThat(sink.received().get(0).getPayload(), is(equalTo(corpusIndex)));
+  }
+
+  @Test
+  void doesSubmitTaskForPosition() {
+    InMemorySink<SubmitTaskCommand> sink = connector.sink(RabbitConfiguration.CHANNEL_CORPUS_TASK);
+
+    positionTaskPublisher.fire(PositionTask.builder()
+        .taskId(new TaskId("corpus-000000000000002a"))
+        .reference("corpus")
+        .fen(FEN)
+        .engineId("stockfish")
+        .initialPv(2)
+        .maxDuration(Duration.ofMinutes(1))
+        .build());
+
+    assertThat(sink.received(), hasSize(1));
+    SubmitTaskCommand submitTaskCommand = sink.received().get(0).getPayload();
+    assertThat(submitTaskCommand, is(equalTo(SubmitTaskCommand.builder()
+        .id("corpus-000000000000002a")
+        .name("corpus")
+        .reference("corpus")
+        .fen(FEN)
+        .engineId("stockfish")
+        .initialPv(2)
+        .maxDuration(Duration.ofMinutes(1))
+        .build())));
+  }
+
+}
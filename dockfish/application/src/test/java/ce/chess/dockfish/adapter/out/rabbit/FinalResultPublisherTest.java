@@ -16,12 +16,16 @@ import ce.chess.dockfish.adapter.out.rabbit.fallback.PublishFailed;
 import ce.chess.dockfish.domain.event.SubmitEvaluationMessage;
 import ce.chess.dockfish.domain.model.result.EvaluationMessage;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.smallrye.reactive.messaging.memory.InMemoryConnector;
 import io.smallrye.reactive.messaging.memory.InMemorySink;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import java.io.IOException;
+import java.util.Optional;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.spi.Connector;
@@ -35,12 +39,15 @@ class FinalResultPublisherTest {
   @Connector(InMemoryConnector.CONNECTOR)
   InMemoryConnector connector;
 
+  @Inject
+  ObjectMapper objectMapper;
+
   @Inject
   Event<SubmitEvaluationMessage> resultPublisher;
 
   @Test
-  void doesSendMessage() {
-    InMemorySink<EvaluationMessageDto> sink = connector.sink(RabbitConfiguration.CHANNEL_EVALUATION);
+  void doesSendMessage() throws IOException {
+    InMemorySink<byte[]> sink = connector.sink(RabbitConfiguration.CHANNEL_EVALUATION);
     EvaluationMessage domainObject = EvaluationMessage.builder()
         .taskName("dummyMessage")
         .build();
@@ -51,17 +58,18 @@ class FinalResultPublisherTest {
     resultPublisher.fire(new SubmitEvaluationMessage(domainObject));
 
     assertThat(sink.received(), hasSize(1));
-    assertThat(sink.received().get(0).getPayload(), is(equalTo(dtoObject)));
+    assertThat(json(sink.received().get(0).getPayload()), is(equalTo(objectMapper.valueToTree(dtoObject))));
 
   }
 
   @Test
   @SuppressWarnings("unchecked")
   void doesHandleErrorFromSend() {
-    Emitter<EvaluationMessageDto> emitter = (Emitter<EvaluationMessageDto>) mock(Emitter.class);
+    Emitter<byte[]> emitter = (Emitter<byte[]>) mock(Emitter.class);
     Event<PublishFailed> publishFailedEvent = (Event<PublishFailed>) mock(Event.class);
     FinalResultPublisher cut = new FinalResultPublisher();
     cut.evaluationMessageDtoMapper = Mappers.getMapper(EvaluationMessageDtoMapper.class);
+    cut.jsonPublisher = new JsonPublisher(objectMapper, Optional.empty(), System::nanoTime);
     cut.publishFailedEvent = publishFailedEvent;
     cut.emitter = emitter;
 
@@ -73,4 +81,8 @@ class FinalResultPublisherTest {
     verify(publishFailedEvent).fire(any(PublishFailed.class));
   }
 
+  private JsonNode json(byte[] payload) throws IOException {
+    return objectMapper.readTree(payload);
+  }
+
 }
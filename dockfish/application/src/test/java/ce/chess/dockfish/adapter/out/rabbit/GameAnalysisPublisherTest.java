@@ -0,0 +1,82 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysis;
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysisRequest;
+import ce.chess.dockfish.domain.model.gameanalysis.PlyEvaluation;
+import ce.chess.dockfish.domain.model.result.Score;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.time.Duration;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@QuarkusTestResource(InMemoryTestConfig.class)
+class GameAnalysisPublisherTest {
+  private static final PlyEvaluation plyEvaluation = PlyEvaluation.builder()
+      .reference("reference")
+      .ply(1)
+      .move("e4")
+      .bestMove("e2e4")
+      .scoreBefore(Score.fromCentiPawns(20))
+      .scoreAfter(Score.fromCentiPawns(25))
+      .depth(20)
+      .build();
+
+  @Inject
+  @Connector(InMemoryConnector.CONNECTOR)
+  InMemoryConnector connector;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @Inject
+  Event<PlyEvaluation> plyEvaluationPublisher;
+
+  @Inject
+  Event<GameAnalysis> gameAnalysisPublisher;
+
+  @Test
+  void doesSendPlyEvaluation() throws IOException {
+    InMemorySink<byte[]> sink = connector.sink(RabbitConfiguration.CHANNEL_PLY_EVALUATION);
+
+    plyEvaluationPublisher.fire(plyEvaluation);
+
+    assertThat(sink.received(), hasSize(1));
+    assertThat(json(sink.received().get(0).getPayload()), is(equalTo(objectMapper.valueToTree(plyEvaluation))));
+  }
+
+  @Test
+  void doesSendGameAnalysis() throws IOException {
+    InMemorySink<byte[]> sink = connector.sink(RabbitConfiguration.CHANNEL_GAME_ANALYSIS);
+    GameAnalysis gameAnalysis = GameAnalysis.builder()
+        .request(GameAnalysisRequest.builder().pgn("1. e4").durationPerPly(Duration.ofSeconds(1)).build())
+        .engineName("engineName")
+        .ply(plyEvaluation)
+        .build();
+
+    gameAnalysisPublisher.fire(gameAnalysis);
+
+    assertThat(sink.received(), hasSize(1));
+    assertThat(json(sink.received().get(0).getPayload()), is(equalTo(objectMapper.valueToTree(gameAnalysis))));
+  }
+
+  private JsonNode json(byte[] payload) throws IOException {
+    return objectMapper.readTree(payload);
+  }
+
+}
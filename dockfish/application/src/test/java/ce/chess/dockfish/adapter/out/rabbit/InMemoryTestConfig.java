@@ -14,6 +14,11 @@ public class InMemoryTestConfig implements QuarkusTestResourceLifecycleManager {
     Map<String, String> env = new HashMap<>();
     env.putAll(InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_STATIC_EVALUATION));
     env.putAll(InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_EVALUATION));
+    env.putAll(InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_PLY_EVALUATION));
+    env.putAll(InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_GAME_ANALYSIS));
+    env.putAll(InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_CORPUS_INDEX));
+    env.putAll(InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_CORPUS_TASK));
+    env.putAll(InMemoryConnector.switchOutgoingChannelsToInMemory(RabbitConfiguration.CHANNEL_OPENING_TREE_ANALYSIS));
     return env;
   }
 
@@ -0,0 +1,122 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.smallrye.reactive.messaging.rabbitmq.OutgoingRabbitMQMetadata;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.microprofile.metrics.Meter;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+import org.eclipse.microprofile.reactive.messaging.Emitter;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class JsonPublisherTest {
+  private static final String CHANNEL = "anyChannel";
+  private static final Tag CHANNEL_TAG = new Tag("channel", CHANNEL);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Mock
+  private MetricRegistry metricRegistry;
+
+  @Mock
+  private Meter meter;
+
+  @Mock
+  private Timer timer;
+
+  @Mock
+  private Emitter<byte[]> emitter;
+
+  @Captor
+  private ArgumentCaptor<Message<byte[]>> messageCaptor;
+
+  private JsonPublisher cut;
+
+  @BeforeEach
+  void setUp() {
+    cut = new JsonPublisher(new ObjectMapper(), Optional.of(metricRegistry), clock::get);
+  }
+
+  @Test
+  void serializesResultOnce() {
+    byte[] json = cut.serialize(Map.of("taskName", "dummyMessage"));
+
+    assertThat(new String(json, UTF_8), is("{\"taskName\":\"dummyMessage\"}"));
+  }
+
+  @Test
+  void sendsPersistentJsonMessageAndCountsIt() {
+    given(metricRegistry.meter("result_messages", CHANNEL_TAG)).willReturn(meter);
+    byte[] json = "{}".getBytes(UTF_8);
+
+    cut.send(emitter, CHANNEL, json);
+
+    verify(emitter).send(messageCaptor.capture());
+    Message<byte[]> message = messageCaptor.getValue();
+    assertThat(message.getPayload(), is(json));
+    OutgoingRabbitMQMetadata metadata = message.getMetadata(OutgoingRabbitMQMetadata.class).orElseThrow();
+    assertThat(metadata.getDeliveryMode(), is(2));
+    assertThat(metadata.getContentType(), is(JsonPublisher.CONTENT_TYPE));
+    verify(meter).mark();
+  }
+
+  @Test
+  void recordsConfirmLatencyOnAck() {
+    given(metricRegistry.meter("result_messages", CHANNEL_TAG)).willReturn(meter);
+    given(metricRegistry.timer("result_confirm_latency", CHANNEL_TAG)).willReturn(timer);
+    clock.set(1_000_000L);
+    cut.send(emitter, CHANNEL, "{}".getBytes(UTF_8));
+    verify(emitter).send(messageCaptor.capture());
+
+    clock.addAndGet(Duration.ofMillis(7).toNanos());
+    messageCaptor.getValue().ack();
+
+    verify(timer).update(Duration.ofMillis(7));
+  }
+
+  @Test
+  void runsFallbackOnNack() {
+    given(metricRegistry.meter("result_messages", CHANNEL_TAG)).willReturn(meter);
+    Runnable onNack = mock(Runnable.class);
+    cut.send(emitter, CHANNEL, "{}".getBytes(UTF_8), onNack);
+    verify(emitter).send(messageCaptor.capture());
+
+    messageCaptor.getValue().nack(new IllegalStateException("rejected"));
+
+    verify(onNack).run();
+    verify(metricRegistry, never()).timer(eq("result_confirm_latency"), any(Tag.class));
+  }
+
+  @Test
+  void sendsWithoutMetricRegistry() {
+    JsonPublisher withoutMetrics = new JsonPublisher(new ObjectMapper(), Optional.empty(), clock::get);
+
+    withoutMetrics.send(emitter, CHANNEL, "{}".getBytes(UTF_8));
+    verify(emitter).send(messageCaptor.capture());
+    messageCaptor.getValue().ack();
+
+    verify(metricRegistry, never()).meter(any(String.class), any(Tag.class));
+  }
+}
@@ -0,0 +1,59 @@
+package ce.chess.dockfish.adapter.out.rabbit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import ce.chess.dockfish.adapter.RabbitConfiguration;
+import ce.chess.dockfish.domain.model.openingtree.NodeEvaluation;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeAnalysis;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeRequest;
+import ce.chess.dockfish.domain.model.openingtree.TreeMove;
+import ce.chess.dockfish.domain.model.result.Score;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.reactive.messaging.spi.Connector;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@QuarkusTestResource(InMemoryTestConfig.class)
+class OpeningTreePublisherTest {
+
+  @Inject
+  @Connector(InMemoryConnector.CONNECTOR)
+  InMemoryConnector connector;
+
+  @Inject
+  Event<OpeningTreeAnalysis> openingTreeAnalysisPublisher;
+
+  @Test
+  void doesSendOpeningTreeAnalysis() {
+    InMemorySink<OpeningTreeAnalysis> sink = connector.sink(RabbitConfiguration.CHANNEL_OPENING_TREE_ANALYSIS);
+    OpeningTreeAnalysis openingTreeAnalysis = OpeningTreeAnalysis.builder()
+        .request(OpeningTreeRequest.builder().pgn("1. e4 (1. d4) *").depthPerLeaf(20).build())
+        .engineName("engineName")
+        .evaluatedLeaves(2)
+        .node(NodeEvaluation.builder()
+            .positionHash(1)
+            .fen("fen")
+            .score(Score.fromCentiPawns(25))
+            .depth(20)
+            .bestMove("e4")
+            .move(new TreeMove("e4", 2))
+            .move(new TreeMove("d4", 3))
+            .build())
+        .build();
+
+    openingTreeAnalysisPublisher.fire(openingTreeAnalysis);
+
+    assertThat(sink.received(), hasSize(1));
+    assertThat(sink.received().get(0).getPayload(), is(equalTo(openingTreeAnalysis)));
+  }
+
+}
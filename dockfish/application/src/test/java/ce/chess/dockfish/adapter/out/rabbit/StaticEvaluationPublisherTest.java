@@ -9,12 +9,15 @@ import ce.chess.dockfish.adapter.RabbitConfiguration;
 import ce.chess.dockfish.domain.model.staticevaluation.StaticEvaluation;
 import ce.chess.dockfish.domain.model.staticevaluation.StaticEvaluationRequest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.smallrye.reactive.messaging.memory.InMemoryConnector;
 import io.smallrye.reactive.messaging.memory.InMemorySink;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import java.io.IOException;
 import org.eclipse.microprofile.reactive.messaging.spi.Connector;
 import org.junit.jupiter.api.Test;
 
@@ -26,12 +29,15 @@ class StaticEvaluationPublisherTest {
   @Connector(InMemoryConnector.CONNECTOR)
   InMemoryConnector connector;
 
+  @Inject
+  ObjectMapper objectMapper;
+
   @Inject
   Event<StaticEvaluation> resultPublisher;
 
   @Test
-  void doesSendMessage() {
-    InMemorySink<StaticEvaluation> sink = connector.sink(RabbitConfiguration.CHANNEL_STATIC_EVALUATION);
+  void doesSendMessage() throws IOException {
+    InMemorySink<byte[]> sink = connector.sink(RabbitConfiguration.CHANNEL_STATIC_EVALUATION);
     StaticEvaluation messageObject = StaticEvaluation.builder()
         .request(StaticEvaluationRequest.builder().fen("fen").build())
         .evaluation("evaluation")
@@ -40,8 +46,12 @@ class StaticEvaluationPublisherTest {
     resultPublisher.fire(messageObject);
 
     assertThat(sink.received(), hasSize(1));
-    assertThat(sink.received().get(0).getPayload(), is(equalTo(messageObject)));
+    assertThat(json(sink.received().get(0).getPayload()), is(equalTo(objectMapper.valueToTree(messageObject))));
+
+  }
 
+  private JsonNode json(byte[] payload) throws IOException {
+    return objectMapper.readTree(payload);
   }
 
 }
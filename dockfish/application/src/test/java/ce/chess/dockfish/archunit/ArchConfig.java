@@ -16,14 +16,15 @@ public interface ArchConfig {
           "org.eclipse.microprofile.reactive.messaging..", "io.smallrye.reactive.messaging..",
           "io.vertx.core.json..", "io.vertx.mutiny.core..", "io.vertx.mutiny.rabbitmq..",
           "com.rabbitmq.client..",
-          "org.eclipse.microprofile.config.."};
+          "org.eclipse.microprofile.config..",
+          "org.eclipse.microprofile.metrics..", "jakarta.enterprise.inject.."};
   String[] ADAPTER_OUT_PERMISSIONS = new String[]
       {"com.google.common.base..", "com.google.common.cache..", "com.fasterxml.jackson..",
-          "jakarta.enterprise.event..",
+          "jakarta.enterprise.event..", "jakarta.enterprise.inject..",
           "org.eclipse.microprofile.reactive.messaging..", "io.smallrye.reactive.messaging..",
           "io.vertx.core.json..",
           "raptor..",
-          "org.eclipse.microprofile.config.."};
+          "org.eclipse.microprofile.config..", "org.eclipse.microprofile.metrics.."};
   String[] USECASE_IN_PERMISSIONS = new String[]
       {};
   String[] USECASE_OUT_PERMISSIONS = new String[]
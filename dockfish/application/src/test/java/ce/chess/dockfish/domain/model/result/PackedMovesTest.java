@@ -0,0 +1,54 @@
+package ce.chess.dockfish.domain.model.result;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import org.junit.jupiter.api.Test;
+
+class PackedMovesTest {
+
+  private static final short E2E4 = PackedMoves.encode(12, 28, 0);
+  private static final short E7E5 = PackedMoves.encode(52, 36, 0);
+  private static final short H7H8Q = PackedMoves.encode(55, 63, 5);
+
+  @Test
+  void decodesSquaresAndPromotion() {
+    PackedMoves cut = PackedMoves.of(E2E4, H7H8Q);
+
+    assertThat(cut.size(), is(2));
+    assertThat(cut.fromSquare(1), is(55));
+    assertThat(cut.toSquare(1), is(63));
+    assertThat(cut.promotedPiece(1), is(5));
+    assertThat(cut.promotedPiece(0), is(0));
+  }
+
+  @Test
+  void rendersUci() {
+    assertThat(PackedMoves.of(E2E4, E7E5, H7H8Q).toUci(), is(equalTo("e2e4 e7e5 h7h8q")));
+    assertThat(PackedMoves.empty().toUci(), is(equalTo("")));
+  }
+
+  @Test
+  void comparesPrefix() {
+    PackedMoves cut = PackedMoves.of(E2E4, E7E5);
+
+    assertThat(cut.startsWith(PackedMoves.of(E2E4)), is(true));
+    assertThat(cut.startsWith(cut), is(true));
+    assertThat(cut.startsWith(PackedMoves.empty()), is(true));
+    assertThat(cut.startsWith(PackedMoves.of(E7E5)), is(false));
+    assertThat(cut.startsWith(PackedMoves.of(E2E4, E7E5, H7H8Q)), is(false));
+  }
+
+  @Test
+  void isValueObject() {
+    short[] moves = {E2E4, E7E5};
+    PackedMoves cut = PackedMoves.of(moves);
+    moves[1] = H7H8Q;
+
+    assertThat(cut, is(equalTo(PackedMoves.of(E2E4, E7E5))));
+    assertThat(cut.hashCode(), is(equalTo(PackedMoves.of(E2E4, E7E5).hashCode())));
+    assertThat(cut, is(not(equalTo(PackedMoves.of(moves)))));
+  }
+}
@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 
 import ce.chess.dockfish.adapter.common.chess.GamePositionService;
 
@@ -43,6 +44,41 @@ class AnalysisRunTest {
     assertThat(cut.isSameAs(cut.toBuilder().engineProgramName("other").build()), is(false));
   }
 
+  @Test
+  void fingerprintFollowsIsSameAs() {
+    TaskFingerprint fingerprint = cut.fingerprint();
+
+    assertThat(cut.toBuilder().build().fingerprint(), is(fingerprint));
+    assertThat(cut.toBuilder().created(NOW.plusSeconds(5)).build().fingerprint(), is(fingerprint));
+    assertThat(cut.toBuilder().taskId(new TaskId("other")).build().fingerprint(), is(fingerprint));
+    assertThat(cut.toBuilder().uciEngineName("other").build().fingerprint(), is(fingerprint));
+    assertThat(cut.toBuilder().hostname("other").build().fingerprint(), is(fingerprint));
+
+    assertThat(cut.toBuilder().maxDuration(Duration.ZERO).build().fingerprint(), is(not(fingerprint)));
+    assertThat(cut.toBuilder().engineProgramName("other").build().fingerprint(), is(not(fingerprint)));
+  }
+
+  @Test
+  void resumedTaskKeepsFingerprintOfRequest() {
+    AnalysisRun resumed = cut.toBuilder()
+        .requestFingerprint(cut.fingerprint())
+        .maxDuration(Duration.ofMinutes(1))
+        .build();
+
+    assertThat(resumed.fingerprint(), is(cut.fingerprint()));
+    assertThat(resumed.isSameAs(cut), is(true));
+    assertThat(cut.isSameAs(resumed), is(true));
+  }
+
+  @Test
+  void fingerprintIgnoresOrderOfOptions() {
+    EngineOption hash = new EngineOption("Hash", "1024");
+    EngineOption threads = new EngineOption("Threads", "4");
+
+    assertThat(cut.toBuilder().engineOptions(List.of(hash, threads)).build().fingerprint(),
+        is(cut.toBuilder().engineOptions(List.of(threads, hash)).build().fingerprint()));
+  }
+
   @Nested
   class SetsOptions {
     EngineOption newOption = new EngineOption("newOption", "newValue");
@@ -13,6 +13,7 @@ import ce.chess.dockfish.domain.event.EngineInformationReceived;
 import ce.chess.dockfish.domain.model.result.Evaluation;
 import ce.chess.dockfish.domain.model.result.EvaluationMessage;
 import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
 import ce.chess.dockfish.domain.model.task.TaskId;
 import ce.chess.dockfish.usecase.out.db.EngineInformationReceivedRepository;
@@ -33,6 +34,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -57,6 +59,9 @@ class EvaluationMessageServiceTest {
   @Mock
   Config config;
 
+  @Spy
+  private GamePositionService lineRenderer = new GamePositionService();
+
   @Mock
   private Evaluation evaluation;
 
@@ -86,10 +91,9 @@ class EvaluationMessageServiceTest {
       .nodes(10000)
       .nodesPerSecond(6000)
       .tbHits(0)
-      .calculatedPlies(12)
       .occurredOn(NOW)
-      .pgn("pgn")
-      .lineSan("lineSan")
+      .startingPosition(task.startingPosition())
+      .pv(PackedMoves.of(PackedMoves.encode(6, 21, 0), PackedMoves.encode(57, 42, 0)))
       .build();
 
   @InjectMocks
@@ -177,7 +181,7 @@ class EvaluationMessageServiceTest {
           .taskStarted(NOW)
           .lastAlive(NOW)
           .lastEvaluation(NOW)
-          .latestEvent(engineInformation.toModel())
+          .latestEvent(engineInformation.toModel("2. Nf3 Nc6"))
           .history(List.of("h21", "h20"))
           .build();
       assertThat(lastEvaluationMessage, is(equalTo(expected)));
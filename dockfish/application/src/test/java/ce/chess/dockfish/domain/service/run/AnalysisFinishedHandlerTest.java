@@ -7,8 +7,12 @@ import static org.mockito.Mockito.verifyNoInteractions;
 import ce.chess.dockfish.domain.event.AnalysisFinished;
 import ce.chess.dockfish.domain.event.SubmitEvaluationMessage;
 import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.TaskFingerprint;
 import ce.chess.dockfish.domain.model.task.TaskId;
 import ce.chess.dockfish.domain.service.query.EvaluationMessageService;
+import ce.chess.dockfish.usecase.out.db.FinalEvaluationRepository;
+import ce.chess.dockfish.usecase.out.db.TaskRepository;
 
 import jakarta.enterprise.event.Event;
 import java.time.Instant;
@@ -35,6 +39,15 @@ class AnalysisFinishedHandlerTest {
   @Mock
   private EvaluationMessage evaluationMessage;
 
+  @Mock
+  private TaskRepository taskRepository;
+
+  @Mock
+  private FinalEvaluationRepository finalEvaluationRepository;
+
+  @Mock
+  private AnalysisRun task;
+
   @InjectMocks
   private AnalysisFinishedHandler cut;
 
@@ -47,17 +60,39 @@ class AnalysisFinishedHandlerTest {
   void whenReceivingAnalysisFinishedEventThenFireSubmitEvaluationMessage() {
     given(evaluationMessageService.getLastEvaluationMessage(TASK_ID)).willReturn(Optional.of(evaluationMessage));
 
-    cut.publishFinalEvaluation(new AnalysisFinished(TASK_ID, NOW));
+    cut.publishFinalEvaluation(new AnalysisFinished(TASK_ID, NOW, true));
 
     verify(evaluationMessageService).getLastEvaluationMessage(TASK_ID);
     verify(submitEvaluationMessageEventPublisher).fire(new SubmitEvaluationMessage(evaluationMessage));
   }
 
+  @Test
+  void whenReceivingAnalysisFinishedEventThenStoreFinalEvaluationByFingerprint() {
+    TaskFingerprint fingerprint = new TaskFingerprint("fingerprint");
+    given(evaluationMessageService.getLastEvaluationMessage(TASK_ID)).willReturn(Optional.of(evaluationMessage));
+    given(taskRepository.findByTaskId(TASK_ID)).willReturn(Optional.of(task));
+    given(task.fingerprint()).willReturn(fingerprint);
+
+    cut.publishFinalEvaluation(new AnalysisFinished(TASK_ID, NOW, true));
+
+    verify(finalEvaluationRepository).save(fingerprint, evaluationMessage);
+  }
+
+  @Test
+  void doesNotStoreEvaluationOfStoppedAnalysis() {
+    given(evaluationMessageService.getLastEvaluationMessage(TASK_ID)).willReturn(Optional.of(evaluationMessage));
+
+    cut.publishFinalEvaluation(new AnalysisFinished(TASK_ID, NOW, false));
+
+    verify(submitEvaluationMessageEventPublisher).fire(new SubmitEvaluationMessage(evaluationMessage));
+    verifyNoInteractions(taskRepository, finalEvaluationRepository);
+  }
+
   @Test
   void doNotFireWhenQueryEmpty() {
     given(evaluationMessageService.getLastEvaluationMessage(TASK_ID)).willReturn(Optional.empty());
 
-    cut.publishFinalEvaluation(new AnalysisFinished(TASK_ID, NOW));
+    cut.publishFinalEvaluation(new AnalysisFinished(TASK_ID, NOW, true));
 
     verify(evaluationMessageService).getLastEvaluationMessage(TASK_ID);
     verifyNoInteractions(submitEvaluationMessageEventPublisher);
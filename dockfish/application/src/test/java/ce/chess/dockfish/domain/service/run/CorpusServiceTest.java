@@ -0,0 +1,140 @@
+package ce.chess.dockfish.domain.service.run;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import ce.chess.dockfish.domain.model.corpus.CorpusIndex;
+import ce.chess.dockfish.domain.model.corpus.CorpusPosition;
+import ce.chess.dockfish.domain.model.corpus.CorpusPositions;
+import ce.chess.dockfish.domain.model.corpus.CorpusRequest;
+import ce.chess.dockfish.domain.model.corpus.PositionOccurrence;
+import ce.chess.dockfish.domain.model.corpus.PositionTask;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.out.chess.ExtractPositions;
+
+import jakarta.enterprise.event.Event;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CorpusServiceTest {
+  private static final CorpusPosition RARE = CorpusPosition.builder()
+      .positionHash(0x2aL)
+      .fen("rare")
+      .occurrence(new PositionOccurrence(2, 3))
+      .build();
+
+  private static final CorpusPosition FREQUENT = CorpusPosition.builder()
+      .positionHash(-1L)
+      .fen("frequent")
+      .occurrence(new PositionOccurrence(1, 2))
+      .occurrence(new PositionOccurrence(2, 2))
+      .occurrence(new PositionOccurrence(3, 4))
+      .build();
+
+  private static final CorpusPosition TWICE_LATE = CorpusPosition.builder()
+      .positionHash(0x10L)
+      .fen("twiceLate")
+      .occurrence(new PositionOccurrence(2, 1))
+      .occurrence(new PositionOccurrence(3, 1))
+      .build();
+
+  private static final CorpusPosition TWICE_EARLY = CorpusPosition.builder()
+      .positionHash(0x11L)
+      .fen("twiceEarly")
+      .occurrence(new PositionOccurrence(1, 5))
+      .occurrence(new PositionOccurrence(3, 5))
+      .build();
+
+  private final CorpusRequest request = CorpusRequest.builder()
+      .reference("corpus")
+      .pgn("pgn")
+      .maxPly(5)
+      .maxDuration(Duration.ofSeconds(10))
+      .build();
+
+  @Mock
+  ExtractPositions extractPositions;
+
+  @Mock
+  Event<CorpusIndex> corpusIndexPublisher;
+
+  @Mock
+  Event<PositionTask> positionTaskPublisher;
+
+  @Captor
+  ArgumentCaptor<CorpusIndex> corpusIndexCaptor;
+
+  @Captor
+  ArgumentCaptor<PositionTask> positionTaskCaptor;
+
+  @InjectMocks
+  CorpusService cut;
+
+  @BeforeEach
+  void setUp() {
+    given(extractPositions.extractPositions("pgn", 5))
+        .willReturn(new CorpusPositions(3, List.of(RARE, FREQUENT, TWICE_LATE, TWICE_EARLY)));
+  }
+
+  @Test
+  void schedulesMostFrequentPositionsFirst() {
+    cut.scheduleUniquePositions(request);
+
+    verify(positionTaskPublisher, times(4)).fire(positionTaskCaptor.capture());
+    assertThat(positionTaskCaptor.getAllValues().stream().map(PositionTask::getFen).toList(),
+        contains("frequent", "twiceEarly", "twiceLate", "rare"));
+    PositionTask first = positionTaskCaptor.getAllValues().getFirst();
+    assertThat(first.getTaskId(), is(new TaskId("corpus-ffffffffffffffff")));
+    assertThat(first.getReference(), is("corpus"));
+    assertThat(first.getEngineId(), is("stockfish"));
+    assertThat(first.getInitialPv(), is(1));
+    assertThat(first.getMaxDuration(), is(Duration.ofSeconds(10)));
+    assertThat(positionTaskCaptor.getAllValues().getLast().getTaskId(), is(new TaskId("corpus-000000000000002a")));
+  }
+
+  @Test
+  void publishesIndexBeforeTasks() {
+    cut.scheduleUniquePositions(request);
+
+    InOrder inOrder = Mockito.inOrder(corpusIndexPublisher, positionTaskPublisher);
+    inOrder.verify(corpusIndexPublisher).fire(corpusIndexCaptor.capture());
+    inOrder.verify(positionTaskPublisher, times(4)).fire(any());
+    CorpusIndex corpusIndex = corpusIndexCaptor.getValue();
+    assertThat(corpusIndex.getReference(), is("corpus"));
+    assertThat(corpusIndex.getGameCount(), is(3));
+    assertThat(corpusIndex.getPositionCount(), is(8));
+    assertThat(corpusIndex.getPositions().getFirst(),
+        is(FREQUENT.toBuilder().taskId(new TaskId("corpus-ffffffffffffffff")).build()));
+  }
+
+  @Test
+  void skipsRarePositions() {
+    cut.scheduleUniquePositions(CorpusRequest.builder()
+        .reference("corpus")
+        .pgn("pgn")
+        .maxPly(5)
+        .minOccurrences(3)
+        .maxDepth(20)
+        .build());
+
+    verify(positionTaskPublisher).fire(positionTaskCaptor.capture());
+    assertThat(positionTaskCaptor.getValue().getFen(), is("frequent"));
+    assertThat(positionTaskCaptor.getValue().getMaxDepth(), is(20));
+  }
+}
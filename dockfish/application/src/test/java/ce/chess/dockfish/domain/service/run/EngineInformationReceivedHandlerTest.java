@@ -3,12 +3,15 @@ package ce.chess.dockfish.domain.service.run;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import ce.chess.dockfish.adapter.common.chess.GamePositionService;
 import ce.chess.dockfish.domain.event.DepthReached;
 import ce.chess.dockfish.domain.event.EngineInformationReceived;
 import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
 import ce.chess.dockfish.domain.model.task.TaskId;
 import ce.chess.dockfish.usecase.out.db.EngineInformationReceivedRepository;
 import ce.chess.dockfish.usecase.out.db.EvaluationRepository;
@@ -18,6 +21,8 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InOrder;
@@ -30,14 +35,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class EngineInformationReceivedHandlerTest {
 
   private static final EngineInformationReceived infoEvent = EngineInformationReceived.builder()
-      .calculatedPlies(5)
       .depth(20)
-      .lineSan("2... Nf6 3. Nc3 e6 4. Qc2 g6")
       .multiPv(1)
       .nodes(2000)
       .nodesPerSecond(1000)
       .occurredOn(LocalDateTime.now(ZoneId.systemDefault()))
-      .pgn("1.d4 d5 2.c4 Nf6 3. Nc3 e6 4. Qc2 g6*")
+      .startingPosition(GamePosition.builder().pgn("1.d4 d5 2.c4 *").build())
+      .pv(PackedMoves.of(PackedMoves.encode(62, 45, 0), PackedMoves.encode(1, 18, 0)))
       .score(30)
       .taskId(new TaskId("task1"))
       .tbHits(0L)
@@ -59,6 +63,9 @@ class EngineInformationReceivedHandlerTest {
   @Mock
   GamePositionService gamePositionService;
 
+  @Mock
+  MemoryPressureHandler memoryPressure;
+
   @InjectMocks
   EngineInformationReceivedHandler cut;
 
@@ -78,7 +85,7 @@ class EngineInformationReceivedHandlerTest {
 
   @Test
   void doesNotCreateEvaluationWhenNoGame() {
-    EngineInformationReceived eventSansGame = infoEvent.toBuilder().pgn("").build();
+    EngineInformationReceived eventSansGame = infoEvent.toBuilder().pv(PackedMoves.empty()).build();
     given(shortLineReplacer.fillUpGameIfTooShort(eventSansGame)).willReturn(eventSansGame);
 
     fire(eventSansGame);
@@ -94,7 +101,7 @@ class EngineInformationReceivedHandlerTest {
         .willReturn(Arrays.asList(infoEvent, infoEvent));
 
     EngineInformationReceivedHandler cut = new EngineInformationReceivedHandler(
-        eventRepository, evaluationRepository, newDepthEvent, shortLineReplacer, gamePositionService);
+        eventRepository, evaluationRepository, newDepthEvent, shortLineReplacer, gamePositionService, memoryPressure);
     cut.receive(infoEvent);
 
     verify(eventRepository).findByTaskIdGroupedByMultiPvMaxDepthAndMaxOccurredOn(infoEvent.getTaskId());
@@ -109,13 +116,54 @@ class EngineInformationReceivedHandlerTest {
         .willReturn(Arrays.asList(infoEvent, infoEvent2));
 
     EngineInformationReceivedHandler cut = new EngineInformationReceivedHandler(
-        eventRepository, evaluationRepository, newDepthEvent, shortLineReplacer, gamePositionService);
+        eventRepository, evaluationRepository, newDepthEvent, shortLineReplacer, gamePositionService, memoryPressure);
     cut.receive(infoEvent);
 
     verify(eventRepository).findByTaskIdGroupedByMultiPvMaxDepthAndMaxOccurredOn(infoEvent.getTaskId());
     verify(newDepthEvent, never()).fire(new DepthReached(infoEvent.getTaskId(), infoEvent.getDepth()));
   }
 
+  @Nested
+  class GivenHighHeapPressure {
+    @BeforeEach
+    void setUp() {
+      given(memoryPressure.isThrottlingEvents()).willReturn(true);
+      given(shortLineReplacer.fillUpGameIfTooShort(any())).willAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void dropsIntermediateEventsOfSameDepth() {
+      fire(infoEvent);
+      fire(infoEvent.toBuilder().occurredOn(infoEvent.getOccurredOn().plusNanos(500_000_000)).build());
+
+      verify(eventRepository, times(1)).save(any());
+    }
+
+    @Test
+    void keepsEventsOfNewDepth() {
+      fire(infoEvent);
+      fire(infoEvent.toBuilder().depth(21).build());
+
+      verify(eventRepository, times(2)).save(any());
+    }
+
+    @Test
+    void keepsEventsOfOtherPv() {
+      fire(infoEvent);
+      fire(infoEvent.toBuilder().multiPv(2).build());
+
+      verify(eventRepository, times(2)).save(any());
+    }
+
+    @Test
+    void keepsEventsAfterInterval() {
+      fire(infoEvent);
+      fire(infoEvent.toBuilder().occurredOn(infoEvent.getOccurredOn().plusSeconds(1)).build());
+
+      verify(eventRepository, times(2)).save(any());
+    }
+  }
+
   private void fire(EngineInformationReceived event) {
     cut.receive(event);
   }
@@ -0,0 +1,233 @@
+package ce.chess.dockfish.domain.service.run;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import ce.chess.dockfish.domain.event.SubmitEvaluationMessage;
+import ce.chess.dockfish.domain.model.fanout.FanOutRequest;
+import ce.chess.dockfish.domain.model.fanout.PartialEvaluation;
+import ce.chess.dockfish.domain.model.fanout.RootMove;
+import ce.chess.dockfish.domain.model.fanout.SubTask;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.out.chess.CreateGamePosition;
+import ce.chess.dockfish.usecase.out.chess.ListRootMoves;
+
+import jakarta.enterprise.event.Event;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FanOutServiceTest {
+  private static final RootMove E5 = RootMove.builder().line("1. ... e5").pgn("1. e4 e5").build();
+  private static final RootMove C5 = RootMove.builder().line("1. ... c5").pgn("1. e4 c5").build();
+  private static final RootMove D5 = RootMove.builder().line("1. ... d5").pgn("1. e4 d5").build();
+  private static final RootMove MATE = RootMove.builder().line("1. ... Qh4#").pgn("mate").gameOverScore(-9999).build();
+
+  private final FanOutRequest request = FanOutRequest.builder()
+      .reference("wide")
+      .pgn("1. e4")
+      .initialPv(2)
+      .maxDuration(Duration.ofMinutes(5))
+      .build();
+
+  @Mock
+  ListRootMoves listRootMoves;
+
+  @Mock
+  CreateGamePosition createGamePosition;
+
+  @Mock
+  Event<SubTask> subTaskPublisher;
+
+  @Mock
+  Event<SubmitEvaluationMessage> submitEvaluationMessageEvent;
+
+  @Mock
+  Config config;
+
+  @Mock
+  ScheduledExecutorService deadlineScheduler;
+
+  @Captor
+  ArgumentCaptor<SubTask> subTaskCaptor;
+
+  @Captor
+  ArgumentCaptor<SubmitEvaluationMessage> evaluationMessageCaptor;
+
+  @Captor
+  ArgumentCaptor<Runnable> deadlineCaptor;
+
+  @InjectMocks
+  FanOutService cut;
+
+  private void givenPosition(String pgn, boolean whitesMove, RootMove... rootMoves) {
+    given(createGamePosition.createFrom(pgn)).willReturn(GamePosition.builder()
+        .pgn(pgn)
+        .fen("fen")
+        .lastMovePly(whitesMove ? 0 : 1)
+        .whitesMove(whitesMove)
+        .build());
+    given(listRootMoves.listRootMoves(pgn)).willReturn(List.of(rootMoves));
+  }
+
+  private List<SubTask> fanOut(FanOutRequest fanOutRequest) {
+    TaskId correlationKey = cut.fanOut(fanOutRequest);
+    verify(subTaskPublisher, atLeastOnce()).fire(subTaskCaptor.capture());
+    subTaskCaptor.getAllValues().forEach(subTask -> assertThat(subTask.getCorrelationKey(), is(correlationKey)));
+    return subTaskCaptor.getAllValues();
+  }
+
+  private static PartialEvaluation partial(SubTask subTask, String moves, int centiPawns) {
+    return PartialEvaluation.builder()
+        .taskId(subTask.getTaskId())
+        .uciEngineName("Stockfish")
+        .line(PartialEvaluation.Line.builder()
+            .moves(moves)
+            .pgn(subTask.getPgn())
+            .centiPawns(centiPawns)
+            .depth(30)
+            .time(Duration.ofMinutes(5))
+            .build())
+        .build();
+  }
+
+  private EvaluationMessage publishedEvaluation() {
+    verify(submitEvaluationMessageEvent).fire(evaluationMessageCaptor.capture());
+    return evaluationMessageCaptor.getValue().getEvaluationMessage();
+  }
+
+  @Test
+  void submitsSubTaskForEachRootMoveThatNeedsAnEngine() {
+    givenPosition("1. e4", false, E5, MATE, C5, D5);
+
+    List<SubTask> subTasks = fanOut(request);
+
+    TaskId correlationKey = subTasks.get(0).getCorrelationKey();
+    assertThat(subTasks.stream().map(subTask -> subTask.getTaskId().getRawId()).toList(), contains(
+        correlationKey.getRawId() + "-001", correlationKey.getRawId() + "-002", correlationKey.getRawId() + "-003"));
+    assertThat(subTasks.stream().map(SubTask::getPgn).toList(), contains("1. e4 e5", "1. e4 c5", "1. e4 d5"));
+    assertThat(subTasks.get(0).getReference(), is("wide"));
+    assertThat(subTasks.get(0).getEngineId(), is("stockfish"));
+    assertThat(subTasks.get(0).getMaxDuration(), is(Duration.ofMinutes(5)));
+    verify(submitEvaluationMessageEvent, never()).fire(any());
+  }
+
+  @Test
+  void mergesBestRootMovesForSideToMoveWhenAllSubTasksAreEvaluated() {
+    givenPosition("1. e4", false, E5, C5, D5);
+    List<SubTask> subTasks = fanOut(request);
+
+    cut.receivePartialEvaluation(partial(subTasks.get(0), "2. Nf3 Nc6", 30));
+    cut.receivePartialEvaluation(partial(subTasks.get(1), "2. Nf3 d6", 20));
+    verify(submitEvaluationMessageEvent, never()).fire(any());
+    cut.receivePartialEvaluation(partial(subTasks.get(2), "2. exd5 Qxd5", 60));
+
+    EvaluationMessage evaluationMessage = publishedEvaluation();
+    assertThat(evaluationMessage.getEvaluation().getTaskId(), is(subTasks.get(0).getCorrelationKey()));
+    assertThat(evaluationMessage.getReference(), is("wide"));
+    assertThat(evaluationMessage.getUciEngineName(), is("Stockfish"));
+    assertThat(evaluationMessage.getStatus(), is(JobStatus.NOT_ACTIVE));
+    List<Variation> variations = evaluationMessage.getEvaluation().getVariations();
+    assertThat(variations.stream().map(Variation::getMoves).toList(),
+        contains("1. ... c5 2. Nf3 d6", "1. ... e5 2. Nf3 Nc6"));
+    assertThat(variations.stream().map(Variation::getPvId).toList(), contains(1, 2));
+    assertThat(variations.get(0).getScore().getCentiPawns(), is(20));
+    assertThat(variations.get(0).getDepth(), is(31));
+    assertThat(variations.get(0).getPgn(), is("1. e4 c5"));
+  }
+
+  @Test
+  void prefixesLinesAfterMoveOfWhiteWithoutNumberOfBlack() {
+    FanOutRequest whiteToMove = FanOutRequest.builder()
+        .pgn("*")
+        .maxDepth(30)
+        .build();
+    givenPosition("*", true,
+        RootMove.builder().line("1. e4").pgn("1. e4").build(),
+        RootMove.builder().line("1. d4").pgn("1. d4").build());
+    List<SubTask> subTasks = fanOut(whiteToMove);
+
+    cut.receivePartialEvaluation(partial(subTasks.get(0), "1. ... e5 2. Nf3", 30));
+    cut.receivePartialEvaluation(partial(subTasks.get(1), "1. ... d5 2. c4", 25));
+
+    assertThat(publishedEvaluation().getEvaluation().getVariations().stream().map(Variation::getMoves).toList(),
+        contains("1. e4 e5 2. Nf3", "1. d4 d5 2. c4"));
+  }
+
+  @Test
+  void keepsMovesThatEndTheGameWithoutEngine() {
+    givenPosition("1. e4", false, E5, MATE, C5, D5);
+    List<SubTask> subTasks = fanOut(request);
+
+    subTasks.forEach(subTask -> cut.receivePartialEvaluation(partial(subTask, "2. Nf3", 0)));
+
+    Variation best = publishedEvaluation().getEvaluation().getVariations().get(0);
+    assertThat(best.getMoves(), is("1. ... Qh4#"));
+    assertThat(best.getScore().getCentiPawns(), is(-9999));
+  }
+
+  @Test
+  void publishesRootMovesEvaluatedSoFarWhenTimedOut() {
+    given(config.getOptionalValue(FanOutService.TIMEOUT_PROPERTY, Duration.class))
+        .willReturn(Optional.of(Duration.ofHours(1)));
+    givenPosition("1. e4", false, E5, C5, D5);
+    List<SubTask> subTasks = fanOut(request);
+    verify(deadlineScheduler).schedule(deadlineCaptor.capture(), eq(3_600_000L), eq(TimeUnit.MILLISECONDS));
+
+    cut.receivePartialEvaluation(partial(subTasks.get(0), "2. Nf3 Nc6", 30));
+    deadlineCaptor.getValue().run();
+    cut.receivePartialEvaluation(partial(subTasks.get(1), "2. Nf3 d6", 20));
+    cut.receivePartialEvaluation(partial(subTasks.get(2), "2. exd5 Qxd5", 60));
+
+    assertThat(publishedEvaluation().getEvaluation().getVariations().stream().map(Variation::getMoves).toList(),
+        contains("1. ... e5 2. Nf3 Nc6"));
+  }
+
+  @Test
+  void doesNotPublishAgainWhenCompleteBeforeTimeout() {
+    givenPosition("1. e4", false, E5, C5);
+    List<SubTask> subTasks = fanOut(request);
+    verify(deadlineScheduler).schedule(deadlineCaptor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+    subTasks.forEach(subTask -> cut.receivePartialEvaluation(partial(subTask, "2. Nf3", 0)));
+    deadlineCaptor.getValue().run();
+
+    assertThat(publishedEvaluation().getEvaluation().getVariations().size(), is(2));
+  }
+
+  @Test
+  void ignoresEvaluationsOfOtherTasksAndRepeatedOnes() {
+    givenPosition("1. e4", false, E5, C5, D5);
+    List<SubTask> subTasks = fanOut(request);
+
+    cut.receivePartialEvaluation(partial(subTasks.get(0), "2. Nf3", 0));
+    cut.receivePartialEvaluation(partial(subTasks.get(0), "2. Nf3", 0));
+    cut.receivePartialEvaluation(PartialEvaluation.builder().taskId(new TaskId("other")).build());
+    cut.receivePartialEvaluation(partial(subTasks.get(1), "2. Nf3", 0));
+
+    verify(submitEvaluationMessageEvent, never()).fire(any());
+  }
+}
@@ -0,0 +1,164 @@
+package ce.chess.dockfish.domain.service.run;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysis;
+import ce.chess.dockfish.domain.model.gameanalysis.GameAnalysisRequest;
+import ce.chess.dockfish.domain.model.gameanalysis.GameLine;
+import ce.chess.dockfish.domain.model.gameanalysis.PlyEvaluation;
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+import ce.chess.dockfish.domain.model.task.EngineOption;
+import ce.chess.dockfish.usecase.out.chess.ReadGameLine;
+import ce.chess.dockfish.usecase.out.engine.EvaluateGame;
+import ce.chess.dockfish.usecase.out.engine.LockEngine;
+
+import jakarta.enterprise.event.Event;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class GameAnalysisServiceTest {
+  private static final String FOOLS_MATE = "1. f3 e5 2. g4 Qh4#";
+
+  private static final GameLine GAME_LINE = GameLine.builder()
+      .startingFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1")
+      .startingPly(0)
+      .uciMoves(List.of("f2f3", "e7e5", "g2g4", "d8h4"))
+      .sanMoves(List.of("f3", "e5", "g4", "Qh4#"))
+      .checkmate(true)
+      .build();
+
+  private final GameAnalysisRequest request = GameAnalysisRequest.builder()
+      .reference("reference")
+      .pgn(FOOLS_MATE)
+      .depthPerPly(20)
+      .build();
+
+  @Mock
+  LockEngine lockEngine;
+
+  @Mock
+  ReadGameLine readGameLine;
+
+  @Mock
+  EvaluateGame evaluateGame;
+
+  @Mock
+  UciOptionsConfiguration uciOptionsConfiguration;
+
+  @Mock
+  Event<PlyEvaluation> plyEvaluationPublisher;
+
+  @Mock
+  Event<GameAnalysis> gameAnalysisPublisher;
+
+  @Captor
+  ArgumentCaptor<Consumer<PositionScore>> consumerCaptor;
+
+  @Captor
+  ArgumentCaptor<GameAnalysis> gameAnalysisCaptor;
+
+  @InjectMocks
+  GameAnalysisService cut;
+
+  @BeforeEach
+  void setUp() {
+    given(readGameLine.readGameLine(FOOLS_MATE)).willReturn(GAME_LINE);
+  }
+
+  private void givenEngineScoresFoolsMate() {
+    given(evaluateGame.evaluateBackwards(eq(request), anyList(), eq(GAME_LINE), consumerCaptor.capture()))
+        .willAnswer(invocation -> {
+          Consumer<PositionScore> consumer = consumerCaptor.getValue();
+          consumer.accept(new PositionScore(4, 0, 0, null));
+          consumer.accept(new PositionScore(3, -9999, 20, "d8h4"));
+          consumer.accept(new PositionScore(2, -40, 20, "b1c3"));
+          consumer.accept(new PositionScore(1, -50, 20, "e7e5"));
+          consumer.accept(new PositionScore(0, 20, 20, "e2e4"));
+          return "engineName";
+        });
+  }
+
+  @Test
+  void publishesPliesLastMoveFirstWhileEngineRuns() {
+    givenEngineScoresFoolsMate();
+
+    cut.analyseAndPublish(request);
+
+    InOrder inOrder = Mockito.inOrder(lockEngine, plyEvaluationPublisher, gameAnalysisPublisher);
+    inOrder.verify(lockEngine).acquireLock();
+    inOrder.verify(plyEvaluationPublisher).fire(plyWith(4, "Qh4#", 0, false));
+    inOrder.verify(plyEvaluationPublisher).fire(plyWith(3, "g4", 960, true));
+    inOrder.verify(plyEvaluationPublisher).fire(plyWith(2, "e5", 10, false));
+    inOrder.verify(plyEvaluationPublisher).fire(plyWith(1, "f3", 70, false));
+    inOrder.verify(gameAnalysisPublisher).fire(any());
+    inOrder.verify(lockEngine).releaseLock();
+  }
+
+  @Test
+  void publishesSummaryInGameOrderWithBlunders() {
+    givenEngineScoresFoolsMate();
+
+    cut.analyseAndPublish(request);
+
+    verify(gameAnalysisPublisher).fire(gameAnalysisCaptor.capture());
+    GameAnalysis gameAnalysis = gameAnalysisCaptor.getValue();
+    assertThat(gameAnalysis.getEngineName(), is("engineName"));
+    assertThat(gameAnalysis.getPlies().stream().map(PlyEvaluation::getMove).toList(),
+        contains("f3", "e5", "g4", "Qh4#"));
+    assertThat(gameAnalysis.getBlunders(), contains(3));
+    assertThat(gameAnalysis.getPlies().get(2).getBestMove(), is("b1c3"));
+    assertThat(gameAnalysis.getPlies().get(3).getScoreAfter().getCentiPawns(), is(-9999));
+  }
+
+  @Test
+  void doesNotUseTablebases() {
+    givenEngineScoresFoolsMate();
+    given(uciOptionsConfiguration.getLocalEngineOptions()).willReturn(List.of(
+        EngineOption.builder().name("SyzygyPath").value("/syzygy").build(),
+        EngineOption.builder().name("Hash").value("1024").build()));
+
+    cut.analyseAndPublish(request);
+
+    verify(evaluateGame).evaluateBackwards(request,
+        List.of(EngineOption.builder().name("Hash").value("1024").build()), GAME_LINE, consumerCaptor.getValue());
+  }
+
+  @Test
+  void releasesLockWhenEngineFails() {
+    doThrow(new IllegalStateException("for test"))
+        .when(evaluateGame).evaluateBackwards(any(), anyList(), any(), any());
+
+    assertThrows(IllegalStateException.class, () -> cut.analyseAndPublish(request));
+
+    verify(lockEngine).releaseLock();
+    verify(gameAnalysisPublisher, never()).fire(any());
+  }
+
+  private static PlyEvaluation plyWith(int ply, String move, int centiPawnLoss, boolean blunder) {
+    return Mockito.argThat(plyEvaluation -> plyEvaluation.getPly() == ply
+        && plyEvaluation.getMove().equals(move)
+        && plyEvaluation.getCentiPawnLoss() == centiPawnLoss
+        && plyEvaluation.isBlunder() == blunder);
+  }
+}
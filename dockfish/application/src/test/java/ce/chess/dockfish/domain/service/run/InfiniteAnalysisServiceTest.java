@@ -1,32 +1,54 @@
 package ce.chess.dockfish.domain.service.run;
 
+import static org.awaitility.Awaitility.await;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import ce.chess.dockfish.adapter.common.chess.GamePositionService;
+import ce.chess.dockfish.domain.event.SubmitEvaluationMessage;
 import ce.chess.dockfish.domain.model.RequeueException;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
 import ce.chess.dockfish.domain.model.task.AnalysisRun;
 import ce.chess.dockfish.domain.model.task.EngineOption;
+import ce.chess.dockfish.domain.model.task.Preemption;
 import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.out.db.FinalEvaluationRepository;
 import ce.chess.dockfish.usecase.out.db.TaskRepository;
 import ce.chess.dockfish.usecase.out.engine.LockEngine;
 import ce.chess.dockfish.usecase.out.engine.QueryEngine;
 import ce.chess.dockfish.usecase.out.engine.RunEngine;
 
+import jakarta.enterprise.event.Event;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.eclipse.microprofile.config.Config;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -64,12 +86,27 @@ class InfiniteAnalysisServiceTest {
   @Mock
   private UciOptionsConfiguration uciOptionsConfiguration;
 
+  @Mock
+  private MemoryPressureHandler memoryPressure;
+
+  @Mock
+  private FinalEvaluationRepository finalEvaluationRepository;
+
+  @Mock
+  private PositionEvaluationService positionEvaluationService;
+
+  @Mock
+  private Event<SubmitEvaluationMessage> submitEvaluationMessageEvent;
+
   @Mock
   Config config;
 
   @Captor
   private ArgumentCaptor<AnalysisRun> analysisRequest;
 
+  @Captor
+  private ArgumentCaptor<SubmitEvaluationMessage> submitEvaluationMessage;
+
   @InjectMocks
   private InfiniteAnalysisService cut;
 
@@ -213,6 +250,20 @@ class InfiniteAnalysisServiceTest {
       }
     }
 
+    @Nested
+    class AndHeapPressureIsCritical {
+      @Test
+      void thenTaskIsRejected() {
+        given(memoryPressure.isPausingNewTasks()).willReturn(true);
+
+        Optional<TaskId> taskId = cut.startAsync(command);
+
+        assertThat(taskId.isPresent(), is(false));
+        verifyNoInteractions(lockEngine);
+        verifyNoInteractions(runEngine);
+      }
+    }
+
     @Test
     void whenCalledWithGivenTaskIdThenReturnTaskId() {
       given(lockEngine.tryAcquireLock()).willReturn(true);
@@ -247,6 +298,7 @@ class InfiniteAnalysisServiceTest {
         inOrder.verify(runEngine).startAnalysis(analysisRequest.capture());
         inOrder.verify(taskRepository).save(resultFromController);
         inOrder.verify(lockEngine).blockWhileActive();
+        verify(positionEvaluationService).seed(resultFromController);
         assertThat(analysisRequest.getValue().taskId(), is(equalTo(taskId.orElseThrow(AssertionError::new))));
         assertThat(analysisRequest.getValue().taskId(), is(equalTo(taskId.get())));
         assertThat(analysisRequest.getValue().initialPv(), is(equalTo(command.initialPv())));
@@ -267,6 +319,87 @@ class InfiniteAnalysisServiceTest {
       }
     }
 
+    @Nested
+    class AndHeapPressureIsCritical {
+      @Test
+      void thenWaitUntilPressureIsRelieved() {
+        given(memoryPressure.isPausingNewTasks()).willReturn(true, true, false);
+
+        Optional<TaskId> taskId = cut.startSync(command);
+
+        assertThat(taskId.isPresent(), is(true));
+        InOrder inOrder = Mockito.inOrder(memoryPressure, lockEngine, runEngine);
+        inOrder.verify(memoryPressure, Mockito.times(3)).isPausingNewTasks();
+        inOrder.verify(lockEngine).acquireLock();
+        inOrder.verify(runEngine).startAnalysis(any());
+        assertThat(cut.getEngineWaitOfCurrentThread(), is(greaterThanOrEqualTo(Duration.ofSeconds(1))));
+      }
+    }
+
+    @Nested
+    class AndTaskHasFinalEvaluation {
+      private final TaskId previousTaskId = new TaskId("previous");
+      private final EvaluationMessage finalEvaluation = EvaluationMessage.builder()
+          .evaluation(Evaluation.builder().taskId(previousTaskId).build())
+          .build();
+
+      @Test
+      void thenRepublishWithoutStartingEngine() {
+        given(finalEvaluationRepository.findByFingerprint(command.fingerprint()))
+            .willReturn(Optional.of(finalEvaluation));
+
+        Optional<TaskId> taskId = cut.startSync(command);
+
+        assertThat(taskId.isPresent(), is(true));
+        assertThat(taskId.get(), is(not(previousTaskId)));
+        verify(submitEvaluationMessageEvent).fire(submitEvaluationMessage.capture());
+        assertThat(submitEvaluationMessage.getValue().getEvaluationMessage().getEvaluation().getTaskId(),
+            is(taskId.get()));
+        verifyNoInteractions(lockEngine);
+        verifyNoInteractions(runEngine);
+      }
+
+      @Test
+      void thenRepublishAsRequestingTask() {
+        TaskId requestedTaskId = new TaskId("requested");
+        AnalysisRun request = command.toBuilder().taskId(requestedTaskId).reference("requester").build();
+        given(finalEvaluationRepository.findByFingerprint(command.fingerprint()))
+            .willReturn(Optional.of(finalEvaluation));
+
+        Optional<TaskId> taskId = cut.startSync(request);
+
+        assertThat(taskId, is(Optional.of(requestedTaskId)));
+        verify(submitEvaluationMessageEvent).fire(submitEvaluationMessage.capture());
+        EvaluationMessage republished = submitEvaluationMessage.getValue().getEvaluationMessage();
+        assertThat(republished.getEvaluation().getTaskId(), is(requestedTaskId));
+        assertThat(republished.getReference(), is("requester"));
+        assertThat(republished.getTaskName(), is(Optional.of("someName")));
+        assertThat(republished.getTaskStarted(), is(notNullValue()));
+      }
+    }
+
+    @Nested
+    class AndPositionHasBeenAnalysedDeepEnough {
+      private final TaskId previousTaskId = new TaskId("previous");
+      private final EvaluationMessage answer = EvaluationMessage.builder()
+          .evaluation(Evaluation.builder().taskId(previousTaskId).build())
+          .build();
+
+      @Test
+      void thenPublishWithoutStartingEngine() {
+        given(positionEvaluationService.findAnswer(any())).willReturn(Optional.of(answer));
+
+        Optional<TaskId> taskId = cut.startSync(command);
+
+        assertThat(taskId.isPresent(), is(true));
+        verify(submitEvaluationMessageEvent).fire(submitEvaluationMessage.capture());
+        assertThat(submitEvaluationMessage.getValue().getEvaluationMessage().getEvaluation().getTaskId(),
+            is(taskId.get()));
+        verifyNoInteractions(lockEngine);
+        verifyNoInteractions(runEngine);
+      }
+    }
+
     @Nested
     class AndTaskIsKnown {
 
@@ -288,6 +421,113 @@ class InfiniteAnalysisServiceTest {
     }
   }
 
+  @Nested
+  class WhenTaskOfHigherPriorityArrives {
+    private final AnalysisRun lowPriority = command.toBuilder()
+        .taskId(new TaskId("low"))
+        .maxDepth(null)
+        .maxDuration(Duration.ofHours(1))
+        .build();
+    private final AnalysisRun highPriority = command.toBuilder()
+        .taskId(new TaskId("high"))
+        .priority(2)
+        .build();
+
+    @Test
+    void thenNothingIsPreemptedWhileNoTaskIsRunning() {
+      assertThat(cut.preemptFor(2), is(Optional.empty()));
+
+      verifyNoInteractions(runEngine);
+    }
+
+    @Test
+    void thenRunningTaskIsResumedWithRemainingBudgetAfterPreemptingTask() throws Exception {
+      CountDownLatch engineStopped = new CountDownLatch(1);
+      AtomicInteger blockCalls = new AtomicInteger();
+      doAnswer(invocation -> {
+        if (blockCalls.incrementAndGet() == 1) {
+          assertThat(engineStopped.await(5, TimeUnit.SECONDS), is(true));
+        }
+        return null;
+      }).when(lockEngine).blockWhileActive();
+      given(runEngine.preempt()).willReturn(true);
+
+      AtomicReference<Duration> preemptedWait = new AtomicReference<>();
+      CompletableFuture<Optional<TaskId>> preempted = CompletableFuture.supplyAsync(() -> {
+        Optional<TaskId> taskId = cut.startSync(lowPriority);
+        preemptedWait.set(cut.getEngineWaitOfCurrentThread());
+        return taskId;
+      });
+      await().atMost(5, TimeUnit.SECONDS).until(() -> blockCalls.get() == 1);
+      assertThat(cut.preemptFor(0), is(Optional.empty()));
+      Preemption preemption = cut.preemptFor(1).orElseThrow();
+      assertThat(preemption.getPreemptedTaskId(), is(new TaskId("low")));
+      engineStopped.countDown();
+      verify(lockEngine, after(200).times(1)).acquireLock();
+
+      cut.startSync(highPriority, preemption);
+
+      assertThat(preempted.get(5, TimeUnit.SECONDS), is(Optional.of(new TaskId("low"))));
+      verify(runEngine, times(3)).startAnalysis(analysisRequest.capture());
+      assertThat(analysisRequest.getAllValues().stream().map(run -> run.taskId().getRawId()).toList(),
+          containsInAnyOrder("low", "high", "low"));
+      Duration remaining = analysisRequest.getAllValues().stream()
+          .filter(run -> run.taskId().getRawId().equals("low"))
+          .map(run -> run.maxDuration().orElseThrow())
+          .min(Comparator.naturalOrder())
+          .orElseThrow();
+      assertThat(remaining, is(lessThan(Duration.ofHours(1))));
+      assertThat(remaining, is(greaterThan(Duration.ofMinutes(59))));
+      assertThat(analysisRequest.getAllValues().stream()
+          .filter(run -> run.taskId().getRawId().equals("low"))
+          .map(AnalysisRun::fingerprint)
+          .distinct()
+          .toList(), contains(lowPriority.fingerprint()));
+      verify(lockEngine, times(3)).acquireLock();
+      // the preempted task waited at least for most of the 200ms before the preempting task started
+      assertThat(preemptedWait.get(), is(greaterThanOrEqualTo(Duration.ofMillis(150))));
+      assertThat(cut.getEngineWaitOfCurrentThread(), is(lessThan(Duration.ofMillis(150))));
+    }
+
+    @Test
+    void thenOnlyPreemptingTaskHandsOverTheEngine() throws Exception {
+      CountDownLatch engineStopped = new CountDownLatch(1);
+      AtomicInteger blockCalls = new AtomicInteger();
+      doAnswer(invocation -> {
+        if (blockCalls.incrementAndGet() == 1) {
+          assertThat(engineStopped.await(5, TimeUnit.SECONDS), is(true));
+        }
+        return null;
+      }).when(lockEngine).blockWhileActive();
+      given(runEngine.preempt()).willReturn(true);
+      CompletableFuture<Optional<TaskId>> preempted = CompletableFuture.supplyAsync(() -> cut.startSync(lowPriority));
+      await().atMost(5, TimeUnit.SECONDS).until(() -> blockCalls.get() == 1);
+      Preemption preemption = cut.preemptFor(1).orElseThrow();
+      engineStopped.countDown();
+
+      cut.startSync(command.toBuilder().taskId(new TaskId("unrelated")).build());
+
+      verify(lockEngine, after(200).times(2)).acquireLock();
+      assertThat(preempted.isDone(), is(false));
+
+      cut.startSync(highPriority, preemption);
+
+      assertThat(preempted.get(5, TimeUnit.SECONDS), is(Optional.of(new TaskId("low"))));
+      verify(lockEngine, times(4)).acquireLock();
+    }
+
+    @Test
+    void thenPreemptionIsHandedOverWhenPreemptingTaskDoesNotRun() {
+      Preemption preemption = new Preemption(new TaskId("low"));
+      given(taskRepository.hasDuplicate(any())).willReturn(true);
+
+      assertThat(cut.startSync(highPriority, preemption), is(Optional.empty()));
+
+      assertThat(preemption.getHandover().getCount(), is(0L));
+      verifyNoInteractions(lockEngine);
+    }
+  }
+
   @Test
   void stopAnalysisDelegatesToEngineController() {
     given(queryEngine.uciEngineIsRunning()).willReturn(false);
@@ -0,0 +1,97 @@
+package ce.chess.dockfish.domain.service.run;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import ce.chess.dockfish.domain.event.MemoryPressureChanged;
+import ce.chess.dockfish.domain.model.MemoryPressure;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.out.db.EngineInformationReceivedRepository;
+import ce.chess.dockfish.usecase.out.db.EvaluationRepository;
+import ce.chess.dockfish.usecase.out.engine.QueryEngine;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MemoryPressureHandlerTest {
+  private static final TaskId TASK_ID = new TaskId("current");
+
+  @Mock
+  private QueryEngine queryEngine;
+
+  @Mock
+  private EngineInformationReceivedRepository eventRepository;
+
+  @Mock
+  private EvaluationRepository evaluationRepository;
+
+  @InjectMocks
+  private MemoryPressureHandler cut;
+
+  @Test
+  void givenNormalPressureThenDoNothing() {
+    cut.pressureChanged(new MemoryPressureChanged(MemoryPressure.NORMAL));
+
+    verifyNoInteractions(queryEngine, eventRepository, evaluationRepository);
+    assertThat(cut.isThrottlingEvents(), is(false));
+    assertThat(cut.isPausingNewTasks(), is(false));
+  }
+
+  @Nested
+  class GivenElevatedPressure {
+    @Test
+    void thenTrimOtherTasks() {
+      given(queryEngine.getRunningTaskId()).willReturn(Optional.of(TASK_ID));
+
+      cut.pressureChanged(new MemoryPressureChanged(MemoryPressure.ELEVATED));
+
+      verify(eventRepository).deleteByTaskIdNot(TASK_ID);
+      verify(evaluationRepository).deleteHistoryByTaskIdNot(TASK_ID);
+      assertThat(cut.isThrottlingEvents(), is(false));
+      assertThat(cut.isPausingNewTasks(), is(false));
+    }
+
+    @Test
+    void withoutRunningTaskThenDoNotTrim() {
+      given(queryEngine.getRunningTaskId()).willReturn(Optional.empty());
+
+      cut.pressureChanged(new MemoryPressureChanged(MemoryPressure.ELEVATED));
+
+      verifyNoInteractions(eventRepository, evaluationRepository);
+    }
+  }
+
+  @Test
+  void givenHighPressureThenThrottleEvents() {
+    cut.pressureChanged(new MemoryPressureChanged(MemoryPressure.HIGH));
+
+    assertThat(cut.isThrottlingEvents(), is(true));
+    assertThat(cut.isPausingNewTasks(), is(false));
+  }
+
+  @Test
+  void givenCriticalPressureThenPauseNewTasks() {
+    cut.pressureChanged(new MemoryPressureChanged(MemoryPressure.CRITICAL));
+
+    assertThat(cut.isThrottlingEvents(), is(true));
+    assertThat(cut.isPausingNewTasks(), is(true));
+  }
+
+  @Test
+  void givenPressureIsRelievedThenResume() {
+    cut.pressureChanged(new MemoryPressureChanged(MemoryPressure.CRITICAL));
+    cut.pressureChanged(new MemoryPressureChanged(MemoryPressure.NORMAL));
+
+    assertThat(cut.isThrottlingEvents(), is(false));
+    assertThat(cut.isPausingNewTasks(), is(false));
+  }
+}
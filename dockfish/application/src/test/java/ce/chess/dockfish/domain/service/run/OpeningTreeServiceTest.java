@@ -0,0 +1,153 @@
+package ce.chess.dockfish.domain.service.run;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import ce.chess.dockfish.domain.model.gameanalysis.PositionScore;
+import ce.chess.dockfish.domain.model.openingtree.NodeEvaluation;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTree;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeAnalysis;
+import ce.chess.dockfish.domain.model.openingtree.OpeningTreeRequest;
+import ce.chess.dockfish.domain.model.openingtree.TreeMove;
+import ce.chess.dockfish.domain.model.openingtree.TreeNode;
+import ce.chess.dockfish.usecase.out.chess.ReadOpeningTree;
+import ce.chess.dockfish.usecase.out.engine.EvaluatePositions;
+import ce.chess.dockfish.usecase.out.engine.LockEngine;
+
+import jakarta.enterprise.event.Event;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class OpeningTreeServiceTest {
+  private static final TreeNode ROOT = node(1, true, new TreeMove("a", 2), new TreeMove("b", 3));
+  private static final TreeNode BLACK_A = node(2, false, new TreeMove("x", 4), new TreeMove("y", 5));
+  private static final TreeNode BLACK_B = node(3, false, new TreeMove("z", 5), new TreeMove("m", 6));
+  private static final TreeNode LEAF_X = node(4, true);
+  private static final TreeNode LEAF_Y = node(5, true);
+  private static final TreeNode MATED = TreeNode.builder().positionHash(6).fen("fen6").whitesMove(true)
+      .checkmate(true).build();
+
+  private final OpeningTreeRequest request = OpeningTreeRequest.builder()
+      .reference("reference")
+      .pgn("pgn")
+      .depthPerLeaf(20)
+      .build();
+
+  @Mock
+  LockEngine lockEngine;
+
+  @Mock
+  ReadOpeningTree readOpeningTree;
+
+  @Mock
+  EvaluatePositions evaluatePositions;
+
+  @Mock
+  UciOptionsConfiguration uciOptionsConfiguration;
+
+  @Mock
+  Event<OpeningTreeAnalysis> openingTreeAnalysisPublisher;
+
+  @Captor
+  ArgumentCaptor<OpeningTreeAnalysis> analysisCaptor;
+
+  @InjectMocks
+  OpeningTreeService cut;
+
+  private static TreeNode node(long positionHash, boolean whitesMove, TreeMove... moves) {
+    return TreeNode.builder()
+        .positionHash(positionHash)
+        .fen("fen" + positionHash)
+        .whitesMove(whitesMove)
+        .moves(List.of(moves))
+        .build();
+  }
+
+  private void givenTree(TreeNode... nodes) {
+    given(readOpeningTree.readOpeningTree("pgn")).willReturn(new OpeningTree(List.of(nodes)));
+  }
+
+  private void givenEngineScores(List<String> fens, int... centiPawns) {
+    given(evaluatePositions.evaluatePositions(eq(request), anyList(), eq(fens), any())).willAnswer(invocation -> {
+      BiConsumer<String, PositionScore> consumer = invocation.getArgument(3);
+      for (int i = 0; i < fens.size(); i++) {
+        consumer.accept(fens.get(i), new PositionScore(0, centiPawns[i], 20, "e2e4"));
+      }
+      return "engineName";
+    });
+  }
+
+  private OpeningTreeAnalysis publishedAnalysis() {
+    verify(openingTreeAnalysisPublisher).fire(analysisCaptor.capture());
+    return analysisCaptor.getValue();
+  }
+
+  @Test
+  void searchesEachLeafOnceAndBacksUpScoresByMinimax() {
+    givenTree(ROOT, BLACK_A, BLACK_B, LEAF_X, LEAF_Y, MATED);
+    givenEngineScores(List.of("fen4", "fen5"), 50, 20);
+
+    cut.analyseAndPublish(request);
+
+    OpeningTreeAnalysis analysis = publishedAnalysis();
+    assertThat(analysis.getEngineName(), is("engineName"));
+    assertThat(analysis.getEvaluatedLeaves(), is(2));
+    assertThat(analysis.getNodes().stream().map(NodeEvaluation::getPositionHash).toList(),
+        contains(1L, 2L, 3L, 4L, 5L, 6L));
+    assertThat(analysis.getNodes().stream().map(node -> node.getScore().getCentiPawns()).toList(),
+        contains(20, 20, -9999, 50, 20, -9999));
+    assertThat(analysis.getNodes().stream().map(NodeEvaluation::getBestMove).toList(),
+        contains("a", "y", "m", null, null, null));
+    assertThat(analysis.getRoot().getDepth(), is(20));
+    assertThat(analysis.getNodes().get(3).getEngineMove(), is("e2e4"));
+  }
+
+  @Test
+  void repetitionOfPositionOnPathIsSkipped() {
+    TreeNode root = node(1, true, new TreeMove("Nf3", 2));
+    TreeNode black = node(2, false, new TreeMove("Ng8", 1), new TreeMove("d5", 3));
+    givenTree(root, black, node(3, true));
+    givenEngineScores(List.of("fen3"), -15);
+
+    cut.analyseAndPublish(request);
+
+    NodeEvaluation rootEvaluation = publishedAnalysis().getRoot();
+    assertThat(rootEvaluation.getScore().getCentiPawns(), is(-15));
+    assertThat(rootEvaluation.getBestMove(), is("Nf3"));
+    assertThat(rootEvaluation.getEngineMove(), is(nullValue()));
+  }
+
+  @Test
+  void releasesLockWhenEngineFails() {
+    givenTree(ROOT, BLACK_A, BLACK_B, LEAF_X, LEAF_Y, MATED);
+    doThrow(new IllegalStateException("for test"))
+        .when(evaluatePositions).evaluatePositions(any(), anyList(), anyList(), any());
+
+    assertThrows(IllegalStateException.class, () -> cut.analyseAndPublish(request));
+
+    InOrder inOrder = Mockito.inOrder(lockEngine);
+    inOrder.verify(lockEngine).acquireLock();
+    inOrder.verify(lockEngine).releaseLock();
+    verify(openingTreeAnalysisPublisher, never()).fire(any());
+  }
+}
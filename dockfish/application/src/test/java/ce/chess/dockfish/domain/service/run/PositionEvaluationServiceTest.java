@@ -0,0 +1,207 @@
+package ce.chess.dockfish.domain.service.run;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import ce.chess.dockfish.adapter.common.chess.GamePositionService;
+import ce.chess.dockfish.domain.event.DepthReached;
+import ce.chess.dockfish.domain.model.result.AnalysisTime;
+import ce.chess.dockfish.domain.model.result.Evaluation;
+import ce.chess.dockfish.domain.model.result.EvaluationMessage;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.result.Score;
+import ce.chess.dockfish.domain.model.result.Variation;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.PositionKey;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.usecase.out.chess.HashPosition;
+import ce.chess.dockfish.usecase.out.db.EvaluationRepository;
+import ce.chess.dockfish.usecase.out.db.PositionEvaluationRepository;
+import ce.chess.dockfish.usecase.out.db.TaskRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import org.eclipse.microprofile.config.Config;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PositionEvaluationServiceTest {
+  private static final long POSITION_HASH = 4711L;
+  private static final TaskId PREVIOUS_TASK_ID = new TaskId("previous");
+  private static final LocalDateTime NOW = LocalDateTime.now(ZoneId.systemDefault());
+  private static final GamePosition STARTING_POSITION = new GamePositionService().createFrom("1. e4 e5");
+  // the same position, analysed before as a FEN without the moves that led to it
+  private static final String PREVIOUS_PGN = """
+      [FEN "rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1"]
+
+      1. Nf3 {pv1: 0.20} Nc6 {pv1: 0.20} *""";
+
+  private final AnalysisRun task = AnalysisRun.builder()
+      .taskId(new TaskId("task"))
+      .name("name")
+      .engineProgramName("stockfish")
+      .startingPosition(STARTING_POSITION)
+      .initialPv(2)
+      .maxDepth(20)
+      .created(NOW)
+      .build();
+  private final PositionKey positionKey = PositionKey.of(POSITION_HASH, task);
+
+  @Mock
+  private HashPosition hashPosition;
+
+  @Mock
+  private PositionEvaluationRepository positionEvaluationRepository;
+
+  @Mock
+  private TaskRepository taskRepository;
+
+  @Mock
+  private EvaluationRepository evaluationRepository;
+
+  @Mock
+  private Config config;
+
+  @Captor
+  private ArgumentCaptor<Evaluation> evaluationCaptor;
+
+  private PositionEvaluationService cut;
+
+  @BeforeEach
+  void setUp() {
+    cut = new PositionEvaluationService(hashPosition, new GamePositionService(), positionEvaluationRepository,
+        taskRepository, evaluationRepository, config);
+    lenient().when(hashPosition.positionHash(STARTING_POSITION)).thenReturn(POSITION_HASH);
+  }
+
+  @Test
+  void storesLatestEvaluationWhenDepthIsReached() {
+    Evaluation evaluation = evaluation(22, 22);
+    given(taskRepository.findByTaskId(task.taskId())).willReturn(Optional.of(task));
+    given(evaluationRepository.findByTaskIdMaxCreated(task.taskId())).willReturn(Optional.of(evaluation));
+
+    cut.depthReached(new DepthReached(task.taskId(), 22));
+
+    verify(positionEvaluationRepository).saveIfDeeper(positionKey, evaluation);
+  }
+
+  @Nested
+  class FindAnswer {
+    @Test
+    void answersWhenCachedDepthIsSufficient() {
+      given(positionEvaluationRepository.findByPositionKey(positionKey))
+          .willReturn(Optional.of(evaluation(24, 21, 18)));
+      given(config.getOptionalValue("hostname", String.class)).willReturn(Optional.of("testhost"));
+
+      Optional<EvaluationMessage> answer = cut.findAnswer(task);
+
+      assertThat(answer.map(EvaluationMessage::getStatus), is(Optional.of(JobStatus.NOT_ACTIVE)));
+      assertThat(answer.map(EvaluationMessage::getAnalysedPgn), is(Optional.of(STARTING_POSITION.getPgn())));
+      assertThat(answer.map(EvaluationMessage::getHostname), is(Optional.of("testhost")));
+      assertThat(answer.orElseThrow().getEvaluation().getTaskId(), is(task.taskId()));
+      assertThat(answer.orElseThrow().getEvaluation().getVariations().stream().map(Variation::getPvId).toList(),
+          contains(1, 2));
+      verify(positionEvaluationRepository).recordHit();
+    }
+
+    @Test
+    void answersWithVariationsOfStartingPositionOfTask() {
+      given(positionEvaluationRepository.findByPositionKey(positionKey))
+          .willReturn(Optional.of(evaluation(24, 21)));
+      given(config.getOptionalValue("hostname", String.class)).willReturn(Optional.empty());
+
+      Variation best = cut.findAnswer(task).orElseThrow().getEvaluation().getVariations().get(0);
+
+      assertThat(best.getMoves(), is("2. Nf3 Nc6"));
+      assertThat(best.getPgn(), endsWith("1. e4 e5 2. Nf3 {pv1: 0.20} Nc6 {pv1: 0.20} *"));
+      assertThat(best.getGamePosition().getLastMovePly(), is(4));
+      assertThat(best.getDepth(), is(24));
+    }
+
+    @Test
+    void doesNotAnswerWhenCachedDepthIsTooLow() {
+      given(positionEvaluationRepository.findByPositionKey(positionKey))
+          .willReturn(Optional.of(evaluation(24, 19)));
+
+      assertThat(cut.findAnswer(task), is(Optional.empty()));
+      verify(positionEvaluationRepository, never()).recordHit();
+    }
+
+    @Test
+    void doesNotAnswerWhenTooFewVariationsAreCached() {
+      given(positionEvaluationRepository.findByPositionKey(positionKey))
+          .willReturn(Optional.of(evaluation(30)));
+
+      assertThat(cut.findAnswer(task), is(Optional.empty()));
+    }
+
+    @Test
+    void doesNotAnswerTasksWithoutMaxDepth() {
+      assertThat(cut.findAnswer(task.toBuilder().maxDepth(null).build()), is(Optional.empty()));
+
+      verifyNoInteractions(positionEvaluationRepository);
+    }
+  }
+
+  @Nested
+  class Seed {
+    @Test
+    void savesCachedEvaluationForNewTask() {
+      given(positionEvaluationRepository.findByPositionKey(positionKey))
+          .willReturn(Optional.of(evaluation(18, 18)));
+
+      cut.seed(task);
+
+      verify(positionEvaluationRepository, never()).recordHit();
+      verify(evaluationRepository).save(evaluationCaptor.capture());
+      assertThat(evaluationCaptor.getValue().getTaskId(), is(task.taskId()));
+      assertThat(evaluationCaptor.getValue().getCreated(), is(NOW));
+      assertThat(evaluationCaptor.getValue().maxDepth(), is(18));
+      assertThat(evaluationCaptor.getValue().getVariations().get(0).getPgn(),
+          endsWith("1. e4 e5 2. Nf3 {pv1: 0.20} Nc6 {pv1: 0.20} *"));
+    }
+
+    @Test
+    void savesNothingWithoutCachedEvaluation() {
+      given(positionEvaluationRepository.findByPositionKey(any())).willReturn(Optional.empty());
+
+      cut.seed(task);
+
+      verifyNoInteractions(evaluationRepository);
+    }
+  }
+
+  private static Evaluation evaluation(int... depths) {
+    Evaluation.EvaluationBuilder builder = Evaluation.builder()
+        .taskId(PREVIOUS_TASK_ID)
+        .created(NOW.minusDays(1));
+    for (int i = 0; i < depths.length; i++) {
+      builder.variation(Variation.builder()
+          .pvId(i + 1)
+          .moves("1. Nf3 Nc6")
+          .score(Score.fromCentiPawns(20 - i))
+          .depth(depths[i])
+          .time(AnalysisTime.fromMilliSeconds(60_000L))
+          .gamePosition(GamePosition.builder().pgn(PREVIOUS_PGN).build())
+          .build());
+    }
+    return builder.build();
+  }
+}
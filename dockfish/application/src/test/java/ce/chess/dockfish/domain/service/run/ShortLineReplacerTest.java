@@ -8,6 +8,8 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verifyNoInteractions;
 
 import ce.chess.dockfish.domain.event.EngineInformationReceived;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
 import ce.chess.dockfish.domain.model.task.TaskId;
 import ce.chess.dockfish.usecase.out.db.EngineInformationReceivedRepository;
 
@@ -23,15 +25,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class ShortLineReplacerTest {
 
+  private static final short NF6 = PackedMoves.encode(62, 45, 0);
+  private static final short NC3 = PackedMoves.encode(1, 18, 0);
+  private static final short BB4 = PackedMoves.encode(61, 25, 0);
+  private static final short QC2 = PackedMoves.encode(3, 10, 0);
+  private static final short G6 = PackedMoves.encode(54, 46, 0);
+
   private static final EngineInformationReceived eventStored = EngineInformationReceived.builder()
-      .calculatedPlies(5)
       .depth(19)
-      .lineSan("2... Nf6 3. Nc3 Bb4 4. Qc2 g6")
       .multiPv(1)
       .nodes(1000)
       .nodesPerSecond(1000)
       .occurredOn(LocalDateTime.now(ZoneId.systemDefault()))
-      .pgn("1.d4 d5 2.c4 Nf6 3. Nc3 Bb4 4. Qc2 g6*")
+      .startingPosition(GamePosition.builder().pgn("1.d4 d5 2.c4 *").build())
+      .pv(PackedMoves.of(NF6, NC3, BB4, QC2, G6))
       .score(30)
       .taskId(new TaskId("task1"))
       .tbHits(0L)
@@ -40,8 +47,7 @@ class ShortLineReplacerTest {
 
   private static final EngineInformationReceived eventReceived = eventStored.toBuilder()
       .taskId(new TaskId("task2"))
-      .calculatedPlies(2)
-      .lineSan("2... Nf6 3. Nc3")
+      .pv(PackedMoves.of(NF6, NC3))
       .build();
 
   @Mock
@@ -52,7 +58,7 @@ class ShortLineReplacerTest {
 
   @Test
   void whenStoredEventIsNotFoundThenDontReplace() {
-    given(eventRepository.findByTaskIdAndStartingWithLineSanMaxOccurredOn(any(), any())).willReturn(Optional.empty());
+    given(eventRepository.findByTaskIdAndStartingWithPvMaxOccurredOn(any(), any())).willReturn(Optional.empty());
 
     EngineInformationReceived result = cut.fillUpGameIfTooShort(eventReceived);
 
@@ -61,7 +67,7 @@ class ShortLineReplacerTest {
 
   @Test
   void whenStoredEventIsSameThenDontReplace() {
-    given(eventRepository.findByTaskIdAndStartingWithLineSanMaxOccurredOn(any(), any()))
+    given(eventRepository.findByTaskIdAndStartingWithPvMaxOccurredOn(any(), any()))
         .willReturn(Optional.of(eventReceived));
 
     EngineInformationReceived result = cut.fillUpGameIfTooShort(eventReceived);
@@ -83,17 +89,16 @@ class ShortLineReplacerTest {
 
   @Test
   void replacesGameWithStoredValue() {
-    given(eventRepository.findByTaskIdAndStartingWithLineSanMaxOccurredOn(
-        eventReceived.getTaskId(), eventReceived.getLineSan()))
+    given(eventRepository.findByTaskIdAndStartingWithPvMaxOccurredOn(
+        eventReceived.getTaskId(), eventReceived.getPv()))
         .willReturn(Optional.of(eventStored));
 
     EngineInformationReceived result = cut.fillUpGameIfTooShort(eventReceived);
 
     EngineInformationReceived expected = eventReceived.toBuilder()
-        .lineSan(eventStored.getLineSan())
-        .calculatedPlies(eventStored.getCalculatedPlies())
-        .pgn(eventStored.getPgn())
+        .pv(eventStored.getPv())
         .build();
+    assertThat(result.getCalculatedPlies(), is(5));
     assertThat(result, is(equalTo(expected)));
   }
 
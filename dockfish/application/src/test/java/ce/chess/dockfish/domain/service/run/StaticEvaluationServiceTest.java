@@ -5,7 +5,6 @@ import static org.mockito.BDDMockito.given;
 
 import ce.chess.dockfish.domain.model.staticevaluation.StaticEvaluation;
 import ce.chess.dockfish.domain.model.staticevaluation.StaticEvaluationRequest;
-import ce.chess.dockfish.usecase.out.engine.LockEngine;
 import ce.chess.dockfish.usecase.out.engine.StartStaticEvaluation;
 
 import jakarta.enterprise.event.Event;
@@ -19,9 +18,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 class StaticEvaluationServiceTest {
-  @Mock
-  LockEngine lockEngine;
-
   @Mock
   StartStaticEvaluation startStaticEvaluation;
 
@@ -32,17 +28,15 @@ class StaticEvaluationServiceTest {
   StaticEvaluationService cut;
 
   @Test
-  void delegatesToEngineController() {
+  void delegatesToStaticEvaluationEngines() {
     given(startStaticEvaluation.retrieveStaticEvaluation(anyString())).willReturn("result");
 
     StaticEvaluationRequest evaluationRequest = new StaticEvaluationRequest("anyFen");
     cut.createAndPublishEvaluation(evaluationRequest);
 
-    InOrder inOrder = Mockito.inOrder(lockEngine, startStaticEvaluation, resultPublisher);
-    inOrder.verify(lockEngine).acquireLock();
+    InOrder inOrder = Mockito.inOrder(startStaticEvaluation, resultPublisher);
     inOrder.verify(startStaticEvaluation).retrieveStaticEvaluation("anyFen");
     inOrder.verify(resultPublisher).fire(new StaticEvaluation(evaluationRequest, "result"));
-    inOrder.verify(lockEngine).releaseLock();
   }
 
 }
@@ -0,0 +1,77 @@
+package raptor.chess;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import raptor.chess.util.GameUtils;
+import raptor.chess.util.Perft;
+
+class ClassicGameTest implements GameConstants {
+
+  @ParameterizedTest
+  @EnumSource(Perft.PerftPosition.class)
+  void makesEveryLegalMoveAsUciMove(Perft.PerftPosition position) {
+    Game game = GameFactory.createFromFen(position.fen());
+    IntMoveList legalMoves = new IntMoveList();
+    game.generateLegalMoves(legalMoves);
+
+    for (int move : legalMoves.toArray()) {
+      Move made = game.makeUciMove(IntMove.from(move), IntMove.to(move), IntMove.piecePromotedTo(move));
+
+      assertThat(made.getLan(), is(IntMove.toMove(move).getLan()));
+      assertThat(made.getMoveCharacteristic(), is(IntMove.moveCharacteristic(move)));
+      game.rollback();
+    }
+    assertThat(game.toFen(), is(position.fen()));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1,                e1, g1, 0, O-O",
+      "r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1,                e8, c8, 0, O-O-O",
+      "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1,                   e5, d6, 0, exd6",
+      "r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1,                    b7, a8, 5, bxa8=Q",
+      "4k3/1P6/8/8/8/8/8/4K3 w - - 0 1,                     b7, b8, 3, b8=N",
+      "4k3/8/8/8/8/8/8/1N2KN2 w - - 0 1,                    b1, d2, 0, Nbd2",
+      "4k3/8/8/8/R7/8/8/R3K3 w - - 0 1,                     a1, a3, 0, R1a3",
+      "1k6/8/8/8/7Q/8/8/K6Q w - - 0 1,                       h4, e1, 0, Q4e1",
+      "1k6/8/8/8/4Q2Q/8/8/K6Q w - - 0 1,                     h4, e1, 0, Qh4e1",
+      "4k3/8/8/8/8/2n5/8/1N2KN2 w - - 0 1,                  b1, c3, 0, Nxc3",
+      "4k3/8/8/8/4r3/8/4N3/1N2K3 w - - 0 1,                 b1, c3, 0, Nbc3"
+  })
+  void rendersSan(String fen, String from, String to, int promotePiece, String san) {
+    Game game = GameFactory.createFromFen(fen);
+    game.addState(Game.UPDATING_SAN_STATE);
+    StringBuilder rendered = new StringBuilder();
+
+    game.makeUciMove(GameUtils.getSquare(from), GameUtils.getSquare(to), promotePiece, rendered);
+
+    assertThat(rendered.toString(), is(san));
+    game.rollback();
+    assertThat(game.makeUciMove(GameUtils.getSquare(from), GameUtils.getSquare(to), promotePiece).getSan(), is(san));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "pinned knight,               4k3/8/8/8/4r3/8/4N3/4K3 w - - 0 1,      e2, c3, 0",
+      "check not answered,          4k3/8/8/8/4r3/8/8/3QK3 w - - 0 1,       d1, a4, 0",
+      "king into check,             4k3/8/8/8/4r3/8/8/3K4 w - - 0 1,        d1, e1, 0",
+      "promotion without piece,     4k3/1P6/8/8/8/8/8/4K3 w - - 0 1,        b7, b8, 0",
+      "piece of the opponent,       4k3/8/8/8/4r3/8/8/4K3 w - - 0 1,        e4, e3, 0",
+      "blocked path,                4k3/8/8/8/8/8/7P/4K2R w K - 0 1,        h1, h3, 0",
+      "castling through check,      4k3/8/8/8/8/8/5r2/4K2R w K - 0 1,       e1, g1, 0",
+      "en passant exposing king,    8/8/8/K2pP2r/8/8/8/4k3 w - d6 0 1,      e5, d6, 0",
+      "promotion piece for a push,  4k3/8/8/8/8/8/4P3/4K3 w - - 0 1,        e2, e3, 5"
+  })
+  void rejectsIllegalUciMove(String description, String fen, String from, String to, int promotePiece) {
+    Game game = GameFactory.createFromFen(fen);
+
+    assertThrows(IllegalArgumentException.class, () ->
+        game.makeUciMove(GameUtils.getSquare(from), GameUtils.getSquare(to), promotePiece), description);
+    assertThat(game.toFen(), is(fen));
+  }
+}
@@ -0,0 +1,52 @@
+package raptor.chess;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import raptor.chess.util.Perft;
+
+class IntMoveTest implements GameConstants {
+
+  @Test
+  void encodesAllFields() {
+    int move = IntMove.encode(SQUARE_B7, SQUARE_A8, PAWN, BLACK, ROOK, QUEEN, Move.PROMOTION_CHARACTERISTIC);
+
+    assertThat(IntMove.from(move), is(SQUARE_B7));
+    assertThat(IntMove.to(move), is(SQUARE_A8));
+    assertThat(IntMove.piece(move), is(PAWN));
+    assertThat(IntMove.color(move), is(BLACK));
+    assertThat(IntMove.capture(move), is(ROOK));
+    assertThat(IntMove.piecePromotedTo(move), is(QUEEN));
+    assertThat(IntMove.moveCharacteristic(move), is(Move.PROMOTION_CHARACTERISTIC));
+    assertThat(IntMove.isCapture(move), is(true));
+    assertThat(IntMove.isPromotion(move), is(true));
+  }
+
+  @Test
+  void createsMoveWithEnPassantSquareForDoublePush() {
+    Move move = IntMove.toMove(IntMove.encode(SQUARE_E2, SQUARE_E4, PAWN, WHITE, EMPTY, EMPTY,
+        Move.DOUBLE_PAWN_PUSH_CHARACTERISTIC));
+
+    assertThat(move.getEpSquare(), is(SQUARE_E3));
+    assertThat(move.isCapture(), is(false));
+  }
+
+  @ParameterizedTest
+  @EnumSource(Perft.PerftPosition.class)
+  void generatesTheSameLegalMovesAsMoveObjects(Perft.PerftPosition position) {
+    Game game = GameFactory.createFromFen(position.fen());
+    IntMoveList moves = new IntMoveList();
+
+    game.generateLegalMoves(moves);
+
+    String[] fromInts = Arrays.stream(moves.toArray()).mapToObj(IntMove::toMove).map(Move::getLan).sorted()
+        .toArray(String[]::new);
+    String[] fromMoves = Arrays.stream(game.getLegalMoves().asArray()).map(Move::getLan).sorted()
+        .toArray(String[]::new);
+    assertThat(fromInts, is(fromMoves));
+  }
+}
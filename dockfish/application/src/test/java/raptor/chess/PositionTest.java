@@ -0,0 +1,57 @@
+package raptor.chess;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import raptor.chess.util.Perft;
+
+class PositionTest implements GameConstants {
+
+  @ParameterizedTest
+  @EnumSource(Perft.PerftPosition.class)
+  void createsGameWithTheSamePosition(Perft.PerftPosition perftPosition) {
+    Game game = GameFactory.createFromFen(perftPosition.fen());
+
+    Game copy = GameFactory.createFromPosition(game.toPosition());
+
+    assertThat(copy.toFen(), is(perftPosition.fen()));
+    assertThat(copy.getZobristHash(), is(game.getZobristHash()));
+    assertThat(copy.toPosition(), is(game.toPosition()));
+    assertThat(Perft.perft(copy, 2), is(perftPosition.nodes(2)));
+  }
+
+  @Test
+  void keepsPromotedPiecesAndCounters() {
+    Game game = GameFactory.createFromFen("4k3/1P6/8/8/8/8/8/4K3 w - - 3 40");
+    game.makeUciMove(SQUARE_B7, SQUARE_B8, QUEEN);
+    game.makeUciMove(SQUARE_E8, SQUARE_D7, EMPTY);
+
+    Position position = game.toPosition();
+    Game copy = GameFactory.createFromPosition(position);
+
+    assertThat(position.getPieceWithPromoteMask(SQUARE_B8), is(QUEEN | PROMOTED_MASK));
+    assertThat(copy.getPieceWithPromoteMask(SQUARE_B8), is(QUEEN | PROMOTED_MASK));
+    assertThat(copy.getPieceCount(WHITE, QUEEN), is(1));
+    assertThat(copy.getPieceCount(WHITE, PAWN), is(0));
+    assertThat(position.getFullMoveCount(), is(41));
+    assertThat(copy.toFen(), is(game.toFen()));
+    assertThat(copy.getMoveList().getSize(), is(0));
+  }
+
+  @Test
+  void isIndependentOfTheGame() {
+    Game game = GameFactory.createStartingPosition();
+    Position start = game.toPosition();
+
+    game.makeUciMove(SQUARE_E2, SQUARE_E4, EMPTY);
+
+    assertThat(game.toPosition(), is(not(start)));
+    assertThat(start.getEpSquare(), is(EMPTY_SQUARE));
+    assertThat(start.getZobristHash(), is(GameFactory.createStartingPosition().getZobristHash()));
+    assertThat(GameFactory.createFromPosition(start).toFen(), is(STARTING_POSITION_FEN));
+  }
+}
@@ -2,9 +2,14 @@ package raptor.chess.pgn;
 
 import static java.util.function.Predicate.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -70,6 +75,49 @@ class PgnParserTest {
 
   }
 
+  @Test
+  void skipsNestedSublinesOfMainLine() {
+    Game game = gameFromPgn(HEADER + "1.e4 e5 (1...c5 2.Nf3 (2.c3 d5) d6) (1... e6) 2.Nf3 (2.Bc4)Nc6 *");
+
+    assertThat(stripped(game.toPgn()), is(stripped(HEADER + "1.e4 e5 2.Nf3 Nc6")));
+  }
+
+  @Test
+  void streamsGamesFromReader() {
+    String first = HEADER + "1.e4 c5 2.Nf3 d6 {Najdorf} 3.d4 cxd4 1-0\n";
+    String second = HEADER.replace("Final", "Second") + "1.d4 d5 2.c4 e6 3.Nc3 (3.Nf3) Nf6 0-1\r\n\r\n";
+    List<Game> games = new ArrayList<>();
+    List<PgnParserError> errors = new ArrayList<>();
+    StreamingPgnParserListener listener = new StreamingPgnParserListener(games::add, errors::add);
+    PgnParser parser = new SimplePgnParser(new StringReader(first + "\n" + second));
+    parser.addPgnParserListener(listener);
+
+    parser.parse();
+
+    assertThat(errors, is(empty()));
+    assertThat(listener.getGameCount(), is(2));
+    assertThat(games.get(0).toPgn(), is(gameFromPgn(first).toPgn()));
+    assertThat(games.get(1).toPgn(), is(gameFromPgn(second).toPgn()));
+  }
+
+  @Test
+  void streamsManyGamesFromLazyReader() {
+    int gameCount = 2_000;
+    String game = HEADER + "1.e4 e5 2.Nf3 Nc6 3.Bb5 a6 4.Ba4 Nf6 5.O-O Be7 *\n\n";
+    int[] parsed = new int[1];
+    PgnParser parser = new SimplePgnParser(new RepeatingReader(game, gameCount));
+    parser.addPgnParserListener(new StreamingPgnParserListener(parsedGame -> {
+      assertThat(parsedGame.getHalfMoveCount(), is(10));
+      parsed[0]++;
+    }, error -> {
+      throw new AssertionError(error.toString());
+    }));
+
+    parser.parse();
+
+    assertThat(parsed[0], is(gameCount));
+  }
+
   private static Game gameFromPgn(String pgnString) {
     PgnParser parser = new SimplePgnParser(pgnString);
     ListMaintainingPgnParserListener listener = new ListMaintainingPgnParserListener();
@@ -95,4 +143,37 @@ class PgnParserTest {
     return notation.replace("*", "").replaceAll("\\s", "");
   }
 
+  /**
+   * Serves the same text a number of times without ever holding more than one copy.
+   */
+  private static final class RepeatingReader extends Reader {
+    private final String text;
+    private int remaining;
+    private int position;
+
+    RepeatingReader(String text, int times) {
+      this.text = text;
+      this.remaining = times;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+      if (remaining == 0) {
+        return -1;
+      }
+      int count = Math.min(length, text.length() - position);
+      text.getChars(position, position + count, buffer, offset);
+      position += count;
+      if (position == text.length()) {
+        position = 0;
+        remaining--;
+      }
+      return count;
+    }
+
+    @Override
+    public void close() {
+      remaining = 0;
+    }
+  }
 }
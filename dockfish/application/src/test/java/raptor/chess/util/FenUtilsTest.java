@@ -0,0 +1,84 @@
+package raptor.chess.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import raptor.chess.Game;
+import raptor.chess.GameFactory;
+import raptor.chess.IntMove;
+import raptor.chess.IntMoveList;
+
+class FenUtilsTest {
+  private static final int GAMES_PER_POSITION = 40;
+  private static final int MAX_PLIES = 80;
+
+  @ParameterizedTest
+  @EnumSource(Perft.PerftPosition.class)
+  void roundTripsPositionsOfRandomGames(Perft.PerftPosition start) {
+    SplittableRandom random = new SplittableRandom(start.ordinal());
+    IntMoveList moves = new IntMoveList();
+    for (int i = 0; i < GAMES_PER_POSITION; i++) {
+      Game game = GameFactory.createFromFen(start.fen());
+      for (int ply = 0; ply < MAX_PLIES; ply++) {
+        String fen = game.toFen();
+        Game copy = GameFactory.createFromFen(fen);
+
+        assertThat(fen, copy.toFen(), is(fen));
+        assertThat(fen, copy.getZobristHash(), is(game.getZobristHash()));
+        assertThat(fen, copy.getLegalMoves().getSize(), is(game.getLegalMoves().getSize()));
+
+        moves.clear();
+        game.generateLegalMoves(moves);
+        if (moves.getSize() == 0) {
+          break;
+        }
+        game.forceMove(IntMove.toMove(moves.get(random.nextInt(moves.getSize()))));
+      }
+    }
+  }
+
+  @Test
+  void writesPositionOnly() {
+    assertThat(GameFactory.createFromFen(Perft.PerftPosition.KIWIPETE.fen()).toFenPosition(),
+        is("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R"));
+  }
+
+  @Test
+  void defaultsMissingFields() {
+    Game game = GameFactory.createFromFen("4k3/8/8/8/8/8/8/4K3");
+
+    assertThat(game.toFen(), is("4k3/8/8/8/8/8/8/4K3 w - - 0 1"));
+  }
+
+  @Test
+  void readsCountersWithMoreDigits() {
+    String fen = "4k3/8/8/8/8/8/8/4K3 b - - 99 123";
+
+    assertThat(GameFactory.createFromFen(fen).toFen(), is(fen));
+    assertThat(GameFactory.createFromFen(fen).getHalfMoveCount(), is(245));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "4k3/8/8/8/8/8/8/4X3 w - - 0 1",
+      "4k3/8/8/8/8/8/8/4K3 w - z9 0 1",
+      "4k3/8/8/8/8/8/8/4K3 w - - x 1",
+      "4k3/8/8/8/8/8/8/8/8/4K3 w - - 0 1",
+      "4k3/8/8/8/8/8/8/8 w - - 0 1",
+      "4k3/ppppppppp/8/8/8/8/8/4K3 w - - 0 1",
+      "4k3/4p4/8/8/8/8/8/4K3 w - - 0 1",
+      "4k3/7/8/8/8/8/8/4K3 w - - 0 1",
+      "4k3/8/8/8/8/8/4K3 w - - 0 1",
+      "4k3/8/8/8/8/8/8/4K3/ w - - 0 1",
+      "4k3/8/8/8/8/8/8/4K2 w - - 0 1"
+  })
+  void rejectsInvalidFen(String fen) {
+    assertThrows(IllegalArgumentException.class, () -> GameFactory.createFromFen(fen));
+  }
+}
@@ -0,0 +1,39 @@
+package raptor.chess.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import raptor.chess.Game;
+import raptor.chess.GameFactory;
+
+class PerftTest {
+  private static final long NODE_LIMIT = 1_000_000L;
+
+  @ParameterizedTest
+  @EnumSource(Perft.PerftPosition.class)
+  void countsKnownNodes(Perft.PerftPosition position) {
+    Game game = GameFactory.createFromFen(position.fen());
+
+    for (int depth = 1; depth <= position.maxDepthFor(NODE_LIMIT); depth++) {
+      assertThat(position + " depth " + depth, Perft.perft(game, depth), is(position.nodes(depth)));
+    }
+    assertThat(game.toFen(), is(position.fen()));
+  }
+
+  @ParameterizedTest
+  @EnumSource(Perft.PerftPosition.class)
+  void parallelPerftCountsTheSameNodes(Perft.PerftPosition position) {
+    int depth = position.maxDepthFor(NODE_LIMIT);
+
+    assertThat(Perft.parallelPerft(GameFactory.createFromFen(position.fen()), depth), is(position.nodes(depth)));
+  }
+
+  @Test
+  void depthZeroIsOneNode() {
+    assertThat(Perft.perft(GameFactory.createStartingPosition(), 0), is(1L));
+    assertThat(Perft.parallelPerft(GameFactory.createStartingPosition(), 0), is(1L));
+  }
+}
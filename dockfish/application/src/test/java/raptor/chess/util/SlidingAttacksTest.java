@@ -0,0 +1,34 @@
+package raptor.chess.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import raptor.chess.GameConstants;
+
+class SlidingAttacksTest {
+  private static final int OCCUPANCIES_PER_SQUARE = 2_000;
+
+  @Test
+  void magicLookupMatchesOccludedFill() {
+    SplittableRandom random = new SplittableRandom(42);
+    for (int square = 0; square < 64; square++) {
+      for (int i = 0; i < OCCUPANCIES_PER_SQUARE; i++) {
+        long occupied = random.nextLong() & random.nextLong();
+
+        assertThat("rook " + square, SlidingAttacks.rookAttacks(square, occupied),
+            is(SlidingAttacks.rookAttacksByFill(square, ~occupied)));
+        assertThat("bishop " + square, SlidingAttacks.bishopAttacks(square, occupied),
+            is(SlidingAttacks.bishopAttacksByFill(square, ~occupied)));
+      }
+    }
+  }
+
+  @Test
+  void attacksOnEmptyBoard() {
+    assertThat(Long.bitCount(GameUtils.orthogonalMove(GameConstants.SQUARE_A1, -1L)), is(14));
+    assertThat(Long.bitCount(GameUtils.diagonalMove(GameConstants.SQUARE_A1, -1L)), is(7));
+    assertThat(Long.bitCount(GameUtils.diagonalMove(GameConstants.SQUARE_D4, -1L)), is(13));
+  }
+}
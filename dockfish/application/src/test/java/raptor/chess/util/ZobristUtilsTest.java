@@ -0,0 +1,67 @@
+package raptor.chess.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import raptor.chess.Game;
+import raptor.chess.GameFactory;
+
+class ZobristUtilsTest {
+  private static final long STARTING_POSITION_HASH = -2965251198595080664L;
+
+  @Test
+  void hashIsStableAcrossJvms() {
+    assertThat(GameFactory.createStartingPosition().getZobristHash(), is(STARTING_POSITION_HASH));
+    assertThat(ZobristUtils.ZOBRIST_VERSION, is(1));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "e4 e5 Nf3 Nf6 Bc4 Bc5 O-O O-O Nxe5 d5 Nc6 Nxc6 e5 d4 e6 d3 e7 dxc2 e8=R cxb1=B",
+      "d4 d5 e3 Bf5 f3 Nc6 c3 Qd7 b3 O-O-O",
+      "e4 Nf6 e5 d5 exd6 exd6 Nf3 Be7 Rg1 O-O Rh1 Re8",
+      "a4 h5 a5 b5 axb6 h4 g4 hxg3"
+  })
+  void incrementalHashMatchesRecomputedHashAcrossMovesAndRollbacks(String sanMoves) {
+    Game game = GameFactory.createStartingPosition();
+    Deque<Long> hashesBefore = new ArrayDeque<>();
+
+    for (String san : sanMoves.split(" ")) {
+      hashesBefore.push(game.getZobristHash());
+      game.makeSanMove(san);
+
+      assertThat(san, game.getZobristPositionHash(), is(ZobristUtils.zobristHashPositionOnly(game)));
+      assertThat(san, game.getZobristHash(), is(ZobristUtils.zobristHash(game)));
+      assertThat(san, game.getZobristHash(), is(GameFactory.createFromFen(game.toFen()).getZobristHash()));
+    }
+    while (!hashesBefore.isEmpty()) {
+      game.rollback();
+      assertThat(game.getZobristHash(), is(hashesBefore.pop()));
+    }
+  }
+
+  @Test
+  void hashDistinguishesColorToMoveCastlingAndCapturableEpSquare() {
+    long hash = hashOf("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2");
+
+    assertThat(hashOf("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2"), is(not(hash)));
+    assertThat(hashOf("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq d6 0 2"), is(not(hash)));
+    assertThat(hashOf("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w Qkq d6 0 2"), is(not(hash)));
+  }
+
+  @Test
+  void hashIgnoresEpSquareWithoutCapturingPawn() {
+    assertThat(hashOf("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"),
+        is(hashOf("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1")));
+  }
+
+  private static long hashOf(String fen) {
+    return GameFactory.createFromFen(fen).getZobristHash();
+  }
+}
@@ -9,6 +9,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isA;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -217,6 +218,19 @@ class UCIEngineTest {
           verify(uciInfoListener).engineSentBestMove(any());
         }
 
+        @Test
+        void thenNextGoCanFollowRightAfterBestMove() {
+          verify(uciInfoListener, timeout(1000)).engineSentBestMove(any());
+          UCIInfoListener nextListener = mock(UCIInfoListener.class);
+
+          cut.newGame();
+          cut.setPosition("fen", new UCIMove("e2e4"));
+          cut.go("depth 2", nextListener);
+
+          verify(nextListener, timeout(1000)).engineSentBestMove(any());
+          assertThat(logCaptor.getInfoLogs(), not(hasItem(containsString("Ignoring go call"))));
+        }
+
         @Nested
         class WhenBeingStopped {
 
@@ -0,0 +1,22 @@
+package ce.chess.dockfish.benchmarks;
+
+import ce.chess.dockfish.adapter.out.engine.EngineListener;
+import ce.chess.dockfish.domain.event.EngineInformationReceived;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+
+import jakarta.enterprise.event.Event;
+
+/**
+ * Wires an {@link EngineListener} outside the CDI container.
+ */
+public final class BenchmarkEngineListeners {
+
+  private BenchmarkEngineListeners() {
+  }
+
+  public static EngineListener create(AnalysisRun task, Event<EngineInformationReceived> publisher) {
+    EngineListener engineListener = new EngineListener(publisher);
+    engineListener.assignTo(task);
+    return engineListener;
+  }
+}
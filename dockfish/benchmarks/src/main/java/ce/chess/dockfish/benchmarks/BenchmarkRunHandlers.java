@@ -0,0 +1,53 @@
+package ce.chess.dockfish.benchmarks;
+
+import ce.chess.dockfish.adapter.common.chess.GamePositionService;
+import ce.chess.dockfish.adapter.out.cache.InMemoryEngineInformationRepository;
+import ce.chess.dockfish.adapter.out.cache.InMemoryEvaluationRepository;
+import ce.chess.dockfish.domain.event.DepthReached;
+import ce.chess.dockfish.domain.model.result.JobStatus;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.domain.service.run.EngineInformationReceivedHandler;
+import ce.chess.dockfish.domain.service.run.MemoryPressureHandler;
+import ce.chess.dockfish.domain.service.run.ShortLineReplacer;
+import ce.chess.dockfish.usecase.out.engine.QueryEngine;
+
+import jakarta.enterprise.event.Event;
+import java.util.Optional;
+
+/**
+ * Wires an {@link EngineInformationReceivedHandler} with the in-memory repositories outside the CDI container.
+ */
+public final class BenchmarkRunHandlers {
+
+  private BenchmarkRunHandlers() {
+  }
+
+  public static EngineInformationReceivedHandler engineInformationReceivedHandler(Event<DepthReached> depthPublisher) {
+    InMemoryEngineInformationRepository eventRepository = new InMemoryEngineInformationRepository();
+    InMemoryEvaluationRepository evaluationRepository = new InMemoryEvaluationRepository();
+    MemoryPressureHandler memoryPressureHandler =
+        new MemoryPressureHandler(new IdleEngine(), eventRepository, evaluationRepository);
+    return new EngineInformationReceivedHandler(eventRepository, evaluationRepository, depthPublisher,
+        new ShortLineReplacer(eventRepository), new GamePositionService(), memoryPressureHandler);
+  }
+
+  /**
+   * No engine runs in the benchmarks, so heap pressure has no running task to keep.
+   */
+  private static final class IdleEngine implements QueryEngine {
+    @Override
+    public JobStatus getJobStatus(TaskId taskId) {
+      return JobStatus.NOT_ACTIVE;
+    }
+
+    @Override
+    public boolean uciEngineIsRunning() {
+      return false;
+    }
+
+    @Override
+    public Optional<TaskId> getRunningTaskId() {
+      return Optional.empty();
+    }
+  }
+}
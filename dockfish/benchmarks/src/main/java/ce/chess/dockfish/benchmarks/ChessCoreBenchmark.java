@@ -0,0 +1,79 @@
+package ce.chess.dockfish.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import raptor.chess.Game;
+import raptor.chess.GameFactory;
+import raptor.chess.Move;
+import raptor.chess.PriorityMoveList;
+
+/**
+ * Move generation, move making and serialization of {@link raptor.chess.ClassicGame}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessCoreBenchmark {
+
+  @Param({SampleGames.STARTING_POSITION, SampleGames.MIDDLE_GAME, SampleGames.KIWIPETE, SampleGames.ENDGAME})
+  public String fen;
+
+  private Game game;
+  private Move firstMove;
+  private String firstMoveSan;
+
+  @Setup
+  public void setUp() {
+    game = GameFactory.createFromFen(fen);
+    game.addState(Game.UPDATING_SAN_STATE);
+    firstMove = game.getLegalMoves().asArray()[0];
+    firstMoveSan = game.makeMove(firstMove.getFrom(), firstMove.getTo()).getSan();
+    game.rollback();
+  }
+
+  @Benchmark
+  public Game createFromFen() {
+    return GameFactory.createFromFen(fen);
+  }
+
+  @Benchmark
+  public PriorityMoveList getLegalMoves() {
+    return game.getLegalMoves();
+  }
+
+  @Benchmark
+  public void makeMove(Blackhole blackhole) {
+    blackhole.consume(game.makeMove(firstMove.getFrom(), firstMove.getTo()));
+    game.rollback();
+  }
+
+  @Benchmark
+  public void makeSanMove(Blackhole blackhole) {
+    blackhole.consume(game.makeSanMove(firstMoveSan));
+    game.rollback();
+  }
+
+  @Benchmark
+  public String toFen() {
+    return game.toFen();
+  }
+
+  @Benchmark
+  public String toPgn() {
+    return game.toPgn();
+  }
+}
@@ -0,0 +1,85 @@
+package ce.chess.dockfish.benchmarks;
+
+import ce.chess.dockfish.adapter.common.chess.GamePositionService;
+import ce.chess.dockfish.adapter.out.engine.EngineListener;
+import ce.chess.dockfish.domain.event.EngineInformationReceived;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.TaskId;
+import ce.chess.dockfish.domain.service.run.EngineInformationReceivedHandler;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import raptor.engine.uci.UCIBestMove;
+import raptor.engine.uci.UCIInfo;
+import raptor.engine.uci.UCIInfoListener;
+
+/**
+ * The path of an engine info line from the UCI parser through {@link EngineListener} to the
+ * {@link EngineInformationReceivedHandler}, which stores the information and derives the evaluation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EngineInfoPipelineBenchmark {
+
+  private UciInfoBenchmark.InfoParsingEngine engine;
+  private EngineListener listenerOnly;
+  private EngineListener pipeline;
+  private List<UCIInfo> infos;
+
+  @Setup
+  public void setUp(Blackhole blackhole) {
+    AnalysisRun task = AnalysisRun.builder()
+        .taskId(new TaskId("benchmark"))
+        .engineProgramName("stockfish")
+        .hostname("benchmark")
+        .startingPosition(new GamePositionService().createFromFen(SampleGames.STARTING_POSITION))
+        .initialPv(1)
+        .created(LocalDateTime.now(ZoneId.systemDefault()))
+        .build();
+    EngineInformationReceivedHandler handler =
+        BenchmarkRunHandlers.engineInformationReceivedHandler(new SynchronousEvent<>(blackhole::consume));
+    listenerOnly = BenchmarkEngineListeners.create(task, new SynchronousEvent<>(blackhole::consume));
+    pipeline = BenchmarkEngineListeners.create(task, new SynchronousEvent<EngineInformationReceived>(handler::receive));
+    engine = new UciInfoBenchmark.InfoParsingEngine();
+    engine.parse(SampleGames.INFO_LINE, new CapturingListener());
+  }
+
+  @Benchmark
+  public void engineSentInfo() {
+    listenerOnly.engineSentInfo(infos);
+  }
+
+  @Benchmark
+  public void endToEnd() {
+    engine.parse(SampleGames.INFO_LINE, pipeline);
+  }
+
+  private final class CapturingListener implements UCIInfoListener {
+    @Override
+    public void engineSentBestMove(UCIBestMove bestMove) {
+      // not sent by info lines
+    }
+
+    @Override
+    public void engineSentInfo(List<UCIInfo> uciInfos) {
+      infos = uciInfos;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package ce.chess.dockfish.benchmarks;
+
+import ce.chess.dockfish.adapter.common.chess.GamePositionService;
+import ce.chess.dockfish.adapter.out.engine.EngineListener;
+import ce.chess.dockfish.domain.event.EngineInformationReceived;
+import ce.chess.dockfish.domain.model.task.AnalysisRun;
+import ce.chess.dockfish.domain.model.task.TaskId;
+
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures the heap retained per {@link EngineInformationReceived}, compared to the PGN and line in SAN that an
+ * event held before the lines were stored as packed moves.
+ *
+ * <pre>
+ * java -cp benchmarks.jar ce.chess.dockfish.benchmarks.EventHeapRunner [events]
+ * </pre>
+ *
+ * <p>The events run through the {@link EngineListener} of a task that starts after 18 plies of
+ * {@link SampleGames#LONG_GAME}, each with a line of 24 plies. The default of 10,000 events is the capacity of the
+ * engine information repository. Heap sizes are taken after a full garbage collection, so run it with a fixed heap,
+ * e.g. -Xms256m -Xmx256m.
+ */
+public final class EventHeapRunner {
+
+  private static final int DEFAULT_EVENTS = 10_000;
+  private static final int START_PLIES = 18;
+  private static final int LINE_PLIES = 24;
+  private static final int MULTI_PV = 5;
+
+  private EventHeapRunner() {
+  }
+
+  public static void main(String[] args) {
+    int eventCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EVENTS;
+    GamePositionService gamePositionService = new GamePositionService();
+    AnalysisRun task = AnalysisRun.builder()
+        .taskId(new TaskId("benchmark"))
+        .engineProgramName("stockfish")
+        .hostname("benchmark")
+        .startingPosition(gamePositionService.createFrom(startingGame()))
+        .initialPv(MULTI_PV)
+        .created(LocalDateTime.now(ZoneId.systemDefault()))
+        .build();
+    String line = String.join(" ",
+        Arrays.asList(SampleGames.LONG_PV.split(" ")).subList(START_PLIES, START_PLIES + LINE_PLIES));
+
+    List<EngineInformationReceived> events = new ArrayList<>(eventCount);
+    EngineListener engineListener = BenchmarkEngineListeners.create(task, new SynchronousEvent<>(events::add));
+    UciInfoBenchmark.InfoParsingEngine engine = new UciInfoBenchmark.InfoParsingEngine();
+    long heapBefore = usedHeap();
+    for (int i = 0; i < eventCount; i++) {
+      engine.parse(infoLine(i, line), engineListener);
+    }
+    long eventBytes = usedHeap() - heapBefore;
+
+    List<String> rendered = new ArrayList<>(2 * eventCount);
+    heapBefore = usedHeap();
+    for (EngineInformationReceived event : events) {
+      rendered.add(gamePositionService.createFrom(event.getStartingPosition(), event.getPv(), event.pvComment())
+          .getPgn());
+      rendered.add(gamePositionService.lineSan(event.getStartingPosition(), event.getPv()));
+    }
+    long renderedBytes = usedHeap() - heapBefore;
+
+    System.out.printf(Locale.ROOT, "%,d events, line of %d plies after %d plies%n", events.size(), LINE_PLIES,
+        START_PLIES);
+    System.out.printf(Locale.ROOT, "%-16s %,8d bytes per event%n", "event", eventBytes / eventCount);
+    System.out.printf(Locale.ROOT, "%-16s %,8d bytes per event%n", "pgn and line", renderedBytes / eventCount);
+    System.out.printf(Locale.ROOT, "%-16s %8.1f (event with pgn and line / event)%n", "ratio",
+        (double) (eventBytes + renderedBytes) / Math.max(1L, eventBytes));
+    Reference.reachabilityFence(events);
+    Reference.reachabilityFence(rendered);
+  }
+
+  private static String startingGame() {
+    List<String> moves = Arrays.asList(SampleGames.LONG_GAME.substring(SampleGames.LONG_GAME.indexOf("1. "))
+        .split("\\s+"));
+    StringBuilder game = new StringBuilder();
+    int plies = 0;
+    for (String move : moves) {
+      if (plies == START_PLIES) {
+        break;
+      }
+      game.append(move).append(' ');
+      if (!move.endsWith(".")) {
+        plies++;
+      }
+    }
+    return game.toString().trim();
+  }
+
+  private static String infoLine(int index, String line) {
+    return String.format(Locale.ROOT,
+        "info depth %d seldepth %d multipv %d score cp %d nodes %d nps 1234567 tbhits 0 time %d pv %s",
+        10 + index / 100, 20 + index / 100, 1 + index % MULTI_PV, 35 - index % MULTI_PV * 7, 1000L * index,
+        10L * index, line);
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,67 @@
+package ce.chess.dockfish.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import raptor.chess.GameFactory;
+import raptor.chess.util.Perft;
+
+/**
+ * Runs perft on the standard positions and reports the node counts and nodes per second.
+ *
+ * <pre>
+ * java -cp benchmarks.jar ce.chess.dockfish.benchmarks.PerftRunner [depth] [--parallel]
+ * </pre>
+ *
+ * <p>Without a depth every position is searched to the deepest depth of at most 10 million nodes. Exits with 1 if a
+ * count differs from the known value.
+ */
+public final class PerftRunner {
+
+  private static final long DEFAULT_NODE_LIMIT = 10_000_000L;
+
+  private PerftRunner() {
+  }
+
+  public static void main(String[] args) {
+    List<String> arguments = Arrays.asList(args);
+    boolean parallel = arguments.contains("--parallel");
+    Integer requestedDepth = arguments.stream()
+        .filter(argument -> !argument.startsWith("--"))
+        .findFirst()
+        .map(Integer::valueOf)
+        .orElse(null);
+
+    boolean allMatch = true;
+    long totalNodes = 0L;
+    long totalNanos = 0L;
+    for (Perft.PerftPosition position : Perft.PerftPosition.values()) {
+      int depth = requestedDepth == null
+          ? position.maxDepthFor(DEFAULT_NODE_LIMIT)
+          : Math.min(requestedDepth, position.maxDepth());
+      long start = System.nanoTime();
+      long nodes = parallel
+          ? Perft.parallelPerft(GameFactory.createFromFen(position.fen()), depth)
+          : Perft.perft(GameFactory.createFromFen(position.fen()), depth);
+      long nanos = System.nanoTime() - start;
+      boolean matches = nodes == position.nodes(depth);
+      allMatch &= matches;
+      totalNodes += nodes;
+      totalNanos += nanos;
+      System.out.printf(Locale.ROOT, "%-12s depth %d %,15d nodes %8d ms %,12d nps %s%n",
+          position, depth, nodes, TimeUnit.NANOSECONDS.toMillis(nanos), nodesPerSecond(nodes, nanos),
+          matches ? "ok" : "EXPECTED " + position.nodes(depth));
+    }
+    System.out.printf(Locale.ROOT, "%-12s %,23d nodes %8d ms %,12d nps (%s)%n",
+        "total", totalNodes, TimeUnit.NANOSECONDS.toMillis(totalNanos), nodesPerSecond(totalNodes, totalNanos),
+        parallel ? "parallel" : "single thread");
+    if (!allMatch) {
+      System.exit(1);
+    }
+  }
+
+  private static long nodesPerSecond(long nodes, long nanos) {
+    return nanos == 0 ? 0 : nodes * TimeUnit.SECONDS.toNanos(1) / nanos;
+  }
+}
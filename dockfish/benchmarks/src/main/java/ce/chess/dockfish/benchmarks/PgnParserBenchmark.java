@@ -0,0 +1,65 @@
+package ce.chess.dockfish.benchmarks;
+
+import ce.chess.dockfish.adapter.common.chess.GamePositionService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import raptor.chess.Game;
+import raptor.chess.pgn.ListMaintainingPgnParserListener;
+import raptor.chess.pgn.SimplePgnParser;
+
+/**
+ * Parsing of PGN, both raw through {@link SimplePgnParser} and as done for every evaluation through
+ * {@link GamePositionService#raptorGameFor(String)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PgnParserBenchmark {
+
+  @Param({"short", "long"})
+  public String length;
+
+  private final GamePositionService gamePositionService = new GamePositionService();
+  private String pgn;
+  private Game parsedGame;
+
+  @Setup
+  public void setUp() {
+    pgn = "short".equals(length) ? SampleGames.SHORT_GAME : SampleGames.LONG_GAME;
+    parsedGame = gamePositionService.raptorGameFor(pgn);
+  }
+
+  @Benchmark
+  public List<Game> parse() {
+    SimplePgnParser parser = new SimplePgnParser(pgn);
+    ListMaintainingPgnParserListener listener = new ListMaintainingPgnParserListener();
+    parser.addPgnParserListener(listener);
+    parser.parse();
+    return listener.getGames();
+  }
+
+  @Benchmark
+  public Game raptorGameFor() {
+    return gamePositionService.raptorGameFor(pgn);
+  }
+
+  @Benchmark
+  public String toPgn() {
+    return parsedGame.toPgn();
+  }
+}
@@ -0,0 +1,50 @@
+package ce.chess.dockfish.benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import raptor.chess.pgn.SimplePgnParser;
+import raptor.chess.pgn.StreamingPgnParserListener;
+
+/**
+ * Throughput in games per second of streaming a multi-game PGN of {@link SampleGames#LONG_GAME} through
+ * {@link SimplePgnParser} with a {@link StreamingPgnParserListener}, which keeps none of the games.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+@State(Scope.Thread)
+public class PgnStreamingBenchmark {
+
+  private static final int GAMES = 100;
+
+  private String pgn;
+
+  @Setup
+  public void setUp() {
+    pgn = (SampleGames.LONG_GAME + "\n").repeat(GAMES);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(GAMES)
+  public int streamGames(Blackhole blackhole) {
+    StreamingPgnParserListener listener = new StreamingPgnParserListener(blackhole::consume, blackhole::consume);
+    SimplePgnParser parser = new SimplePgnParser(new StringReader(pgn));
+    parser.addPgnParserListener(listener);
+    parser.parse();
+    return listener.getGameCount();
+  }
+}
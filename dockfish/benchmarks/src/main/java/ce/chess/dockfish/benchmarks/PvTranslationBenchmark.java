@@ -0,0 +1,92 @@
+package ce.chess.dockfish.benchmarks;
+
+import ce.chess.dockfish.adapter.common.chess.GamePositionService;
+import ce.chess.dockfish.domain.model.result.GamePosition;
+import ce.chess.dockfish.domain.model.result.PackedMoves;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import raptor.chess.Game;
+import raptor.chess.GameFactory;
+import raptor.chess.util.GameUtils;
+
+/**
+ * Translation of the UCI principal variation of {@link SampleGames#INFO_LINE} into moves, by looking each move up
+ * in the generated legal moves and by validating only the move itself, and rendering of short and long
+ * ({@link SampleGames#LONG_PV}) principal variations as SAN lines.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PvTranslationBenchmark {
+
+  private final GamePositionService gamePositionService = new GamePositionService();
+
+  private GamePosition startingPosition;
+  private PackedMoves pv;
+  private PackedMoves longPv;
+  private Game game;
+
+  @Setup
+  public void setUp() {
+    startingPosition = gamePositionService.createFromFen(SampleGames.STARTING_POSITION);
+    pv = packMoves(SampleGames.INFO_LINE.substring(SampleGames.INFO_LINE.indexOf(" pv ") + 4));
+    longPv = packMoves(SampleGames.LONG_PV);
+    game = GameFactory.createFromFen(SampleGames.STARTING_POSITION);
+    game.addState(Game.UPDATING_SAN_STATE);
+  }
+
+  @Benchmark
+  public String lineSan() {
+    return gamePositionService.lineSan(startingPosition, pv);
+  }
+
+  @Benchmark
+  public String lineSanLongPv() {
+    return gamePositionService.lineSan(startingPosition, longPv);
+  }
+
+  @Benchmark
+  public void makeMoveFromLegalMoves(Blackhole blackhole) {
+    for (int i = 0; i < pv.size(); i++) {
+      blackhole.consume(game.makeMove(pv.fromSquare(i), pv.toSquare(i)));
+    }
+    rollback();
+  }
+
+  @Benchmark
+  public void makeUciMove(Blackhole blackhole) {
+    for (int i = 0; i < pv.size(); i++) {
+      blackhole.consume(game.makeUciMove(pv.fromSquare(i), pv.toSquare(i), pv.promotedPiece(i)));
+    }
+    rollback();
+  }
+
+  private static PackedMoves packMoves(String line) {
+    String[] uciMoves = line.split(" ");
+    short[] moves = new short[uciMoves.length];
+    for (int i = 0; i < uciMoves.length; i++) {
+      moves[i] = PackedMoves.encode(GameUtils.getSquare(uciMoves[i].substring(0, 2)),
+          GameUtils.getSquare(uciMoves[i].substring(2, 4)), 0);
+    }
+    return PackedMoves.of(moves);
+  }
+
+  private void rollback() {
+    for (int i = 0; i < pv.size(); i++) {
+      game.rollback();
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package ce.chess.dockfish.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import raptor.chess.util.GameUtils;
+
+/**
+ * Rook and bishop attacks of {@link GameUtils#orthogonalMove} and {@link GameUtils#diagonalMove}, which look them up
+ * in magic bitboard tables, compared to the occluded fills they replaced. Each invocation covers the same random
+ * squares and occupancies, about a third of the board occupied, as in a middle game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SlidingAttacksBenchmark {
+
+  private static final int POSITIONS = 1024;
+
+  private final int[] squares = new int[POSITIONS];
+  private final long[] emptySquares = new long[POSITIONS];
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < POSITIONS; i++) {
+      squares[i] = random.nextInt(64);
+      emptySquares[i] = ~(random.nextLong() & random.nextLong()) | GameUtils.getBitboard(squares[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POSITIONS)
+  public long orthogonalMove() {
+    long result = 0L;
+    for (int i = 0; i < POSITIONS; i++) {
+      result ^= GameUtils.orthogonalMove(squares[i], emptySquares[i]);
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POSITIONS)
+  public long orthogonalMoveByFill() {
+    long result = 0L;
+    for (int i = 0; i < POSITIONS; i++) {
+      result ^= rookAttacksByFill(squares[i], emptySquares[i]);
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POSITIONS)
+  public long diagonalMove() {
+    long result = 0L;
+    for (int i = 0; i < POSITIONS; i++) {
+      result ^= GameUtils.diagonalMove(squares[i], emptySquares[i]);
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POSITIONS)
+  public long diagonalMoveByFill() {
+    long result = 0L;
+    for (int i = 0; i < POSITIONS; i++) {
+      result ^= bishopAttacksByFill(squares[i], emptySquares[i]);
+    }
+    return result;
+  }
+
+  private static long rookAttacksByFill(int square, long emptySquares) {
+    long seed = GameUtils.getBitboard(square);
+    return GameUtils.shiftRight(GameUtils.fillRightOccluded(seed, emptySquares))
+        | GameUtils.shiftLeft(GameUtils.fillLeftOccluded(seed, emptySquares))
+        | GameUtils.shiftUp(GameUtils.fillUpOccluded(seed, emptySquares))
+        | GameUtils.shiftDown(GameUtils.fillDownOccluded(seed, emptySquares));
+  }
+
+  private static long bishopAttacksByFill(int square, long emptySquares) {
+    long seed = GameUtils.getBitboard(square);
+    return GameUtils.shiftUpRight(GameUtils.fillUpRightOccluded(seed, emptySquares))
+        | GameUtils.shiftUpLeft(GameUtils.fillUpLeftOccluded(seed, emptySquares))
+        | GameUtils.shiftDownLeft(GameUtils.fillDownLeftOccluded(seed, emptySquares))
+        | GameUtils.shiftDownRight(GameUtils.fillDownRightfccluded(seed, emptySquares));
+  }
+}
@@ -0,0 +1,50 @@
+package ce.chess.dockfish.benchmarks;
+
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.NotificationOptions;
+import jakarta.enterprise.util.TypeLiteral;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * Delivers fired events synchronously to a single observer, replacing the CDI event bus outside the container.
+ */
+public final class SynchronousEvent<T> implements Event<T> {
+
+  private final Consumer<? super T> observer;
+
+  public SynchronousEvent(Consumer<? super T> observer) {
+    this.observer = observer;
+  }
+
+  @Override
+  public void fire(T event) {
+    observer.accept(event);
+  }
+
+  @Override
+  public <U extends T> CompletionStage<U> fireAsync(U event) {
+    throw new UnsupportedOperationException("fireAsync");
+  }
+
+  @Override
+  public <U extends T> CompletionStage<U> fireAsync(U event, NotificationOptions options) {
+    throw new UnsupportedOperationException("fireAsync");
+  }
+
+  @Override
+  public Event<T> select(Annotation... qualifiers) {
+    throw new UnsupportedOperationException("select");
+  }
+
+  @Override
+  public <U extends T> Event<U> select(Class<U> subtype, Annotation... qualifiers) {
+    throw new UnsupportedOperationException("select");
+  }
+
+  @Override
+  public <U extends T> Event<U> select(TypeLiteral<U> subtype, Annotation... qualifiers) {
+    throw new UnsupportedOperationException("select");
+  }
+}
@@ -0,0 +1,70 @@
+package ce.chess.dockfish.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import raptor.engine.uci.UCIBestMove;
+import raptor.engine.uci.UCIEngine;
+import raptor.engine.uci.UCIInfo;
+import raptor.engine.uci.UCIInfoListener;
+
+/**
+ * Tokenizing of a single UCI info line into {@link UCIInfo}s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UciInfoBenchmark {
+
+  private InfoParsingEngine engine;
+  private UCIInfoListener listener;
+
+  @Setup
+  public void setUp(Blackhole blackhole) {
+    engine = new InfoParsingEngine();
+    listener = new UCIInfoListener() {
+      @Override
+      public void engineSentBestMove(UCIBestMove bestMove) {
+        blackhole.consume(bestMove);
+      }
+
+      @Override
+      public void engineSentInfo(List<UCIInfo> infos) {
+        blackhole.consume(infos);
+      }
+    };
+  }
+
+  @Benchmark
+  public void parseInfoLine() {
+    engine.parse(SampleGames.INFO_LINE, listener);
+  }
+
+  /**
+   * Parses info lines as if a go command was running, without an engine process.
+   */
+  static final class InfoParsingEngine extends UCIEngine {
+
+    @Override
+    public boolean isProcessingGo() {
+      return true;
+    }
+
+    void parse(String infoLine, UCIInfoListener listener) {
+      parseInfoLine(infoLine, listener);
+    }
+  }
+}
@@ -1,7 +1,9 @@
 package ce.chess.metrics;
 
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import io.micrometer.prometheus.PrometheusMeterRegistry;
 import io.quarkus.micrometer.runtime.MeterFilterConstraint;
 import jakarta.enterprise.inject.Produces;
@@ -21,4 +23,21 @@ public class MetricsCustomizer {
   public MeterFilter configurePrometheusRegistries() {
     return MeterFilter.commonTags(List.of(Tag.of("application", applicationName)));
   }
+
+  @Produces
+  @Singleton
+  public MeterFilter configureStaticEvaluationPercentiles() {
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+        if (id.getName().startsWith("static_evaluation_duration")) {
+          return DistributionStatisticConfig.builder()
+              .percentiles(0.5, 0.95, 0.99)
+              .build()
+              .merge(config);
+        }
+        return config;
+      }
+    };
+  }
 }